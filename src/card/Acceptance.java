@@ -0,0 +1,73 @@
+package card;
+
+/**
+ * The result of asking a stack whether it can take some cards, and if not,
+ * why. Stacks that have rules, such as {@link Foundation}s, {@link Tableau}x
+ * and {@link HoldingCell}s, answer with an <code>Acceptance</code> before
+ * anything is moved, so that a rejected move costs no exception. The methods
+ * that add cards still throw an {@link IllegalArgumentException} with the
+ * message of the reason when they are given cards that are not accepted.
+ *
+ * @author Warren Godone-Maresca
+ */
+public enum Acceptance {
+	/** The cards can be added.												*/
+	ACCEPTED("The cards can be added."),
+
+	/** No cards were given.												*/
+	NO_CARDS("There are no cards to add."),
+
+	/** More cards were given than the stack can take at once.				*/
+	TOO_MANY_CARDS("The stack cannot take that many cards."),
+
+	/** The stack is empty and the card cannot be its first card.			*/
+	WRONG_FIRST_CARD("The card cannot start the stack."),
+
+	/** The value of the card does not follow that of the top card.			*/
+	OUT_OF_SEQUENCE("The card is not in sequence with the top card."),
+
+	/** The card is not of the suit of the top card.						*/
+	WRONG_SUIT("The card is not of the suit of the top card."),
+
+	/** The card is of the color of the top card.							*/
+	SAME_COLOR("The card is of the same color as the top card."),
+
+	/** Another stack has already been started with the suit of the card.	*/
+	SUIT_IN_USE("The suit of the card is already in use.");
+
+	/** Describes the result.												*/
+	private final String message;
+
+	/**
+	 * Instantiates a result with its description.
+	 */
+	private Acceptance(String message){
+		this.message = message;
+	}
+
+	/**
+	 * Returns whether or not the cards can be added.
+	 */
+	public boolean isAccepted(){
+		return this == ACCEPTED;
+	}
+
+	/**
+	 * Returns a description of the result.
+	 */
+	public String getMessage(){
+		return message;
+	}
+
+	/**
+	 * Throws an exception if the cards are not accepted, for the methods that
+	 * add cards only after checking them.
+	 * @throws IllegalArgumentException with the message of this result if it
+	 * 			is not {@link #ACCEPTED}.
+	 */
+	void check(){
+		if(this != ACCEPTED){
+			throw new IllegalArgumentException(message);
+		}
+	}
+}
@@ -2,6 +2,7 @@ package card;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.geom.RoundRectangle2D;
 
@@ -17,6 +18,9 @@ import java.awt.geom.RoundRectangle2D;
  * @author Warren Godone-Maresca
  */
 public class Card implements Comparable<Card> {
+	/** The color of the backs of cards.									*/
+	private static final Color BACK_COLOR = new Color(0, 0, 150);
+
 	/** The suit of the card.												*/
 	private final Suit SUIT;
 
@@ -39,6 +43,10 @@ public class Card implements Comparable<Card> {
 	/** The card's width and height.										*/
 	private int width, height;
 
+	/** The pre-drawn images of cards of this card's width, or
+	 *  <code>null</code> until it is first drawn at that width.			*/
+	private CardSprites sprites;
+
 	/**
 	 * Instantiates the card to be the ace of spades at the origin with no
 	 * dimensions and not hidden.
@@ -99,6 +107,13 @@ public class Card implements Comparable<Card> {
 		return VALUE;
 	}
 
+	/**
+	 * Returns the compact code of this card (see {@link Cards}).
+	 */
+	public byte code(){
+		return Cards.code(SUIT, VALUE);
+	}
+
 	/**
 	 * Flips the orientation of the card. If the card was hidden before calling
 	 * this method, it won't be afterwards. And if it was not hidden, then it
@@ -171,6 +186,9 @@ public class Card implements Comparable<Card> {
 	 * @param width The width of the card in px.
 	 */
 	public void setSize(int width){
+		if(width != this.width){
+			sprites = null; //The sprites of the old width no longer fit.
+		}
 		this.width = width;
 		height = width * 3/2;
 	}
@@ -180,7 +198,7 @@ public class Card implements Comparable<Card> {
 	 */
 	private void drawBack(Graphics pane){
 		//Draws the blue center,
-		pane.setColor(new Color(0, 0, 150));
+		pane.setColor(BACK_COLOR);
 		pane.fillRoundRect(x - width/2 + width/20, y - height/2 + height/20, 
 				width*9/10, height*9/10, width/10, height/10);
 	}
@@ -206,9 +224,26 @@ public class Card implements Comparable<Card> {
 
 	/**
 	 * Draws the front of the card with the suit and value if it is not hidden,
-	 * otherwise the back of the card will be drawn.
+	 * otherwise the back of the card will be drawn. The card is copied from
+	 * the {@link CardSprites} of its width.
 	 */
 	public void draw(Graphics pane){
+		if(!pane.hitClip(x - width/2, y - height/2, width + 1, height + 1)){
+			return; //The card is outside of the area being painted.
+		} else if(width <= 0){
+			render(pane); //There is nothing to pre-draw.
+			return;
+		}
+		if(sprites == null){
+			sprites = CardSprites.forWidth(width);
+		}
+		sprites.draw(pane, this);
+	}
+
+	/**
+	 * Draws the card from scratch, as {@link #draw(Graphics)} would.
+	 */
+	void render(Graphics pane){
 		//Draws the shape of the card.
 		pane.setColor(Color.WHITE);
 		pane.fillRoundRect(x - width/2, y - height/2, 
@@ -255,7 +290,48 @@ public class Card implements Comparable<Card> {
 	 * otherwise <code>false</code>.
 	 */
 	public boolean contains(int x, int y){
-		return getShape().contains(x, y);
+		return roundRectContains(this.x - width/2, this.y - height/2,
+				width, height, width/10, x, y);
+	}
+
+	/**
+	 * Returns whether or not a point is inside a rectangle with rounded
+	 * corners, exactly as {@link RoundRectangle2D#contains(double, double)}
+	 * would, but without instantiating the shape. Mouse events test many
+	 * cards, so none of them allocates.
+	 * @param left	 The x coordinate of the left side.
+	 * @param top	 The y coordinate of the top side.
+	 * @param width	 The width of the rectangle.
+	 * @param height The height of the rectangle.
+	 * @param arc	 The width and height of the arcs of the corners.
+	 * @param x		 The point's x coordinate.
+	 * @param y		 The point's y coordinate.
+	 */
+	static boolean roundRectContains(int left, int top, int width, int height,
+			int arc, int x, int y){
+		if(width <= 0 || height <= 0 || x < left || y < top
+				|| x >= left + width || y >= top + height){
+			return false; //Outside of the rectangle.
+		}
+		double arcWidth = Math.min(width, Math.abs(arc)) / 2.0;
+		double arcHeight = Math.min(height, Math.abs(arc)) / 2.0;
+		double cornerX, cornerY; //The center of the nearest corner's arc.
+		if(x >= left + arcWidth && x < left + width - arcWidth){
+			return true; //Between the arcs, horizontally.
+		} else if(x < left + arcWidth){
+			cornerX = left + arcWidth;
+		} else {
+			cornerX = left + width - arcWidth;
+		}
+		if(y >= top + arcHeight && y < top + height - arcHeight){
+			return true; //Between the arcs, vertically.
+		} else if(y < top + arcHeight){
+			cornerY = top + arcHeight;
+		} else {
+			cornerY = top + height - arcHeight;
+		}
+		double dx = (x - cornerX) / arcWidth, dy = (y - cornerY) / arcHeight;
+		return dx*dx + dy*dy <= 1.0;
 	}
 
 	/**
@@ -268,6 +344,13 @@ public class Card implements Comparable<Card> {
 				width, height, width/10, width/10);
 	}
 
+	/**
+	 * Returns the area in which the card is drawn, including its outline.
+	 */
+	public Rectangle getBounds(){
+		return new Rectangle(x - width/2, y - height/2, width + 1, height + 1);
+	}
+
 	/**
 	 * Compares this card with some other card. Per the specifications, a negative
 	 * integer, zero, or a positive integer will be returned if this card is less
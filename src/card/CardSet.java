@@ -0,0 +1,112 @@
+package card;
+
+/**
+ * Operations on sets of cards held as bitboards. A set is a <code>long</code>
+ * whose bit <code>c</code> is set if the card with code <code>c</code> (see
+ * {@link Cards}) is in the set, so a set of any cards of one deck takes 8 bytes
+ * and union, intersection and membership each take a single operation.
+ * <p>
+ * A set can be walked from its lowest card with:
+ * <pre>
+ * for(long rest = set; rest != 0; rest &amp;= rest - 1){
+ *     int code = CardSet.first(rest);
+ * }
+ * </pre>
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class CardSet {
+	/** The set with no cards.												*/
+	public static final long EMPTY = 0L;
+
+	/** The set of all 52 cards.												*/
+	public static final long DECK = (1L << Cards.DECK_SIZE) - 1;
+
+	/** Sets are only represented by longs, so no instance is needed.		*/
+	private CardSet(){}
+
+	/**
+	 * Returns the set that holds only the given card.
+	 */
+	public static long of(int code){
+		return 1L << code;
+	}
+
+	/**
+	 * Returns the set that holds the given cards.
+	 */
+	public static long of(int... codes){
+		long set = EMPTY;
+		for(int code : codes){
+			set |= 1L << code;
+		}
+		return set;
+	}
+
+	/**
+	 * Returns the set of the 13 cards of the given suit ordinal.
+	 */
+	public static long ofSuit(int suit){
+		return 0x1FFFL << (suit*13);
+	}
+
+	/**
+	 * Returns the set of the 4 cards with the given value.
+	 */
+	public static long ofValue(int value){
+		long set = EMPTY;
+		for(int suit = 0; suit < 4; suit++){
+			set |= 1L << Cards.code(suit, value);
+		}
+		return set;
+	}
+
+	/**
+	 * Returns the given set with the given card added.
+	 */
+	public static long add(long set, int code){
+		return set | (1L << code);
+	}
+
+	/**
+	 * Returns the given set without the given card.
+	 */
+	public static long remove(long set, int code){
+		return set & ~(1L << code);
+	}
+
+	/**
+	 * Determines whether the given set holds the given card.
+	 */
+	public static boolean contains(long set, int code){
+		return (set & (1L << code)) != 0;
+	}
+
+	/**
+	 * Returns the number of cards in the given set.
+	 */
+	public static int size(long set){
+		return Long.bitCount(set);
+	}
+
+	/**
+	 * Returns the lowest code in the given set, or 64 if the set is empty.
+	 */
+	public static int first(long set){
+		return Long.numberOfTrailingZeros(set);
+	}
+
+	/**
+	 * Returns the cards of the given set as a String such as "{AS, QH}".
+	 */
+	public static String toString(long set){
+		StringBuilder builder = new StringBuilder("{");
+		for(long rest = set; rest != 0; rest &= rest - 1){
+			if(builder.length() > 1){
+				builder.append(", ");
+			}
+			builder.append(Cards.toString(first(rest)));
+		}
+		return builder.append('}').toString();
+	}
+}
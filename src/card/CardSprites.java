@@ -0,0 +1,135 @@
+package card;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds pre-drawn images of cards of one width. The first time a card is
+ * drawn with a given face (or its back) and outline, it is drawn once into an
+ * image that is compatible with the screen, and from then on that image is
+ * copied instead, which saves the fonts, scaled suit symbols and shapes of
+ * {@link Card#render(Graphics)}.
+ * <p>
+ * The sprites of the last few widths that were used are kept. A card asks for
+ * the sprites of its new width whenever its size changes, so the images of a
+ * width that is no longer used are soon dropped. These methods are meant to
+ * be called from the event dispatch thread, but are synchronized so that
+ * cards may also be drawn off screen.
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class CardSprites {
+	/** The number of widths whose sprites are kept.							*/
+	private static final int CACHED_WIDTHS = 4;
+
+	/** The sprites of the widths that were used last, from least recently
+	 *  used to most.															*/
+	private static final Map<Integer, CardSprites> SHEETS =
+			new LinkedHashMap<Integer, CardSprites>(8, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, CardSprites> eldest){
+			return size() > CACHED_WIDTHS;
+		}
+	};
+
+	/** The width and height of the cards.									*/
+	private final int width, height;
+
+	/** The faces of the cards by code, each first not highlighted and then
+	 *  highlighted. An image is <code>null</code> until it is first drawn.	*/
+	private final Image[] faces = new Image[Cards.DECK_SIZE * 2];
+
+	/** The back of a card, not highlighted and then highlighted.				*/
+	private final Image[] backs = new Image[2];
+
+	/**
+	 * Instantiates empty sprites for cards of the given width.
+	 */
+	private CardSprites(int width){
+		this.width = width;
+		height = width * 3/2;
+	}
+
+	/**
+	 * Returns the sprites of cards of the given width.
+	 * @throws IllegalArgumentException if <code>width</code> is not positive.
+	 */
+	public static synchronized CardSprites forWidth(int width){
+		if(width <= 0){
+			throw new IllegalArgumentException("Width must be positive: " + width);
+		}
+		CardSprites sprites = SHEETS.get(width);
+		if(sprites == null){
+			sprites = new CardSprites(width);
+			SHEETS.put(width, sprites);
+		}
+		return sprites;
+	}
+
+	/**
+	 * Drops all the sprites, for example if the screen that they were made for
+	 * has changed. Cards that already hold sprites keep them until their size
+	 * changes.
+	 */
+	public static synchronized void invalidate(){
+		SHEETS.clear();
+	}
+
+	/**
+	 * Draws the given card, which must be of this width, where it is located.
+	 */
+	public void draw(Graphics pane, Card card){
+		int outline = card.isHighlighted() ? 1 : 0;
+		Image sprite;
+		synchronized(CardSprites.class){
+			if(card.isHidden()){
+				sprite = backs[outline];
+				if(sprite == null){
+					sprite = backs[outline] = render(pane, card);
+				}
+			} else {
+				int index = card.code() * 2 + outline;
+				sprite = faces[index];
+				if(sprite == null){
+					sprite = faces[index] = render(pane, card);
+				}
+			}
+		}
+		pane.drawImage(sprite, card.getX() - width/2, card.getY() - height/2, null);
+	}
+
+	/**
+	 * Returns a new image of the given card drawn as it would be on the given
+	 * pane, with the card's top left corner at the image's origin.
+	 */
+	private Image render(Graphics pane, Card card){
+		//One more pixel each way since the outline is drawn on the last pixels.
+		Image image;
+		if(pane instanceof Graphics2D){
+			GraphicsConfiguration config = ((Graphics2D) pane).getDeviceConfiguration();
+			image = config.createCompatibleImage(width + 1, height + 1,
+					Transparency.TRANSLUCENT);
+		} else {
+			image = new BufferedImage(width + 1, height + 1,
+					BufferedImage.TYPE_INT_ARGB);
+		}
+
+		Card model = new Card(card.getSuit(), card.getValue(), width/2, height/2,
+				width, card.isHidden());
+		model.setHighlighted(card.isHighlighted());
+		Graphics sprite = image.getGraphics();
+		try {
+			model.render(sprite);
+		} finally {
+			sprite.dispose();
+		}
+		return image;
+	}
+}
@@ -0,0 +1,158 @@
+package card;
+
+/**
+ * A compact encoding of playing cards for use where {@link Card} objects are too
+ * heavy, such as when a game is searched or simulated. A card is held as a code
+ * between 0 and 51: <code>suit*13 + value - 1</code>, where the suit is the
+ * ordinal of its {@link Suit} and the value is between 1 (Ace) and 13 (King).
+ * A code fits in a byte and a set of codes fits in the 52 low bits of a
+ * <code>long</code> (see {@link CardSet}).
+ * <p>
+ * The rules of which card may be put on which are precomputed as a
+ * {@link CardSet} for each card, so that a rule is checked with a single AND:
+ * <ul>
+ * <li>{@link #alternatingBelow(int)}: one less in value and of the other color,
+ * 		as in the tableaux of Klondike.
+ * <li>{@link #sequenceBelow(int)}: one less in value of any suit.
+ * <li>{@link #foundationNext(int)}: one more in value of the same suit.
+ * <li>{@link #pairsWith(int)}: the values add up to 13, as in Pyramid.
+ * <li>{@link #doubleOf(int)}: twice the value, or twice the value less 13, as
+ * 		in Argos.
+ * </ul>
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class Cards {
+	/** The number of cards in a deck, and so the number of codes.			*/
+	public static final int DECK_SIZE = 52;
+
+	/** The value of each code.												*/
+	private static final byte[] VALUES = new byte[DECK_SIZE];
+
+	/** The suit ordinal of each code.										*/
+	private static final byte[] SUITS = new byte[DECK_SIZE];
+
+	/** The precomputed sets of each rule, indexed by code.					*/
+	private static final long[] ALTERNATING_BELOW = new long[DECK_SIZE],
+			SEQUENCE_BELOW = new long[DECK_SIZE], FOUNDATION_NEXT = new long[DECK_SIZE],
+			PAIRS_WITH = new long[DECK_SIZE], DOUBLE_OF = new long[DECK_SIZE];
+
+	static {
+		for(int code = 0; code < DECK_SIZE; code++){
+			VALUES[code] = (byte) (code % 13 + 1);
+			SUITS[code] = (byte) (code / 13);
+		}
+		for(int lower = 0; lower < DECK_SIZE; lower++){
+			for(int upper = 0; upper < DECK_SIZE; upper++){
+				long bit = CardSet.of(upper);
+				int lowerValue = VALUES[lower], upperValue = VALUES[upper];
+
+				if(upperValue == lowerValue - 1){
+					SEQUENCE_BELOW[lower] |= bit;
+					if(isRed(lower) != isRed(upper))
+						ALTERNATING_BELOW[lower] |= bit;
+				}
+				if(upperValue == lowerValue + 1 && SUITS[upper] == SUITS[lower])
+					FOUNDATION_NEXT[lower] |= bit;
+				if(upperValue + lowerValue == 13)
+					PAIRS_WITH[lower] |= bit;
+				if(upperValue == 2*lowerValue || upperValue == 2*lowerValue - 13)
+					DOUBLE_OF[lower] |= bit;
+			}
+		}
+	}
+
+	/** Cards are only represented by codes, so no instance is needed.		*/
+	private Cards(){}
+
+	/**
+	 * Returns the code of the card with the given suit and value.
+	 * @param suit	The card's suit.
+	 * @param value	The card's value between 1 and 13 inclusive.
+	 */
+	public static byte code(Suit suit, int value){
+		return code(suit.ordinal(), value);
+	}
+
+	/**
+	 * Returns the code of the card with the given suit ordinal and value.
+	 */
+	public static byte code(int suit, int value){
+		return (byte) (suit*13 + value - 1);
+	}
+
+	/**
+	 * Returns the value of the card with the given code, between 1 and 13.
+	 */
+	public static int value(int code){
+		return VALUES[code];
+	}
+
+	/**
+	 * Returns the ordinal of the {@link Suit} of the card with the given code.
+	 */
+	public static int suit(int code){
+		return SUITS[code];
+	}
+
+	/**
+	 * Returns the {@link Suit} of the card with the given code.
+	 */
+	public static Suit getSuit(int code){
+		return Suit.values()[SUITS[code]];
+	}
+
+	/**
+	 * Determines whether the card with the given code is a heart or diamond.
+	 */
+	public static boolean isRed(int code){
+		int suit = SUITS[code];
+		return suit == 1 || suit == 2; //Hearts and diamonds.
+	}
+
+	/**
+	 * Returns the set of cards that are one less in value than the given card
+	 * and of the other color.
+	 */
+	public static long alternatingBelow(int code){
+		return ALTERNATING_BELOW[code];
+	}
+
+	/**
+	 * Returns the set of cards that are one less in value than the given card.
+	 */
+	public static long sequenceBelow(int code){
+		return SEQUENCE_BELOW[code];
+	}
+
+	/**
+	 * Returns the set holding the card of the same suit as the given card with a
+	 * value one more. It is empty for a King.
+	 */
+	public static long foundationNext(int code){
+		return FOUNDATION_NEXT[code];
+	}
+
+	/**
+	 * Returns the set of cards whose value added to the given card's is 13.
+	 */
+	public static long pairsWith(int code){
+		return PAIRS_WITH[code];
+	}
+
+	/**
+	 * Returns the set of cards whose value is twice the given card's, or twice
+	 * less 13.
+	 */
+	public static long doubleOf(int code){
+		return DOUBLE_OF[code];
+	}
+
+	/**
+	 * Returns a short name of the card with the given code such as "QH".
+	 */
+	public static String toString(int code){
+		return "A23456789TJQK".charAt(VALUES[code] - 1) + ""
+				+ "SHDC".charAt(SUITS[code]);
+	}
+}
@@ -1,8 +1,8 @@
 package card;
 
-import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.List;
+import java.util.EnumSet;
+
+import dataStructures.Stack;
 
 /**
  * A foundation is a {@link StackOfCards} in which all cards must be of the same
@@ -12,15 +12,12 @@ import java.util.List;
  */
 public class Foundation extends StackOfCards
 {
-	/** int for keeping track of value for year for Anno Domini game*/
+	/** The digit of the year that starts this foundation in Anno Domini.	*/
 	private int digit;
 
-	/** char array that stores digits of the current year*/
-	String yearNum = String.valueOf(Calendar.getInstance().get(Calendar.YEAR));
-	char[] yearArray = yearNum.toCharArray();
-
-	/** Array that stores all suites*/
-	public static List<String> suitsUsed = new ArrayList();
+	/** The suits that start foundations in Anno Domini, which is shared by
+	 *  the foundations of one game.										*/
+	private EnumSet<Suit> suitsUsed;
 
 	/**
 	 * Instantiates an empty <code>Foundation</code> where all cards will have
@@ -39,26 +36,39 @@ public class Foundation extends StackOfCards
 	 * @param y			The y coordinate for the center of the card on the
 	 * 					bottom of the stack.
 	 * @param cardWidth	The width of each card in the stack.
+	 * @param digit		The digit of the year that starts this foundation in
+	 * 					Anno Domini, from 0 to 9.
 	 */
-
-	public static void SuitClear()
-	{
-		suitsUsed.clear();
+	public Foundation(int x, int y, int cardWidth, int digit){
+		this(x, y, cardWidth, digit, EnumSet.noneOf(Suit.class));
 	}
 
-	public Foundation(int x, int y, int cardWidth, int digit){
+	/**
+	 * Instantiates an empty foundation of a game of Anno Domini, whose suit
+	 * may not be that of the other foundations of the game.
+	 *
+	 * @param x			The x coordinate for the center of the card on the
+	 * 					bottom of the stack.
+	 * @param y			The y coordinate for the center of the card on the
+	 * 					bottom of the stack.
+	 * @param cardWidth	The width of each card in the stack.
+	 * @param digit		The digit of the year that starts this foundation,
+	 * 					from 0 to 9.
+	 * @param suitsUsed	The suits of the foundations of the game that have
+	 * 					been started. The same set must be given to each of
+	 * 					them, and it should be empty for a new game.
+	 * @throws IllegalArgumentException if <code>digit</code> is not a digit.
+	 */
+	public Foundation(int x, int y, int cardWidth, int digit,
+			EnumSet<Suit> suitsUsed){
 		super(x, y, cardWidth, 0, 0);
+		if(digit < 0 || digit > 9){
+			throw new IllegalArgumentException("The digit must be from 0 to 9.");
+		}
 		this.digit = digit;
+		this.suitsUsed = suitsUsed;
 	}
 
-	/**
-	 * Adds a card to the top of the stack. If this stack was previously empty,
-	 * then <code>card</code> must be an ace (have a value of 1), otherwise
-	 * <code>card</code> must be 1 greater than the value of the card already on
-	 * the top of this stack and have the same suit.
-	 * @throws IllegalArgumentException if <code>card</code> does not meet the
-	 * 			above conditions.
-	 */
 	/**
 	 * Adds a card to the top of the stack. If this stack was previously empty,
 	 * then <code>card</code> must be an ace (have a value of 1), otherwise
@@ -70,115 +80,147 @@ public class Foundation extends StackOfCards
 	@Override
 	public void push(Card card)
 	{
-		if(isEmpty())
-		{                //If this is empty,
-			if(card.getValue() == 1)
-			{ //then the card must be an ace to be pushed.
-				super.push(card);
-			}
-			else
-			{
-				throw new IllegalArgumentException();//TODO ""
-			}
+		canPush(card).check();
+		super.push(card);
+	}
+
+	/**
+	 * Returns whether or not {@link #push(Card)} would add the given card,
+	 * without adding it.
+	 */
+	public Acceptance canPush(Card card)
+	{
+		return follows(peek(), card);
+	}
+
+	/**
+	 * Returns whether or not the given card may be put on the given card of a
+	 * foundation, or start a foundation if that card is <code>null</code>.
+	 */
+	private static Acceptance follows(Card top, Card card)
+	{
+		if(top == null)
+		{	//Then the card must be an ace to start the foundation.
+			return card.getValue() == 1 ? Acceptance.ACCEPTED
+					: Acceptance.WRONG_FIRST_CARD;
 		}
-		else
+		//Otherwise the card's value must be 1 greater than the top card
+		//and be of the same suit.
+		if(card.getValue() != top.getValue() + 1)
 		{
-			//Otherwise the card's value must be 1 greater than the top card
-			//and be of the same suit.
-			if(card.getValue() == peek().getValue() + 1
-					&& card.getSuit() == peek().getSuit())
-			{
-				super.push(card);
-			}
-			else
+			return Acceptance.OUT_OF_SEQUENCE;
+		}
+		else if(card.getSuit() != top.getSuit())
+		{
+			return Acceptance.WRONG_SUIT;
+		}
+		return Acceptance.ACCEPTED;
+	}
+
+	/**
+	 * Returns whether or not {@link #appendStack(Stack)} would add all of the
+	 * given cards, each of which must follow the one below it.
+	 */
+	@Override
+	public Acceptance canAppendStack(Stack<Card> stack)
+	{
+		Card top = peek();
+		for(int i = 0; stack != null && i < stack.size(); i++)
+		{
+			Acceptance acceptance = follows(top, stack.get(i));
+			if(!acceptance.isAccepted())
 			{
-				throw new IllegalArgumentException();
+				return acceptance;
 			}
+			top = stack.get(i);
 		}
+		return Acceptance.ACCEPTED;
 	}
 
+	/**
+	 * Adds a card as in American Toad, where a foundation starts with a card
+	 * of the value of the base card, a king may be followed by the ace of its
+	 * suit, and a foundation is complete with 13 cards. These are the rules of
+	 * {@link solitaire.engine.AmericanToadState}.
+	 * @throws IllegalArgumentException if the card cannot be added.
+	 */
 	public void americanPush(Card card, Card base) {
-		if(isEmpty()){                //If this is empty,
-			if(card.getValue() == base.getValue()){ //then the card must be an ace to be pushed.
-				super.push(card);
-			} else {
-				throw new IllegalArgumentException();//TODO ""
-			}
-		} else {
-			/**
-			 * Otherwise the card's value must be 1 greater than the top card..
-			 * If top card is a King(13) and Ace was NOT the base card's value,
-			 * the card being pushed must be an Ace(1)
-			 */
-			System.out.println("Reached second if statement in americanPush()...");
-			System.out.println("card's.getValue() = "+card.getValue()+" | peek's.getValue() = "+peek().getValue());
-
-			if(card.getValue()==1 && peek().getValue()==13) {
-				System.out.println("inside king/ace if check.. should push");
-				super.push(card);
-			}
-			else if(card.getValue() == peek().getValue() + 1
-					&& card.getSuit() == peek().getSuit()){
-				super.push(card);
-			} else {
-				System.out.println("Illegal move attempt...");
-				throw new IllegalArgumentException();
-			}
+		canAmericanPush(card, base).check();
+		super.push(card);
+	}
+
+	/**
+	 * Returns whether or not {@link #americanPush(Card, Card)} would add the
+	 * given card, without adding it.
+	 */
+	public Acceptance canAmericanPush(Card card, Card base) {
+		if(isEmpty()){ //Then the card must have the value of the base card.
+			return card.getValue() == base.getValue() ? Acceptance.ACCEPTED
+					: Acceptance.WRONG_FIRST_CARD;
+		}
+		if(size() == 13) { //Then every value is in the foundation.
+			return Acceptance.TOO_MANY_CARDS;
 		}
+		/**
+		 * Otherwise the card's value must be 1 greater than the top card..
+		 * If top card is a King(13) and Ace was NOT the base card's value,
+		 * the card being pushed must be the Ace(1) of its suit.
+		 */
+		if(card.getValue() == 1 && peek().getValue() == 13) {
+			return card.getSuit() == peek().getSuit() ? Acceptance.ACCEPTED
+					: Acceptance.WRONG_SUIT;
+		}
+		return follows(peek(), card);
 	}
 
+	/**
+	 * Adds a card as in Anno Domini, where each foundation starts with the
+	 * card of a digit of the year in a suit that no other foundation has,
+	 * and a king may be followed by an ace.
+	 * @throws IllegalArgumentException if the card cannot be added.
+	 */
 	public void annoPush(Card card)
 	{
-		boolean suitCanAdd = true;
+		canAnnoPush(card).check();
 		if(isEmpty())
-		{                //If this is empty, check to see if the card values align with the year digits
-			for (int i = 0; i < suitsUsed.size(); i++)
-			{
-				if (suitsUsed.get(i).equals(card.getSuit().name()))
-				{
-					suitCanAdd = false;
-				}
-			}
+		{
+			suitsUsed.add(card.getSuit());
+		}
+		super.push(card);
+	}
 
-			if(
-					(
-							card.getValue() == (Character.getNumericValue(yearArray[digit]) + 1)
-									&& suitCanAdd == true
-					)
-							||
-							(
-									card.getValue() == 11
-											&& Character.getNumericValue(yearArray[digit]) == 0
-											&& suitCanAdd == true
-							)
-			)
-			{ //then the card must correspond to the digit of the year to be placed
-				suitsUsed.add(card.getSuit().name());
-				super.push(card);
+	/**
+	 * Returns whether or not {@link #annoPush(Card)} would add the given card,
+	 * without adding it.
+	 */
+	public Acceptance canAnnoPush(Card card)
+	{
+		if(isEmpty())
+		{	//If this is empty, check to see if the card values align with the year digits
+			if(card.getValue() != digit + 1
+					&& !(card.getValue() == 11 && digit == 0))
+			{
+				return Acceptance.WRONG_FIRST_CARD;
 			}
-			else
+			else if(suitsUsed.contains(card.getSuit()))
 			{
-				throw new IllegalArgumentException();//TODO ""
+				return Acceptance.SUIT_IN_USE;
 			}
+			return Acceptance.ACCEPTED;
 		}
-		else
+		//Otherwise the card's value must be 1 greater than the top card
+		//and be of the same suit.
+		//OR it can be an ace being placed on a king.
+		if(card.getSuit() != peek().getSuit())
 		{
-			//Otherwise the card's value must be 1 greater than the top card
-			//and be of the same suit.
-			//OR it can be an ace being placed on a king.
-			if((card.getValue() == peek().getValue() + 1
-					&& card.getSuit() == peek().getSuit())
-					|| (card.getValue() == 1
-					&& peek().getValue() ==  13
-					&& card.getSuit() == peek().getSuit()))
-			{
-				super.push(card);
-			}
-			else
-			{
-				throw new IllegalArgumentException();
-			}
+			return Acceptance.WRONG_SUIT;
+		}
+		else if(card.getValue() != peek().getValue() + 1
+				&& !(card.getValue() == 1 && peek().getValue() == 13))
+		{
+			return Acceptance.OUT_OF_SEQUENCE;
 		}
+		return Acceptance.ACCEPTED;
 	}
 
 
@@ -48,10 +48,19 @@ public class HoldingCell extends StackOfCards {
 	 * 			one element.
 	 */
 	public void appendStack(Stack<Card> stack) {
-		if(stack.size() < 2){
-			super.appendStack(stack);
-		} else {
-			throw new IllegalArgumentException();//TODO
+		canAppendStack(stack).check();
+		super.appendStack(stack);
+	}
+
+	/**
+	 * Returns whether or not {@link #appendStack(Stack)} would add the given
+	 * stack, which it does if the stack has at most one card.
+	 */
+	@Override
+	public Acceptance canAppendStack(Stack<Card> stack) {
+		if(stack != null && stack.size() > 1){
+			return Acceptance.TOO_MANY_CARDS;
 		}
+		return Acceptance.ACCEPTED;
 	}
 }
\ No newline at end of file
@@ -35,6 +35,14 @@ public class PyramidOfCards extends BinaryStack<Card> {
 	 * with the card below it. The bottom card will have coordinates (x,y).	 */
 	protected int offsetX, offsetY;
 
+	/** The row of each node, counted from 1 at the top, and its column in
+	 *  the row, counted from 1 at the left.								*/
+	private int[] rowOf, columnOf;
+
+	/** The nodes whose cards are not covered, as a bitmask where bit
+	 *  <code>n</code> is set if node <code>n</code> holds an exposed card.	*/
+	private long exposed;
+
 	/**
 	 * Instantiates an empty <code>StackOfCards</code> where all cards will have
 	 * no size and be  positioned at the origin.
@@ -59,14 +67,31 @@ public class PyramidOfCards extends BinaryStack<Card> {
 	 * 					card.
 	 * @param offsetY	The difference in y coordinates of a card in the stack
 	 * 					with that of the card below it.
+	 * @param numRows	The number of rows, which may be at most 10 so that
+	 * 					the exposed cards fit in a bitmask.
+	 * @throws IllegalArgumentException if there are more than 10 rows.
 	 */
 	public PyramidOfCards(int x, int y, int cardWidth, int offsetX, int offsetY, int numRows){
 		super(numRows);
+		if(queue.length > Long.SIZE){
+			throw new IllegalArgumentException("A pyramid can have at most 10 rows.");
+		}
 		this.x = x;
 		this.y = y;
 		this.cardWidth = cardWidth;
 		this.offsetX = offsetX;
 		this.offsetY = offsetY;
+
+		//The rows and columns of the nodes are tabulated, along with those of
+		//the node after the last so that the next card can be placed.
+		rowOf = new int[queue.length + 1];
+		columnOf = new int[queue.length + 1];
+		for(int row = 1, node = 1; node < rowOf.length; row++){
+			for(int column = 1; column <= row && node < rowOf.length; column++){
+				rowOf[node] = row;
+				columnOf[node++] = column;
+			}
+		}
 	}
 
 	/**
@@ -74,10 +99,7 @@ public class PyramidOfCards extends BinaryStack<Card> {
 	 * are at the origin with no size and are not hidden.
 	 */
 	public static StackOfCards randomDeck(){
-		StackOfCards deck = new StackOfCards();
-		deck.fillBySuit();
-		deck.shuffle();           //then shuffled.
-		return deck;
+		return StackOfCards.randomDeck();
 	}
 
 	/**
@@ -91,25 +113,142 @@ public class PyramidOfCards extends BinaryStack<Card> {
 		//Note: size has not been incremented at this point, it will be incremented
 		//in the super method.
 		//The location of the card is changed to match the stack.
-		int offx = 0; int offy = 0;
-		int remsize = size+1; int level = 0;
-		while(remsize > 0) {
-			level++;
-			if(remsize-level <= 0) {
-				int cardsOff = remsize*2-(level+1);
-				offx = offsetX * cardsOff;
-			}
-			remsize -= level;
-		}
-		offy = offsetY * level;
-
-		card.setLocation(x + offx, y + offy);
+		locate(card, size + 1);
 		card.setSize(cardWidth); //And so is the size.
 		super.push(card);
+		uncover(size);
 
 		select(card);
 	}
 
+	/**
+	 * Removes and returns the selected card, which exposes the cards that it
+	 * alone covered.
+	 * @return The selected card, or <code>null</code> if there is none.
+	 */
+	@Override
+	public Card pop(){
+		int node = selected;
+		Card card = super.pop();
+		if(card != null){
+			remove(node);
+		}
+		return card;
+	}
+
+	/**
+	 * Removes all cards from the pyramid.
+	 */
+	@Override
+	public void clear(){
+		super.clear();
+		exposed = 0;
+	}
+
+	/**
+	 * Replaces the cards of the pyramid with the given cards, node by node from
+	 * the top, so that a game can be restored as it was. A <code>null</code>
+	 * leaves its node empty, as if its card had been removed.
+	 * @throws IllegalArgumentException if there are more cards than nodes.
+	 */
+	public void setCards(Card[] cards){
+		if(cards.length >= queue.length){
+			throw new IllegalArgumentException("The pyramid has only "
+					+ (queue.length - 1) + " nodes.");
+		}
+		clear();
+		for(Card card : cards){
+			queue[++size] = card;
+			if(card != null){
+				locate(card, size);
+				card.setSize(cardWidth);
+			}
+		}
+		for(int node = size + 1; node < queue.length; node++){
+			queue[node] = null; //So that no card is left from before.
+		}
+		selected = 0;
+		recount();
+	}
+
+	/**
+	 * Sets the location of a card to that of the given node.
+	 */
+	private void locate(Card card, int node){
+		int row = rowOf[node];
+		card.setLocation(x + offsetX*(columnOf[node]*2 - (row + 1)),
+				y + offsetY*row);
+	}
+
+	/**
+	 * Returns whether or not the given node holds a card.
+	 */
+	private boolean holds(int node){
+		return node <= size && queue[node] != null;
+	}
+
+	/**
+	 * Returns whether or not the card of the given node has no card on it.
+	 */
+	private boolean isExposed(int node){
+		int below = node + rowOf[node]; //The left of the two nodes covering it.
+		return holds(node) && !holds(below) && !holds(below + 1);
+	}
+
+	/**
+	 * Marks the card of the given node as exposed, and the cards that it covers
+	 * as not.
+	 */
+	private void uncover(int node){
+		expose(node, true);
+		int row = rowOf[node], column = columnOf[node];
+		if(column > 1){ 	//The card above and to the left.
+			expose(node - row, false);
+		}
+		if(column < row){	//The card above and to the right.
+			expose(node - row + 1, false);
+		}
+	}
+
+	/**
+	 * Marks the card of the given node as removed, which exposes the cards
+	 * above it that have no other card on them.
+	 */
+	private void remove(int node){
+		exposed &= ~(1L << node);
+		int row = rowOf[node], column = columnOf[node];
+		if(column > 1){
+			expose(node - row, isExposed(node - row));
+		}
+		if(column < row){
+			expose(node - row + 1, isExposed(node - row + 1));
+		}
+	}
+
+	/**
+	 * Marks the card of the given node as exposed or not.
+	 */
+	private void expose(int node, boolean isExposed){
+		Card card = (Card) queue[node];
+		if(card == null){
+			return; //It was removed, so it is already not exposed.
+		} else if(isExposed){
+			exposed |= 1L << node;
+		} else {
+			exposed &= ~(1L << node);
+		}
+	}
+
+	/**
+	 * Marks the cards that are exposed, after the cards have been reordered.
+	 */
+	private void recount(){
+		exposed = 0;
+		for(int node = 1; node <= size; node++){
+			expose(node, isExposed(node));
+		}
+	}
+
 	/**
 	 * Adds 52 cards by suit.
 	 */
@@ -129,51 +268,25 @@ public class PyramidOfCards extends BinaryStack<Card> {
 	public void reverse(){
 		super.reverse();
 		setLocation(x, y); //The location of each card is updated.
+		recount();
 	}
 
 	/**
-	 * Reorders all of the cards randomly. The positions of the cards will be
-	 * changed accordingly.
+	 * Reorders all of the cards randomly, with a new deal number. The positions
+	 * of the cards will be changed accordingly.
 	 */
 	public void shuffle(){
-		//First merge shuffle is performed and the Knuth/Fisher-Yates shuffle is.
-		//done. After several tests, these shuffles in this order had the most
-		//uniform odds of some permutation of the cards being selected.
-		knuthShuffle();
-		setLocation(x, y);
+		shuffle(new Shuffler());
 	}
 
 	/**
-	 * Shuffles the deck by randomly by performing the Knuth/Fisher-Yates shuffle.
-	 * 
-	 * @return The index of the root; the head.
+	 * Reorders all of the cards with the given shuffler. The positions of the
+	 * cards will be changed accordingly.
 	 */
-	private void knuthShuffle(){
-		if(size < 2) //Then no shuffling needs to be performed.
-			return;
-
-		int tempSize = size;//The number of nodes that still need to be shuffled.
-		
-		//For each node in the list:
-		for(int node = 1; node <= size; node++){
-			
-			//The position of the random node relative to node.
-			int numOfIterations = (int)(Math.random() * tempSize--);
-			
-			//Advances the random node to its position.
-			int randomNode = node + numOfIterations;
-			swap(node, randomNode); //And swap node with randomNode
-		}
-	}
-	
-	
-	/**
-	 * Swaps the data in node1 and node2 between each other.
-	 */
-	private void swap(int node1, int node2){
-		Card tempCard = (Card) queue[node1];	
-		queue[node1] = (Card) queue[node2];
-		queue[node2] = tempCard;
+	public void shuffle(Shuffler shuffler){
+		shuffler.shuffle(queue, 1, size + 1); //The nodes start at index 1.
+		setLocation(x, y);
+		recount();
 	}
 
 
@@ -189,20 +302,7 @@ public class PyramidOfCards extends BinaryStack<Card> {
 		//Then the location of all elements are updated.
 		for(int node = 1; node <= size; node++){
 			if(queue[node] != null) {
-				
-				int offx = 0; int offy = 0;
-				int remsize = size+1; int level = 0;
-				while(remsize > 0) {
-					level++;
-					if(remsize-level <= 0) {
-						int cardsOff = remsize*2-(level+1);
-						offx = offsetX * cardsOff;
-					}
-					remsize -= level;
-				}
-				offy = offsetY * level;
-				((Card)queue[node]).setLocation(x + offx, y + offy);
-
+				locate((Card) queue[node], node);
 			}
 		}
 	}
@@ -277,17 +377,11 @@ public class PyramidOfCards extends BinaryStack<Card> {
 	 * @return The integer node value of the card, or 0 if no such card exists
 	 */
 	private int findCard(int x, int y){
-		//Each card is checked to see if it contains the given location.
-		for(int node = 1; node <= size; node++) {
-			if(queue[node] != null && ((Card) queue[node]).contains(x, y)) {
-				int row = 0; int tempNode = node;
-				while(tempNode > 0) {
-					row++;
-					tempNode -= row;
-				}
-				if((node+row >= size || queue[node+row] == null) && (node+row+1 >= size || queue[node+row+1] == null)) {
-					return node;
-				}
+		//Only the exposed cards are checked, from the top of the pyramid.
+		for(long rest = exposed; rest != 0; rest &= rest - 1) {
+			int node = Long.numberOfTrailingZeros(rest);
+			if(((Card) queue[node]).contains(x, y)) {
+				return node;
 			}
 		}
 		return 0;
@@ -329,17 +423,9 @@ public class PyramidOfCards extends BinaryStack<Card> {
 	 * 			card.
 	 */
 	public RoundRectangle2D.Double shapeOfNextCard(){
-		int offx = 0; int offy = 0;
-		int remsize = size+1; int level = 0;
-		while(remsize > 0) {
-			level++;
-			if(remsize-level <= 0) {
-				int cardsOff = remsize*2-(level+1);
-				offx = offsetX * cardsOff;
-			}
-			remsize -= level;
-		}
-		offy = offsetY * level;
+		int node = size + 1;
+		int offx = offsetX*(columnOf[node]*2 - (rowOf[node] + 1));
+		int offy = offsetY*rowOf[node];
 		return new RoundRectangle2D.Double(
 				x - cardWidth/2 + offx, y - cardWidth*3/4  + offy, 
 				cardWidth, cardWidth*3/2, cardWidth/10, cardWidth/10);
@@ -0,0 +1,92 @@
+package card;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shuffles arrays of cards with the Knuth/Fisher-Yates shuffle. Each shuffler
+ * is seeded by a deal number, so the same deal number always gives the same
+ * order of the same cards, and any deal can be played again from its number.
+ * <p>
+ * Its random numbers come from its own {@link SplittableRandom} instead of
+ * <code>Math.random()</code>, which every thread shares, so shufflers in
+ * different threads never wait on each other. A shuffler is not thread safe;
+ * each thread should use its own.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class Shuffler {
+	/** The seed of this shuffler.											*/
+	private final long dealNumber;
+
+	/** The source of the random swaps.										*/
+	private final SplittableRandom random;
+
+	/**
+	 * Instantiates a shuffler with a random deal number.
+	 */
+	public Shuffler(){
+		this(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+	}
+
+	/**
+	 * Instantiates a shuffler with the given deal number.
+	 */
+	public Shuffler(long dealNumber){
+		this.dealNumber = dealNumber;
+		random = new SplittableRandom(dealNumber);
+	}
+
+	/**
+	 * Returns the deal number from which this shuffler was seeded.
+	 */
+	public long getDealNumber(){
+		return dealNumber;
+	}
+
+	/**
+	 * Returns a random number from 0 to <code>bound - 1</code>.
+	 */
+	public int nextInt(int bound){
+		return random.nextInt(bound);
+	}
+
+	/**
+	 * Shuffles the elements of the given array from index <code>from</code> to
+	 * <code>to - 1</code>.
+	 */
+	public void shuffle(Object[] array, int from, int to){
+		checkRange(array.length, from, to);
+		for(int i = to - 1; i > from; i--){
+			int j = from + random.nextInt(i - from + 1);
+			Object temp = array[i];
+			array[i] = array[j];
+			array[j] = temp;
+		}
+	}
+
+	/**
+	 * Shuffles the card codes of the given array from index <code>from</code>
+	 * to <code>to - 1</code>.
+	 */
+	public void shuffle(byte[] array, int from, int to){
+		checkRange(array.length, from, to);
+		for(int i = to - 1; i > from; i--){
+			int j = from + random.nextInt(i - from + 1);
+			byte temp = array[i];
+			array[i] = array[j];
+			array[j] = temp;
+		}
+	}
+
+	/**
+	 * Throws an IllegalArgumentException if the range is not within an array
+	 * of the given length.
+	 */
+	private static void checkRange(int length, int from, int to){
+		if(from < 0 || to > length || from > to){
+			throw new IllegalArgumentException("Invalid range [" + from + ", "
+					+ to + ") of an array of length " + length);
+		}
+	}
+}
@@ -0,0 +1,220 @@
+package card;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the {@link StackOfCards} under a point, such as the mouse, without
+ * testing every stack. The area of the game is divided into a grid of square
+ * cells, and each cell lists the stacks whose cards, or next card, reach into
+ * it. So only the stacks of the cell under a point are tested, and the card
+ * under the point is then found with {@link StackOfCards#indexAt(int, int)}.
+ * <p>
+ * The stacks keep their index up to date themselves. When a card is pushed or
+ * popped, or a stack is moved or resized, the stack is moved to the cells of
+ * its new area, which only takes time when it reaches into other cells. A
+ * stack can only be in one index; adding it to another removes it from the
+ * first. Points outside of the grid are in its nearest cells, so stacks that
+ * grow past the edges are still found.
+ *
+ * @param <T> The type of stacks in the index.
+ * @author Warren Godone-Maresca
+ */
+public class StackIndex<T extends StackOfCards> {
+	/** The width and height of the cells in px.							*/
+	private static final int CELL_SIZE = 32;
+
+	/** The array from which the index was built.							*/
+	private final T[] source;
+
+	/** The stacks in the index, in the order they were given.				*/
+	private final T[] stacks;
+
+	/** The width and height of the area of the grid in px.				*/
+	private final int width, height;
+
+	/** The number of columns and rows of cells.							*/
+	private final int columns, rows;
+
+	/** The positions in {@link #stacks} of the stacks that reach into each
+	 *  cell, in increasing order. A cell's array is <code>null</code> until
+	 *  a stack reaches into it.											*/
+	private final int[][] cells;
+
+	/** The number of stacks that reach into each cell.						*/
+	private final int[] counts;
+
+	/** The first and last column and row of the cells of each stack.		*/
+	private final int[] fromColumn, toColumn, fromRow, toRow;
+
+	/** Holds the area of a stack while it is updated.						*/
+	private final Rectangle area = new Rectangle();
+
+	/** Holds the stacks found by the last query.							*/
+	private final List<T> found = new ArrayList<T>();
+
+	/**
+	 * Instantiates an index of the given stacks over an area with the given
+	 * dimensions. <code>null</code> elements are ignored.
+	 * @param stacks The stacks to be found. They are found in this order when
+	 * 				 more than one holds a point.
+	 * @param width	 The width of the area in which the stacks are, in px.
+	 * @param height The height of the area.
+	 */
+	public StackIndex(T[] stacks, int width, int height){
+		source = stacks;
+		this.stacks = stacks.clone();
+		this.width = width;
+		this.height = height;
+		columns = Math.max(1, (width + CELL_SIZE - 1) / CELL_SIZE);
+		rows = Math.max(1, (height + CELL_SIZE - 1) / CELL_SIZE);
+		cells = new int[columns*rows][];
+		counts = new int[columns*rows];
+
+		fromColumn = new int[stacks.length];
+		toColumn = new int[stacks.length];
+		fromRow = new int[stacks.length];
+		toRow = new int[stacks.length];
+		Arrays.fill(toColumn, -1); //No stack is in any cell yet.
+
+		for(int id = 0; id < stacks.length; id++){
+			if(stacks[id] != null){
+				stacks[id].index = this;
+				stacks[id].indexId = id;
+				update(id);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether or not this index was built from the given array, so
+	 * that an index can be built again when its stacks are replaced.
+	 */
+	public boolean covers(Object[] stacks){
+		return source == stacks;
+	}
+
+	/**
+	 * Returns whether or not the grid has the given dimensions, so that an
+	 * index can be built again when the area is resized. Otherwise the stacks
+	 * that moved past its edges would all be in its edge cells.
+	 */
+	public boolean fits(int width, int height){
+		return this.width == width && this.height == height;
+	}
+
+	/**
+	 * Returns the stacks that have a card that contains the given point, in
+	 * the order they were given to the index. The list is reused by the next
+	 * query, so it must not be kept or changed.
+	 * @param x The point's x coordinate.
+	 * @param y The point's y coordinate.
+	 */
+	public List<T> stacksAt(int x, int y){
+		return find(x, y, false);
+	}
+
+	/**
+	 * Returns the stacks that have a card or the {@link
+	 * StackOfCards#shapeOfNextCard() next card} that contains the given point,
+	 * which are where cards dropped there may go. They are in the order they
+	 * were given to the index. The list is reused by the next query, so it
+	 * must not be kept or changed.
+	 * @param x The point's x coordinate.
+	 * @param y The point's y coordinate.
+	 */
+	public List<T> targetsAt(int x, int y){
+		return find(x, y, true);
+	}
+
+	/**
+	 * Tests the stacks of the cell under the given point.
+	 * @param nextCards Whether or not the next card of a stack counts.
+	 */
+	private List<T> find(int x, int y, boolean nextCards){
+		found.clear();
+		int cell = row(y)*columns + column(x);
+		for(int i = 0; i < counts[cell]; i++){
+			T stack = stacks[cells[cell][i]];
+			if(stack.index == this && (stack.contains(x, y)
+					|| nextCards && stack.nextCardContains(x, y))){
+				found.add(stack);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Moves the stack at the given position to the cells of its current area.
+	 */
+	void update(int id){
+		stacks[id].getArea(area);
+		int left = column(area.x), right = column(area.x + area.width - 1);
+		int top = row(area.y), bottom = row(area.y + area.height - 1);
+		if(left == fromColumn[id] && right == toColumn[id]
+				&& top == fromRow[id] && bottom == toRow[id]){
+			return; //The stack is still in the same cells.
+		}
+
+		for(int row = fromRow[id]; row <= toRow[id]; row++){
+			for(int column = fromColumn[id]; column <= toColumn[id]; column++){
+				remove(row*columns + column, id);
+			}
+		}
+		for(int row = top; row <= bottom; row++){
+			for(int column = left; column <= right; column++){
+				insert(row*columns + column, id);
+			}
+		}
+		fromColumn[id] = left;
+		toColumn[id] = right;
+		fromRow[id] = top;
+		toRow[id] = bottom;
+	}
+
+	/**
+	 * Adds a stack to a cell, keeping the stacks of the cell in order.
+	 */
+	private void insert(int cell, int id){
+		int[] ids = cells[cell];
+		if(ids == null){
+			ids = cells[cell] = new int[4];
+		} else if(counts[cell] == ids.length){
+			ids = cells[cell] = Arrays.copyOf(ids, ids.length*2);
+		}
+		int i = counts[cell]++;
+		for(; i > 0 && ids[i - 1] > id; i--){
+			ids[i] = ids[i - 1]; //Later stacks are moved up.
+		}
+		ids[i] = id;
+	}
+
+	/**
+	 * Removes a stack from a cell.
+	 */
+	private void remove(int cell, int id){
+		int[] ids = cells[cell];
+		int i = 0;
+		while(ids[i] != id){
+			i++;
+		}
+		counts[cell]--;
+		System.arraycopy(ids, i + 1, ids, i, counts[cell] - i);
+	}
+
+	/**
+	 * Returns the column of the cells that holds the given x coordinate.
+	 */
+	private int column(int x){
+		return Math.min(Math.max(Math.floorDiv(x, CELL_SIZE), 0), columns - 1);
+	}
+
+	/**
+	 * Returns the row of the cells that holds the given y coordinate.
+	 */
+	private int row(int y){
+		return Math.min(Math.max(Math.floorDiv(y, CELL_SIZE), 0), rows - 1);
+	}
+}
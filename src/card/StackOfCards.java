@@ -3,6 +3,7 @@ package card;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.RoundRectangle2D;
 
 import dataStructures.Stack;
@@ -35,6 +36,11 @@ public class StackOfCards extends Stack<Card> {
 	 * with the card below it. The bottom card will have coordinates (x,y).	 */
 	protected int offsetX, offsetY;
 
+	/** The index that finds this stack, or <code>null</code> if there is none,
+	 *  and this stack's position in it.									 */
+	StackIndex<?> index;
+	int indexId;
+
 	/**
 	 * Instantiates an empty <code>StackOfCards</code> where all cards will have
 	 * no size and be  positioned at the origin.
@@ -73,9 +79,18 @@ public class StackOfCards extends Stack<Card> {
 	 * are at the origin with no size and are not hidden.
 	 */
 	public static StackOfCards randomDeck(){
+		return randomDeck(new Shuffler());
+	}
+
+	/**
+	 * Returns a new <code>StackOfCards</code> object with 52 cards in the order
+	 * given by the shuffler, so that the deal can be repeated from its deal
+	 * number.
+	 */
+	public static StackOfCards randomDeck(Shuffler shuffler){
 		StackOfCards deck = new StackOfCards();
 		deck.fillBySuit();
-		deck.shuffle();           //then shuffled.
+		deck.shuffle(shuffler);   //then shuffled.
 		return deck;
 	}
 
@@ -95,6 +110,29 @@ public class StackOfCards extends Stack<Card> {
 		super.push(card);
 	}
 
+	/**
+	 * Replaces the cards of this stack with the given cards, bottom first. Each
+	 * card is placed as {@link #push(Card)} places it, but the rules of a
+	 * subclass are not checked, so that a game can be restored as it was.
+	 */
+	public void setCards(Card[] cards){
+		clear();
+		for(Card card : cards){
+			card.setLocation(x + offsetX*size, y + offsetY*size);
+			card.setSize(cardWidth);
+			super.push(card);
+		}
+	}
+
+	/**
+	 * Returns whether or not {@link #appendStack(Stack)} would add all of the
+	 * given cards, without adding them. Stacks with rules override it; a
+	 * plain stack of cards takes any cards.
+	 */
+	public Acceptance canAppendStack(Stack<Card> stack){
+		return Acceptance.ACCEPTED;
+	}
+
 	/**
 	 * Adds 52 cards by suit.
 	 */
@@ -117,114 +155,22 @@ public class StackOfCards extends Stack<Card> {
 	}
 
 	/**
-	 * Reorders all of the cards randomly. The positions of the cards will be
-	 * changed accordingly.
+	 * Reorders all of the cards randomly, with a new deal number. The positions
+	 * of the cards will be changed accordingly.
 	 */
 	public void shuffle(){
-		//First merge shuffle is performed and the Knuth/Fisher-Yates shuffle is.
-		//done. After several tests, these shuffles in this order had the most
-		//uniform odds of some permutation of the cards being selected.
-		head = knuthShuffle(mergeShuffle(head));
-		setLocation(x, y);
-	}
-
-	/**
-	 * Shuffles the deck by randomly by performing the Knuth/Fisher-Yates shuffle.
-	 * 
-	 * @param head 	The head of the list to be shuffled. For this method, it
-	 * 				is intended for node to be head.
-	 * @return A node that heads a shuffled deck.
-	 */
-	private Node<Card> knuthShuffle(Node<Card> head){
-		if(size < 2) //Then no shuffling needs to be performed.
-			return head;
-
-		int tempSize = size;//The number of nodes that still need to be shuffled.
-		
-		//For each node in the list:
-		for(Node<Card> node = head; node.getNext() != null; node = node.getNext()){
-			
-			Node<Card> randomNode = node; //A random node.
-			
-			//The position of the random node relative to node.
-			int numOfIterations = (int)(Math.random() * tempSize--);
-			
-			//Advances the random node to its position.
-			for(int i = 0; i < numOfIterations; i++){
-				randomNode = randomNode.getNext();
-			}	
-			swap(node, randomNode); //And swap node with randomNode
-		}
-		return head;
-	}
-	
-	
-	/**
-	 * Swaps the data in node1 and node2 between each other.
-	 */
-	private void swap(Node<Card> node1, Node<Card> node2){
-		Card tempCard = node1.getValue();	
-		node1.setValue(node2.getValue());
-		node2.setValue(tempCard);
-	}
-
-	/**
-	 * Shuffles the given list/node by recursively dividing it into two sublists
-	 * of equal length
-	 * @param node
-	 * @return
-	 */
-	private Node<Card> mergeShuffle(Node<Card> node){
-		//Base case. 
-		if(node== null || node.getNext() == null){ //Then there does exists
-			return node;					 //another permutation for the list.
-		}
-		
-		Node<Card> headL = node;		//Heads the left list.
-
-		Node<Card> slowCounter = node;	//Holds the element before the middle element
-		Node<Card> fastCounter = node.getNext();	//To iterate through the list.
-
-		//The following loop finds the middle node. Slow counter will point to
-		//the middle node.
-		//We will advance the fastCounter twice and slowCounter once in each
-		//iteration. When fastCounter is null, slowCounter will be pointing to
-		//the middle of node.
-		while(fastCounter != null && fastCounter.getNext() != null){
-			slowCounter = slowCounter.getNext();
-			fastCounter = fastCounter.getNext().getNext(); //advanced twice.
-		}
-
-		Node<Card> headR = slowCounter.getNext();//The right sublist.
-		slowCounter.setNext(null); //Severs the origin list into two.
-		headL = mergeShuffle(headL); //Shuffle the left.
-		headR = mergeShuffle(headR); //Shuffle the right
-		return randomizedMerge(headL, headR); //And merge them.
+		shuffle(new Shuffler());
 	}
 
 	/**
-	 * Merges the two given lists in random order. For best results (most random
-	 * order), the two given lists should have similar sizes.
-	 * @param left  One of the lists to be merged.
-	 * @param right The other list to be merged.
-	 * @return The merged list.
+	 * Reorders all of the cards with the given shuffler, so the same deal
+	 * number gives the same order of the same cards. The positions of the
+	 * cards will be changed accordingly.
 	 */
-	private Node<Card> randomizedMerge(Node<Card> left, Node<Card> right){
-		if(left == null) //Then there is no merging to be done.
-			return right;
-		if(right == null)
-			return left;
-
-		Node<Card> randomHead = null; //Heads the merged list.
-
-		if(Math.random() <= 0.5){ //Randomly selects the left or right list.
-			randomHead = left;
-			randomHead.setNext(randomizedMerge(left.getNext(), right));
-		} else {
-			randomHead = right;
-			randomHead.setNext(randomizedMerge(left, right.getNext()));
-		}
-		return randomHead;
+	public void shuffle(Shuffler shuffler){
+		ensureWritable(size); //The cards are shuffled in place.
+		shuffler.shuffle(elements, base, base + size);
+		setLocation(x, y);
 	}
 
 
@@ -238,12 +184,10 @@ public class StackOfCards extends Stack<Card> {
 		this.x = x;
 		this.y = y;
 		//Then the location of all elements are updated.
-		int i = 0;
-		for(Node<Card> node = head; node != null; node = node.getNext()){
-			node.getValue().setLocation( //Continued next line.
-					x + (size- i-1)*offsetX, y + (size - i -1)*offsetY);
-			i++;
+		for(int i = 0; i < size; i++){
+			get(i).setLocation(x + i*offsetX, y + i*offsetY);
 		}
+		moved();
 	}
 
     /**
@@ -252,9 +196,10 @@ public class StackOfCards extends Stack<Card> {
      */
 	public void setSize(int width){
 	    cardWidth = width;
-        for(Node<Card> node = head; node != null; node = node.getNext()){
-            node.getValue().setSize(width);
+        for(int i = 0; i < size; i++){
+            get(i).setSize(width);
         }
+        moved();
     }
 
 	/**
@@ -273,6 +218,26 @@ public class StackOfCards extends Stack<Card> {
 		setLocation(x, y); //The location is update to match the new offset.
 	}
 
+	/**
+	 * Updates the {@link StackIndex} of this stack, if it has one, after a
+	 * card is pushed or popped.
+	 */
+	@Override
+	protected void modified(){
+		super.modified();
+		moved();
+	}
+
+	/**
+	 * Updates the {@link StackIndex} of this stack, if it has one, after the
+	 * area of the stack has changed.
+	 */
+	private void moved(){
+		if(index != null){
+			index.update(indexId);
+		}
+	}
+
 	/**
 	 * Determines whether a given point is within the stack.
 	 * @param x The point's x coordinate.
@@ -281,13 +246,100 @@ public class StackOfCards extends Stack<Card> {
 	 *			<code>false</code>.
 	 */
 	public boolean contains(int x, int y){
-		//Each card is checked to see if it contains the given location.
-		for(Node<Card> node = head; node != null; node = node.getNext()){
-			if(node.getValue().contains(x, y))
-				return true;
+		return indexAt(x, y) >= 0;
+	}
+
+	/**
+	 * Returns the position of the top card that contains a given point. Since
+	 * the cards are spaced by the offset, only the few cards whose bounds hold
+	 * the point are calculated and tested, however many cards there are.
+	 * @param x The point's x coordinate.
+	 * @param y The point's y coordinate.
+	 * @return The position of the card, where 0 is the bottom of the stack,
+	 * 			or -1 if no card contains the point.
+	 */
+	public int indexAt(int x, int y){
+		int height = cardWidth*3/2;
+		int left = this.x - cardWidth/2, top = this.y - height/2; //Of card 0.
+
+		int from = Math.max(first(x, left, cardWidth, offsetX),
+				first(y, top, height, offsetY));
+		int to = Math.min(Math.min(last(x, left, cardWidth, offsetX),
+				last(y, top, height, offsetY)), size - 1);
+		if(offsetX == 0 && offsetY == 0){
+			from = to; //All cards have the same shape, so the top card is it.
+		}
+		for(int i = to; i >= Math.max(from, 0); i--){
+			if(get(i).contains(x, y)){
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the lowest position of a card whose side, from
+	 * <code>start + i*offset</code> to <code>length</code> px after it,
+	 * holds <code>p</code>.
+	 */
+	private static int first(int p, int start, int length, int offset){
+		if(offset > 0){
+			return Math.floorDiv(p - length - start, offset) + 1;
+		} else if(offset < 0){
+			return -Math.floorDiv(p - start, -offset);
 		}
-				
-		return false;
+		return p >= start && p < start + length ? 0 : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Returns the highest position of a card whose side, from
+	 * <code>start + i*offset</code> to <code>length</code> px after it,
+	 * holds <code>p</code>.
+	 */
+	private static int last(int p, int start, int length, int offset){
+		if(offset > 0){
+			return Math.floorDiv(p - start, offset);
+		} else if(offset < 0){
+			return -Math.floorDiv(p - start - length, -offset) - 1;
+		}
+		return p >= start && p < start + length ? Integer.MAX_VALUE : -1;
+	}
+
+	/**
+	 * Returns whether or not {@link #shapeOfNextCard()} contains a given
+	 * point, without instantiating the shape.
+	 * @param x The point's x coordinate.
+	 * @param y The point's y coordinate.
+	 */
+	public boolean nextCardContains(int x, int y){
+		return Card.roundRectContains(this.x - cardWidth/2 - offsetX*size,
+				this.y - cardWidth*3/4 + offsetY*size,
+				cardWidth, cardWidth*3/2, cardWidth/10, x, y);
+	}
+
+	/**
+	 * Sets the given rectangle to the area in which this stack can be found
+	 * by a {@link StackIndex}: the bounds of its cards and of its next card.
+	 * The area is calculated from the location and offset of the stack, so it
+	 * takes the same time whatever the number of cards.
+	 */
+	void getArea(Rectangle area){
+		int height = cardWidth*3/2;
+		int left = x - cardWidth/2, top = y - height/2;
+		int lastLeft = left + offsetX*Math.max(size - 1, 0);
+		int lastTop = top + offsetY*Math.max(size - 1, 0);
+
+		//The next card, as in shapeOfNextCard().
+		int nextLeft = x - cardWidth/2 - offsetX*size;
+		int nextTop = y - cardWidth*3/4 + offsetY*size;
+
+		int minX = Math.min(Math.min(left, lastLeft), nextLeft);
+		int minY = Math.min(Math.min(top, lastTop), nextTop);
+		int maxX = Math.max(Math.max(left, lastLeft) + cardWidth + 1,
+				nextLeft + cardWidth);
+		int maxY = Math.max(Math.max(top, lastTop) + height + 1,
+				nextTop + height);
+		area.setBounds(minX, minY, maxX - minX, maxY - minY);
 	}
 
 	/**
@@ -297,21 +349,33 @@ public class StackOfCards extends Stack<Card> {
 	 * would be located if added and with the corresponding size.
 	 */
 	public void draw(Graphics pane){
-		if(isEmpty()){
+		Rectangle bounds = getBounds();
+		if(!pane.hitClip(bounds.x, bounds.y, bounds.width, bounds.height)){
+			return; //The stack is outside of the area being painted.
+		} else if(isEmpty()){
 			drawOutlineOfNextCard(pane);
 		} else {
-			draw(pane, head);	
+			for(int i = 0; i < size; i++){ //From the bottom up.
+				get(i).draw(pane);
+			}
 		}
 	}
 
 	/**
-	 * Draws all cards below a given node containing a card.
+	 * Returns the area in which the stack is drawn: the smallest rectangle
+	 * that holds all of its cards, or the outline of the next card if it is
+	 * empty. The areas of a stack before and after it changes are the areas
+	 * that must be repainted.
 	 */
-	private void draw(Graphics pane, Node<Card> node){
-		if(node != null){
-			draw(pane, node.getNext());
-			node.getValue().draw(pane);
+	public Rectangle getBounds(){
+		if(isEmpty()){
+			return shapeOfNextCard().getBounds();
+		}
+		Rectangle bounds = get(0).getBounds();
+		for(int i = 1; i < size; i++){
+			bounds.add(get(i).getBounds());
 		}
+		return bounds;
 	}
 
 	/**
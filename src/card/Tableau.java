@@ -1,5 +1,7 @@
 package card;
 
+import java.util.Arrays;
+
 import dataStructures.Stack;
 
 /**
@@ -14,6 +16,18 @@ import dataStructures.Stack;
  * @author Warren Godone-Maresca
  */
 public class Tableau extends StackOfCards {
+	/** For each position, the length of the run of cards that ends with the
+	 *  card at that position in which adjacent cards alternate in color,
+	 *  descend in value by one, and have the same suit respectively. A run is
+	 *  one card longer than that of the card below if the card follows it,
+	 *  otherwise it is 1. So the runs are kept up to date in O(1) time as
+	 *  cards are pushed and popped.										*/
+	private int[] alternating = new int[0], descending = new int[0],
+			sameSuit = new int[0];
+
+	/** The number of positions, from the bottom, whose runs are counted.	*/
+	private int counted;
+
 	/**
 	 * Instantiates an empty stack where all cards will have
 	 * no size and positioned at the origin.
@@ -36,35 +50,112 @@ public class Tableau extends StackOfCards {
 		super(x, y, cardWidth, 0, offsetY);
 	}
 
+	/**
+	 * Counts the runs of the cards that were pushed. The runs of the cards
+	 * below them have not changed.
+	 */
+	@Override
+	protected void modified(){
+		super.modified();
+		counted = Math.min(counted, size);
+		if(alternating.length < size){
+			int length = Math.max(size, alternating.length * 2);
+			alternating = Arrays.copyOf(alternating, length);
+			descending = Arrays.copyOf(descending, length);
+			sameSuit = Arrays.copyOf(sameSuit, length);
+		}
+		for(; counted < size; counted++){
+			int i = counted;
+			if(i == 0){
+				alternating[i] = descending[i] = sameSuit[i] = 1;
+				continue;
+			}
+			Card below = get(i - 1), card = get(i);
+			boolean follows = below.compareTo(card) == 1;
+			alternating[i] = below.colorEquals(card) ? 1 : alternating[i - 1] + 1;
+			descending[i] = follows ? descending[i - 1] + 1 : 1;
+			sameSuit[i] = follows && below.getSuit() == card.getSuit()
+					? sameSuit[i - 1] + 1 : 1;
+		}
+	}
+
+	/**
+	 * Reverses the tableau. All runs are counted again.
+	 */
+	@Override
+	public void reverse(){
+		counted = 0;
+		super.reverse();
+	}
+
+	/**
+	 * Shuffles the tableau. All runs are counted again.
+	 */
+	@Override
+	public void shuffle(Shuffler shuffler){
+		super.shuffle(shuffler);
+		counted = 0;
+		modified();
+	}
+
+	/**
+	 * Returns the number of cards at the top of this tableau that descend in
+	 * value by one and alternate in color, as in Klondike and Free Cell.
+	 */
+	public int alternatingRun(){
+		return Math.min(topOf(alternating), topOf(descending));
+	}
+
+	/**
+	 * Returns the number of cards at the top of this tableau that descend in
+	 * value by one.
+	 */
+	public int sequenceRun(){
+		return topOf(descending);
+	}
+
+	/**
+	 * Returns the number of cards at the top of this tableau that descend in
+	 * value by one and have the same suit, as in Spider.
+	 */
+	public int sameSuitRun(){
+		return topOf(sameSuit);
+	}
+
+	/**
+	 * Returns the run of the top card, or 0 if there are no cards.
+	 */
+	private int topOf(int[] runs){
+		return size == 0 ? 0 : runs[size - 1];
+	}
+
+	/**
+	 * Returns the position of the card that is grabbed at the given y
+	 * coordinate: the top card that contains that point of the center of the
+	 * tableau. Since the cards are <code>offsetY</code> apart, the position
+	 * is calculated rather than searched for.
+	 * @param y The given y coordinate.
+	 * @return The position of the card, where 0 is the bottom of the tableau,
+	 * 		   or -1 if the tableau does not contain y.
+	 */
+	public int grabIndex(int y){
+		return indexAt(x, y);
+	}
+
 	/**
 	 * Pops all cards below and containing the given y coordinate if the tableau
-	 * contains the y coordinate.
+	 * contains the y coordinate. The cards are not copied; the returned stack
+	 * views them until either stack is changed.
 	 * @param y The given y coordinate.
 	 * @return All cards below the given y coordinate in a {@link Stack} if the 
 	 * 		   tableau contains y else <code>null</code>.
 	 */
 	public Stack<Card> popCardsBelow(int y){
-		if(!contains(this.x, y)) //Then y is not in the boundaries of this stack,
-			return null;		//so null is returned.
-
-		//Holds the cards to be returned.
-		Stack<Card> temp = new Stack<Card>();
-
-		int numOfCards = 1;  //One card is added to temp to start with.
-		while(!peek().contains(x, y + (numOfCards-1)*offsetY) &&
-				numOfCards <= size){ //counts the num.
-			numOfCards++;    			//of cards below the given y coordinate
-			//System.out.println(peek().contains(x, y));
-			//System.out.println(y + " " + peek().getY() + " " + this.shapeOfNextCard().getCenterY());
-			//System.out.println(numOfCards + " will be popped");//TODO
-		}
-
-		for(int i = 0; i < numOfCards; i++){//Move numOfCards cards from this
-			temp.push(pop());				//stack to temp.
-		}
+		int from = grabIndex(y);
+		if(from < 0) //Then y is not in the boundaries of this stack,
+			return null; //so null is returned.
 
-		temp.reverse(); //Because cards were added out of order.
-		return temp;
+		return popFrom(from);
 	}
 
 	/**
@@ -84,14 +175,11 @@ public class Tableau extends StackOfCards {
 	 * 			y if the above conditioned are met, otherwise <code>null</code>.
 	 */
 	public Stack<Card> popSuitableCardsBelow(int y){
-		Stack<Card> temp = popCardsBelow(y);
-		if(temp == null || !isSuitable(temp)){
-			//If temp is not suitable, then its cards should not be removed, 
-			appendStack(temp); //so we append them back to this stack and
-			return null;       //return null.
-		} else {
-			return temp;	   //Otherwise temp is returned.
+		int from = grabIndex(y);
+		if(from < 0 || !isSuitableFrom(from)){
+			return null; //The cards are checked in place, so none were moved.
 		}
+		return popFrom(from);
 	}
 
 	/**
@@ -106,54 +194,67 @@ public class Tableau extends StackOfCards {
 	 * 			sequentially increasing in value from the top and alternate in color.
 	 */
 	public void appendSuitableCards(Stack<Card> stack){
-		Card bottom = stack.reverseCopy().pop();
+		canAppendSuitableCards(stack).check();
+		appendStack(stack); //Then the given stack can be appended.
+	}
+
+	/**
+	 * Returns whether or not {@link #appendSuitableCards(Stack)} would append
+	 * the given stack, without appending it.
+	 */
+	public Acceptance canAppendSuitableCards(Stack<Card> stack){
+		if(stack == null || stack.isEmpty()){
+			return Acceptance.NO_CARDS;
+		}
+		Card bottom = stack.get(0); //The bottom card of the given stack.
 
 		/* Checks if:
-		 * -the given stack alternates in color.
-		 * -the given stack is in sequence with regards to value.
 		 * -the bottom card of the given stack differs in color with this
 		 *  tableau's top card
 		 * -the bottom card's value is one less than the that of the top card.
-		 * If any of these conditions isn't met, an exception is thrown.   */
-		if(!isEmpty() && (this.peek().compareTo(bottom) != 1
-				|| this.peek().colorEquals(bottom))){
-
-			String message = "The given stack is not suitable.";
-			throw new IllegalArgumentException(message);
+		 */
+		if(isEmpty()){
+			return Acceptance.ACCEPTED;
+		} else if(this.peek().compareTo(bottom) != 1){
+			return Acceptance.OUT_OF_SEQUENCE;
+		} else if(this.peek().colorEquals(bottom)){
+			return Acceptance.SAME_COLOR;
 		}
-
-		appendStack(stack); //Then the given stack can be appended.
+		return Acceptance.ACCEPTED;
 	}
 
 	//adds wrapping to tableus in american toad
 	public void americanAppend(Stack<Card> stack) {
-		Card bottom = stack.reverseCopy().pop();
+		canAmericanAppend(stack).check();
+		appendStack(stack);
+	}
+
+	/**
+	 * Returns whether or not {@link #americanAppend(Stack)} would append the
+	 * given stack, without appending it.
+	 */
+	public Acceptance canAmericanAppend(Stack<Card> stack) {
+		if(stack == null || stack.isEmpty()){
+			return Acceptance.NO_CARDS;
+		}
+		Card bottom = stack.get(0); //The bottom card of the given stack.
 
 		/* Checks if:
-		 * -the given stack alternates in color.
-		 * -the given stack is in sequence with regards to value.
 		 * -the bottom card of the given stack differes in color with this tableau's top card
 		 * -the bottom card's value is one less than the that of the top card
 		 * 	(unless the top card is a king, allows king to be placed on an ace)
-		 * 	If any of these conditions isn't met, an exception is thrown.
 		 */
-		if (!isEmpty() && this.peek().compareTo(bottom) == -12 && bottom.getValue()==13 && this.peek().getValue()==1) {
-			if(this.peek().colorEquals(bottom)) {
-				String message = "The given stack is not suitable.";
-				throw new IllegalArgumentException(message);
-			} else {
-				appendStack(stack);
+		if(isEmpty()){
+			return Acceptance.ACCEPTED;
+		} else if(this.peek().getValue() != 1 || bottom.getValue() != 13){
+			if(this.peek().compareTo(bottom) != 1){
+				return Acceptance.OUT_OF_SEQUENCE;
 			}
-		} else 	if(!isEmpty() && (this.peek().compareTo(bottom) != 1 || this.peek().colorEquals(bottom))) {
-			String message = "The given stack is not suitable.";
-			throw new IllegalArgumentException(message);
-		} else {
-			appendStack(stack);
 		}
-
-
+		return this.peek().colorEquals(bottom) ? Acceptance.SAME_COLOR
+				: Acceptance.ACCEPTED;
 	}
-	
+
 	/**
 	 * Determines whether the given stack is completely visible, alterntes in
 	 * color, and is in sequence from low to high values.
@@ -162,7 +263,28 @@ public class Tableau extends StackOfCards {
 	 * 			else <code>false</code>.
 	 */
 	public static boolean isSuitable(Stack<Card> stack){
-		return alternatesInColor(stack) && americanSequence(stack) && isVisible(stack);
+		return isSuitable(stack, 0);
+	}
+
+	/**
+	 * Determines whether the cards of this tableau at and above the given
+	 * position are suitable, as {@link #isSuitable(Stack)} would for a stack
+	 * of them, without removing or copying them. The order of the cards is
+	 * known from the runs; only whether they are hidden is read, since cards
+	 * are turned over without the tableau changing.
+	 * @param from The position of the bottom card to be checked.
+	 */
+	public boolean isSuitableFrom(int from){
+		return isSuitable(this, from);
+	}
+
+	/**
+	 * Determines whether the cards of the given stack at and above the given
+	 * position are suitable.
+	 */
+	private static boolean isSuitable(Stack<Card> stack, int from){
+		return alternatesInColor(stack, from) && americanSequence(stack, from)
+				&& isVisible(stack, from);
 	}
 
 	/**
@@ -173,21 +295,25 @@ public class Tableau extends StackOfCards {
 	 * 		   cards have the same color, else <code>false</code>.
 	 */
 	public static boolean alternatesInColor(Stack<Card> stack){
-		if(stack.size() < 2){//Simple case
-			return true;
-		}
-
-		//Temporary stack in which elements will be removed to be checked. Another
-		Stack<Card> copy = stack.copy();//stack is made to maintain the original
-		Card toCompare = copy.pop(); //To compare against other elements.
+		return alternatesInColor(stack, 0);
+	}
 
-		while(!copy.isEmpty()){
-			Card current = copy.pop(); //To compare against toCompare.
-			//If they have the same color or current is hidden
-			if(current.colorEquals(toCompare)){
+	/**
+	 * Determines if the cards of the stack at and above the given position
+	 * alternate in color.
+	 */
+	private static boolean alternatesInColor(Stack<Card> stack, int from){
+		if(stack instanceof Tableau){ //Then the run is known.
+			return ((Tableau) stack).topOf(((Tableau) stack).alternating)
+					>= stack.size() - from;
+		}
+		//Each card is compared with the card above it. The cards are read in
+		//place so that no copy of the stack is needed.
+		for(int i = stack.size() - 2; i >= from; i--){
+			//If they have the same color
+			if(stack.get(i).colorEquals(stack.get(i + 1))){
 				return false; //then return false.
 			}
-			toCompare = current; //update toCompare.
 		}
 		return true; //If we have reached this point, then stack is suitable.
 	}
@@ -200,9 +326,16 @@ public class Tableau extends StackOfCards {
 	 * 		   cards have the same color, else <code>false</code>.
 	 */
 	public static boolean isVisible(Stack<Card> stack){
-		Stack<Card> copy = stack.copy();
-		while(!copy.isEmpty()){
-			if(copy.pop().isHidden()){
+		return isVisible(stack, 0);
+	}
+
+	/**
+	 * Determines if the cards of the stack at and above the given position
+	 * are visible.
+	 */
+	private static boolean isVisible(Stack<Card> stack, int from){
+		for(int i = stack.size() - 1; i >= from; i--){
+			if(stack.get(i).isHidden()){
 				return false;
 			}
 		}
@@ -217,44 +350,46 @@ public class Tableau extends StackOfCards {
 	 * 			else <code>false</code>.
 	 */
 	public static boolean inSequence(Stack<Card> stack){
-		if(stack.size() < 2){//Simple case
-			return true;
+		if(stack instanceof Tableau){ //Then the run is known.
+			return ((Tableau) stack).sequenceRun() >= stack.size();
 		}
-
-		//Temporary stack in which elements will be removed to be checked. Another
-		Stack<Card> copy = stack.copy();//stack is made to maintain the original
-		Card toCompare = copy.pop(); //To compare against other elements.
-
-		while(!copy.isEmpty()){
-			Card current = copy.pop(); //To compare against toCompare.
+		//Each card is compared with the card above it.
+		for(int i = stack.size() - 2; i >= 0; i--){
 			//If they aren't sequentially ordered:
-			if(current.compareTo(toCompare) != 1){
+			if(stack.get(i).compareTo(stack.get(i + 1)) != 1){
 				return false; //then return false.
 			}
-			toCompare = current; //update toCompare.
 		}
 		return true; //If we have reached this point, then stack is in sequence.
 	}
 
 	public static boolean americanSequence(Stack<Card> stack){
-		if(stack.size() < 2){//Simple case
-			return true;
-		}
-
-		//Temporary stack in which elements will be removed to be checked. Another
-		Stack<Card> copy = stack.copy();//stack is made to maintain the original
-		Card toCompare = copy.pop(); //To compare against other elements.
+		return americanSequence(stack, 0);
+	}
 
-		while(!copy.isEmpty()){
-			Card current = copy.pop(); //To compare against toCompare.
+	/**
+	 * Checks if the values of the cards of the stack at and above the given
+	 * position are in sequence, where an ace may follow a king.
+	 */
+	private static boolean americanSequence(Stack<Card> stack, int from){
+		if(stack instanceof Tableau && !stack.isEmpty()){
+			//Only the highest pair of cards that are out of sequence, which is
+			//below the top run, is checked, as it is the first one found below.
+			int start = stack.size() - ((Tableau) stack).sequenceRun();
+			return start <= from || (stack.get(start - 1).getValue() == 1
+					&& stack.get(start).getValue() == 13);
+		}
+		//Each card is compared with the card above it, from the top down.
+		for(int i = stack.size() - 2; i >= from; i--){
+			Card current = stack.get(i);		  //To compare against the
+			Card toCompare = stack.get(i + 1); //card above it.
 			//If they aren't sequentially ordered:
 			if(current.getValue() == 1 && toCompare.getValue() == 13){
 				return true;
 			} else if(current.compareTo(toCompare) != 1){
 				return false; //then return false.
 			}
-			toCompare = current; //update toCompare.
 		}
 		return true; //If we have reached this point, then stack is in sequence.
 	}
-}
\ No newline at end of file
+}
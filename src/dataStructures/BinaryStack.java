@@ -107,6 +107,20 @@ public class BinaryStack<T> implements StackADT<T> {
 		return temp;
 	}
 
+	/**
+	 * Returns the element at the given node, where 1 is the head and the nodes
+	 * are numbered in the order that their elements were pushed.
+	 * @return That element, or <code>null</code> if it was popped or the node
+	 * 			is out of bounds.
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int index){
+		if(index < 1 || index > size){
+			return null;
+		}
+		return (T)queue[index];
+	}
+
 	/**
 	 * Returns the top element of the stack if such an element exists.
 	 * @return 	If this stack is not empty, the element at the top of the stack,
@@ -1,66 +1,112 @@
 package dataStructures;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 /**
- * An iterable stack implementation of a queue. Elements are removable and 
- * accessible in the order in which they where added.
- * 
+ * An iterable queue implemented as a growable ring buffer. Elements are
+ * removable and accessible in the order in which they where added. Enqueueing
+ * and dequeueing are both O(1) (amortized for enqueue, since the buffer is
+ * doubled when it is full).
+ *
  * @author Warren Godone-Maresca
  *
  * @param <T> The type of this queue's elements.
  */
 public class Queue<T> implements Iterable<T> {
 
-	/** The elements of this queue.											 */
-	private Stack<T> elements;
-	
+	/** The initial length of the buffer.									 */
+	private static final int INITIAL_CAPACITY = 8;
+
+	/** The elements of this queue. Its length is always a power of two so that
+	 *  indices can be wrapped with a mask.									 */
+	private Object[] elements;
+
+	/** The index of the element that was added before all others.			 */
+	private int head;
+
+	/** The number of elements in the queue.								 */
+	private int size;
+
+	/** Counts the modifications made to this queue so that iterators can detect
+	 *  that the queue was changed while they were in use.					 */
+	private int modCount;
+
 	/**
 	 * Instantiates the queue with no elements
 	 */
 	public Queue(){
-		elements = new Stack<T>();
+		elements = new Object[INITIAL_CAPACITY];
 	}
-	
+
 	/**
 	 * Adds the given value to the queue.
 	 * @param value The object to be added.
 	 */
 	public void enqueue(T value){
-		elements.reverse();	 //First we reverse the elements so that the new 
-		elements.push(value);//element will be at the bottom of the stack.
-		elements.reverse();  //Then reverse again to put the elements in order.
+		if(size == elements.length){ //Then there is no room for another element.
+			grow();
+		}
+		elements[(head + size) & (elements.length - 1)] = value;
+		size++;
+		modCount++;
 	}
 
 	/**
 	 * Removes and returns the element that was added before all others.
 	 * @return That element if this queue is not empty, else <code>null</code>
 	 */
+	@SuppressWarnings("unchecked")
 	public T dequeue(){
-		return elements.pop();
+		if(isEmpty()){
+			return null;
+		}
+		T temp = (T)elements[head];
+		elements[head] = null; //So the element may be garbage collected.
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		modCount++;
+		return temp;
 	}
-	
+
 	/**
 	 * Returns the element that was added before all others.
 	 * @return That element if this queue is not empty, else <code>null</code>
 	 */
+	@SuppressWarnings("unchecked")
 	public T peek(){
-		return elements.peek();
+		if(isEmpty()){
+			return null;
+		}
+		return (T)elements[head];
 	}
-	
+
 	/**
 	 * Returns the number of elements in the queue.
 	 */
 	public int size(){
-		return elements.size();
+		return size;
 	}
-	
+
 	/**
 	 * Determines whether or not this queue contains any elements.
 	 */
 	public boolean isEmpty(){
-		return elements.isEmpty();
+		return size == 0;
+	}
+
+	/**
+	 * Doubles the length of the buffer. The elements are copied so that the
+	 * head of the queue is at index 0.
+	 */
+	private void grow(){
+		Object[] temp = new Object[elements.length * 2];
+		for(int i = 0; i < size; i++){
+			temp[i] = elements[(head + i) & (elements.length - 1)];
+		}
+		elements = temp;
+		head = 0;
 	}
 
 	/**
@@ -70,41 +116,46 @@ public class Queue<T> implements Iterable<T> {
 	public Iterator<T> iterator(){
 		return new QueueIterator();
 	}
-	
+
 	/**
 	 * An iterator for this queue. next() and hasNext() are supported but remove()
-	 * is not as elements may not be removed from the middle of a queue.
+	 * is not as elements may not be removed from the middle of a queue. The
+	 * iterator walks the buffer in place, so if the queue is modified while the
+	 * iterator is in use, {@link #next()} will throw a
+	 * {@link ConcurrentModificationException}.
 	 */
 	private class QueueIterator implements Iterator<T> {
-		/** The elements in this iteration.									*/
-		private Stack<T> stack;
-		
-		/**
-		 * Instantiates a new iterator.
-		 */
-		public QueueIterator(){
-			stack = elements.copy();
-		}
-		
+		/** The number of elements that have been returned.					*/
+		private int position;
+
+		/** The modification count of the queue that this iteration expects. */
+		private int expectedModCount = modCount;
+
 		/**
 		 * Determines whether or not there are any more elements in this iteration.
 		 * @return <code>true</code> if the iteration has more elements. (i.e.
-		 * 		  returns true if {@link #next()} would return an object rather 
+		 * 		  returns true if {@link #next()} would return an object rather
 		 * 		  than throwing an exception.)
 		 */
 		@Override
 		public boolean hasNext(){
-			return !stack.isEmpty();
+			return position < size;
 		}
 
 		/**
 		 * Returns the next element in the iteration.
 		 * @throws NoSuchElementException if there are no elements to iterate.
+		 * @throws ConcurrentModificationException if the queue was modified
+		 * 			since this iterator was created.
 		 */
 		@Override
+		@SuppressWarnings("unchecked")
 		public T next(){
+			if(modCount != expectedModCount){
+				throw new ConcurrentModificationException();
+			}
 			if(hasNext()){
-				return stack.pop();
+				return (T)elements[(head + position++) & (elements.length - 1)];
 			} else {
 				throw new NoSuchElementException();
 			}
@@ -119,4 +170,4 @@ public class Queue<T> implements Iterable<T> {
 			throw new UnsupportedOperationException("Not Supported");
 		}
 	}
-}
\ No newline at end of file
+}
@@ -2,20 +2,46 @@ package dataStructures;
 
 /**
  * @author Warren Godone-Maresca<p>
- * 
+ *
  * An implementation of a standard stack data type. It has operations for standard
  * stack operations, push, pop, and peek, as well as some additional methods for
  * to check the size, copy, reverse, and clear the stack.
+ * <p>
+ * The elements are held in a contiguous array. Copies made with {@link #copy()},
+ * {@link #reverseCopy()} and {@link #slice(int)} share that array with this
+ * stack until either of them is written to, so taking a copy is O(1). Elements
+ * may also be read by their position with {@link #get(int)}.
  *
  * @param <T> The data type of objects to be held in this stack.
  */
 public class Stack<T> implements StackADT<T> {
-	/** Points to the node that contains the top element of the stack.		*/
-	protected Node<T> head;
+	/** The initial length of {@link #elements} once something is pushed.	*/
+	private static final int INITIAL_CAPACITY = 8;
+
+	/** An empty array shared by all stacks that have never been pushed to.	*/
+	private static final Object[] EMPTY = new Object[0];
+
+	/** Holds the elements of the stack. Position <code>i</code> of the stack
+	 *  (0 being the bottom) is held at <code>elements[base + step*i]</code>.	*/
+	protected Object[] elements = EMPTY;
+
+	/** The index in {@link #elements} of the bottom element.				*/
+	protected int base;
+
+	/** Either 1 or -1. It is -1 when this stack is a reversed view of an array
+	 *  that is ordered from the top down.									*/
+	protected int step = 1;
+
+	/** Whether or not {@link #elements} may be referenced by another stack. A
+	 *  shared array is never written to; it is copied before the next write. */
+	protected boolean shared;
 
 	/** Holds the number of elements in the stack.							*/
 	protected int size = 0;
 
+	/** Counts the structural modifications made to this stack.				*/
+	protected int modCount;
+
 	/**
 	 * Instantiates the stack.
 	 */
@@ -25,13 +51,12 @@ public class Stack<T> implements StackADT<T> {
 	 * Adds the given value to the top of the stack.
 	 */
 	public void push(T value){
-		if(head == null){ //Then we create a new head.
-			head = new Node<T>(value, null);
-		} else { //we insert a new node before head.
-			Node<T> latest = new Node<T>(value, head);
-			head = latest;
+		if(shared || step < 0 || base + size == elements.length){
+			ensureWritable(size + 1); //Then the array must be (re)allocated.
 		}
+		elements[base + size] = value;
 		size++;
+		modified();
 	}
 
 	/**
@@ -40,13 +65,18 @@ public class Stack<T> implements StackADT<T> {
 	 * @return 	If this stack is not empty, the element at the top of the stack,
 	 * 			otherwise, null.
 	 */
+	@SuppressWarnings("unchecked")
 	public T pop(){
 		if(isEmpty()){ //Then there is nothing to pop.
 			return null;
 		}
+		int index = base + step*(size - 1);
+		T temp = (T)elements[index]; //Holds the object to return
+		if(!shared){
+			elements[index] = null; //So the element may be garbage collected.
+		}
 		size--;
-		T temp = head.getValue(); //Holds the object to return
-		head = head.getNext();
+		modified();
 		return temp;
 	}
 
@@ -55,11 +85,28 @@ public class Stack<T> implements StackADT<T> {
 	 * @return 	If this stack is not empty, the element at the top of the stack,
 	 * 			otherwise, null.
 	 */
+	@SuppressWarnings("unchecked")
 	public T peek(){
 		if(isEmpty()){
 			return null;
 		}
-		return head.getValue();
+		return (T)elements[base + step*(size - 1)];
+	}
+
+	/**
+	 * Returns the element at the given position of the stack.
+	 * @param index The position of the element where 0 is the bottom of the
+	 * 				stack and <code>size() - 1</code> is the top.
+	 * @return The element at that position.
+	 * @throws IndexOutOfBoundsException if <code>index</code> < 0 OR
+	 * 			<code>index</code> >= <code>size()</code>
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int index){
+		if(index < 0 || index >= size){
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return (T)elements[base + step*index];
 	}
 
 	/**
@@ -68,15 +115,25 @@ public class Stack<T> implements StackADT<T> {
 	 * 			<code>false</code>
 	 */
 	public boolean isEmpty(){
-		return head == null;
+		return size == 0;
 	}
 
 	/**
 	 * Removes all elements from the stack.
 	 */
 	public void clear(){
-		head = null;
+		if(shared){ //Then the other stacks still need the elements.
+			elements = EMPTY;
+			shared = false;
+		} else {
+			for(int i = 0; i < size; i++){
+				elements[base + step*i] = null;
+			}
+		}
+		base = 0;
+		step = 1;
 		size = 0;
+		modified();
 	}
 
 	/**
@@ -88,128 +145,141 @@ public class Stack<T> implements StackADT<T> {
 
 	/**
 	 * Reverses the order of all elements in the stack. This stack will be
-	 * modified as a result.
+	 * modified as a result. No elements are moved, only the direction in which
+	 * the array is read is changed.
 	 */
 	public void reverse(){
-		reverse(head, null);//There are no nodes before the head so we pass null.
-	}
-
-	/**
-	 * Reverse the order of all nodes after <code>node</code>.
-	 * @param node The node to begin the reversal.
-	 * @param prev The node below <code>node</code>.
-	 */
-	private void reverse(Node<T> node, Node<T> prev){
-		if(node != null){ //condition to recurse.
-			reverse(node.getNext(), node); //Reverse the rest of the stack.
-			if(node.getNext() == null){ // Then it is the new head
-				head = node;
-			}
-			node.setNext(prev);
+		if(size > 0){
+			base = base + step*(size - 1); //The top becomes the bottom.
 		}
+		step = -step;
+		modified();
 	}
 
 	/**
 	 * Returns a shallow copy of this stack with the elements in reversed order.
+	 * The copy shares its storage with this stack until one of them is modified.
 	 */
 	public Stack<T> reverseCopy(){
-		Stack<T> temp = new Stack<T>(); //The reversed copy.
-		for(Node<T> node = head; node != null; node = node.getNext()){
-			temp.push(node.getValue());
-		}
+		Stack<T> temp = copy();
+		temp.reverse();
 		return temp;
 	}
 
 	/**
 	 * Returns a shallow copy of this stack in which the order of the elements is
-	 * preserved.
+	 * preserved. The copy shares its storage with this stack until one of them
+	 * is modified.
 	 */
 	public Stack<T> copy(){
-		Stack<T> temp = reverseCopy();
-		temp.reverse(); //reverse the reversed copy to put it in order.
+		return slice(0);
+	}
+
+	/**
+	 * Returns a shallow copy of the elements at and above the given position,
+	 * in the same order. The copy shares its storage with this stack until one
+	 * of them is modified, so this stack is left unchanged and no elements
+	 * are copied.
+	 * @param from The position of the bottom element of the slice.
+	 * @throws IndexOutOfBoundsException if <code>from</code> < 0 OR
+	 * 			<code>from</code> > <code>size()</code>
+	 */
+	public Stack<T> slice(int from){
+		if(from < 0 || from > size){
+			throw new IndexOutOfBoundsException("Index: " + from + ", Size: " + size);
+		}
+		Stack<T> temp = new Stack<T>();
+		shareWith(temp, from);
+		return temp;
+	}
+
+	/**
+	 * Removes the elements at and above the given position and returns them in
+	 * the same order. They are returned as a {@link #slice(int)} of this
+	 * stack, so no elements are moved or copied, however many there are.
+	 * @param from The position of the bottom element to be removed.
+	 * @throws IndexOutOfBoundsException if <code>from</code> < 0 OR
+	 * 			<code>from</code> > <code>size()</code>
+	 */
+	public Stack<T> popFrom(int from){
+		Stack<T> temp = slice(from);
+		size = from; //The elements stay in the shared array for the slice.
+		modified();
 		return temp;
 	}
 
+	/**
+	 * Lets <code>other</code> view the elements of this stack at and above the
+	 * given position without copying them.
+	 * @param other The stack to become a view of this stack's elements. Its
+	 * 				previous elements are discarded.
+	 * @param from	The position of the bottom element of the view.
+	 */
+	protected void shareWith(Stack<T> other, int from){
+		shared = true;
+		other.elements = elements;
+		other.base = base + step*from;
+		other.step = step;
+		other.size = size - from;
+		other.shared = true;
+		other.modified();
+	}
+
+	/**
+	 * Called after every structural modification of this stack: a push, pop,
+	 * clear or reverse, or when it becomes a view of another stack. Subclasses
+	 * that keep track of their elements override it and call this method.
+	 */
+	protected void modified(){
+		modCount++;
+	}
+
+	/**
+	 * Makes {@link #elements} an array that only this stack references, that is
+	 * read from the bottom up (<code>step</code> is 1), and that has room for at
+	 * least <code>capacity</code> elements above <code>base</code>.
+	 */
+	protected void ensureWritable(int capacity){
+		if(!shared && step > 0 && base + capacity <= elements.length){
+			return; //The array can already be written to.
+		}
+		int length = Math.max(elements.length, INITIAL_CAPACITY);
+		while(length < capacity){
+			length *= 2;
+		}
+		Object[] temp = new Object[length];
+		for(int i = 0; i < size; i++){
+			temp[i] = elements[base + step*i];
+		}
+		elements = temp;
+		base = 0;
+		step = 1;
+		shared = false;
+	}
+
 	/**
 	 * Appends a given stack to this stack. The top element of the given stack
 	 * will be the top element in this stack after this method is called. The order
-	 * of all elements of the given stack will be preserved in this stack. The 
+	 * of all elements of the given stack will be preserved in this stack. The
 	 * bottom element of the given stack will be on top of the previouse
 	 * top element of this stack.<p>
-	 * 
+	 *
 	 * Additionally, the given stack object will be unmodified. It will still exists
 	 * as a shallow copy of the top elements of this stack. The objects will not
 	 * be copied and shall be contained in both stacks.
-	 * 
+	 *
 	 * @param stack The stack to be appended to this stack.
 	 */
 	public void appendStack(Stack<T> stack){
 		if(stack == null || stack.isEmpty()){
 			return;
 		}
-		//So that the given stack is unmodified. It is reversed so that the
-		//the elements are added in the proper order.
-		Stack<T> temp = stack.reverseCopy();
-		while(!temp.isEmpty()){
-			push(temp.pop()); //We append each element of the
-		}
-	}
-
-	/**
-	 * A node class to contain an element and point to the next node in the stack.
-	 */
-	@SuppressWarnings("hiding")
-	protected class Node<T> {
-		/** The object held by this node.									*/
-		private T value;
-		
-		/** Points to the next node in the stack.							*/
-		private Node<T> next;
-		
-		/**
-		 * Instantiates the node with a object value and a next node.
-		 * @param value The object to be contained in this node.
-		 * @param next	The next node in the list after this node. This may be
-		 * 				<code>null</code> to instantiate this node as an isolated
-		 * 				<code>Node</code>.
-		 */
-		public Node(T value, Node<T> next){
-			this.value = value;
-			this.next = next;
-		}
-
-		/**
-		 * Sets object value to be in this node.
-		 * @param value The object to be contained in this node.
-		 */
-		public void setValue(T value){
-			this.value = value;
-		}
-
-		/**
-		 * Returns the value contained in this node.
-		 */
-		public T getValue(){
-			return value;
-		}
-
-		/**
-		 * Sets the node to follow this node in the list.
-		 * @param next	The next node in the list after this node. This may be
-		 * 				<code>null</code> to remove any other node following
-		 * 				this node.
-		 */
-		public void setNext(Node<T> next){
-			this.next = next;
-		}
-
-		/**
-		 * Returns the node that immediately follows this node.
-		 * @return 	The node that is pointed to by this node. <code>null</code>
-		 * 			will be returned if no nodes come after this node in a list.
-		 */
-		public Node<T> getNext(){
-			return next;
+		//Each element is pushed from the bottom up so that the given stack is
+		//unmodified and the elements are added in the proper order. The size is
+		//read first in case the given stack is this stack.
+		int count = stack.size();
+		for(int i = 0; i < count; i++){
+			push(stack.get(i));
 		}
 	}
-}
\ No newline at end of file
+}
@@ -1,15 +1,20 @@
 package solitaire;
 
+import card.Acceptance;
 import card.Card;
 import card.Foundation;
 import card.StackOfCards;
 import card.Tableau;
 import dataStructures.Queue;
 import dataStructures.Stack;
+import solitaire.engine.AmericanToadState;
+import solitaire.engine.GameState;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseEvent;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 
@@ -55,8 +60,7 @@ public class AmericanToad extends Klondike {
 	 */
 	public AmericanToad(Container container){
 		this.container = container;
-		container.addMouseListener(this); 		//To respond to clicks
-		container.addMouseMotionListener(this); //and dragging.
+		addListeners(container);
 		container.setBackground(new Color(0, 60, 0)); //A green color.
 		container.setSize(790, 720);
 		container.setPreferredSize(container.getSize());
@@ -91,7 +95,7 @@ public class AmericanToad extends Klondike {
 		StackOfCards deck = new StackOfCards();
 		StackOfCards reserve = new StackOfCards();
 		//fill deck twice to hold 104 cards & shuffle
-		deck.fillBySuit(); deck.fillBySuit(); deck.shuffle();
+		deck.fillBySuit(); deck.fillBySuit(); deck.shuffle(newDeal());
 		//take 20 cards from deck to make reserve
 		for(int i=0;i<20;i++) {
 			reserve.push(deck.pop());
@@ -203,10 +207,7 @@ public class AmericanToad extends Klondike {
 	 */
 	public void mouseDragged(MouseEvent e){
 		System.out.println("mouseDragged function being called...");
-		if(inUse != null){//Just move the cards inUse When the mouse is dragged
-			inUse.setLocation(e.getX() - deltaX, e.getY() - deltaY);
-			container.repaint();                   //and repaint.
-		}
+		super.mouseDragged(e);
 	}
 
 	/**
@@ -384,33 +385,32 @@ public class AmericanToad extends Klondike {
 	protected boolean tableauxPressedAction(int x, int y){
 		System.out.println("tableauPressedAction called");
 
-		for(Tableau tableau : tableaux){ //Check each tableau,
-			if(tableau.contains(x, y)){  //and if the mouse clicked a tableau,
-				System.out.println("Tableau was clicked");
+		for(Tableau tableau : tableauIndex().stacksAt(x, y)){ //Each tableau clicked,
+			System.out.println("Tableau was clicked");
 
-				//The cards to be put inUse.
-				Stack<Card> cards = tableau.popCardsBelow(y);
-				if(tableau.isEmpty()) System.out.println("tableau is now empty...");
+			//The cards to be put inUse, which are only viewed until they are
+			//known to be removable.
+			int from = tableau.grabIndex(y);
+			Stack<Card> cards = from < 0 ? null : tableau.slice(from);
 
-				if(!removableFromTableaux(cards)){
-					System.out.println("Cards not removable, return back");
-					//the cards are not removable so we put them back.
-					tableau.appendStack(cards);
-					return false; //The action was not performed.
-				}
+			if(!removableFromTableaux(cards)){
+				System.out.println("Cards not removable, left in place");
+				return false; //The action was not performed.
+			}
+			tableau.popFrom(from);
+			if(tableau.isEmpty()) System.out.println("tableau is now empty...");
 
-				//The y coordinate of the bottom card that was popped.
-				int cardsY = cards.reverseCopy().peek().getY();
+			//The y coordinate of the bottom card that was popped.
+			int cardsY = cards.get(0).getY();
 
-				deltaX = x - tableau.getX(); //How off center the click was
-				deltaY = y - cardsY;		//relative to the card.
+			deltaX = x - tableau.getX(); //How off center the click was
+			deltaY = y - cardsY;		//relative to the card.
 
-				//Then put all cards below the click in use, if they are suitable.
-				inUse.appendStack(cards);
-				lastStack = tableau; //And the the tableau becomes the last stack.
-				System.out.println("inUse was appended: inUse empty? "+inUse.isEmpty());
-				System.out.println("lastStack = tableau");
-			}
+			//Then put all cards below the click in use, if they are suitable.
+			inUse.appendStack(cards);
+			lastStack = tableau; //And the the tableau becomes the last stack.
+			System.out.println("inUse was appended: inUse empty? "+inUse.isEmpty());
+			System.out.println("lastStack = tableau");
 		}
 		if(!inUse.isEmpty()) {
 			System.out.println("tableau card(s) is being dragged..."); line();
@@ -455,26 +455,20 @@ public class AmericanToad extends Klondike {
 		if(inUse.isEmpty() || inUse.size() != 1){ //Only 1 card can be added to
 			return false;						  //a foundation at a time.
 		}
-		for(Foundation foundation : foundations){
-			//If the foundation was clicked.
-			if(foundation.contains(x, y) || (foundation.isEmpty()
-					&& foundation.shapeOfNextCard().contains(x, y))){
-				System.out.println("foundation was clicked/released on...");
-				try {
-					//Peek is used in case the card is not appended.
-					foundation.americanPush(inUse.peek(),baseCard);
-					System.out.println("Card was pushed on foundation..");
-					//if an exception was not thrown:
-					inUse.pop(); //we pop.
-					System.out.println("inUse was popped, inUse cleared? "+inUse.isEmpty()+", returning...");
-					line();
-					flipLastStack();
-					return true; //The action was performed
-				} catch(IllegalArgumentException ex){ //If an exception was thrown,
-					System.out.println("Invalid operation on foundation...");
-					return false; //we return false as nothing was done.
-				}
+		//If the foundation was clicked.
+		for(Foundation foundation : foundationIndex().targetsAt(x, y)){
+			System.out.println("foundation was clicked/released on...");
+			Acceptance acceptance = foundation.canAmericanPush(inUse.peek(), baseCard);
+			if(!acceptance.isAccepted()){
+				System.out.println("Invalid operation on foundation: " + acceptance.getMessage());
+				return false; //Nothing was done.
 			}
+			foundation.americanPush(inUse.pop(), baseCard);
+			System.out.println("Card was pushed on foundation..");
+			System.out.println("inUse was popped, inUse cleared? "+inUse.isEmpty()+", returning...");
+			line();
+			flipLastStack();
+			return true; //The action was performed
 		}
 		System.out.println("Mouse was not released on a foundation..."); line();
 		return false;
@@ -494,57 +488,43 @@ public class AmericanToad extends Klondike {
 		System.out.println("tableauReleasedAction called");
 		System.out.println("Mouse X-Coord: "+x+", Mouse Y-Coord: "+y);
 
-		for(Tableau tableau : tableaux){ //Check each of the tableaux
-			if(tableau.contains(x, y) || tableau.shapeOfNextCard().contains(x, y)){
-				System.out.println("Mouse Released on tableau..");
-				//Then we check if the inUse stack can be appended to the
-				//tableau per the rules of solitaire.
-				try {
-					tableau.americanAppend(inUse);
-					System.out.println("Cards were appended to tableau column..");
-					inUse.clear();
-					flipLastStack();
-					System.out.println("inUse Cleared? "+ inUse.isEmpty()+", return...");
-					return true;
-				} catch(IllegalArgumentException ex){
-					System.out.println("Invalid operation...");
-				}
+		for(Tableau tableau : tableauIndex().targetsAt(x, y)){ //Each tableau dropped on
+			System.out.println("Mouse Released on tableau..");
+			//Then we check if the inUse stack can be appended to the
+			//tableau per the rules of solitaire.
+			Acceptance acceptance = tableau.canAmericanAppend(inUse);
+			if(!acceptance.isAccepted()){
+				System.out.println("Invalid operation: " + acceptance.getMessage());
 				return false;
 			}
-
+			tableau.americanAppend(inUse);
+			System.out.println("Cards were appended to tableau column..");
+			inUse.clear();
+			flipLastStack();
+			System.out.println("inUse Cleared? "+ inUse.isEmpty()+", return...");
+			return true;
 		}
 		System.out.println("Mouse was not released on a tableau column.."); line();
 		return false;//If we have reached this point, then no action was performed
 	}
 
 	/**
-	 * Paints all of the stacks. This should be placed in the container's paint
-	 * method.
+	 * Paints all of the stacks that do not move, including the reserve.
 	 */
-	public void paint(Graphics pane){
-		if(initialized){
-			for(StackOfCards tableau : tableaux){
-				tableau.draw(pane);
-			}
-			for(StackOfCards foundation : foundations){
-				foundation.draw(pane);
-			}
-			if(stock != null && !stock.isEmpty())
-				stock.peek().draw(pane);
-			if(reserve !=null&& !reserve.isEmpty())
-				reserve.peek().draw(pane);
-			if(waste != null && !waste.isEmpty())
-				waste.peek().draw(pane);
-			if(inUse != null && !inUse.isEmpty())
-				inUse.draw(pane);
-
-			updateAnimationQueue();
-			for(StackOfCards stack : animationQueue){
-				if(!stack.isEmpty()){
-					stack.draw(pane);
-				}
-			}
+	@Override
+	protected void paintStatic(Graphics pane){
+		for(StackOfCards tableau : tableaux){
+			tableau.draw(pane);
+		}
+		for(StackOfCards foundation : foundations){
+			foundation.draw(pane);
 		}
+		if(stock != null && !stock.isEmpty())
+			stock.peek().draw(pane);
+		if(reserve !=null&& !reserve.isEmpty())
+			reserve.peek().draw(pane);
+		if(waste != null && !waste.isEmpty())
+			waste.peek().draw(pane);
 	}
 
 	/**
@@ -583,49 +563,47 @@ public class AmericanToad extends Klondike {
 	}
 
 	/**
-	 * Plays the winning animation.
-	 * Pre. <code>hasWon()</code> returns <code>true</code>.
+	 * Also returns the reserve.
 	 */
-	protected void winningAnimation(){
-		//We calculate the number of cards in all of the foundations.
-		int sizeOfFoundations = 0;
-		for(Foundation f : foundations){
-			sizeOfFoundations += f.size();
-		}
+	@Override
+	protected List<StackOfCards> savedStacks(){
+		List<StackOfCards> stacks = super.savedStacks();
+		stacks.add(reserve);
+		return stacks;
+	}
 
-		while(sizeOfFoundations < 52){ //until all cards are in the foundations.
-			//If the animation queue has more than 5 cards, then we wait so as to
-			//prevent the program from crashing by creating too many threads at
-			if(animationQueue.size() > 6){						//the same time.
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e){}
-				continue; //try again.
-			}
-			for(Foundation foundation : foundations){ //For each foundation:
-				Card temp = foundation.peek(); //For comparisons.
-
-				for(Tableau tableau : tableaux){
-					//If the tableau:
-					//-is not empty
-					//-its top card's value is one greater than temp
-					//-and it has the same suit as temp, then:
-					if(!tableau.isEmpty() &&
-							temp.compareTo(tableau.peek()) == -1
-							&& temp.getSuit() == tableau.peek().getSuit()){
-
-						//move the top card to the foundation and animate it.
-						animateTopCardOf(tableau, foundation);
-						sizeOfFoundations++;//One more card is in a foundation.
-
-						break; //We don't need to look in another tableau.
-					}
-				}
-			}
-		}
+	/**
+	 * Writes the state of the stacks, then the base card, which decides the
+	 * value that starts the foundations, and the reshuffles.
+	 */
+	@Override
+	protected void writeSnapshot(ByteBuffer buffer){
+		super.writeSnapshot(buffer);
+		SavedGame.putCard(buffer, baseCard);
+		buffer.put((byte) reshuffleCount);
 	}
 
+	@Override
+	protected void readSnapshot(ByteBuffer buffer){
+		super.readSnapshot(buffer);
+		baseCard = SavedGame.getCard(buffer, cardWidth);
+		if(baseCard == null){
+			throw new IllegalArgumentException("The saved game has no base card.");
+		}
+		reshuffleCount = buffer.get();
+	}
 
+	@Override
+	public GameState toGameState(){
+		AmericanToadState state = new AmericanToadState(baseCard.getValue());
+		load(state, 0, tableaux);
+		load(state, state.firstFoundation(), foundations);
+		load(state.pile(state.getStock()), stock, false);
+		load(state.pile(state.getWaste()), waste, false);
+		load(state.pile(state.getReserve()), reserve, false);
+		state.setRecycles(reshuffleCount);
+		return state;
+	}
 
 	public String getName() {
 		return "AmericanToad";
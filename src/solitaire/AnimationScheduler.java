@@ -0,0 +1,173 @@
+package solitaire;
+
+import java.awt.Component;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Runs every {@link StackOfCardsAnimator} from one Swing {@link Timer}, so that
+ * all of the animations of the program share one frame and no thread is made
+ * per animation. Each frame moves every active animation to where it should be
+ * for the time that has passed, then repaints the area that the animations
+ * covered once per component.
+ * <p>
+ * Since the timer fires on the event dispatch thread, the stacks are only
+ * changed on that thread, as with the rest of the user interface. Methods
+ * called from another thread are passed on to the event dispatch thread. The
+ * timer only runs while there are animations.
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class AnimationScheduler {
+	/** The number of milliseconds between frames.							*/
+	private static final int FRAME = 10;
+
+	/** The animations that have not arrived, in the order they were started.	*/
+	private static final List<StackOfCardsAnimator> active =
+			new ArrayList<StackOfCardsAnimator>();
+
+	/** The actions to run once an owner has no more animations.				*/
+	private static final List<Object> idleOwners = new ArrayList<Object>();
+	private static final List<Runnable> idleActions = new ArrayList<Runnable>();
+
+	/** Fires the frames.														*/
+	private static final Timer timer = new Timer(FRAME, new ActionListener(){
+		public void actionPerformed(ActionEvent e){
+			tick();
+		}
+	});
+
+	/** No instances.															*/
+	private AnimationScheduler(){}
+
+	/**
+	 * Starts the given animation at the next frame.
+	 */
+	static void start(final StackOfCardsAnimator animator){
+		if(!SwingUtilities.isEventDispatchThread()){
+			SwingUtilities.invokeLater(new Runnable(){
+				public void run(){
+					start(animator);
+				}
+			});
+			return;
+		}
+		animator.begin(System.nanoTime());
+		active.add(animator);
+		if(!timer.isRunning()){
+			timer.start();
+		}
+	}
+
+	/**
+	 * Runs the given action on the event dispatch thread once the given owner
+	 * has no animations, which may be right away.
+	 */
+	public static void whenIdle(final Object owner, final Runnable action){
+		if(!SwingUtilities.isEventDispatchThread()){
+			SwingUtilities.invokeLater(new Runnable(){
+				public void run(){
+					whenIdle(owner, action);
+				}
+			});
+			return;
+		}
+		if(!isAnimating(owner)){
+			action.run();
+		} else {
+			idleOwners.add(owner);
+			idleActions.add(action);
+		}
+	}
+
+	/**
+	 * Determines whether the given owner has animations that have not arrived.
+	 * This must be called from the event dispatch thread.
+	 */
+	public static boolean isAnimating(Object owner){
+		for(StackOfCardsAnimator animator : active){
+			if(animator.getOwner() == owner){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Stops the animations of the given owner where they are, without adding
+	 * their cards to their destinations, and drops the owner's idle actions.
+	 * It is meant for when the user leaves a game.
+	 */
+	public static void cancel(final Object owner){
+		if(!SwingUtilities.isEventDispatchThread()){
+			SwingUtilities.invokeLater(new Runnable(){
+				public void run(){
+					cancel(owner);
+				}
+			});
+			return;
+		}
+		for(int i = active.size() - 1; i >= 0; i--){
+			if(active.get(i).getOwner() == owner){
+				active.remove(i);
+			}
+		}
+		for(int i = idleOwners.size() - 1; i >= 0; i--){
+			if(idleOwners.get(i) == owner){
+				idleOwners.remove(i);
+				idleActions.remove(i);
+			}
+		}
+		if(active.isEmpty()){
+			timer.stop();
+		}
+	}
+
+	/**
+	 * Moves every animation for the current time, repaints what they covered,
+	 * then runs the idle actions of the owners that have finished.
+	 */
+	private static void tick(){
+		long now = System.nanoTime();
+		Map<Component, Rectangle> dirty = new IdentityHashMap<Component, Rectangle>();
+
+		//A copy, since an arrival may start another animation.
+		for(StackOfCardsAnimator animator : new ArrayList<StackOfCardsAnimator>(active)){
+			Rectangle area = animator.step(now);
+			if(animator.hasArrived()){
+				active.remove(animator);
+			}
+			Component component = animator.getComponent();
+			if(component != null){
+				Rectangle union = dirty.get(component);
+				if(union == null){
+					dirty.put(component, area);
+				} else {
+					union.add(area);
+				}
+			}
+		}
+		for(Map.Entry<Component, Rectangle> entry : dirty.entrySet()){
+			Rectangle area = entry.getValue();
+			entry.getKey().repaint(area.x, area.y, area.width, area.height);
+		}
+
+		for(int i = 0; i < idleOwners.size(); i++){
+			if(!isAnimating(idleOwners.get(i))){
+				idleOwners.remove(i);
+				idleActions.remove(i--).run();
+			}
+		}
+		if(active.isEmpty()){
+			timer.stop();
+		}
+	}
+}
@@ -6,15 +6,20 @@ import java.awt.Graphics;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
 
 import javax.swing.JOptionPane;
 
-import card.Card;
 import card.Foundation;
 import card.StackOfCards;
+import card.Suit;
 import card.Tableau;
 import dataStructures.Queue;
 import dataStructures.Stack;
+import solitaire.engine.AnnoDominiState;
+import solitaire.engine.GameState;
+import solitaire.engine.Variant;
 
 /**
  * A game of Klondike Solitaire. Klondike is one of the most
@@ -44,17 +49,39 @@ public class AnnoDomini extends Klondike
 	
 	/** Count of reshuffles									*/
 	protected int reshuffleCount = 0;
+
+	/** The year whose digits start the foundations.						*/
+	protected int year;
+
+	/** The suits of the foundations that have been started.				*/
+	protected EnumSet<Suit> suitsUsed;
 	
 	/**
-	 * Instantiates the game with a {@link Container}.
+	 * Instantiates the game with a {@link Container} for the current year.
 	 * @param container The Container (such as window or applet) in which the 
 	 * 					game will be played.
 	 */
 	public AnnoDomini(Container container)
 	{
+		this(container, Variant.currentYear());
+	}
+
+	/**
+	 * Instantiates the game with a {@link Container} for the given year.
+	 * @param container The Container (such as window or applet) in which the 
+	 * 					game will be played.
+	 * @param year		The year whose digits start the foundations. It must
+	 * 					have four digits.
+	 * @throws IllegalArgumentException if the year does not have four digits.
+	 */
+	public AnnoDomini(Container container, int year)
+	{
+		if(year < 1000 || year > 9999){
+			throw new IllegalArgumentException("The year must have four digits.");
+		}
+		this.year = year;
 		this.container = container;
-		container.addMouseListener(this); 		//To respond to clicks
-		container.addMouseMotionListener(this); //and dragging.
+		addListeners(container);
 		container.setBackground(new Color(0, 100, 100)); //A blue color.
 		container.setSize(790, 720);
 		container.setPreferredSize(container.getSize());
@@ -85,11 +112,8 @@ public class AnnoDomini extends Klondike
 	protected void init()
 	{
 		//The initial deck.
-		StackOfCards deck = StackOfCards.randomDeck();
+		StackOfCards deck = StackOfCards.randomDeck(newDeal());
 
-		//Clears the suitsUsed ArrayList
-		Foundation.SuitClear();
-		
 		//Calls initTableaux with the random deck and an anonymous array that
 		//holds the initial tableau sizes.
 		initTableaux(deck, new int[] {1, 1, 1, 1});
@@ -100,17 +124,21 @@ public class AnnoDomini extends Klondike
 	}
 	
 	/**
-	 * Initializes the size and location of foundation stacks which are initially empty.
+	 * Initializes the size and location of foundation stacks which are initially
+	 * empty. The first foundation starts with the last digit of the year, the
+	 * next with the digit before it, and so on, and they share one set of the
+	 * suits that have been used.
 	 */
 	protected void initFoundations(int numOfFoundations)
 	{
 		foundations = new Foundation[numOfFoundations];
-		int foundationCount = 3;
+		suitsUsed = EnumSet.noneOf(Suit.class);
+		int digits = year;
 		for(int i = 0; i < foundations.length; i++)
 		{
 			foundations[i] = new Foundation(tableaux[tableaux.length - i - 1].getX() + xCoord,
-					yCoord, cardWidth, foundationCount);
-			foundationCount--;
+					yCoord, cardWidth, digits % 10, suitsUsed);
+			digits /= 10;
 		}
 	}
 
@@ -134,21 +162,14 @@ public class AnnoDomini extends Klondike
 		if(inUse.isEmpty() || inUse.size() != 1){ //Only 1 card can be added to
 			return false;						  //a foundation at a time.
 		}
-		for(Foundation foundation : foundations){
-			//If the foundation was clicked.
-			if(foundation.contains(x, y) || (foundation.isEmpty()
-					&& foundation.shapeOfNextCard().contains(x, y))){
-				try {
-					//Peek is used in case the card is not appended.
-					foundation.annoPush(inUse.peek());
-					//if an exception was not thrown:
-					inUse.pop(); //we pop.
-					flipLastStack();
-					return true; //The action was performed
-				} catch(IllegalArgumentException ex){ //If an exception was thrown,
-					return false; //we return false as nothing was done.
-				}
+		//If the foundation was clicked.
+		for(Foundation foundation : foundationIndex().targetsAt(x, y)){
+			if(!foundation.canAnnoPush(inUse.peek()).isAccepted()){
+				return false; //Nothing was done.
 			}
+			foundation.annoPush(inUse.pop());
+			flipLastStack();
+			return true; //The action was performed
 		}
 		return false;
 	}
@@ -234,48 +255,48 @@ public class AnnoDomini extends Klondike
 	}
 
 	/**
-	 * Plays the winning animation.
-	 * Pre. <code>hasWon()</code> returns <code>true</code>.
+	 * Writes the year, which the foundations must have before their cards are
+	 * restored, then the state of the stacks and the reshuffles.
 	 */
-	protected void winningAnimation(){
-		//We calculate the number of cards in all of the foundations.
-		int sizeOfFoundations = 0;
-		for(Foundation f : foundations){
-			sizeOfFoundations += f.size();
-		}
-
-		while(sizeOfFoundations < 52){ //until all cards are in the foundations.
-			//If the animation queue has more than 5 cards, then we wait so as to
-			//prevent the program from crashing by creating too many threads at
-			if(animationQueue.size() > 6){						//the same time.
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e){}
-				continue; //try again.
-			}
-			for(Foundation foundation : foundations){ //For each foundation:
-				Card temp = foundation.peek(); //For comparisons.
-
-				for(Tableau tableau : tableaux){
-					//If the tableau:
-					//-is not empty
-					//-its top card's value is one greater than temp
-					//-and it has the same suit as temp, then:
-					if(!tableau.isEmpty() &&
-							temp.compareTo(tableau.peek()) == -1
-							&& temp.getSuit() == tableau.peek().getSuit()){
+	@Override
+	protected void writeSnapshot(ByteBuffer buffer){
+		buffer.putShort((short) year);
+		super.writeSnapshot(buffer);
+		buffer.put((byte) reshuffleCount);
+	}
 
-						//move the top card to the foundation and animate it.
-						animateTopCardOf(tableau, foundation);
-						sizeOfFoundations++;//One more card is in a foundation.
-						
-						break; //We don't need to look in another tableau.
-					}
-				}	
+	/**
+	 * Restores the state written by {@link #writeSnapshot}, with the
+	 * foundations of the saved year, whose suits are those of their aces.
+	 */
+	@Override
+	protected void readSnapshot(ByteBuffer buffer){
+		int savedYear = buffer.getShort();
+		if(savedYear < 1000 || savedYear > 9999){
+			throw new IllegalArgumentException("The saved year does not have four digits.");
+		}
+		year = savedYear;
+		initFoundations(foundations.length);
+		super.readSnapshot(buffer);
+		reshuffleCount = buffer.get();
+		for(Foundation foundation : foundations){
+			if(!foundation.isEmpty()){
+				suitsUsed.add(foundation.get(0).getSuit());
 			}
 		}
 	}
 
+	@Override
+	public GameState toGameState(){
+		AnnoDominiState state = new AnnoDominiState(year);
+		load(state, 0, tableaux);
+		load(state, state.firstFoundation(), foundations);
+		load(state.pile(state.getStock()), stock, false);
+		load(state.pile(state.getWaste()), waste, false);
+		state.setRecycles(reshuffleCount);
+		return state;
+	}
+
 	public String getName() {
 		return "AnnoDomini";
 	}
@@ -5,10 +5,13 @@ import java.awt.event.*;
 import java.util.Collections;
 
 import card.Card;
+import card.Shuffler;
 import card.StackOfCards;
 import card.Tableau;
 import dataStructures.Queue;
 import dataStructures.Stack;
+import solitaire.engine.ArgosState;
+import solitaire.engine.GameState;
 
 import javax.swing.*;
 
@@ -33,8 +36,7 @@ public class Argos extends Klondike {
 	public Argos(Container container){
         this.container = container;
 
-        container.addMouseListener(this); 		//To respond to clicks
-        container.addMouseMotionListener(this); //and dragging.
+        addListeners(container);
 	container.setBackground(new Color(0, 60, 0));
 
         setCoord(container);
@@ -107,8 +109,10 @@ public class Argos extends Klondike {
 			}
 		}
 
-		//Shuffle the cards
-		deck.shuffle();
+		//Shuffle the cards. The kings are shuffled in by the same shuffler, so
+		//that the deal number gives the whole deal.
+		Shuffler shuffler = newDeal();
+		deck.shuffle(shuffler);
 
 		//Split into stock and play decks (still no kings yet)
 		for (int i=0; i<48; i++){
@@ -123,7 +127,7 @@ public class Argos extends Klondike {
 		}
 
 		//Shuffle kings in to stock deck
-		stockDeck.shuffle();
+		stockDeck.shuffle(shuffler);
 
 		//Init stacks
 		initTableaux(playDeck);
@@ -235,35 +239,30 @@ public class Argos extends Klondike {
 	 */
 	@Override
 	protected boolean tableauxReleasedAction(int x, int y){
-		for(Tableau tableau : tableaux){ //Check each of the tableaux
-			if(tableau.contains(x, y) || tableau.shapeOfNextCard().contains(x, y)){
-
-				//if there is exactly one card on the tableau, and we are only attempting to put one card on it
-				if (tableau.size()==1 && inUse.size()==1) {
-
-					//Card value must be 2x tableau value, or 2*tableau value - 13
-					if ((inUse.peek().getValue()==(2*tableau.peek().getValue()))||(inUse.peek().getValue()==(2*tableau.peek().getValue()-13))) {
-						try {
-							tableau.appendStack(inUse);
-							//This code is not executed if an exception was thrown.
-							inUse.clear();
-							flipLastStack();
-
-							//If this card placement makes three complete rows of cards, they've won
-							if (hasWon())
-								onWin();
-
-							//Has to be below win-checking so that no unnecessary moves are generated if they've won
-                            //If we emptied the waste stack, deal another card automatically
-                            if (waste.isEmpty()) {
-                                //Use short-circuiting to only check for loss if we cannot deal another card
-                                if (!stockPressedAction(stock.getX(), stock.getY())&&hasLost())
-                                    onLoss();
-                            }
-							return true;
-						} catch (IllegalArgumentException ex) {
-						}
-					}
+		for(Tableau tableau : tableauIndex().targetsAt(x, y)){ //Each tableau dropped on
+
+			//if there is exactly one card on the tableau, and we are only attempting to put one card on it
+			if (tableau.size()==1 && inUse.size()==1) {
+
+				//Card value must be 2x tableau value, or 2*tableau value - 13
+				if ((inUse.peek().getValue()==(2*tableau.peek().getValue()))||(inUse.peek().getValue()==(2*tableau.peek().getValue()-13))) {
+					//A tableau takes any cards, so the rule above is the only check.
+					tableau.appendStack(inUse);
+					inUse.clear();
+					flipLastStack();
+
+					//If this card placement makes three complete rows of cards, they've won
+					if (hasWon())
+						onWin();
+
+					//Has to be below win-checking so that no unnecessary moves are generated if they've won
+                    //If we emptied the waste stack, deal another card automatically
+                    if (waste.isEmpty()) {
+                        //Use short-circuiting to only check for loss if we cannot deal another card
+                        if (!stockPressedAction(stock.getX(), stock.getY())&&hasLost())
+                            onLoss();
+                    }
+					return true;
 				}
 			}
 		}
@@ -328,7 +327,7 @@ public class Argos extends Klondike {
      */
 	@Override
 	public void onWin() {
-        Statistics.winGame("Argos");
+        Statistics.winGame("Argos", this);
         //Then we show a dialog box to alert the user of the fact.
         //We start another anonymous thread to show the dialog box because
         //the dialog will pause all threads if it is in the main thread.
@@ -374,7 +373,7 @@ public class Argos extends Klondike {
      * Return user to main menu
      */
     private void onLoss() {
-        Statistics.leaveGame("Argos");
+        Statistics.leaveGame("Argos", this);
 
 
         new Thread(new Runnable(){
@@ -405,49 +404,45 @@ public class Argos extends Klondike {
 
 
 	/**
-	 * Paints all of the stacks. This should be placed in the container's paint
-	 * method.
-	 * Draws stock/waste deck and play tableaus of Argos
+	 * Draws the hint placements, the stock/waste deck and the play tableaus of
+	 * Argos.
 	 */
 	@Override
-	public void paint(Graphics pane){
-		if(initialized){
-
-            Card card = null;
-            if (!waste.isEmpty())
-                card = waste.peek();
-            else if (!inUse.isEmpty())
-                card = inUse.peek();
+	protected void paintStatic(Graphics pane){
+        Card card = null;
+        if (!waste.isEmpty())
+            card = waste.peek();
+        else if (!inUse.isEmpty())
+            card = inUse.peek();
 
 
-            if (!hintOn || card == null) {}
-            else {
-                pane.setColor(new Color(121, 185, 232));
+        if (!hintOn || card == null) {}
+        else {
+            pane.setColor(new Color(121, 185, 232));
 
-                for (Tableau tab : getPlacements(card)) {
-                    pane.fillRoundRect(tab.getX()-(cardWidth/2)-4, tab.getY()-(3*cardWidth/4)-4, cardWidth + 8, (int) (cardWidth * 1.5) + 8, cardWidth / 10, (int) (cardWidth * .15));
-                }
+            for (Tableau tab : getPlacements(card)) {
+                pane.fillRoundRect(tab.getX()-(cardWidth/2)-4, tab.getY()-(3*cardWidth/4)-4, cardWidth + 8, (int) (cardWidth * 1.5) + 8, cardWidth / 10, (int) (cardWidth * .15));
             }
+        }
 
-			for(StackOfCards tableau : tableaux){
-				tableau.draw(pane);
-			}
-			if(stock != null && !stock.isEmpty())
-				stock.peek().draw(pane);
-			if(waste != null && !waste.isEmpty())
-				waste.peek().draw(pane);
-			if(inUse != null && !inUse.isEmpty())
-				inUse.draw(pane);
-
-			updateAnimationQueue();
-			for(StackOfCards stack : animationQueue){
-				if(!stack.isEmpty()){
-					stack.draw(pane);
-				}
-			}
+		for(StackOfCards tableau : tableaux){
+			tableau.draw(pane);
 		}
+		if(stock != null && !stock.isEmpty())
+			stock.peek().draw(pane);
+		if(waste != null && !waste.isEmpty())
+			waste.peek().draw(pane);
 	}
 
+    @Override
+    public GameState toGameState(){
+        ArgosState state = new ArgosState();
+        load(state, 0, tableaux);
+        load(state.pile(state.getStock()), stock, false);
+        load(state.pile(state.getWaste()), waste, false);
+        return state;
+    }
+
     /**
      * Used for file read/write, other methods that operate on multiple games
      * @return "Argos"
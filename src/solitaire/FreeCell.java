@@ -2,14 +2,22 @@ package solitaire;
 
 import java.awt.Graphics;
 import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.List;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 
 import card.Card;
 import card.HoldingCell;
+import card.StackIndex;
 import card.StackOfCards;
 import card.Tableau;
 import dataStructures.Stack;
+import solitaire.engine.FreeCellState;
+import solitaire.engine.GameState;
+import solitaire.engine.Move;
+import solitaire.solver.FreeCellSolver;
 
 /**
  * A common form of Solitaire. It is similar to {@link Klondike} except that
@@ -18,6 +26,9 @@ import dataStructures.Stack;
  * up to one card at a time. Also, the user is restricting to moving a certain 
  * number of cards between tableaux that is equal to the number of free holding
  * cells plus 1.
+ * <p>
+ * As in Klondike, pressing the right mouse button shows a hint, which is found
+ * by a {@link FreeCellSolver} on the thread of the {@link SolverService}.
  * 
  * @author Warren Godone-Maresca
  */
@@ -25,12 +36,19 @@ public class FreeCell extends Klondike {
 	/** The four holding cells.												*/
 	protected HoldingCell[] holdingCells;
 
+	/** Finds the holding cells under the mouse.							*/
+	private StackIndex<HoldingCell> holdingCellIndex;
+
 	/** Holds the number of free spaces.									*/
 	private int emptyCells = 4;
 	
 	/** Holds the number of empty tableaux.									*/
 	private int emptyTableaux = 0;
 
+	/** Finds the hints. It is only used on the thread of the {@link
+	 *  SolverService}, where each search may take up to a second.			*/
+	private final FreeCellSolver freeCellSolver = new FreeCellSolver(200000, 1000);
+
 	/**
 	 * Instantiates the game and the panel.
 	 */
@@ -44,7 +62,7 @@ public class FreeCell extends Klondike {
 	@Override
 	protected void init(){
 		initiallyHidden = false; //The cards are not initially hidden.
-		StackOfCards source = StackOfCards.randomDeck();
+		StackOfCards source = StackOfCards.randomDeck(newDeal());
 
 		//Initializes the tableaux with an anonymous array.
 		initTableaux(source, new int[] {7, 7, 7, 7, 6, 6, 6, 6});
@@ -88,13 +106,12 @@ public class FreeCell extends Klondike {
 	 * @return <code>true</code> if a card was put in use, else <code>false</code>
 	 */
 	protected boolean holdingCellsPressedAction(int x, int y){
-		for(HoldingCell cell : holdingCells){
-			//If the cell contains the click, then it is nonempty, so
-			if(cell.contains(x, y)){
-				inUse.push(cell.pop()); //add the card of the cell to inUse,
-				lastStack = cell;		//point lastStack to the cell,
-				return true; //The action was performed.
-			}
+		holdingCellIndex = indexOf(holdingCellIndex, holdingCells);
+		//If the cell contains the click, then it is nonempty, so
+		for(HoldingCell cell : holdingCellIndex.stacksAt(x, y)){
+			inUse.push(cell.pop()); //add the card of the cell to inUse,
+			lastStack = cell;		//point lastStack to the cell,
+			return true; //The action was performed.
 		}
 		return false; //If we arrive to this point, nothing was done.
 	}
@@ -109,8 +126,9 @@ public class FreeCell extends Klondike {
 	 * 			<code>false</code>.
 	 */
 	protected boolean holdingCellsReleasedAction(int x, int y){
-		for(HoldingCell cell : holdingCells){
-			if(cell.shapeOfNextCard().contains(x, y) //If the cell was clicked,
+		holdingCellIndex = indexOf(holdingCellIndex, holdingCells);
+		for(HoldingCell cell : holdingCellIndex.targetsAt(x, y)){
+			if(cell.nextCardContains(x, y)			 //If the cell was clicked,
 					&& cell.isEmpty()				 //and the cell is empty,
 					&& inUse.size() == 1){			 //and 1 card is in uses,
 				cell.push(inUse.pop());		//then add that card to the cell.
@@ -125,6 +143,14 @@ public class FreeCell extends Klondike {
 	 */
 	@Override
 	public void mousePressed(MouseEvent e){
+		clearHint();
+		if(SwingUtilities.isRightMouseButton(e)){
+			if(inUse.isEmpty()){
+				showHint();
+			}
+			return;
+		}
+
 		int x = e.getX(), y = e.getY(); //The coordinates.
 		if(inUse.isEmpty() && !tableauxPressedAction(x, y)){
 			//If the tableaux action was not done,
@@ -195,16 +221,48 @@ public class FreeCell extends Klondike {
 		return emptyTableaux >= (tableaux.length - 4) && emptyCells == 4;
 	}
 	
+	@Override
+	protected Move findHint(GameState state){
+		return freeCellSolver.hint((FreeCellState) state);
+	}
+
 	/**
-	 * Draws all of the stacks being used.
+	 * Also returns the holding cells, which follow the foundations.
 	 */
 	@Override
-	public void paint(Graphics pane){
-		if(initialized){
-			for(StackOfCards cell : holdingCells){
-				cell.draw(pane);
-			}
-			super.paint(pane);
+	protected StackOfCards stackOf(int index){
+		int firstCell = tableaux.length + foundations.length;
+		return index < firstCell ? super.stackOf(index)
+				: holdingCells[index - firstCell];
+	}
+
+	/**
+	 * Also returns the holding cells.
+	 */
+	@Override
+	protected List<StackOfCards> savedStacks(){
+		List<StackOfCards> stacks = super.savedStacks();
+		stacks.addAll(Arrays.asList(holdingCells));
+		return stacks;
+	}
+
+	@Override
+	public GameState toGameState(){
+		FreeCellState state = new FreeCellState();
+		load(state, 0, tableaux);
+		load(state, state.firstFoundation(), foundations);
+		load(state, state.firstFoundation() + foundations.length, holdingCells);
+		return state;
+	}
+
+	/**
+	 * Draws all of the stacks that do not move, including the holding cells.
+	 */
+	@Override
+	protected void paintStatic(Graphics pane){
+		for(StackOfCards cell : holdingCells){
+			cell.draw(pane);
 		}
+		super.paintStatic(pane);
 	}
 }
\ No newline at end of file
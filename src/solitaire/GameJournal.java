@@ -0,0 +1,164 @@
+package solitaire;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * An append-only file of every finished game, as {@link GameRecord}s. Records
+ * are never changed once written, so the {@link GameSummary}s of the games can
+ * always be built again by reading the file from the start.
+ * <p>
+ * Each record takes {@link #RECORD_SIZE} bytes:
+ * <pre>
+ * byte game		The index of the game in {@link StatisticsStore#GAMES}.
+ * byte won			1 if the game was won, else 0.
+ * short (unused)
+ * int  moves		The number of moves made.
+ * long dealNumber	The deal number of the game's shuffler.
+ * long started		The time in ms at which the game was started, or 0.
+ * long finished	The time in ms at which the game was finished.
+ * int  score		The score.
+ * int  (unused)
+ * </pre>
+ * A record that was only partly written, such as when the program stopped
+ * while writing it, is removed when the file is opened.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class GameJournal {
+	/** The number of bytes of each record.									*/
+	public static final int RECORD_SIZE = 40;
+
+	/** The number of records read at a time by {@link #replay}.			*/
+	private static final int RECORDS_PER_READ = 256;
+
+	/** The file, which is open for reading and appending.					*/
+	private final FileChannel channel;
+
+	/** Holds a record while it is written.									*/
+	private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+
+	/** The length of the file in bytes.									*/
+	private long length;
+
+	/**
+	 * Opens the journal of the given file, which is created if needed.
+	 * @throws IOException if the file cannot be opened.
+	 */
+	public GameJournal(File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		length = channel.size() - channel.size() % RECORD_SIZE;
+		if(length < channel.size()){
+			channel.truncate(length); //A record was partly written.
+		}
+	}
+
+	/**
+	 * Returns the length of the file in bytes, which is the position after the
+	 * last record.
+	 */
+	public synchronized long length(){
+		return length;
+	}
+
+	/**
+	 * Returns the number of records.
+	 */
+	public synchronized long size(){
+		return length/RECORD_SIZE;
+	}
+
+	/**
+	 * Adds a record to the end of the file.
+	 * @return The length of the file after the record.
+	 * @throws IOException if the record cannot be written.
+	 */
+	public synchronized long append(GameRecord game) throws IOException {
+		record.clear();
+		record.put((byte) StatisticsStore.indexOf(game.getGameName()));
+		record.put((byte) (game.isWon() ? 1 : 0));
+		record.putShort((short) 0);
+		record.putInt(game.getMoves());
+		record.putLong(game.getDealNumber());
+		record.putLong(game.getStarted());
+		record.putLong(game.getFinished());
+		record.putInt(game.getScore());
+		record.putInt(0);
+		record.flip();
+		while(record.hasRemaining()){
+			channel.write(record, length + record.position());
+		}
+		length += RECORD_SIZE;
+		return length;
+	}
+
+	/**
+	 * Reads the records from the given position to the end of the file in
+	 * order, and gives each one to the given consumer.
+	 * @param from	   The position of the first record, a multiple of
+	 * 				   {@link #RECORD_SIZE}.
+	 * @param consumer Is given each record.
+	 * @return The position after the last record.
+	 * @throws IOException if the file cannot be read.
+	 * @throws IllegalArgumentException if <code>from</code> is not the
+	 * 			position of a record.
+	 */
+	public synchronized long replay(long from, Consumer<GameRecord> consumer)
+			throws IOException {
+		if(from < 0 || from > length || from % RECORD_SIZE != 0){
+			throw new IllegalArgumentException("No record starts at " + from);
+		}
+		ByteBuffer records = ByteBuffer.allocate(RECORD_SIZE*RECORDS_PER_READ);
+		long position = from;
+		while(position < length){
+			records.clear();
+			records.limit((int) Math.min(records.capacity(), length - position));
+			while(records.hasRemaining()){
+				if(channel.read(records, position + records.position()) < 0){
+					throw new IOException("The journal ended early.");
+				}
+			}
+			records.flip();
+			while(records.hasRemaining()){
+				consumer.accept(read(records));
+			}
+			position += records.limit();
+		}
+		return position;
+	}
+
+	/**
+	 * Reads the record at the position of the given buffer.
+	 * @throws IOException if the record is not of a known game.
+	 */
+	private static GameRecord read(ByteBuffer records) throws IOException {
+		int game = records.get();
+		if(game < 0 || game >= StatisticsStore.GAMES.length){
+			throw new IOException("The journal has a record of an unknown game.");
+		}
+		String gameName = StatisticsStore.GAMES[game];
+		boolean won = records.get() == 1;
+		records.getShort();
+		int moves = records.getInt();
+		long dealNumber = records.getLong();
+		long started = records.getLong();
+		long finished = records.getLong();
+		int score = records.getInt();
+		records.getInt();
+		return new GameRecord(gameName, won, dealNumber, started, finished,
+				moves, score);
+	}
+
+	/**
+	 * Closes the file.
+	 * @throws IOException if it cannot be closed.
+	 */
+	public synchronized void close() throws IOException {
+		channel.close();
+	}
+}
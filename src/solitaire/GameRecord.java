@@ -0,0 +1,116 @@
+package solitaire;
+
+/**
+ * A finished game, as kept in the {@link GameJournal}. A game is finished when
+ * it is won, or when it is left or lost before it is won.
+ * <p>
+ * Records are immutable.
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class GameRecord {
+	/** The name of the game, one of {@link StatisticsStore#GAMES}.			*/
+	private final String gameName;
+
+	/** Whether or not the game was won.									*/
+	private final boolean won;
+
+	/** The deal number of the game's shuffler.								*/
+	private final long dealNumber;
+
+	/** The times in ms since the epoch at which the game was started and
+	 *  finished. The start is 0 if it is not known.						*/
+	private final long started, finished;
+
+	/** The number of moves made.											*/
+	private final int moves;
+
+	/** The score, or 0 for games without one.								*/
+	private final int score;
+
+	/**
+	 * Instantiates a record.
+	 * @param gameName	 The name of the game, one of {@link StatisticsStore#GAMES}.
+	 * @param won		 Whether or not the game was won.
+	 * @param dealNumber The deal number of the game's shuffler.
+	 * @param started	 The time in ms since the epoch at which the game was
+	 * 					 started, or 0 if it is not known.
+	 * @param finished	 The time in ms since the epoch at which it finished.
+	 * @param moves		 The number of moves made.
+	 * @param score		 The score, or 0 for games without one.
+	 */
+	public GameRecord(String gameName, boolean won, long dealNumber,
+			long started, long finished, int moves, int score){
+		this.gameName = gameName;
+		this.won = won;
+		this.dealNumber = dealNumber;
+		this.started = started;
+		this.finished = finished;
+		this.moves = moves;
+		this.score = score;
+	}
+
+	/**
+	 * Returns the name of the game.
+	 */
+	public String getGameName(){
+		return gameName;
+	}
+
+	/**
+	 * Returns whether or not the game was won.
+	 */
+	public boolean isWon(){
+		return won;
+	}
+
+	/**
+	 * Returns the deal number of the game's shuffler.
+	 */
+	public long getDealNumber(){
+		return dealNumber;
+	}
+
+	/**
+	 * Returns the time in ms since the epoch at which the game was started, or
+	 * 0 if it is not known.
+	 */
+	public long getStarted(){
+		return started;
+	}
+
+	/**
+	 * Returns the time in ms since the epoch at which the game was finished.
+	 */
+	public long getFinished(){
+		return finished;
+	}
+
+	/**
+	 * Returns the number of seconds that the game took, or -1 if its start is
+	 * not known.
+	 */
+	public long getDuration(){
+		return started > 0 ? Math.max(0, (finished - started)/1000) : -1;
+	}
+
+	/**
+	 * Returns the number of moves made.
+	 */
+	public int getMoves(){
+		return moves;
+	}
+
+	/**
+	 * Returns the score, or 0 for games without one.
+	 */
+	public int getScore(){
+		return score;
+	}
+
+	@Override
+	public String toString(){
+		return gameName + (won ? " won" : " lost") + ", deal " + dealNumber
+				+ ", " + moves + " moves, score " + score;
+	}
+}
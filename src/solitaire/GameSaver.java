@@ -0,0 +1,182 @@
+package solitaire;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Saves the game being played as a {@link SavedGame} after each of its moves,
+ * so that it can be resumed when the program is started again, such as after a
+ * crash. A save is made on the thread of the move, which takes microseconds,
+ * and written on a thread of its own, so a move never waits for the disk. If
+ * saves are made faster than they are written, only the last is written.
+ * <p>
+ * Each save is written to a temporary file that then replaces the file, so a
+ * save that is cut short leaves the one before it.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class GameSaver {
+	/** The name of the file of the saved game.								*/
+	public static final String FILE_NAME = "game.sav";
+
+	/** The ms for which the waiting save is given to be written when the
+	 *  virtual machine shuts down.											*/
+	private static final int SHUTDOWN_TIMEOUT = 1000;
+
+	/** Stands for the saved game being removed.							*/
+	private static final byte[] DISCARD = new byte[0];
+
+	/** The saver of the file in the working directory.						*/
+	private static GameSaver saver;
+
+	/** The file of the saved game and the file to which it is written.	*/
+	private final File file, temporary;
+
+	/** Writes the saves.													*/
+	private final ExecutorService writer;
+
+	/** The save that is waiting to be written, or {@link #DISCARD}, or
+	 *  <code>null</code> if nothing is waiting.							*/
+	private final AtomicReference<byte[]> pending = new AtomicReference<byte[]>();
+
+	/**
+	 * Returns the saver of the file {@link #FILE_NAME} in the working
+	 * directory.
+	 */
+	public static synchronized GameSaver get(){
+		if(saver == null){
+			saver = new GameSaver(new File(System.getProperty("user.dir"), FILE_NAME));
+		}
+		return saver;
+	}
+
+	/**
+	 * Instantiates a saver of the given file. When the virtual machine shuts
+	 * down, the waiting save is given a short time to be written.
+	 */
+	public GameSaver(File file){
+		this.file = file;
+		temporary = new File(file.getPath() + ".tmp");
+		writer = Executors.newSingleThreadExecutor(new ThreadFactory(){
+			public Thread newThread(Runnable task){
+				Thread thread = new Thread(task, "Game saver");
+				thread.setDaemon(true); //So that it does not keep the game open.
+				return thread;
+			}
+		});
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable(){
+			public void run(){
+				shutdown();
+			}
+		}));
+	}
+
+	/**
+	 * Saves the given game as it is now, along with when it was started.
+	 * Pre. No cards are in use or moving.
+	 */
+	public void save(Klondike game){
+		submit(SavedGame.of(game, Statistics.getTimeStarted()).toBytes());
+	}
+
+	/**
+	 * Removes the saved game, such as when the game's outcome is recorded or a
+	 * new one is dealt.
+	 */
+	public void discard(){
+		submit(DISCARD);
+	}
+
+	/**
+	 * Reads the saved game. It should be read before any game is saved, as
+	 * the save being written is not waited for.
+	 * @return The saved game, or <code>null</code> if there is none or it
+	 * 			cannot be read.
+	 */
+	public SavedGame load(){
+		if(!file.exists()){
+			return null;
+		}
+		try {
+			return SavedGame.fromBytes(Files.readAllBytes(file.toPath()));
+		} catch (IOException e) {
+			System.out.println("The saved game could not be read: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Makes the given save the one that is waiting, and asks the writer to
+	 * write it unless it was already asked to write the one that it replaced.
+	 */
+	private void submit(byte[] save){
+		if(pending.getAndSet(save) != null){
+			return; //The writer will take this save instead.
+		}
+		try {
+			writer.execute(new Runnable(){
+				public void run(){
+					write(pending.getAndSet(null));
+				}
+			});
+		} catch (RejectedExecutionException e) { //Then it has been shut down.
+			pending.set(null);
+		}
+	}
+
+	/**
+	 * Writes the given save to the file, or removes the file if it is {@link
+	 * #DISCARD}.
+	 */
+	private void write(byte[] save){
+		try {
+			if(save == DISCARD){
+				Files.deleteIfExists(file.toPath());
+			} else if(save != null){
+				try (FileChannel channel = FileChannel.open(temporary.toPath(),
+						StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+					ByteBuffer buffer = ByteBuffer.wrap(save);
+					while(buffer.hasRemaining()){
+						channel.write(buffer);
+					}
+					channel.force(false);
+				}
+				try {
+					Files.move(temporary.toPath(), file.toPath(),
+							StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(temporary.toPath(), file.toPath(),
+							StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+		} catch (IOException e) {
+			System.out.println("The game could not be saved: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Stops taking saves and waits a short time for the waiting one to be
+	 * written.
+	 */
+	public void shutdown(){
+		writer.shutdown();
+		try {
+			writer.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
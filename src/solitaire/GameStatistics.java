@@ -0,0 +1,120 @@
+package solitaire;
+
+/**
+ * The statistics of one game as they were at one time, read from the {@link
+ * StatisticsStore} so that they can be shown on another thread.
+ * <p>
+ * These statistics are immutable.
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class GameStatistics {
+	/** The name of the game.												*/
+	private final String gameName;
+
+	/** The number of games started and won.								*/
+	private final int games, wins;
+
+	/** The seconds taken by the games won, and the fewest taken by one.	*/
+	private final long totalTime, bestTime;
+
+	/** The highest score.													*/
+	private final int bestRecord;
+
+	/** The summary of the finished games.									*/
+	private final GameSummary summary;
+
+	/** The leaderboards of the highest scores and fastest times.			*/
+	private final Leaderboard topScores, fastestTimes;
+
+	/**
+	 * Instantiates the statistics of a game.
+	 * @param gameName	 The name of the game.
+	 * @param games		 The number of games started.
+	 * @param wins		 The number of games won.
+	 * @param totalTime	 The seconds taken by the games won.
+	 * @param bestTime	 The fewest seconds taken by a game won, or 0.
+	 * @param bestRecord The highest score, or 0.
+	 * @param summary	 A summary of the finished games that does not change.
+	 * @param topScores	 A leaderboard of the highest scores that does not
+	 * 					 change.
+	 * @param fastestTimes A leaderboard of the fastest times that does not
+	 * 					 change.
+	 */
+	GameStatistics(String gameName, int games, int wins, long totalTime,
+			long bestTime, int bestRecord, GameSummary summary,
+			Leaderboard topScores, Leaderboard fastestTimes){
+		this.gameName = gameName;
+		this.games = games;
+		this.wins = wins;
+		this.totalTime = totalTime;
+		this.bestTime = bestTime;
+		this.bestRecord = bestRecord;
+		this.summary = summary;
+		this.topScores = topScores;
+		this.fastestTimes = fastestTimes;
+	}
+
+	/**
+	 * Returns the name of the game.
+	 */
+	public String getGameName(){
+		return gameName;
+	}
+
+	/**
+	 * Returns the number of games started.
+	 */
+	public int getGames(){
+		return games;
+	}
+
+	/**
+	 * Returns the number of games won.
+	 */
+	public int getWins(){
+		return wins;
+	}
+
+	/**
+	 * Returns the seconds taken by the games won.
+	 */
+	public long getTotalTime(){
+		return totalTime;
+	}
+
+	/**
+	 * Returns the fewest seconds taken by a game won, or 0 if none was timed.
+	 */
+	public long getBestTime(){
+		return bestTime;
+	}
+
+	/**
+	 * Returns the highest score, or 0 if none was recorded.
+	 */
+	public int getBestRecord(){
+		return bestRecord;
+	}
+
+	/**
+	 * Returns the summary of the finished games.
+	 */
+	public GameSummary getSummary(){
+		return summary;
+	}
+
+	/**
+	 * Returns the leaderboard of the highest scores of the wins.
+	 */
+	public Leaderboard getTopScores(){
+		return topScores;
+	}
+
+	/**
+	 * Returns the leaderboard of the fastest wins, in seconds.
+	 */
+	public Leaderboard getFastestTimes(){
+		return fastestTimes;
+	}
+}
@@ -0,0 +1,201 @@
+package solitaire;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The numbers of a game that are found from its finished games in the {@link
+ * GameJournal}: its win streaks, its rate of wins over its recent games, and a
+ * histogram of the times of its wins from which percentiles are found. Each
+ * finished game updates them in constant time, so they never need to be found
+ * by reading the journal, although they can always be built again that way.
+ * <p>
+ * A summary is a view of {@link #SIZE} bytes of a buffer, so that the {@link
+ * StatisticsStore} keeps them in its file:
+ * <pre>
+ * int  finished		The number of finished games.
+ * int  winStreak		The number of games won since the last loss.
+ * int  bestWinStreak	The most games won in a row.
+ * int  recentGames		The number of games in <code>recent</code>.
+ * long recent			Bit i is set if the game finished i games ago was won.
+ * int  timedWins		The number of wins in the histogram.
+ * int  (unused)
+ * int[BUCKETS] times	The number of wins of each range of seconds.
+ * </pre>
+ * The ranges of seconds are exact below 8 s, and above that each doubling of
+ * time is split into 4 ranges, so a percentile is at most 25% over the exact
+ * time while the histogram takes the same space however many games are played.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class GameSummary {
+	/** The number of ranges of times in the histogram.						*/
+	public static final int BUCKETS = 80;
+
+	/** The number of bytes that a summary takes.							*/
+	public static final int SIZE = 32 + 4*BUCKETS;
+
+	/** The most games that the recent win rate is found from.				*/
+	public static final int RECENT_GAMES = Long.SIZE;
+
+	/** The offsets of the fields.											*/
+	private static final int FINISHED = 0, WIN_STREAK = 4, BEST_WIN_STREAK = 8,
+			RECENT_GAMES_PLAYED = 12, RECENT = 16, TIMED_WINS = 24, TIMES = 32;
+
+	/** Holds the summary.													*/
+	private final ByteBuffer buffer;
+
+	/** The position of the summary in the buffer.							*/
+	private final int at;
+
+	/**
+	 * Instantiates a view of the summary at the given position of a buffer.
+	 */
+	GameSummary(ByteBuffer buffer, int at){
+		this.buffer = buffer;
+		this.at = at;
+	}
+
+	/**
+	 * Returns a copy of this summary that does not change with it.
+	 */
+	GameSummary copy(){
+		ByteBuffer copy = ByteBuffer.allocate(SIZE);
+		for(int i = 0; i < SIZE; i += 4){
+			copy.putInt(i, buffer.getInt(at + i));
+		}
+		return new GameSummary(copy, 0);
+	}
+
+	/**
+	 * Sets all of the numbers to 0, as for a game that has not been played.
+	 */
+	void clear(){
+		for(int i = 0; i < SIZE; i += 4){
+			buffer.putInt(at + i, 0);
+		}
+	}
+
+	/**
+	 * Updates the numbers with a finished game.
+	 */
+	void add(GameRecord game){
+		buffer.putInt(at + FINISHED, getFinished() + 1);
+
+		long recent = buffer.getLong(at + RECENT) << 1;
+		if(game.isWon()){
+			int streak = getWinStreak() + 1;
+			buffer.putInt(at + WIN_STREAK, streak);
+			buffer.putInt(at + BEST_WIN_STREAK, Math.max(streak, getBestWinStreak()));
+			recent |= 1;
+		} else {
+			buffer.putInt(at + WIN_STREAK, 0);
+		}
+		buffer.putLong(at + RECENT, recent);
+		buffer.putInt(at + RECENT_GAMES_PLAYED,
+				Math.min(getRecentGames() + 1, RECENT_GAMES));
+
+		if(game.isWon() && game.getDuration() >= 0){
+			int times = at + TIMES + 4*bucketOf(game.getDuration());
+			buffer.putInt(times, buffer.getInt(times) + 1);
+			buffer.putInt(at + TIMED_WINS, getTimedWins() + 1);
+		}
+	}
+
+	/**
+	 * Returns the number of finished games.
+	 */
+	public int getFinished(){
+		return buffer.getInt(at + FINISHED);
+	}
+
+	/**
+	 * Returns the number of games won since the last game that was not.
+	 */
+	public int getWinStreak(){
+		return buffer.getInt(at + WIN_STREAK);
+	}
+
+	/**
+	 * Returns the most games won in a row.
+	 */
+	public int getBestWinStreak(){
+		return buffer.getInt(at + BEST_WIN_STREAK);
+	}
+
+	/**
+	 * Returns the number of the last finished games, at most {@link
+	 * #RECENT_GAMES}, from which {@link #getRecentWinRate()} is found.
+	 */
+	public int getRecentGames(){
+		return buffer.getInt(at + RECENT_GAMES_PLAYED);
+	}
+
+	/**
+	 * Returns the fraction of the last {@link #getRecentGames()} finished games
+	 * that were won, or 0 if no game has finished.
+	 */
+	public double getRecentWinRate(){
+		int games = getRecentGames();
+		if(games == 0){
+			return 0;
+		}
+		long mask = games == RECENT_GAMES ? -1L : (1L << games) - 1;
+		return Long.bitCount(buffer.getLong(at + RECENT) & mask)/(double) games;
+	}
+
+	/**
+	 * Returns the number of won games whose time is known.
+	 */
+	public int getTimedWins(){
+		return buffer.getInt(at + TIMED_WINS);
+	}
+
+	/**
+	 * Returns the number of seconds within which the given percent of the
+	 * timed wins were won, rounded up to the end of its range of times.
+	 * @param percent The percent of wins, from 0 to 100. 50 gives the median.
+	 * @return The time, or -1 if no win was timed.
+	 * @throws IllegalArgumentException if the percent is not from 0 to 100.
+	 */
+	public long getTimePercentile(double percent){
+		if(percent < 0 || percent > 100){
+			throw new IllegalArgumentException("The percent must be from 0 to 100.");
+		}
+		int wins = getTimedWins();
+		if(wins == 0){
+			return -1;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percent/100*wins));
+		long count = 0;
+		for(int bucket = 0; bucket < BUCKETS - 1; bucket++){
+			count += buffer.getInt(at + TIMES + 4*bucket);
+			if(count >= rank){
+				return lowestTimeOf(bucket + 1) - 1;
+			}
+		}
+		return lowestTimeOf(BUCKETS - 1); //The last range has no end.
+	}
+
+	/**
+	 * Returns the range of the histogram that holds the given seconds.
+	 */
+	static int bucketOf(long seconds){
+		if(seconds < 8){
+			return (int) seconds;
+		}
+		int doublings = 63 - Long.numberOfLeadingZeros(seconds); //At least 3.
+		int bucket = 8 + (doublings - 3)*4 + (int) ((seconds >>> (doublings - 2)) & 3);
+		return Math.min(bucket, BUCKETS - 1);
+	}
+
+	/**
+	 * Returns the fewest seconds in the given range of the histogram.
+	 */
+	static long lowestTimeOf(int bucket){
+		if(bucket < 8){
+			return bucket;
+		}
+		int doublings = (bucket - 8)/4 + 3;
+		return (long) (4 + (bucket - 8) % 4) << (doublings - 2);
+	}
+}
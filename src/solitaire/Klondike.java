@@ -3,18 +3,37 @@ package solitaire;
 import java.awt.Color;
 import java.awt.Container;
 import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 import card.Card;
 import card.Foundation;
+import card.Shuffler;
+import card.StackIndex;
 import card.StackOfCards;
 import card.Tableau;
 import dataStructures.Queue;
 import dataStructures.Stack;
+import solitaire.engine.GameState;
+import solitaire.engine.KlondikeState;
+import solitaire.engine.Move;
+import solitaire.engine.Pile;
+import solitaire.solver.KlondikeSolver;
+import solitaire.solver.Result;
 
 /**
  * A game of Klondike Solitaire. Klondike is one of the most
@@ -31,6 +50,13 @@ import dataStructures.Stack;
  * bottom card of the substack must be one less than the top card of the tableau
  * and differ in color. Users may also turn cards from the stock to the waste and
  * use the top card of the waste.
+ * <p>
+ * Pressing the right mouse button highlights the cards of a move that leads to
+ * a win, as found by a {@link KlondikeSolver}, until the next press. Hints are
+ * found on the thread of the {@link SolverService}. New deals that the solver
+ * proves cannot be won are dealt again before they are shown, up to
+ * {@link #MAX_REDEALS} times and for at most {@link #DEAL_CHECK_TIME}
+ * milliseconds.
  * 
  * @author Warren Godone-Maresca
  */
@@ -74,6 +100,9 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	/** Holds the number moves that the user has made.						*/
 	protected int moves;
 
+	/** The deal number of the shuffler of the current deal.				*/
+	protected long dealNumber;
+
 	/** Holds how off-center a the mouse was when it clicks a tableau relative
 	 *  to the cards when the mouse clicks a tableau.						*/
 	protected int deltaX, deltaY;
@@ -89,6 +118,62 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 * False by default and turned true when statistics is updated			  */
 	boolean recordedVictory = false;
 
+	/** Finds hints. It is only used on the thread of the {@link
+	 *  SolverService}, and its budget is small so that a hint is shown
+	 *  quickly.															  */
+	protected KlondikeSolver solver = new KlondikeSolver(100000, 200);
+
+	/** Whether or not deals that the solver proves cannot be won are dealt
+	 *  again.																  */
+	protected boolean winnableDealsOnly = true;
+
+	/** The most times that a new game is dealt again because the solver
+	 *  proved that its deal cannot be won, so that dealing always ends.	  */
+	protected static final int MAX_REDEALS = 10;
+
+	/** The most milliseconds spent checking the deals of a new game, which
+	 *  is not shown until it is done.										  */
+	protected static final int DEAL_CHECK_TIME = 500;
+
+	/** Counts the hints asked for and cleared, so that a hint that is found
+	 *  after the game has changed is not shown, and one whose search has not
+	 *  started by then is not searched for.								  */
+	private volatile int hintRequest;
+
+	/** Whether or not the user has left this game.						  */
+	private boolean left;
+
+	/** The cards that are highlighted by the last hint.					  */
+	protected Stack<Card> hintedCards = new Stack<Card>();
+
+	/** The background and the stacks that stay still while cards are dragged,
+	 *  so that each frame of a drag only copies it and draws the moving cards.
+	 *  It is <code>null</code> until the first drag.						  */
+	private Image staticLayer;
+
+	/** Whether or not {@link #staticLayer} shows the stacks as they are.	  */
+	private boolean staticLayerValid;
+
+	/** Whether or not the mouse has been dragged since it was pressed.		  */
+	private boolean dragging;
+
+	/** Keeps track of drags for the static layer. It is <code>null</code>
+	 *  until {@link #addListeners} is called.								  */
+	private MouseAdapter dragTracker;
+
+	/** The moves of the game when it was last saved.						  */
+	private int savedMoves;
+
+	/** Whether or not the outcome of the current deal has been recorded in
+	 *  {@link Statistics}, after which it is no longer saved.				  */
+	private boolean outcomeRecorded;
+
+	/** Find the tableaux and foundations under the mouse. They are built
+	 *  again when the stacks are, by {@link #tableauIndex()} and
+	 *  {@link #foundationIndex()}.										  */
+	private StackIndex<Tableau> tableauIndex;
+	private StackIndex<Foundation> foundationIndex;
+
 	/** Do nothing constructor.												*/
 	public Klondike(){}
 
@@ -99,8 +184,7 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 */
 	public Klondike(Container container){
 		this.container = container;
-		container.addMouseListener(this); 		//To respond to clicks
-		container.addMouseMotionListener(this); //and dragging.
+		addListeners(container);
 		container.setBackground(new Color(0, 100, 0)); //A green color.
 		container.setSize(790, 720);
 		container.setPreferredSize(container.getSize());
@@ -116,6 +200,168 @@ public class Klondike implements MouseListener, MouseMotionListener {
 		init(); //Initializes all of the stacks.
 	}
 
+	/**
+	 * Adds this game as a listener of the container's mouse events, along with
+	 * a listener that keeps track of drags for the static layer. The static
+	 * layer is drawn again after every press and release of the mouse, which
+	 * is when moves are made, whatever a subclass does with those events, and
+	 * the game is saved if a move was made.
+	 */
+	protected void addListeners(Container container){
+		container.addMouseListener(this); 		//To respond to clicks
+		container.addMouseMotionListener(this); //and dragging.
+
+		dragTracker = new MouseAdapter(){
+			public void mousePressed(MouseEvent e){
+				dragging = false;
+				invalidateStaticLayer();
+				saveWhenIdle();
+			}
+			public void mouseReleased(MouseEvent e){
+				dragging = false;
+				invalidateStaticLayer();
+				saveWhenIdle();
+			}
+			public void mouseDragged(MouseEvent e){
+				dragging = true;
+			}
+		};
+		container.addMouseListener(dragTracker);
+		container.addMouseMotionListener(dragTracker);
+	}
+
+	/**
+	 * Stops this game when the user leaves it: its listeners are removed from
+	 * the container and its animations are cancelled. Its save is left as it
+	 * is, so the game can be resumed unless its outcome has been recorded.
+	 */
+	public void leave(){
+		container.removeMouseListener(this);
+		container.removeMouseMotionListener(this);
+		if(dragTracker != null){
+			container.removeMouseListener(dragTracker);
+			container.removeMouseMotionListener(dragTracker);
+		}
+		AnimationScheduler.cancel(this);
+		left = true;
+	}
+
+	/**
+	 * Discards the save of the current deal and saves it no more, as its
+	 * outcome has been recorded in {@link Statistics}, so that a game that was
+	 * won, lost or left is not resumed and counted again.
+	 */
+	void outcomeRecorded(){
+		outcomeRecorded = true;
+		GameSaver.get().discard();
+	}
+
+	/**
+	 * Saves the game with the {@link GameSaver} once its animations have
+	 * finished, if a move was made since it was last saved and its outcome
+	 * has not been recorded.
+	 */
+	private void saveWhenIdle(){
+		if(moves == savedMoves || outcomeRecorded){
+			return;
+		}
+		AnimationScheduler.whenIdle(this, new Runnable(){
+			public void run(){
+				if(moves != savedMoves && inUse.isEmpty() && !outcomeRecorded){
+					savedMoves = moves;
+					GameSaver.get().save(Klondike.this);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns the stacks whose cards are saved, in the order in which they are
+	 * saved: the tableaux, foundations, stock and waste that the game has.
+	 * Games with other stacks add them.
+	 */
+	protected List<StackOfCards> savedStacks(){
+		List<StackOfCards> stacks = new ArrayList<StackOfCards>(Arrays.asList(tableaux));
+		if(foundations != null){
+			stacks.addAll(Arrays.asList(foundations));
+		}
+		if(stock != null){
+			stacks.add(stock);
+		}
+		if(waste != null){
+			stacks.add(waste);
+		}
+		return stacks;
+	}
+
+	/**
+	 * Writes the state of the game for a {@link SavedGame}: its deal number,
+	 * its moves and the cards of each of the {@link #savedStacks()}. Games with
+	 * more state write it after this.
+	 * Pre. No cards are in use or moving.
+	 */
+	protected void writeSnapshot(ByteBuffer buffer){
+		buffer.putLong(dealNumber);
+		buffer.putInt(moves);
+		List<StackOfCards> stacks = savedStacks();
+		buffer.put((byte) stacks.size());
+		for(StackOfCards stack : stacks){
+			SavedGame.putStack(buffer, stack);
+		}
+	}
+
+	/**
+	 * Puts the game in the state written by {@link #writeSnapshot}, in place
+	 * of the cards that it has.
+	 * @throws IllegalArgumentException if the state is not one of this game.
+	 */
+	protected void readSnapshot(ByteBuffer buffer){
+		dealNumber = buffer.getLong();
+		moves = buffer.getInt();
+		List<StackOfCards> stacks = savedStacks();
+		if((buffer.get() & 0xFF) != stacks.size()){
+			throw new IllegalArgumentException("The saved game does not have the stacks of " + getName() + ".");
+		}
+		for(StackOfCards stack : stacks){
+			SavedGame.getStack(buffer, stack, cardWidth);
+		}
+		hintedCards.clear();
+		recordedVictory = false;
+		outcomeRecorded = false;
+		savedMoves = moves;
+		invalidateStaticLayer();
+		container.repaint();
+	}
+
+	/**
+	 * Returns the index that finds the {@link #tableaux} under the mouse.
+	 */
+	protected StackIndex<Tableau> tableauIndex(){
+		return tableauIndex = indexOf(tableauIndex, tableaux);
+	}
+
+	/**
+	 * Returns the index that finds the {@link #foundations} under the mouse.
+	 */
+	protected StackIndex<Foundation> foundationIndex(){
+		return foundationIndex = indexOf(foundationIndex, foundations);
+	}
+
+	/**
+	 * Returns the given index if it was built from the given stacks over the
+	 * container as it is now, else a new index of them, since the stacks are
+	 * instantiated again with each new game and move when the container is
+	 * resized.
+	 */
+	protected <T extends StackOfCards> StackIndex<T> indexOf(StackIndex<T> index,
+			T[] stacks){
+		if(index != null && index.covers(stacks)
+				&& index.fits(container.getWidth(), container.getHeight())){
+			return index;
+		}
+		return new StackIndex<T>(stacks, container.getWidth(), container.getHeight());
+	}
+
 	/*
 	 * Sets the default yCoord (y of this row of tableaus)
 	 * Can be overriden by games that decide the tableaus should be moved down
@@ -131,16 +377,46 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 * are.
 	 */
 	protected void init(){
+		dealStacks();
+		if(winnableDealsOnly){
+			dealAgainWhileLost();
+		}
+		initialized = true; //Everything is initialized,
+		container.repaint();//So we repaint.
+	}
+
+	/**
+	 * Deals a new game into the stacks.
+	 */
+	private void dealStacks(){
 		//The initial deck.
-		StackOfCards deck = StackOfCards.randomDeck();
+		StackOfCards deck = StackOfCards.randomDeck(newDeal());
 
 		//Calls initTableaux with the random deck and an anonymous array that
 		//holds the initial tableau sizes.
 		initTableaux(deck, new int[] {1, 2, 3, 4, 5, 6, 7});
 		initStockAndWaste(deck); //Initializes the stock and waste
 		initFoundations(4);		//and foundations
-		initialized = true; //Everything is initialized,
-		container.repaint();//So we repaint.
+	}
+
+	/**
+	 * Deals again while the solver proves that the current deal cannot be won,
+	 * at most {@link #MAX_REDEALS} times. This is done before the game is shown,
+	 * so each search is short and they stop after {@link #DEAL_CHECK_TIME}
+	 * milliseconds. Deals that could not be searched fully are kept.
+	 */
+	private void dealAgainWhileLost(){
+		KlondikeSolver checker = new KlondikeSolver(100000, DEAL_CHECK_TIME / 5);
+		long deadline = System.currentTimeMillis() + DEAL_CHECK_TIME;
+		for(int redeals = 0; redeals < MAX_REDEALS
+				&& System.currentTimeMillis() < deadline; redeals++){
+			GameState deal = toGameState();
+			if(!(deal instanceof KlondikeState) || checker.solve((KlondikeState) deal)
+					.getVerdict() != Result.Verdict.LOSS){
+				return;
+			}
+			dealStacks();
+		}
 	}
 
 	/**
@@ -219,12 +495,13 @@ public class Klondike implements MouseListener, MouseMotionListener {
 			if(!stock.isEmpty())
 				stock.peek().setHidden(true);//Hides the new top card of the stack.
 			moves++; //This counts as a move.
-			container.repaint();
+			repaint(stock.getBounds(), waste.getBounds()); //Only they changed.
 			return true; //The action was performed.
 
 		} else if(stock.shapeOfNextCard().contains(x, y)){
 			//else if the mouse clicked the empty stock's area:
 			//Turn over all cards from the waste to the stock,
+			Rectangle wasteBounds = waste.getBounds();
 			stock.appendStack(waste.reverseCopy());
 			waste.clear(); //and clear the waste.
 
@@ -232,7 +509,7 @@ public class Klondike implements MouseListener, MouseMotionListener {
 				stock.peek().setHidden(true); //So that stock is turned form
 				moves++;					  //the user.
 			}
-			container.repaint();
+			repaint(stock.getBounds(), wasteBounds, waste.getBounds());
 			return true; //The action was performed.
 		}
 		return false; //The action was not performed.
@@ -270,29 +547,29 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 * 			else <code>false</code>
 	 */
 	protected boolean tableauxPressedAction(int x, int y){
-		for(Tableau tableau : tableaux){ //Check each tableau,
-			if(tableau.contains(x, y)){  //and if the mouse clicked a tableau,
+		//Each tableau that the mouse clicked.
+		for(Tableau tableau : tableauIndex().stacksAt(x, y)){
 
-				//The cards to be put inUse.
-				Stack<Card> cards = tableau.popCardsBelow(y);
+			//The cards to be put inUse. They are only viewed until they are
+			//known to be removable, so nothing is moved back and forth.
+			int from = tableau.grabIndex(y);
+			Stack<Card> cards = from < 0 ? null : tableau.slice(from);
 
-				if(!removableFromTableaux(cards)){
-					//the cards are not removable so we put them back.
-					tableau.appendStack(cards);
-					return false; //The action was not performed.
-				}
+			if(!removableFromTableaux(cards)){
+				return false; //The action was not performed.
+			}
+			tableau.popFrom(from);
 
-				//The y coordinate of the bottom card that was popped.
-				int cardsY = cards.reverseCopy().peek().getY();
+			//The y coordinate of the bottom card that was popped.
+			int cardsY = cards.get(0).getY();
 
-				deltaX = x - tableau.getX(); //How off center the click was
-				deltaY = y - cardsY;		//relative to the card.
+			deltaX = x - tableau.getX(); //How off center the click was
+			deltaY = y - cardsY;		//relative to the card.
 
-				//Then put all cards below the click in use, if they are suitable.
-				inUse.appendStack(cards);
+			//Then put all cards below the click in use, if they are suitable.
+			inUse.appendStack(cards);
 
-				lastStack = tableau; //And the the tableau becomes the last stack.
-			}
+			lastStack = tableau; //And the the tableau becomes the last stack.
 		}
 		return false; //No tableau was clicked.
 	}
@@ -319,6 +596,14 @@ public class Klondike implements MouseListener, MouseMotionListener {
 			return;
 		}
 
+		clearHint();
+		if(SwingUtilities.isRightMouseButton(e)){
+			if(inUse.isEmpty()){
+				showHint();
+			}
+			return;
+		}
+
 		int x = e.getX(), y = e.getY();
 
 		//Short circuit evaluation is used to perform each action if the
@@ -340,18 +625,15 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 * 			else <code>false</code>
 	 */
 	protected boolean tableauxReleasedAction(int x, int y){
-		for(Tableau tableau : tableaux){ //Check each of the tableaux
-			if(tableau.contains(x, y) || tableau.shapeOfNextCard().contains(x, y)){
-				//Then we check if the inUse stack can be appended to the
-				//tableau per the rules of solitaire.
-
-				try {
-					tableau.appendSuitableCards(inUse);
-					//This code is not executed if an exception was thrown.
-					inUse.clear();
-					flipLastStack();
-					return true;
-				} catch(IllegalArgumentException ex){}
+		//Each of the tableaux where the cards were dropped.
+		for(Tableau tableau : tableauIndex().targetsAt(x, y)){
+			//Then we check if the inUse stack can be appended to the
+			//tableau per the rules of solitaire.
+			if(tableau.canAppendSuitableCards(inUse).isAccepted()){
+				tableau.appendSuitableCards(inUse);
+				inUse.clear();
+				flipLastStack();
+				return true;
 			}
 		}
 		return false;//If we have reached this point, then no action was performed
@@ -377,21 +659,14 @@ public class Klondike implements MouseListener, MouseMotionListener {
 		if(inUse.isEmpty() || inUse.size() != 1){ //Only 1 card can be added to
 			return false;						  //a foundation at a time.
 		}
-		for(Foundation foundation : foundations){
-			//If the foundation was clicked.
-			if(foundation.contains(x, y) || (foundation.isEmpty()
-					&& foundation.shapeOfNextCard().contains(x, y))){
-				try {
-					//Peek is used in case the card is not appended.
-					foundation.push(inUse.peek());
-					//if an exception was not thrown:
-					inUse.pop(); //we pop.
-					flipLastStack();
-					return true; //The action was performed
-				} catch(IllegalArgumentException ex){ //If an exception was thrown,
-					return false; //we return false as nothing was done.
-				}
+		//If the foundation was clicked.
+		for(Foundation foundation : foundationIndex().targetsAt(x, y)){
+			if(!foundation.canPush(inUse.peek()).isAccepted()){
+				return false; //Nothing was done.
 			}
+			foundation.push(inUse.pop());
+			flipLastStack();
+			return true; //The action was performed
 		}
 		return false;
 	}
@@ -418,11 +693,13 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	 * Return the cards that are in use to the last stack that was clicked.
 	 */
 	protected void returnToLastStack(){
-		new StackOfCardsAnimator(inUse, lastStack, container);
+		new StackOfCardsAnimator(inUse, lastStack, container, this);
 	}
 
 	/**
-	 * Flips the top card of {@link #lastStack} if it is not empty.
+	 * Flips the top card of {@link #lastStack} if it is not empty. The whole
+	 * container is repainted since this ends a move, which may have changed
+	 * any stack.
 	 */
 	protected void flipLastStack(){
 		if(!lastStack.isEmpty()){ //We unhide the top card
@@ -437,8 +714,27 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	@Override
 	public void mouseDragged(MouseEvent e){
 		if(inUse != null){//Just move the cards inUse When the mouse is dragged
+			Rectangle before = inUse.getBounds();
 			inUse.setLocation(e.getX() - deltaX, e.getY() - deltaY);
-			container.repaint();                   //and repaint.
+			repaint(before, inUse.getBounds()); //and repaint where they were
+		}										//and are.
+	}
+
+	/**
+	 * Repaints the smallest area of the container that holds all of the given
+	 * regions, instead of the whole container.
+	 */
+	protected void repaint(Rectangle... regions){
+		Rectangle dirty = null;
+		for(Rectangle region : regions){
+			if(dirty == null){
+				dirty = new Rectangle(region);
+			} else {
+				dirty.add(region);
+			}
+		}
+		if(dirty != null){
+			container.repaint(dirty.x, dirty.y, dirty.width, dirty.height);
 		}
 	}
 
@@ -457,23 +753,117 @@ public class Klondike implements MouseListener, MouseMotionListener {
 
 	/**
 	 * Paints all of the stacks. This should be placed in the container's paint
-	 * method.
+	 * method, after the background is painted.
+	 * <p>
+	 * While cards are dragged, the stacks drawn by {@link #paintStatic} are
+	 * copied from an image that is drawn once per drag, so that a frame takes
+	 * the same time however many cards are on the board.
 	 */
 	public void paint(Graphics pane){
 		if(initialized){
-			for(StackOfCards tableau : tableaux){
-				tableau.draw(pane);
+			if(canUseStaticLayer()){
+				pane.drawImage(staticLayer(), 0, 0, null);
+			} else {
+				paintStatic(pane);
 			}
-			for(StackOfCards foundation : foundations){
-				foundation.draw(pane);
+			paintMoving(pane);
+		}
+	}
+
+	/**
+	 * Paints the stacks that do not move while cards are dragged: every stack
+	 * except {@link #inUse} and those of the animation queue. Subclasses with
+	 * other stacks should override this instead of {@link #paint}.
+	 */
+	protected void paintStatic(Graphics pane){
+		for(StackOfCards tableau : tableaux){
+			tableau.draw(pane);
+		}
+		for(StackOfCards foundation : foundations){
+			foundation.draw(pane);
+		}
+		if(stock != null && !stock.isEmpty())
+			stock.peek().draw(pane);
+		if(waste != null && !waste.isEmpty())
+			waste.peek().draw(pane);
+	}
+
+	/**
+	 * Paints {@link #inUse} and the animations over the other stacks.
+	 */
+	protected void paintMoving(Graphics pane){
+		if(inUse != null && !inUse.isEmpty())
+			inUse.draw(pane);
+
+		paintAnimations(pane);
+	}
+
+	/**
+	 * Marks the static layer as out of date, so that it is drawn again before
+	 * it is next used. It must be called if a stack drawn by
+	 * {@link #paintStatic} changes while cards are dragged.
+	 */
+	protected void invalidateStaticLayer(){
+		staticLayerValid = false;
+	}
+
+	/**
+	 * Determines whether the static layer may be used for the current frame:
+	 * cards are being dragged and nothing is being animated, since an
+	 * animation changes a static stack when it arrives.
+	 */
+	private boolean canUseStaticLayer(){
+		if(!dragging || inUse == null || inUse.isEmpty()
+				|| container.getWidth() <= 0 || container.getHeight() <= 0){
+			return false;
+		}
+		synchronized(animationQueue){
+			updateAnimationQueue();
+			if(!animationQueue.isEmpty()){
+				staticLayerValid = false;
+				return false;
 			}
-			if(stock != null && !stock.isEmpty())
-				stock.peek().draw(pane);
-			if(waste != null && !waste.isEmpty())
-				waste.peek().draw(pane);
-			if(inUse != null && !inUse.isEmpty())
-				inUse.draw(pane);
-			
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the static layer, drawing it first if it is out of date or the
+	 * container has been resized.
+	 */
+	private Image staticLayer(){
+		int width = container.getWidth(), height = container.getHeight();
+		if(staticLayer == null || staticLayer.getWidth(null) != width
+				|| staticLayer.getHeight(null) != height){
+			staticLayer = container.createImage(width, height);
+			if(staticLayer == null){ //Then the container is not displayable.
+				staticLayer = new BufferedImage(width, height,
+						BufferedImage.TYPE_INT_RGB);
+			}
+			staticLayerValid = false;
+		}
+		if(!staticLayerValid){
+			Graphics layer = staticLayer.getGraphics();
+			try {
+				layer.setColor(container.getBackground());
+				layer.fillRect(0, 0, width, height);
+				layer.setFont(container.getFont());
+				paintStatic(layer);
+			} finally {
+				layer.dispose();
+			}
+			staticLayerValid = true;
+		}
+		return staticLayer;
+	}
+
+	/**
+	 * Draws the stacks in the animation queue after removing the empty ones.
+	 * The queue is locked while it is drawn because the animations add to it
+	 * from other threads.
+	 */
+	protected void paintAnimations(Graphics pane){
+		synchronized(animationQueue){
 			updateAnimationQueue();
 			for(StackOfCards stack : animationQueue){
 				if(!stack.isEmpty()){
@@ -525,25 +915,19 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	protected void onWin(){
 		if(!recordedVictory) {
 			if(this instanceof Argos)
-				Statistics.winGame("Argos");
+				Statistics.winGame("Argos", this);
 			else if(this instanceof AmericanToad)
-				Statistics.winGame("American Toad");
+				Statistics.winGame("American Toad", this);
 			else if(this instanceof AnnoDomini)
-				Statistics.winGame("Anno Domini");
+				Statistics.winGame("Anno Domini", this);
 			else if(this instanceof Pyramid)
-				Statistics.winGame("Aztec Pyramid");
+				Statistics.winGame("Aztec Pyramid", this);
 			else
-				Statistics.winGame("Klondike");
+				Statistics.winGame("Klondike", this);
 			recordedVictory = true;
 		}
 
-		//We start a new anonymous thread with and anonymous runnable object
-		//to play the winning animation.
-		new Thread(new Runnable(){
-			public void run(){
-				winningAnimation();
-			}
-		}).start();
+		winningAnimation(); //Runs in the frames of the AnimationScheduler.
 		
 		//Then we show a dialog box to alert the user of the fact.
 		//We start another anonymous thread to show the dialog box because
@@ -557,46 +941,40 @@ public class Klondike implements MouseListener, MouseMotionListener {
 	}
 
 	/**
-	 * Plays the winning animation.
+	 * Plays the winning animation. In each pass, every foundation takes the
+	 * next card of its suit from the tableaux, and the next pass starts when
+	 * those cards have arrived, until no more cards can be moved.
 	 * Pre. <code>hasWon()</code> returns <code>true</code>.
 	 */
 	protected void winningAnimation(){
-		//We calculate the number of cards in all of the foundations.
-		int sizeOfFoundations = 0;
-		for(Foundation f : foundations){
-			sizeOfFoundations += f.size();
-		}
-
-		while(sizeOfFoundations < 52){ //until all cards are in the foundations.
-			//If the animation queue has more than 5 cards, then we wait so as to
-			//prevent the program from crashing by creating too many threads at
-			if(animationQueue.size() > 6){						//the same time.
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e){}
-				continue; //try again.
-			}
-			for(Foundation foundation : foundations){ //For each foundation:
-				Card temp = foundation.peek(); //For comparisons.
-
-				for(Tableau tableau : tableaux){
-					//If the tableau:
-					//-is not empty
-					//-its top card's value is one greater than temp
-					//-and it has the same suit as temp, then:
-					if(!tableau.isEmpty() &&
-							temp.compareTo(tableau.peek()) == -1
-							&& temp.getSuit() == tableau.peek().getSuit()){
-
-						//move the top card to the foundation and animate it.
-						animateTopCardOf(tableau, foundation);
-						sizeOfFoundations++;//One more card is in a foundation.
-						
-						break; //We don't need to look in another tableau.
-					}
-				}	
+		boolean moved = false; //Whether or not a card was moved in this pass.
+		for(Foundation foundation : foundations){ //For each foundation:
+			Card temp = foundation.peek(); //For comparisons.
+
+			for(Tableau tableau : tableaux){
+				//If the tableau:
+				//-is not empty
+				//-its top card's value is one greater than temp
+				//-and it has the same suit as temp, then:
+				if(!tableau.isEmpty() &&
+						temp.compareTo(tableau.peek()) == -1
+						&& temp.getSuit() == tableau.peek().getSuit()){
+
+					//move the top card to the foundation and animate it.
+					animateTopCardOf(tableau, foundation);
+					moved = true;
+
+					break; //We don't need to look in another tableau.
+				}
 			}
 		}
+		if(moved){ //Then the next pass starts when these cards have arrived.
+			AnimationScheduler.whenIdle(this, new Runnable(){
+				public void run(){
+					winningAnimation();
+				}
+			});
+		}
 	}
 
 	/**
@@ -611,9 +989,191 @@ public class Klondike implements MouseListener, MouseMotionListener {
 				cardWidth, 0, 0);
 
 		temp.push(source.pop()); //Moves a card to the temp.
-		animationQueue.enqueue(temp); //and add temp to the queue.
+		synchronized(animationQueue){
+			animationQueue.enqueue(temp); //and add temp to the queue.
+		}
 		//Performs the animation.
-		new StackOfCardsAnimator(temp, destination, container);
+		new StackOfCardsAnimator(temp, destination, container, this);
+	}
+
+	/**
+	 * Returns a {@link GameState} holding the cards of this game as they are
+	 * now, so that the rules of the game can be run without the user interface.
+	 * Pre. No cards are in use.
+	 */
+	public GameState toGameState(){
+		KlondikeState state = new KlondikeState();
+		load(state, 0, tableaux);
+		load(state, state.firstFoundation(), foundations);
+		load(state.pile(state.getStock()), stock, false);
+		load(state.pile(state.getWaste()), waste, false);
+		return state;
+	}
+
+	/**
+	 * Highlights the cards that a move leading to a win would take and the card
+	 * that they would be put on, if any. If the solver finds no such move, the
+	 * user is told so. The move is found on the thread of the {@link
+	 * SolverService}, and it is not shown if the hint is cleared first, nor
+	 * searched for if it is cleared before the searches ahead of it end.
+	 * Pre. No cards are in use.
+	 */
+	protected void showHint(){
+		final int request = ++hintRequest;
+		final GameState state = toGameState();
+		SolverService.get().solve(new Callable<Move>(){
+			public Move call(){
+				if(request != hintRequest){
+					return null; //Then it would not be shown.
+				}
+				return findHint(state);
+			}
+		}, new Consumer<Move>(){
+			public void accept(Move move){
+				if(request != hintRequest || left){
+					return; //The game has changed since the hint was asked for.
+				}
+				if(move == null){
+					//As in onWin(), the dialog is shown from another thread.
+					new Thread(new Runnable(){
+						public void run(){
+							JOptionPane.showMessageDialog(container,
+									"No move that leads to a win was found.");
+						}
+					}).start();
+					return;
+				}
+				highlightHint(move);
+				container.repaint();
+			}
+		});
+	}
+
+	/**
+	 * Highlights the cards that the given move of the state returned by
+	 * {@link #toGameState()} takes, and the card that they are put on, if any.
+	 */
+	protected void highlightHint(Move move){
+		StackOfCards from = stackOf(move.getFrom()), to = stackOf(move.getTo());
+		int count = move.getType() == Move.Type.TRANSFER ? move.getCount() : 1;
+		for(int i = from.size() - count; i < from.size(); i++){
+			hint(from.get(i));
+		}
+		if(move.getType() == Move.Type.TRANSFER && !to.isEmpty()){
+			hint(to.peek());
+		}
+	}
+
+	/**
+	 * Returns a move of the given state, which was returned by {@link
+	 * #toGameState()}, that leads to a win, or <code>null</code> if none was
+	 * found. It is called on the thread of the {@link SolverService}, so it
+	 * must only use the state and the solvers.
+	 */
+	protected Move findHint(GameState state){
+		return state instanceof KlondikeState
+				? solver.hint((KlondikeState) state) : null;
+	}
+
+	/**
+	 * Highlights the given card as part of a hint.
+	 */
+	protected void hint(Card card){
+		card.setHighlighted(true);
+		hintedCards.push(card);
+	}
+
+	/**
+	 * Removes the highlight from the cards of the last hint.
+	 */
+	protected void clearHint(){
+		hintRequest++; //So that a hint that is still being found is not shown.
+		if(hintedCards.isEmpty()){
+			return;
+		}
+		while(!hintedCards.isEmpty()){
+			hintedCards.pop().setHighlighted(false);
+		}
+		container.repaint();
+	}
+
+	/**
+	 * Returns the stack that corresponds to the pile of the given index in the
+	 * state returned by {@link #toGameState()}.
+	 */
+	protected StackOfCards stackOf(int index){
+		if(index < tableaux.length){
+			return tableaux[index];
+		} else if(index < tableaux.length + foundations.length){
+			return foundations[index - tableaux.length];
+		}
+		return index == tableaux.length + foundations.length ? stock : waste;
+	}
+
+	/**
+	 * Fills consecutive piles of a game state with the cards of the given
+	 * stacks. Hidden cards at the bottom of each stack will be face down.
+	 * @param state	The game state.
+	 * @param first	The index of the pile that receives the first stack.
+	 * @param stacks The stacks to be copied.
+	 */
+	protected static void load(GameState state, int first, StackOfCards[] stacks){
+		for(int i = 0; i < stacks.length; i++){
+			load(state.pile(first + i), stacks[i], true);
+		}
+	}
+
+	/**
+	 * Fills a pile of a game state with the cards of the given stack.
+	 * @param pile	The pile to be filled.
+	 * @param stack	The stack to be copied.
+	 * @param keepHidden Whether or not the hidden cards at the bottom of the
+	 * 					 stack will be face down in the pile.
+	 */
+	protected static void load(Pile pile, Stack<Card> stack, boolean keepHidden){
+		byte[] codes = new byte[stack.size()];
+		int hidden = 0; //The number of hidden cards at the bottom.
+		for(int i = 0; i < codes.length; i++){
+			Card card = stack.get(i);
+			codes[i] = card.code();
+			if(keepHidden && card.isHidden() && hidden == i){
+				hidden++;
+			}
+		}
+		pile.setCards(codes, codes.length, hidden);
+	}
+
+	/**
+	 * Returns a new shuffler for a deal, whose deal number is kept as that of
+	 * the current deal, which has no outcome yet.
+	 */
+	protected Shuffler newDeal(){
+		Shuffler shuffler = new Shuffler();
+		dealNumber = shuffler.getDealNumber();
+		outcomeRecorded = false;
+		return shuffler;
+	}
+
+	/**
+	 * Returns the deal number of the shuffler of the current deal.
+	 */
+	public long getDealNumber(){
+		return dealNumber;
+	}
+
+	/**
+	 * Returns the number of moves that the user has made.
+	 */
+	public int getMoves(){
+		return moves;
+	}
+
+	/**
+	 * Returns the score of the current game, which is 0 for games that are
+	 * not scored.
+	 */
+	public int getScore(){
+		return 0;
 	}
 
 	public String getName() {
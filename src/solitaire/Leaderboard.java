@@ -0,0 +1,227 @@
+package solitaire;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The best {@link #CAPACITY} results of a game, such as its highest scores or
+ * its fastest wins, each with the deal number and date of its game. The results
+ * are kept in a heap whose root is the worst of them, so a new result only has
+ * to be compared with the root to know whether it belongs on the board, and is
+ * put in its place in <code>O(log CAPACITY)</code> time by changing a few of
+ * the results, without writing the others.
+ * <p>
+ * A leaderboard is a view of {@link #SIZE} bytes of a buffer, so that the
+ * {@link StatisticsStore} keeps them in its file:
+ * <pre>
+ * int  size			The number of results.
+ * int  (unused)
+ * Entry[CAPACITY] heap	The results, each of which is three longs: the
+ * 						result, the deal number and the date in ms.
+ * </pre>
+ *
+ * @author Warren Godone-Maresca
+ */
+public class Leaderboard {
+	/** The most results on a board.										*/
+	public static final int CAPACITY = 10;
+
+	/** The number of bytes of each result.									*/
+	private static final int ENTRY_SIZE = 24;
+
+	/** The number of bytes that a leaderboard takes.						*/
+	public static final int SIZE = 8 + ENTRY_SIZE*CAPACITY;
+
+	/** The offset of the heap.												*/
+	private static final int HEAP = 8;
+
+	/** Holds the leaderboard.												*/
+	private final ByteBuffer buffer;
+
+	/** The position of the leaderboard in the buffer.						*/
+	private final int at;
+
+	/** Whether higher results are better, as for scores, or lower ones, as
+	 *  for times.															*/
+	private final boolean highestFirst;
+
+	/**
+	 * A result on a leaderboard, which is immutable.
+	 */
+	public static final class Entry {
+		/** The result, such as the score or time.							*/
+		private final long value;
+
+		/** The deal number of the game.									*/
+		private final long dealNumber;
+
+		/** The time in ms since the epoch at which the game was finished.	*/
+		private final long date;
+
+		/**
+		 * Instantiates a result.
+		 */
+		Entry(long value, long dealNumber, long date){
+			this.value = value;
+			this.dealNumber = dealNumber;
+			this.date = date;
+		}
+
+		/**
+		 * Returns the result, such as the score or time.
+		 */
+		public long getValue(){
+			return value;
+		}
+
+		/**
+		 * Returns the deal number of the game.
+		 */
+		public long getDealNumber(){
+			return dealNumber;
+		}
+
+		/**
+		 * Returns the time in ms since the epoch at which the game was
+		 * finished.
+		 */
+		public long getDate(){
+			return date;
+		}
+	}
+
+	/**
+	 * Instantiates a view of the leaderboard at the given position of a buffer.
+	 * @param highestFirst Whether higher results are better, as for scores,
+	 * 					   or lower ones, as for times.
+	 */
+	Leaderboard(ByteBuffer buffer, int at, boolean highestFirst){
+		this.buffer = buffer;
+		this.at = at;
+		this.highestFirst = highestFirst;
+	}
+
+	/**
+	 * Returns a copy of this leaderboard that does not change with it.
+	 */
+	Leaderboard copy(){
+		ByteBuffer copy = ByteBuffer.allocate(SIZE);
+		for(int i = 0; i < SIZE; i += 4){
+			copy.putInt(i, buffer.getInt(at + i));
+		}
+		return new Leaderboard(copy, 0, highestFirst);
+	}
+
+	/**
+	 * Removes all of the results.
+	 */
+	void clear(){
+		for(int i = 0; i < SIZE; i += 4){
+			buffer.putInt(at + i, 0);
+		}
+	}
+
+	/**
+	 * Returns the number of results.
+	 */
+	public int size(){
+		return buffer.getInt(at);
+	}
+
+	/**
+	 * Puts a result on the board if there is room or it is better than the
+	 * worst result, which it then replaces.
+	 * @return <code>true</code> if the result was put on the board, else
+	 * 			<code>false</code>.
+	 */
+	boolean offer(long value, long dealNumber, long date){
+		int size = size();
+		int node;
+		if(size < CAPACITY){
+			buffer.putInt(at, size + 1);
+			node = size;
+			//The result moves up past the better results above it.
+			while(node > 0 && isWorse(value, valueAt((node - 1)/2))){
+				copyEntry((node - 1)/2, node);
+				node = (node - 1)/2;
+			}
+		} else if(isWorse(valueAt(0), value)){
+			node = 0;
+			//The result moves down past the worse results below it.
+			while(2*node + 1 < size){
+				int child = 2*node + 1;
+				if(child + 1 < size && isWorse(valueAt(child + 1), valueAt(child))){
+					child++; //The worse child.
+				}
+				if(!isWorse(valueAt(child), value)){
+					break;
+				}
+				copyEntry(child, node);
+				node = child;
+			}
+		} else {
+			return false;
+		}
+		int entry = offsetOf(node);
+		buffer.putLong(entry, value);
+		buffer.putLong(entry + 8, dealNumber);
+		buffer.putLong(entry + 16, date);
+		return true;
+	}
+
+	/**
+	 * Returns the results from the best to the worst. Results that are equal
+	 * are in the order they were finished.
+	 */
+	public List<Entry> getEntries(){
+		List<Entry> entries = new ArrayList<Entry>(size());
+		for(int node = 0; node < size(); node++){
+			int entry = offsetOf(node);
+			entries.add(new Entry(buffer.getLong(entry), buffer.getLong(entry + 8),
+					buffer.getLong(entry + 16)));
+		}
+		Collections.sort(entries, new Comparator<Entry>(){
+			public int compare(Entry a, Entry b){
+				if(a.value != b.value){
+					return isWorse(a.value, b.value) ? 1 : -1;
+				}
+				return Long.compare(a.date, b.date);
+			}
+		});
+		return entries;
+	}
+
+	/**
+	 * Returns whether the first result is worse than the second.
+	 */
+	private boolean isWorse(long value, long than){
+		return highestFirst ? value < than : value > than;
+	}
+
+	/**
+	 * Returns the result of the given node of the heap.
+	 */
+	private long valueAt(int node){
+		return buffer.getLong(offsetOf(node));
+	}
+
+	/**
+	 * Copies a result from one node of the heap to another.
+	 */
+	private void copyEntry(int from, int to){
+		int source = offsetOf(from), destination = offsetOf(to);
+		for(int i = 0; i < ENTRY_SIZE; i += 8){
+			buffer.putLong(destination + i, buffer.getLong(source + i));
+		}
+	}
+
+	/**
+	 * Returns the position in the buffer of the given node of the heap.
+	 */
+	private int offsetOf(int node){
+		return at + HEAP + ENTRY_SIZE*node;
+	}
+}
@@ -1,6 +1,5 @@
 package solitaire;
 
-import java.awt.geom.RoundRectangle2D;
 import java.awt.Container;
 import java.awt.event.MouseEvent;
 import java.awt.Graphics;
@@ -8,15 +7,25 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import javax.swing.Timer;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 import card.Card;
 import card.StackOfCards;
 import card.Tableau;
 import card.PyramidOfCards;
 import dataStructures.StackADT;
+import solitaire.engine.GameState;
+import solitaire.engine.Move;
+import solitaire.engine.PyramidState;
+import solitaire.solver.PyramidSolver;
 
 /**
  * A form of Solitaire that is similar to {@link Klondike}. Unlike Klondike,
@@ -24,11 +33,18 @@ import dataStructures.StackADT;
  * cards do not have to be in sequence with alternating colors to be removed
  * from a tableaux. Moreover, only the bottom card in use and the top card of a
  * tableau is relevant for appending the cards in use to said tableau column.
+ * <p>
+ * Each deal is solved by a {@link PyramidSolver} in the background to find its
+ * par score, and pressing the right mouse button highlights the cards of the
+ * best move.
  *
  * @author Warren Godone-Maresca
  *
  */
 public class Pyramid extends Klondike {
+	/** The height of the area at the top of the container in which the score,
+	 *  time bonus and par are drawn.										*/
+	private static final int SCORE_HEIGHT = 72;
 
 	/**A reference to the stack of cards card that can be used to remove the
 	 * top card. Can be null if no card is selected */
@@ -55,6 +71,14 @@ public class Pyramid extends Klondike {
 	/** Score bonus for matches made. Increases for each match				*/
 	protected int moveScore;
 
+	/** Solves the current deal. A new one is made for each deal, and it is
+	 *  only used on the thread of the {@link SolverService}.				*/
+	protected volatile PyramidSolver pyramidSolver;
+
+	/** The most points that can be scored from matches in the current deal,
+	 *  or -1 until it is found.											*/
+	protected volatile int parScore = -1;
+
 	/** Do nothing constructor.												*/
 	public Pyramid(){}
 
@@ -83,7 +107,7 @@ public class Pyramid extends Klondike {
 	@Override
 	protected void init(){
 		//The initial deck.
-		StackOfCards deck = StackOfCards.randomDeck();
+		StackOfCards deck = StackOfCards.randomDeck(newDeal());
 
 		//Calls initTableaux with the random deck and an anonymous array that
 		//holds the initial tableau sizes.
@@ -92,12 +116,7 @@ public class Pyramid extends Klondike {
 		//Create a freeSlot that can be collided with using the empty space of the stack
 		freeSlot = new StackOfCards(container.getWidth() - (cardWidth+10), yCoord, cardWidth, 0, offset) {
 			public boolean contains(int x, int y){
-
-				if(new RoundRectangle2D.Double(this.x - cardWidth/2 - offsetX*size,
-					this.y - cardWidth*3/4 + offsetY*size, cardWidth,
-					cardWidth*3/2, cardWidth/10, cardWidth/10).contains(x,y)) {return true;}
-
-				return false;
+				return nextCardContains(x, y);
 			}
 		};
 
@@ -106,17 +125,95 @@ public class Pyramid extends Klondike {
 			public void actionPerformed(ActionEvent e) {
 				if(timeBonus > 0)
 				timeBonus -= 50;
-				container.repaint();//So we repaint.
+				//Only the score is repainted, since no card has changed.
+				container.repaint(0, 0, container.getWidth(), SCORE_HEIGHT);
 			}
 		};
 		timeBonusTimer = new Timer(1000, updateTimeScore);
 		timeBonusTimer.start();
 		recordedVictory = false;
+		findParScore();
 
 		initialized = true; //Everything is initialized,
 		container.repaint();//So we repaint.
 	}
 
+	/**
+	 * Finds the par score of the new deal on the {@link SolverService}, as
+	 * solving it may take a moment, then records it in {@link Statistics}.
+	 */
+	protected void findParScore(){
+		final PyramidSolver solver = new PyramidSolver();
+		final PyramidState deal = (PyramidState) toGameState();
+		pyramidSolver = solver;
+		parScore = -1;
+
+		SolverService.get().solve(new Callable<Integer>(){
+			public Integer call(){
+				return solver.parScore(deal);
+			}
+		}, new Consumer<Integer>(){
+			public void accept(Integer par){
+				if(solver == pyramidSolver){ //Then it is still the same deal.
+					parScore = par;
+					Statistics.recordParScore("Aztec Pyramid", par);
+					container.repaint();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns the tableaux and the free slot.
+	 */
+	@Override
+	protected List<StackOfCards> savedStacks(){
+		List<StackOfCards> stacks = super.savedStacks();
+		stacks.add(freeSlot);
+		return stacks;
+	}
+
+	/**
+	 * Writes the state of the stacks, the score, time bonus and par score, and
+	 * then the nodes of the pyramid from the top, each of which may be empty.
+	 */
+	@Override
+	protected void writeSnapshot(ByteBuffer buffer){
+		super.writeSnapshot(buffer);
+		buffer.putInt(moveScore);
+		buffer.putInt(timeBonus);
+		buffer.putInt(parScore);
+		buffer.put((byte) pyramid.size());
+		for(int node = 1; node <= pyramid.size(); node++){
+			SavedGame.putCard(buffer, pyramid.get(node));
+		}
+	}
+
+	/**
+	 * Restores the state written by {@link #writeSnapshot}. The par score is
+	 * that of the deal, which was saved, as the solver would only find the par
+	 * of the cards that are left. If it had been found, it is recorded in
+	 * {@link Statistics} as {@link #findParScore} does.
+	 */
+	@Override
+	protected void readSnapshot(ByteBuffer buffer){
+		super.readSnapshot(buffer);
+		moveScore = buffer.getInt();
+		timeBonus = buffer.getInt();
+		int par = buffer.getInt();
+		Card[] cards = new Card[buffer.get() & 0xFF];
+		for(int node = 0; node < cards.length; node++){
+			cards[node] = SavedGame.getCard(buffer, cardWidth);
+		}
+		pyramid.setCards(cards);
+		selectedStack = null;
+		pyramidSolver = new PyramidSolver(); //For hints, and so that a par being found is ignored.
+		parScore = par;
+		if(par >= 0){
+			Statistics.recordParScore("Aztec Pyramid", par);
+		}
+	}
+
 	/**
 	 * Initializes the tableaux.
 	 */
@@ -170,34 +267,32 @@ public class Pyramid extends Klondike {
 	 * 			else <code>false</code>
 	 */
 	protected boolean tableauxPressedAction(int x, int y){
-		for(Tableau tableau : tableaux){ //Check each tableau,
-			if(tableau.contains(x, y)){  //and if the mouse clicked a tableau,
-				//Check mouse is colliding with top card.
-				if(!tableau.isEmpty() && tableau.peek().colliding(x, y)) {
-					removeHighlight();
-					//Check if current highlighted card is 13 minus selected card
-					if(selectedStack != null
-						&& selectedStack.peek().getValue() + tableau.peek().getValue() == 13) {
-						//Remove both
+		for(Tableau tableau : tableauIndex().stacksAt(x, y)){ //Each tableau clicked,
+			//Check mouse is colliding with top card.
+			if(!tableau.isEmpty() && tableau.peek().colliding(x, y)) {
+				removeHighlight();
+				//Check if current highlighted card is 13 minus selected card
+				if(selectedStack != null
+					&& selectedStack.peek().getValue() + tableau.peek().getValue() == 13) {
+					//Remove both
+					tableau.pop();
+					selectedStack.pop();
+					setSelected(null);
+					moveScore += 500;
+				} else {
+					if(tableau.peek().getValue() == 13) {
 						tableau.pop();
-						selectedStack.pop();
 						setSelected(null);
 						moveScore += 500;
 					} else {
-						if(tableau.peek().getValue() == 13) {
-							tableau.pop();
-							setSelected(null);
-							moveScore += 500;
-						} else {
-							//Set this tableau as the new selectedStack
-							setSelected(tableau);
-						}
+						//Set this tableau as the new selectedStack
+						setSelected(tableau);
 					}
-					container.repaint();
-					return true;
 				}
-				return false; //Inactive card was clicked
+				container.repaint();
+				return true;
 			}
+			return false; //Inactive card was clicked
 		}
 		return false; //No tableau was clicked.
 	}
@@ -324,6 +419,14 @@ public class Pyramid extends Klondike {
 			return;
 		}
 
+		clearHint();
+		if(SwingUtilities.isRightMouseButton(e)){
+			removeHighlight(); //The selection is replaced by the hint.
+			setSelected(null);
+			showHint();
+			return;
+		}
+
 		int x = e.getX(), y = e.getY();
 //
 // TEST LINE: DELETE AFTER FINISH TESTING
@@ -348,30 +451,32 @@ public class Pyramid extends Klondike {
 	 * Pre. <code>hasWon()</code> returns <code>true</code>.
 	 */
 	protected void onWin(){
-		boolean newRecord = false;
+		//Whether the score is a new record, which is known once it is recorded.
+		CompletableFuture<Boolean> recorded = CompletableFuture.completedFuture(false);
 		if(!recordedVictory) {
 			moveScore += timeBonus;
-			Statistics.winGame("Aztec Pyramid");
-			newRecord = Statistics.recordScore("Aztec Pyramid", moveScore);
+			Statistics.winGame("Aztec Pyramid", this);
+			recorded = Statistics.recordScore("Aztec Pyramid", moveScore);
 			recordedVictory = true;
 		}
 
-		//If we've made a new record, make the text box's message say so
-		String tempMessage = "Congratulations, you won in " + moves + " moves!.\n"
+		final String congratulations = "Congratulations, you won in " + moves + " moves!.\n"
 			+ "Your final score is " + moveScore + "!";
-		if(newRecord) {
-			tempMessage = "NEW RECORD!\n" + tempMessage;
-		}
-
-		final String message = tempMessage; //To call a message outside of the thread's scope, it must be final
+		final CompletableFuture<Boolean> newRecord = recorded; //To be used in the thread, it must be final
 
 		//Then we show a dialog box to alert the user of the fact.
 		//We start another anonymous thread to show the dialog box because
 		//the dialog will pause all threads if it is in the main thread.
+		//It also waits there for the score to be recorded.
 		new Thread(new Runnable(){
 			Object[] options = {"OK", "Play again!"};
 			public void run(){
 				timeBonusTimer.stop();
+				//If we've made a new record, make the text box's message say so
+				String message = congratulations;
+				if(newRecord.join()) {
+					message = "NEW RECORD!\n" + message;
+				}
 				int option = JOptionPane.showOptionDialog(container,
 						message,
 						"You win!", JOptionPane.OK_CANCEL_OPTION,
@@ -387,40 +492,60 @@ public class Pyramid extends Klondike {
 	}
 
 	/**
-	 * Paints all of the stacks. This should be placed in the container's paint
-	 * method.
+	 * Also stops the time bonus from counting down.
 	 */
 	@Override
-	public void paint(Graphics pane){
-		if(initialized){
-			pane.setColor(Color.BLACK);
-			pane.setFont(new Font("Serif", Font.PLAIN, 20));
-			pane.drawString("Score: " + moveScore, 5, 25);
-			pane.drawString("Time Bonus: " + timeBonus, 5, 45);
-			for(StackOfCards tableau : tableaux){
-				tableau.draw(pane);
-			}
+	public void leave(){
+		super.leave();
+		if(timeBonusTimer != null){
+			timeBonusTimer.stop();
+		}
+	}
 
-			if(pyramid != null && !pyramid.isEmpty())
-				pyramid.draw(pane);
-
-			freeSlot.draw(pane);
-			/*
-			if(stock != null && !stock.isEmpty())
-				stock.peek().draw(pane);
-			if(waste != null && !waste.isEmpty())
-				waste.peek().draw(pane);
-			if(inUse != null && !inUse.isEmpty())
-				inUse.draw(pane);
-			*/
-			/*
-			updateAnimationQueue();
-			for(StackOfCards stack : animationQueue){
-				if(!stack.isEmpty()){
-					stack.draw(pane);
-				}
-			}*/
+	/**
+	 * Paints all of the stacks. Cards are never dragged in this game, so every
+	 * stack is painted as part of the static layer.
+	 */
+	@Override
+	protected void paintStatic(Graphics pane){
+		for(StackOfCards tableau : tableaux){
+			tableau.draw(pane);
 		}
+
+		if(pyramid != null && !pyramid.isEmpty())
+			pyramid.draw(pane);
+
+		freeSlot.draw(pane);
+		/*
+		if(stock != null && !stock.isEmpty())
+			stock.peek().draw(pane);
+		if(waste != null && !waste.isEmpty())
+			waste.peek().draw(pane);
+		if(inUse != null && !inUse.isEmpty())
+			inUse.draw(pane);
+		*/
+		/*
+		updateAnimationQueue();
+		for(StackOfCards stack : animationQueue){
+			if(!stack.isEmpty()){
+				stack.draw(pane);
+			}
+		}*/
+	}
+
+	/**
+	 * Paints the score over the stacks. It is not part of the static layer,
+	 * since the time bonus changes every second whether or not a card moves.
+	 */
+	@Override
+	protected void paintMoving(Graphics pane){
+		pane.setColor(Color.BLACK);
+		pane.setFont(new Font("Serif", Font.PLAIN, 20));
+		pane.drawString("Score: " + moveScore, 5, 25);
+		pane.drawString("Time Bonus: " + timeBonus, 5, 45);
+		if(parScore >= 0)
+			pane.drawString("Par: " + parScore, 5, 65);
+		super.paintMoving(pane);
 	}
 
 	/**
@@ -436,6 +561,62 @@ public class Pyramid extends Klondike {
 		return false;
 	}
 
+	@Override
+	public GameState toGameState(){
+		PyramidState state = new PyramidState();
+		for(int s = 0; s < PyramidState.SLOTS; s++){
+			Card card = pyramid.get(s + 1); //The pyramid's nodes start at 1.
+			if(card != null){
+				state.pile(s).push(card.code());
+			}
+		}
+		load(state, PyramidState.FIRST_TABLEAU, tableaux);
+		load(state.pile(PyramidState.FREE_SLOT), freeSlot, false);
+		return state;
+	}
+
+	/**
+	 * Returns the move that scores the most points from the current game, and
+	 * clears the pyramid if it can be.
+	 */
+	@Override
+	protected Move findHint(GameState state){
+		return pyramidSolver.hint((PyramidState) state);
+	}
+
+	/**
+	 * Highlights the cards that the given move removes or puts in the free
+	 * slot.
+	 */
+	@Override
+	protected void highlightHint(Move move){
+		hint(cardOf(move.getFrom()));
+		if(move.getType() == Move.Type.PAIR){
+			hint(cardOf(move.getTo()));
+		}
+	}
+
+	/**
+	 * Returns the top card of the pile of the given index in the state returned
+	 * by {@link #toGameState()}.
+	 */
+	protected Card cardOf(int index){
+		if(index < PyramidState.SLOTS){
+			return pyramid.get(index + 1); //The pyramid's nodes start at 1.
+		} else if(index < PyramidState.FREE_SLOT){
+			return tableaux[index - PyramidState.FIRST_TABLEAU].peek();
+		}
+		return freeSlot.peek();
+	}
+
+	/**
+	 * Returns the points scored in the current game.
+	 */
+	@Override
+	public int getScore(){
+		return moveScore;
+	}
+
 	public String getName() {
 		return "AztecPyramid";
 	}
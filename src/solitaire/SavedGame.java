@@ -0,0 +1,225 @@
+package solitaire;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import card.Card;
+import card.Cards;
+import card.StackOfCards;
+import dataStructures.Stack;
+
+/**
+ * A game in progress as it was at one time, from which it can be restored, such
+ * as when the program is started again after it stopped. It is kept in a
+ * compact binary form of a few hundred bytes, so it can be written after every
+ * move and read back at once:
+ * <pre>
+ * int   magic		{@link #MAGIC}.
+ * short version	{@link #VERSION}.
+ * short nameLength	The length of the game's name.
+ * byte[nameLength]	The game's name, as given by {@link Klondike#getName()}.
+ * long  started	The time in ms at which the game was started, or 0.
+ * short length		The length of the game's state.
+ * byte[length]		The game's state, as written by
+ * 					{@link Klondike#writeSnapshot(java.nio.ByteBuffer)}.
+ * int   checksum	The CRC-32 of the bytes before it.
+ * </pre>
+ * In a game's state, each card takes one byte: its code (see {@link Cards}),
+ * plus {@link #HIDDEN} if it is hidden. A stack is a byte of its size followed
+ * by its cards from the bottom.
+ * <p>
+ * A saved game is immutable.
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class SavedGame {
+	/** Starts every saved game, to tell it from other files.				*/
+	private static final int MAGIC = 0x534F4C53; //"SOLS" in ASCII.
+
+	/** The version of the layout.											*/
+	private static final short VERSION = 1;
+
+	/** The most bytes that the state of a game may take.					*/
+	private static final int MAX_STATE_SIZE = 4096;
+
+	/** Added to the code of a card that is hidden.							*/
+	private static final int HIDDEN = 0x80;
+
+	/** Stands for a place without a card, such as a node of a pyramid whose
+	 *  card was removed.													*/
+	private static final int NO_CARD = 0x7F;
+
+	/** The name of the game, as given by {@link Klondike#getName()}.		*/
+	private final String gameName;
+
+	/** The time in ms at which the game was started, or 0.				*/
+	private final long started;
+
+	/** The state of the game.												*/
+	private final byte[] state;
+
+	/**
+	 * Instantiates a saved game.
+	 */
+	private SavedGame(String gameName, long started, byte[] state){
+		this.gameName = gameName;
+		this.started = started;
+		this.state = state;
+	}
+
+	/**
+	 * Returns the given game as it is now.
+	 * Pre. No cards are in use or moving.
+	 * @param started The time in ms at which the game was started, or 0.
+	 */
+	static SavedGame of(Klondike game, long started){
+		ByteBuffer buffer = ByteBuffer.allocate(MAX_STATE_SIZE);
+		game.writeSnapshot(buffer);
+		return new SavedGame(game.getName(), started,
+				Arrays.copyOf(buffer.array(), buffer.position()));
+	}
+
+	/**
+	 * Returns the name of the game, as given by {@link Klondike#getName()}.
+	 */
+	public String getGameName(){
+		return gameName;
+	}
+
+	/**
+	 * Returns the time in ms at which the game was started, or 0 if it was
+	 * not timed.
+	 */
+	public long getStarted(){
+		return started;
+	}
+
+	/**
+	 * Puts the cards of the given game as they were in this saved game, along
+	 * with its deal number, moves and the rest of its state.
+	 * @throws IllegalArgumentException if the game is not the one that was
+	 * 			saved, in which case it may have been partly restored.
+	 */
+	public void restore(Klondike game){
+		if(!game.getName().equals(gameName)){
+			throw new IllegalArgumentException("A game of " + gameName
+					+ " cannot be restored to " + game.getName() + ".");
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(state);
+		try {
+			game.readSnapshot(buffer);
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("The saved game ended early.");
+		}
+		if(buffer.hasRemaining()){
+			throw new IllegalArgumentException("The saved game has more than the game's state.");
+		}
+	}
+
+	/**
+	 * Returns this saved game in its binary form.
+	 */
+	byte[] toBytes(){
+		byte[] name = gameName.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer.allocate(22 + name.length + state.length);
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.putShort((short) name.length);
+		buffer.put(name);
+		buffer.putLong(started);
+		buffer.putShort((short) state.length);
+		buffer.put(state);
+		CRC32 checksum = new CRC32();
+		checksum.update(buffer.array(), 0, buffer.position());
+		buffer.putInt((int) checksum.getValue());
+		return buffer.array();
+	}
+
+	/**
+	 * Returns the saved game of the given binary form.
+	 * @throws IOException if the bytes are not a whole saved game of this
+	 * 			version.
+	 */
+	static SavedGame fromBytes(byte[] bytes) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		try {
+			if(buffer.getInt() != MAGIC || buffer.getShort() != VERSION){
+				throw new IOException("The file is not a saved game of this version.");
+			}
+			byte[] name = new byte[buffer.getShort()];
+			buffer.get(name);
+			long started = buffer.getLong();
+			byte[] state = new byte[buffer.getShort()];
+			buffer.get(state);
+			CRC32 checksum = new CRC32();
+			checksum.update(bytes, 0, buffer.position());
+			if(buffer.getInt() != (int) checksum.getValue() || buffer.hasRemaining()){
+				throw new IOException("The saved game is corrupted.");
+			}
+			return new SavedGame(new String(name, StandardCharsets.UTF_8), started, state);
+		} catch (BufferUnderflowException | NegativeArraySizeException e) {
+			throw new IOException("The saved game ended early.");
+		}
+	}
+
+	/**
+	 * Writes the size and cards of a stack.
+	 */
+	static void putStack(ByteBuffer buffer, Stack<Card> stack){
+		buffer.put((byte) stack.size());
+		for(int i = 0; i < stack.size(); i++){
+			putCard(buffer, stack.get(i));
+		}
+	}
+
+	/**
+	 * Reads a stack written by {@link #putStack}, and puts its cards in the
+	 * given stack in place of the cards that it has.
+	 * @param cardWidth The width of the cards of the game.
+	 * @throws IllegalArgumentException if a card is not a card of the deck.
+	 */
+	static void getStack(ByteBuffer buffer, StackOfCards stack, int cardWidth){
+		Card[] cards = new Card[buffer.get() & 0xFF];
+		for(int i = 0; i < cards.length; i++){
+			cards[i] = getCard(buffer, cardWidth);
+			if(cards[i] == null){
+				throw new IllegalArgumentException("A stack of the saved game has a gap.");
+			}
+		}
+		stack.setCards(cards);
+	}
+
+	/**
+	 * Writes a card, or that there is none if it is <code>null</code>.
+	 */
+	static void putCard(ByteBuffer buffer, Card card){
+		if(card == null){
+			buffer.put((byte) NO_CARD);
+		} else {
+			buffer.put((byte) (card.code() | (card.isHidden() ? HIDDEN : 0)));
+		}
+	}
+
+	/**
+	 * Reads a card written by {@link #putCard}.
+	 * @param cardWidth The width of the cards of the game.
+	 * @return The card, or <code>null</code> if there was none.
+	 * @throws IllegalArgumentException if it is not a card of the deck.
+	 */
+	static Card getCard(ByteBuffer buffer, int cardWidth){
+		int card = buffer.get() & 0xFF;
+		if(card == NO_CARD){
+			return null;
+		}
+		int code = card & ~HIDDEN;
+		if(code >= Cards.DECK_SIZE){
+			throw new IllegalArgumentException("The saved game has a card that is not in the deck.");
+		}
+		return new Card(Cards.getSuit(code), Cards.value(code), 0, 0, cardWidth,
+				(card & HIDDEN) != 0);
+	}
+}
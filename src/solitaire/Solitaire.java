@@ -436,28 +436,27 @@ public class Solitaire extends JPanel implements ActionListener, ItemListener {
 
 		//The listeners need to be removed or else there will still be a
 		//reference to the previous game object.
-		this.removeMouseListener(game);
-		this.removeMouseMotionListener(game);
+		game.leave();
 		//Change game view
 		if(e.getSource() == mainMenuItem){
-			Statistics.leaveGame(gameName);
+			Statistics.leaveGame(gameName, game);
 			switchScreens(games.MENU);
         } else if(e.getSource() == argosItem){
-			Statistics.leaveGame(gameName);
+			Statistics.leaveGame(gameName, game);
             game = new Argos(this);
-			Statistics.startGame("Argos");
+			startGame("Argos");
         } else if(e.getSource() == americanItem){
-			Statistics.leaveGame(gameName);
+			Statistics.leaveGame(gameName, game);
             game = new AmericanToad(this);
-			Statistics.startGame("American Toad");
+			startGame("American Toad");
         } else if(e.getSource() == annoItem){
-			Statistics.leaveGame(gameName);
+			Statistics.leaveGame(gameName, game);
             game = new AnnoDomini(this); 
-			Statistics.startGame("Anno Domini");
+			startGame("Anno Domini");
         } else if (e.getSource() == aztecItem) {
-			Statistics.leaveGame(gameName);
+			Statistics.leaveGame(gameName, game);
             game = new Pyramid(this);
-			Statistics.startGame("Aztec Pyramid");
+			startGame("Aztec Pyramid");
 		} 
 		repaint();
 	}
@@ -483,13 +482,13 @@ public class Solitaire extends JPanel implements ActionListener, ItemListener {
 		else
 			gameName = "Klondike";
 		if(gameName != null) {
-			Statistics.leaveGame(gameName);
+			Statistics.leaveGame(gameName, game);
+			game.leave(); //Stops its listeners and animations.
 		}
 
 		switch(selectedGame)
 		{
 			case MENU:
-				//Foundation.suitsUsed.clear();
 				cardLayout.next(contentPane);
 				frame.setJMenuBar(gamePanel.makeMainMenuBar());
 				break;
@@ -497,29 +496,88 @@ public class Solitaire extends JPanel implements ActionListener, ItemListener {
 				game = new Argos(gamePanel);
 				frame.setJMenuBar(gamePanel.makeGameMenuBar());
 				cardLayout.next(contentPane);
-				Statistics.startGame("Argos");
+				startGame("Argos");
 				break;
 			case AMERICAN_TOAD:
 				game = new AmericanToad(gamePanel);
 				frame.setJMenuBar(gamePanel.makeGameMenuBar());
 				cardLayout.next(contentPane);
-				Statistics.startGame("American Toad");
+				startGame("American Toad");
 				break;
 			case ANNO_DOMINI:
 				game = new AnnoDomini(gamePanel);
 				frame.setJMenuBar(gamePanel.makeGameMenuBar());
 				cardLayout.next(contentPane);
-				Statistics.startGame("Anno Domini");
+				startGame("Anno Domini");
 				break;
 			case AZTEC_PYRAMIDS:
 				game = new Pyramid(gamePanel);
 				frame.setJMenuBar(gamePanel.makeGameMenuBar());
 				cardLayout.next(contentPane);
-				Statistics.startGame("Aztec Pyramid");
+				startGame("Aztec Pyramid");
 				break;
 		}
 	}
 
+	/**
+	 * Starts timing a new game in {@link Statistics}, and discards the saved
+	 * game, which the new deal replaces.
+	 */
+	private static void startGame(String gameName)
+	{
+		Statistics.startGame(gameName);
+		GameSaver.get().discard();
+	}
+
+	/**
+	 * Resumes the game that was being played when the program last stopped,
+	 * such as by a crash or by its window being closed, if it was saved by the
+	 * {@link GameSaver}. A game that was won, lost or left has no save. It is
+	 * shown in place of the main menu and is not counted as a game started
+	 * again. Only the games of the main menu are resumed, as Klondike, Free
+	 * Cell, Spider and Yukon cannot be chosen. If the saved game cannot be
+	 * resumed, it is discarded and the main menu is shown as usual.
+	 */
+	public static void resumeSavedGame()
+	{
+		SavedGame saved = GameSaver.get().load();
+		if(saved == null)
+			return;
+
+		Klondike resumed;
+		String name = saved.getGameName();
+		if(name.equals("Argos"))
+			resumed = new Argos(gamePanel);
+		else if(name.equals("AmericanToad"))
+			resumed = new AmericanToad(gamePanel);
+		else if(name.equals("AnnoDomini"))
+			resumed = new AnnoDomini(gamePanel);
+		else if(name.equals("AztecPyramid"))
+			resumed = new Pyramid(gamePanel);
+		else
+		{
+			System.out.println("A saved game of " + name + " cannot be resumed.");
+			GameSaver.get().discard();
+			return;
+		}
+
+		try {
+			saved.restore(resumed);
+		} catch (IllegalArgumentException e) {
+			System.out.println("The saved game could not be resumed: " + e.getMessage());
+			resumed.leave();
+			GameSaver.get().discard();
+			return;
+		}
+		game.leave(); //The game made by the constructor, which was never shown.
+		game = resumed;
+		Statistics.resumeGame(saved.getStarted());
+
+		frame.setJMenuBar(gamePanel.makeGameMenuBar());
+		cardLayout.next(contentPane);
+		gamePanel.repaint();
+	}
+
 	public static void Sound()
 	{
 		try
@@ -558,6 +616,7 @@ public class Solitaire extends JPanel implements ActionListener, ItemListener {
 		frame.setLocation(10, 10);
 		frame.setJMenuBar(gamePanel.makeMainMenuBar());
 		frame.setSize(gamePanel.getPreferredSize());
+		resumeSavedGame();
 		frame.setVisible(true);
 		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		
@@ -0,0 +1,76 @@
+package solitaire;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs the searches of the solvers, such as hints, par scores and the checks
+ * of new deals, on a thread of its own, so that the event dispatch thread never
+ * waits for them. The searches are run one at a time in the order they were
+ * asked for, so a solver that is only used by them needs no lock. The result of
+ * each search is given to an action on the event dispatch thread, which should
+ * check that the game has not changed since the search was asked for.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class SolverService {
+	/** The service shared by all of the games.								*/
+	private static SolverService service;
+
+	/** Runs the searches.													*/
+	private final ExecutorService solver;
+
+	/**
+	 * Returns the service shared by all of the games.
+	 */
+	public static synchronized SolverService get(){
+		if(service == null){
+			service = new SolverService();
+		}
+		return service;
+	}
+
+	/**
+	 * Instantiates a service with a thread of its own.
+	 */
+	public SolverService(){
+		solver = Executors.newSingleThreadExecutor(new ThreadFactory(){
+			public Thread newThread(Runnable task){
+				Thread thread = new Thread(task, "Solver");
+				thread.setDaemon(true); //So that it does not keep the game open.
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Runs a search on the solver's thread, then gives its result to an action
+	 * on the event dispatch thread. If the search throws an exception, it is
+	 * printed and the action is not done.
+	 * @param search The search, which must not use the Swing components.
+	 * @param then	 The action that is given the result.
+	 */
+	public <T> void solve(final Callable<T> search, final Consumer<? super T> then){
+		solver.execute(new Runnable(){
+			public void run(){
+				final T result;
+				try {
+					result = search.call();
+				} catch (Exception e) {
+					e.printStackTrace();
+					return;
+				}
+				SwingUtilities.invokeLater(new Runnable(){
+					public void run(){
+						then.accept(result);
+					}
+				});
+			}
+		});
+	}
+}
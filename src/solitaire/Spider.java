@@ -8,6 +8,8 @@ import card.Foundation;
 import card.StackOfCards;
 import card.Tableau;
 import dataStructures.Stack;
+import solitaire.engine.GameState;
+import solitaire.engine.SpiderState;
 
 /**
  * A kind of Solitaire that is similar to {@link Klondike} except that two decks
@@ -54,7 +56,7 @@ public class Spider extends Klondike {
 		StackOfCards deck = new StackOfCards();
 		deck.fillBySuit();	
 		deck.fillBySuit(); //Holds 104 cards.
-		deck.shuffle();
+		deck.shuffle(newDeal());
 
 		initTableaux(deck, new int[] {6, 6, 6, 6, 5, 5, 5, 5, 5, 5});
 		initFoundations(8);
@@ -134,27 +136,25 @@ public class Spider extends Klondike {
 			return super.tableauxReleasedAction(x, y);
 		}
 
-		for(Tableau tableau : tableaux){ //Check each of the tableaux
-			if(tableau.contains(x, y) || tableau.shapeOfNextCard().contains(x, y)){
-				//Then we check if the inUse stack can be appended to the
-				//tableau per the rules of solitaire.
+		for(Tableau tableau : tableauIndex().targetsAt(x, y)){ //Each tableau dropped on
+			//Then we check if the inUse stack can be appended to the
+			//tableau per the rules of solitaire.
 
-				//We do not need to check if the cards in use are in sequence
-				//because they must already be in sequence from tabPressedAction.
+			//We do not need to check if the cards in use are in sequence
+			//because they must already be in sequence from tabPressedAction.
 
-				//Checks if bottom of this tableau is in sequence with the cards
-				//in use.
-				if(!tableau.isEmpty() && 
-						inUse.reverseCopy().peek().compareTo(tableau.peek()) != -1){
-					return false;
-				}
-
-				tableau.appendStack(inUse);
-				inUse.clear();
-				container.repaint();
-				flipLastStack();
-				return true;
+			//Checks if bottom of this tableau is in sequence with the cards
+			//in use.
+			if(!tableau.isEmpty() && 
+					inUse.reverseCopy().peek().compareTo(tableau.peek()) != -1){
+				return false;
 			}
+
+			tableau.appendStack(inUse);
+			inUse.clear();
+			container.repaint();
+			flipLastStack();
+			return true;
 		}
 		return false;//If we have reached this point, then no action was performed
 	}
@@ -202,6 +202,15 @@ public class Spider extends Klondike {
 		return false; //The action was not performed.
 	}
 
+	@Override
+	public GameState toGameState(){
+		SpiderState state = new SpiderState(easy);
+		load(state, 0, tableaux);
+		load(state, state.firstFoundation(), foundations);
+		load(state.pile(state.getStock()), stock, false);
+		return state;
+	}
+
 	/**
 	 * Determines if the user has won (if all foundations are nonempty).
 	 */
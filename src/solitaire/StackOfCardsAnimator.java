@@ -1,6 +1,8 @@
 package solitaire;
 
 import java.awt.Component;
+import java.awt.Rectangle;
+import java.awt.geom.RoundRectangle2D;
 
 import card.StackOfCards;
 
@@ -8,11 +10,22 @@ import card.StackOfCards;
  * Moves a {@link StackOfCards} from a source location to a the location of a 
  * destination {@link StackOfCards}, then upon arrival, appends (then clears) 
  * the stack to be moved to the destination stack. This class does not do the 
- * actual animation but does move the stack (in a new {@link Thread}).
+ * actual animation but does move the stack, in the frames of the
+ * {@link AnimationScheduler}.
+ * <p>
+ * The stack starts slowly and speeds up at a constant rate. Where it is in a
+ * frame depends only on the time since it started, so it arrives at the same
+ * time however often frames are drawn. Each frame only repaints the area
+ * where the stack was and where it is now.
  * 
  * @author Warren Godone-Maresca
  */
-public class StackOfCardsAnimator implements Runnable {
+public class StackOfCardsAnimator {
+	/** The speed at which the stack starts, in pixels per millisecond.		*/
+	private static final double INITIAL_SPEED = 0.05;
+
+	/** How fast the stack speeds up, in pixels per square millisecond.		*/
+	private static final double ACCELERATION = 0.01;
 	
 	/** The stack to be moved.												*/
 	private StackOfCards cards;
@@ -20,18 +33,22 @@ public class StackOfCardsAnimator implements Runnable {
 	/** The destination stack.												*/
 	private StackOfCards destination;
 
-	/** The position of cards while being moved in double precision.		*/
-	private double x, y;
+	/** The position of the stack when the animation began.					*/
+	private int startX, startY;
 
-	/** The velocity of the stack being moved.								*/
-	private double dx, dy;
+	/** The value of System.nanoTime() when the animation began.			*/
+	private long startTime;
 
-	/** The acceleration of the stack being moved.							*/
-	private double accelerationX, accelerationY;
+	/** Whether or not the stack has been appended to the destination.		*/
+	private boolean arrived;
 
 	/** The component to be repainted.										*/
 	private Component component;
 
+	/** The game that started the animation, so that its animations can be
+	 *  cancelled together.													*/
+	private Object owner;
+
 	/**
 	 * Instantiates the animation. The stack <code>cards</code> will be moved
 	 * (with acceleration) towards the destination. Then the when <code>cards
@@ -52,85 +69,87 @@ public class StackOfCardsAnimator implements Runnable {
 	 */
 	public StackOfCardsAnimator(StackOfCards cards, StackOfCards destination,
 			Component component){
+		this(cards, destination, component, component);
+	}
+
+	/**
+	 * Instantiates the animation as above, for the given owner.
+	 * @param owner The game that the animation belongs to, for
+	 * 				{@link AnimationScheduler#cancel(Object)}.
+	 */
+	public StackOfCardsAnimator(StackOfCards cards, StackOfCards destination,
+			Component component, Object owner){
+		if(cards == null || destination == null){
+			throw new NullPointerException("The stacks may not be null.");
+		}
 		this.cards = cards;
 		this.destination = destination;
-		
-		//The new position of cards.
-		int destinationX = (int)destination.shapeOfNextCard().getCenterX();
-		int destinationY = (int)destination.shapeOfNextCard().getCenterY();
-
 		this.component = component;
-
-		//The difference in x and y between the two stacks and the hypotenuse
-		//of the resulting triangle.
-		int deltaX = destinationX - cards.getX();
-		int deltaY = destinationY - cards.getY();
-		double hyp = Math.sqrt(deltaX*deltaX + deltaY*deltaY);
-
-		dx = deltaX / hyp; //cosine of the angle.
-		dy = deltaY / hyp; //sine of the angle.
-		accelerationX = dx; //The acceleration and velocity vectors point in the
-		accelerationY = dy; //same direction with equal initial values.
-
-		x = cards.getX();
-		y = cards.getY();
-
-		Thread thread = new Thread(this);
-		thread.start(); //Starts the thread to run the animation.
+		this.owner = owner;
+		AnimationScheduler.start(this);
 	}
 
 	/**
-	 * Moves <code>cards</code> from its initial location to the destination
-	 * stack then appends it to the destination stack.
+	 * Notes where and when the animation begins.
 	 */
-	@Override
-	public void run(){
-		while(!hasArrived()){ //until cards arrives to the destination.
-			x += dx; //update the position,
-			y += dy;
-
-			dx += accelerationX; //and the velocity.
-			dy += accelerationY;
-
-			cards.setLocation((int)x, (int)y); //Set the location.
-
-			try {
-				Thread.sleep(10); //Then wait a few milliseconds.
-			} catch (InterruptedException e){}
+	void begin(long now){
+		startX = cards.getX();
+		startY = cards.getY();
+		startTime = now;
+	}
 
-			if(component != null){	 //If its not null,
-				component.repaint(); //repaint.
-			}
+	/**
+	 * Moves <code>cards</code> to where it should be at the given time, then
+	 * appends it to the destination stack if it has arrived.
+	 * @return The area that must be repainted.
+	 */
+	Rectangle step(long now){
+		Rectangle dirty = cards.getBounds(); //Where the cards were.
+
+		//The destination is read each frame since it may have moved or grown.
+		RoundRectangle2D.Double next = destination.shapeOfNextCard();
+		double deltaX = next.getCenterX() - startX;
+		double deltaY = next.getCenterY() - startY;
+		double distance = Math.sqrt(deltaX*deltaX + deltaY*deltaY);
+
+		double time = (now - startTime) / 1e6; //In milliseconds.
+		double travelled = INITIAL_SPEED*time + ACCELERATION*time*time/2;
+		if(travelled < distance){
+			cards.setLocation((int)(startX + deltaX*travelled/distance),
+					(int)(startY + deltaY*travelled/distance));
+			dirty.add(cards.getBounds());
+			return dirty;
 		}
 
-		try{
+		//Some stacks have rules, and the cards are dropped if they break them.
+		if(destination.canAppendStack(cards).isAccepted()){
 			destination.appendStack(cards); //appends the cards.
-		} catch(IllegalArgumentException e){}//some stacks may throw an exception.
-		
+		}
 		cards.clear();
-		component.repaint();
+		arrived = true;
+		dirty.add(destination.getBounds());
+		return dirty;
 	}
 
 	/**
-	 * Determines if the cards have arrived (have past the destination).
+	 * Determines if the cards have arrived and been appended.
 	 * @return <code>true</code> if it has arrived, else <code>false</code>.
 	 */
-	private boolean hasArrived(){
-		boolean arrivedX, arrivedY;
-
-		//The sign of the velocity indicates the which side of the destination
-		//that cards where initially on. If cards is still on that side,
-		//then it hasn't arrived.
-		if(dx < 0){
-			arrivedX = cards.getX() <= destination.shapeOfNextCard().getCenterX();
-		} else {
-			arrivedX = cards.getX() >= destination.shapeOfNextCard().getCenterX();
-		}
-		if(dy < 0){
-			arrivedY = cards.getY() <= destination.shapeOfNextCard().getCenterY();
-		} else {
-			arrivedY = cards.getY() >= destination.shapeOfNextCard().getCenterY();
-		}
-		return arrivedX && arrivedY; //Cards must arrive in both dimensions.
+	public boolean hasArrived(){
+		return arrived;
+	}
+
+	/**
+	 * Returns the component that is repainted, which may be <code>null</code>.
+	 */
+	Component getComponent(){
+		return component;
+	}
+
+	/**
+	 * Returns the game that started the animation.
+	 */
+	Object getOwner(){
+		return owner;
 	}
-}
\ No newline at end of file
+}
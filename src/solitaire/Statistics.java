@@ -1,10 +1,12 @@
 package solitaire;
 
-import java.io.IOException;
-import java.util.Scanner;
-import java.io.FileWriter;
-import java.io.PrintWriter;
-import java.io.File;
+import java.text.DateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import java.awt.Container;
 import java.awt.Insets;
@@ -29,7 +31,16 @@ public class Statistics extends JPanel implements ActionListener {
 					  	AmericanItem, AztecItem;
 
 	private JLabel gameTitle, gameTotal, gameWins,
-						gameAverageTime, gameBestTime, gameWinPercentage, gameBestScore;
+						gameAverageTime, gameBestTime, gameWinPercentage, gameBestScore,
+						gameParScore, gameStreak, gameRecentWins, gameMedianTime,
+						gameTopScores, gameFastestTimes;
+
+	/** The most results of each leaderboard that are shown.				*/
+	private static final int LEADERS_SHOWN = 5;
+
+	/** The par score of the current deal of each game that has one. It is
+	 *  changed by the threads that find the par scores.					*/
+	private static Map<String, Integer> parScores = new ConcurrentHashMap<String, Integer>();
 
 	private static Solitaire gamePanel;
 
@@ -81,10 +92,38 @@ public class Statistics extends JPanel implements ActionListener {
 		gameBestTime.setAlignmentX(CENTER_ALIGNMENT);
 		infoPanel.add(gameBestTime);
 
+		gameMedianTime = new JLabel("Median Time: ");
+		gameMedianTime.setAlignmentX(CENTER_ALIGNMENT);
+		gameMedianTime.setBorder(new EmptyBorder(new Insets(0, 0, 10, 0)));
+		infoPanel.add(gameMedianTime);
+
+		gameStreak = new JLabel("Win Streak: ");
+		gameStreak.setAlignmentX(CENTER_ALIGNMENT);
+		infoPanel.add(gameStreak);
+
+		gameRecentWins = new JLabel("Recent Win %: ");
+		gameRecentWins.setAlignmentX(CENTER_ALIGNMENT);
+		gameRecentWins.setBorder(new EmptyBorder(new Insets(0, 0, 10, 0)));
+		infoPanel.add(gameRecentWins);
+
 		gameBestScore = new JLabel("");
 		gameBestScore.setAlignmentX(CENTER_ALIGNMENT);
 		infoPanel.add(gameBestScore);
 
+		gameParScore = new JLabel("");
+		gameParScore.setAlignmentX(CENTER_ALIGNMENT);
+		infoPanel.add(gameParScore);
+
+		gameTopScores = new JLabel("");
+		gameTopScores.setAlignmentX(CENTER_ALIGNMENT);
+		gameTopScores.setBorder(new EmptyBorder(new Insets(10, 0, 0, 0)));
+		infoPanel.add(gameTopScores);
+
+		gameFastestTimes = new JLabel("");
+		gameFastestTimes.setAlignmentX(CENTER_ALIGNMENT);
+		gameFastestTimes.setBorder(new EmptyBorder(new Insets(10, 0, 0, 0)));
+		infoPanel.add(gameFastestTimes);
+
 		add(infoPanel);
 
 		//Load statistics
@@ -148,71 +187,130 @@ public class Statistics extends JPanel implements ActionListener {
 
 	/**
 	 * Replaces current statistics set with new values by reloading
-	 * the file of the specified game
+	 * the statistics of the specified game. They are read by the
+	 * {@link StatisticsService}, and shown in the event dispatch thread once
+	 * they have been read, so this may be called from any thread.
 	 */
-	private void reloadStatistics(String gameName) {
-		int wins = 0, totalGames = 0, bestRecord = 0;
-		long totalTime = 0, bestTime = 0;
+	private void reloadStatistics(final String gameName) {
+		StatisticsService.get().read(gameName).whenComplete(
+				new BiConsumer<GameStatistics, Throwable>(){
+			public void accept(final GameStatistics statistics, final Throwable error) {
+				SwingUtilities.invokeLater(new Runnable(){
+					public void run() {
+						if(error == null)
+							showStatistics(statistics);
+						else
+							showUnavailable(gameName);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Shows the given statistics.
+	 */
+	private void showStatistics(GameStatistics statistics) {
+		String gameName = statistics.getGameName();
+		int totalGames = statistics.getGames(), wins = statistics.getWins();
+		int bestRecord = statistics.getBestRecord();
+		long totalTime = statistics.getTotalTime(), bestTime = statistics.getBestTime();
+		GameSummary summary = statistics.getSummary();
 
 		frame.setTitle(gameName + "Statistics");
-		//Open files
-		try
-		{
-			File file = new File(gameName + ".txt");
-			Scanner infile = new Scanner(file);
-			
-			totalGames = infile.nextInt();
-			wins = infile.nextInt();
-			totalTime = infile.nextInt();
-			bestTime = infile.nextInt();
-			bestRecord = infile.nextInt();
-
-			infile.close();
-
-			//Set values of each item
-			gameTitle.setText(gameName);
-			gameTotal.setText("Total Games: " + totalGames);
-			gameWins.setText("Wins: " + wins);
-			int timeTaken;
-			if(totalGames > 0) {
-				gameWinPercentage.setText("Win %: " + String.format("%.2f",((double)(wins*100/totalGames))));
-				if (wins > 0)
-					timeTaken = (int) totalTime/wins;
-				else
-					timeTaken = 0;
-			}
-			else {
-				gameWinPercentage.setText("Win %: N/A");
-				timeTaken = 0;
-			}
 
-			gameAverageTime.setText("Average Time: " + (timeTaken/60) + "m " + (timeTaken%60) + "s");
-			gameBestTime.setText("Best Time: " + (bestTime/60) + "m " + (bestTime%60) + "s");
-			if (bestRecord <= 0)
-				gameBestScore.setText("");
+		//Set values of each item
+		gameTitle.setText(gameName);
+		gameTotal.setText("Total Games: " + totalGames);
+		gameWins.setText("Wins: " + wins);
+		int timeTaken;
+		if(totalGames > 0) {
+			gameWinPercentage.setText("Win %: " + String.format("%.2f",((double)(wins*100/totalGames))));
+			if (wins > 0)
+				timeTaken = (int) totalTime/wins;
 			else
-				gameBestScore.setText("Best Record: " + bestRecord);
-
-		} catch (Exception e) {
-			//Set values of each item
-			gameTitle.setText(gameName);
-			gameTotal.setText("Total Games: N/A");
-			gameWins.setText("Wins: N/A");
+				timeTaken = 0;
+		}
+		else {
 			gameWinPercentage.setText("Win %: N/A");
-			gameAverageTime.setText("Average Time: N/A");
-			gameBestTime.setText("Best Time: N/A");
-			gameBestScore.setText("Best Record: N/A");
+			timeTaken = 0;
+		}
 
+		gameAverageTime.setText("Average Time: " + (timeTaken/60) + "m " + (timeTaken%60) + "s");
+		gameBestTime.setText("Best Time: " + (bestTime/60) + "m " + (bestTime%60) + "s");
+		long medianTime = summary.getTimePercentile(50);
+		if (medianTime >= 0)
+			gameMedianTime.setText("Median Time: " + (medianTime/60) + "m " + (medianTime%60) + "s");
+		else
+			gameMedianTime.setText("Median Time: N/A");
+		gameStreak.setText("Win Streak: " + summary.getWinStreak()
+				+ " (Best: " + summary.getBestWinStreak() + ")");
+		if (summary.getRecentGames() > 0)
+			gameRecentWins.setText("Last " + summary.getRecentGames() + " Games Win %: "
+					+ String.format("%.2f", summary.getRecentWinRate()*100));
+		else
+			gameRecentWins.setText("Recent Win %: N/A");
+		if (bestRecord <= 0)
+			gameBestScore.setText("");
+		else
+			gameBestScore.setText("Best Record: " + bestRecord);
+		if (parScores.containsKey(gameName))
+			gameParScore.setText("Par Score of Current Deal: " + parScores.get(gameName));
+		else
+			gameParScore.setText("");
+		gameTopScores.setText(leaderboardText("Top Scores", statistics.getTopScores(), false));
+		gameFastestTimes.setText(leaderboardText("Fastest Times",
+				statistics.getFastestTimes(), true));
+	}
 
-			System.out.println("Statistics file for "+gameName+"is unavailable or corrupted");
-			JPanel container = this;
-			new Thread(new Runnable(){
-				public void run() {
-					JOptionPane.showMessageDialog(container,"There was an error accessing the statistics file.\n");
-					return;
-				}
-			}).start();
+	/**
+	 * Returns the HTML of a label that lists the best results of a leaderboard
+	 * with their dates, or an empty string if it has none.
+	 * @param times Whether the results are times in seconds, or else scores.
+	 */
+	private static String leaderboardText(String title, Leaderboard leaderboard,
+			boolean times) {
+		if (leaderboard.size() == 0)
+			return "";
+		DateFormat dateFormat = DateFormat.getDateInstance(DateFormat.SHORT);
+		StringBuilder text = new StringBuilder("<html><center>" + title + ":");
+		int rank = 0;
+		for (Leaderboard.Entry entry : leaderboard.getEntries()) {
+			if (++rank > LEADERS_SHOWN)
+				break;
+			long value = entry.getValue();
+			text.append("<br>" + rank + ". ");
+			if (times)
+				text.append((value/60) + "m " + (value%60) + "s");
+			else
+				text.append(value);
+			text.append(" (" + dateFormat.format(new Date(entry.getDate())) + ")");
 		}
+		return text.append("</center></html>").toString();
+	}
+
+	/**
+	 * Shows that the statistics of the given game could not be read.
+	 */
+	private void showUnavailable(String gameName) {
+		frame.setTitle(gameName + "Statistics");
+
+		//Set values of each item
+		gameTitle.setText(gameName);
+		gameTotal.setText("Total Games: N/A");
+		gameWins.setText("Wins: N/A");
+		gameWinPercentage.setText("Win %: N/A");
+		gameAverageTime.setText("Average Time: N/A");
+		gameBestTime.setText("Best Time: N/A");
+		gameMedianTime.setText("Median Time: N/A");
+		gameStreak.setText("Win Streak: N/A");
+		gameRecentWins.setText("Recent Win %: N/A");
+		gameBestScore.setText("Best Record: N/A");
+		gameTopScores.setText("");
+		gameFastestTimes.setText("");
+
+		System.out.println("Statistics file for "+gameName+"is unavailable or corrupted");
+		JOptionPane.showMessageDialog(this,"There was an error accessing the statistics file.\n");
 	}
 
 	//Variable defining how long a game has lasted
@@ -220,191 +318,166 @@ public class Statistics extends JPanel implements ActionListener {
 	
 	/**
 	 * This set of methods adds to the current statistics of a certain game
-	 * and then, if the statistics tab is open, reloads it automatically
+	 * and then, if the statistics tab is open, reloads it automatically.
+	 * The statistics are written by the {@link StatisticsService}, so these
+	 * methods return without waiting for the disk.
 	 */
-	public static void startGame(String gameName) {
-		int wins = 0, games = 0, bestRecord = 0;
-		long totalTime = 0, bestTime = 0;
-
+	public static void startGame(final String gameName) {
 		timeStarted = System.currentTimeMillis();
 
-		try
-		{
-			//Open file
-			File file = new File(gameName + ".txt");
-			Scanner infile = new Scanner(file);
-			
-			games = infile.nextInt();
-			wins = infile.nextInt();
-			totalTime += infile.nextInt();
-			bestTime = infile.nextInt();
-			bestRecord = infile.nextInt();
-			infile.close();
-
-
-            games++;
-
-            //Rewrite file
-            writeFile(gameName, games, wins, totalTime, bestTime, bestRecord);
-
-            //If statsPanel is open, reload stats
-            if(statsPanel != null) {
-                statsPanel.reloadStatistics(gameName);
-            }
-
-		} catch (Exception e) {
-			System.out.println("Statistics file for "+gameName+"is unavailable or corrupted");
-			new Thread(new Runnable(){
-				public void run() {
-					JOptionPane.showMessageDialog(gamePanel,"There was an error accessing the statistics file.\n" +
-							"Gameplay statistics cannot be recorded");
+		StatisticsService.get().startGame(gameName).whenComplete(
+				new BiConsumer<Void, Throwable>(){
+			public void accept(Void result, Throwable error) {
+				if(error == null) {
+					reload(gameName);
 					return;
 				}
-			}).start();
-		}
+				System.out.println("Statistics file for "+gameName+"is unavailable or corrupted");
+				SwingUtilities.invokeLater(new Runnable(){
+					public void run() {
+						JOptionPane.showMessageDialog(gamePanel,"There was an error accessing the statistics file.\n" +
+								"Gameplay statistics cannot be recorded");
+					}
+				});
+			}
+		});
 	}
 
 	/**
-	 * Records a game's win in the game's data file. Requires that startGame is called before
-	 * in order to properly register time taken.
+	 * Records a game's win in the game's data file and its journal. Requires that startGame
+	 * is called before in order to properly register time taken. The game's save is
+	 * discarded, so that it is not resumed and counted again.
 	 * 
-	 * @param gameName the name of the game. This specifies the txt file being opened
+	 * @param gameName the name of the game. This specifies the record being updated
+	 * @param game the game that was won
 	 */
-	public static void winGame(String gameName) {
-		int wins = 0, games = 0, bestRecord = 0;
-		long totalTime = 0, bestTime = 0;
-
-		try
-		{
-			//Open file
-			File file = new File(System.getProperty("user.dir"), gameName + ".txt");
-			Scanner infile = new Scanner(file);
-			
-			games = infile.nextInt();
-			wins = infile.nextInt();
-			totalTime = infile.nextInt();
-			bestTime = infile.nextInt();
-			bestRecord = infile.nextInt();
-			infile.close();
-
-            if(timeStarted > 0) {
-                long timeTaken = (System.currentTimeMillis() - timeStarted)/1000;
-                totalTime += timeTaken;
-                if(timeTaken < bestTime || bestTime <= 0) {
-                    bestTime = timeTaken;
-                }
-            }
-            timeStarted = 0;
-
-            wins++;
-
-            //Rewrite file
-            writeFile(gameName, games, wins, totalTime, bestTime, bestRecord);
-
-            //If statsPanel is open, reload stats
-            if(statsPanel != null) {
-                statsPanel.reloadStatistics(gameName);
-            }
-
-		} catch (Exception e) {
-			System.out.println("Statistics file for "+gameName+"is unavailable or corrupted");
-        }
+	public static void winGame(String gameName, Klondike game) {
+		GameRecord record = finish(gameName, game, true);
+		timeStarted = 0;
+		game.outcomeRecorded();
+
+		StatisticsService.get().winGame(record).whenComplete(reloader(gameName));
 	}
 	
 	/**
-	 * Records a game's score in the game's data file. Returns true if this score is higher than
-	 * the previous high score (and so replaces the past score)
+	 * Records a game's score in the game's data file. Completes with true if this score is
+	 * higher than the previous high score (and so replaces the past score)
 	 * 
-	 * @param gameName the name of the game. This specifies the txt file being opened
+	 * @param gameName the name of the game. This specifies the record being updated
 	 * @param score the score of the past game, which MAY replace the current high score
+	 * @return a future of whether the score is a new record, which is false if it
+	 * 			could not be recorded
 	 */
-	public static boolean recordScore(String gameName, int score) {
-		int wins = 0, games = 0, bestRecord = 0;
-		long totalTime = 0, bestTime = 0;
-		try
-		{
-			//Open file
-			File file = new File(System.getProperty("user.dir"), gameName + ".txt");
-			Scanner infile = new Scanner(file);
-			
-			games = infile.nextInt();
-			wins = infile.nextInt();
-			totalTime = infile.nextInt();
-			bestTime = infile.nextInt();
-			bestRecord = infile.nextInt();
-			infile.close();
-
-            if(score > bestRecord) {
-                bestRecord = score;
-            }
-
-            //Rewrite file
-            writeFile(gameName, games, wins, totalTime, bestTime, bestRecord);
-
-            //If statsPanel is open, reload stats
-            if(statsPanel != null) {
-                statsPanel.reloadStatistics(gameName);
-            }
-            //Tell game this was a new record if given score is higher than existing
-            if(score == bestRecord) {
-                return true;
-            }
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
-		return false;
+	public static CompletableFuture<Boolean> recordScore(String gameName, int score) {
+		return StatisticsService.get().recordScore(gameName, score)
+				.whenComplete(reloader(gameName))
+				.exceptionally(new Function<Throwable, Boolean>(){
+			public Boolean apply(Throwable error) {
+				return false;
+			}
+		});
 	}
 
-	public static void leaveGame(String gameName) {
-		int wins = 0, games = 0, bestRecord = 0;
-		long totalTime = 0, bestTime = 0;
-		try
-		{
-			//Open file
-			File file = new File(System.getProperty("user.dir"), gameName + ".txt");
-			Scanner infile = new Scanner(file);
-			
-			games = infile.nextInt();
-			wins = infile.nextInt();
-			totalTime = infile.nextInt();
-			bestTime = infile.nextInt();
-			bestRecord = infile.nextInt();
-			infile.close();
-
-            timeStarted = 0;
-
-            //Rewrite file
-            writeFile(gameName, games, wins, totalTime, bestTime, bestRecord);
-
-            //If statsPanel is open, reload stats
-            if(statsPanel != null) {
-                statsPanel.reloadStatistics(gameName);
-            }
-		} catch (Exception e) {
-			System.out.println("Statistics file for "+gameName+"is unavailable or corrupted");
+	/**
+	 * Records the par score of the current deal of a game: the most points
+	 * that can be scored in it. It is shown until the next deal's par score
+	 * is recorded, but is not saved in the game's data file.
+	 * 
+	 * @param gameName the name of the game
+	 * @param parScore the par score of the current deal
+	 */
+	public static void recordParScore(String gameName, int parScore) {
+		parScores.put(gameName, parScore);
+		reload(gameName);
+	}
+
+	/**
+	 * Returns the par score of the current deal of a game, as it was last
+	 * recorded by {@link #recordParScore}.
+	 * 
+	 * @param gameName the name of the game
+	 * @return the par score, or null if none was recorded
+	 */
+	static Integer getParScore(String gameName) {
+		return parScores.get(gameName);
+	}
+
+	/**
+	 * Records a game that is left or lost before it is won in the game's journal. Nothing
+	 * is recorded if the game was won or not started. Once it is recorded, the game's save
+	 * is discarded, so that it is not resumed and counted again.
+	 * 
+	 * @param gameName the name of the game
+	 * @param game the game that is left
+	 */
+	public static void leaveGame(String gameName, Klondike game) {
+		if(timeStarted > 0) {
+			game.outcomeRecorded();
+			StatisticsService.get().leaveGame(finish(gameName, game, false))
+					.whenComplete(reloader(gameName));
+		} else {
+			reload(gameName);
 		}
+		timeStarted = 0;
+	}
+
+	/**
+	 * Goes on timing a game that was saved and is resumed, from when it was
+	 * started, without counting it as a game started again.
+	 * 
+	 * @param started the time in ms at which the game was started, or 0 if it
+	 * 			was not timed
+	 */
+	public static void resumeGame(long started) {
+		timeStarted = started;
 	}
 
-	public static void writeFile(String gameName, int games, int wins, long totalTime, long bestTime, int bestRecord) throws IOException {
-        //Open File
-        File file = new File(gameName + ".txt");
-        FileWriter fileWriter = new FileWriter(file);
-        PrintWriter printWriter = new PrintWriter(fileWriter);
-        //Write game data
-        printWriter.println(games);
-        printWriter.println(wins);
-        printWriter.println(totalTime);
-        printWriter.println(bestTime);
-        printWriter.println(bestRecord);
-        //Clean up
-        printWriter.close();
+	/**
+	 * Returns the time in ms at which the current game was started, or 0 if
+	 * it is not being timed.
+	 */
+	static long getTimeStarted() {
+		return timeStarted;
+	}
+
+	/**
+	 * Returns the record of a game that finishes now.
+	 */
+	private static GameRecord finish(String gameName, Klondike game, boolean won) {
+		return new GameRecord(gameName, won, game.getDealNumber(), timeStarted,
+				System.currentTimeMillis(), game.getMoves(), game.getScore());
+	}
+
+	/**
+	 * Returns an action for a request to the {@link StatisticsService} that
+	 * reloads the statistics of the given game when the request is done, or
+	 * reports that it failed.
+	 */
+	private static <T> BiConsumer<T, Throwable> reloader(final String gameName) {
+		return new BiConsumer<T, Throwable>(){
+			public void accept(T result, Throwable error) {
+				if(error != null) {
+					System.out.println("Statistics file for "+gameName+"is unavailable or corrupted");
+				}
+				reload(gameName);
+			}
+		};
+	}
+
+	/**
+	 * Reloads the statistics of the given game if the statistics tab is open.
+	 */
+	private static void reload(String gameName) {
+		if(statsPanel != null) {
+			statsPanel.reloadStatistics(gameName);
+		}
 	}
 
 	//Creation of several high-level GUI components
 	//I made these public, so other methods could modify them
 	public static JFrame frame = new JFrame();
 	public static Container contentPane = frame.getContentPane();
-	public static Statistics statsPanel;
+	public static volatile Statistics statsPanel;
 	
 	public static void openStatistics(String gameName)
 	{
@@ -418,7 +491,7 @@ public class Statistics extends JPanel implements ActionListener {
 			frame.setJMenuBar(statsPanel.makeMenuBar());
 			//Set size to double the height of original for java swing
 			//problems I don't understand on my machine... Oh dear.
-			frame.setSize(185, 220);
+			frame.setSize(185, 470);
 			frame.setVisible(true);
 			frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 		} else {
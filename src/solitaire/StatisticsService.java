@@ -0,0 +1,188 @@
+package solitaire;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and changes the {@link StatisticsStore} on a thread of its own, so that
+ * the thread that asks, such as the event dispatch thread, never waits for the
+ * disk. Every request is done by the one thread in the order it was made, so a
+ * read sees every change asked for before it. Each method returns at once with
+ * a {@link CompletableFuture} that is completed on that thread, so the results
+ * must be passed to Swing with <code>SwingUtilities.invokeLater</code>.
+ * <p>
+ * The store is opened by the first request, and if it cannot be opened, that
+ * request and each one after it fails, with the cause of the failure.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class StatisticsService {
+	/** The ms for which the requests that are waiting when the virtual
+	 *  machine shuts down are given to finish.								*/
+	private static final int SHUTDOWN_TIMEOUT = 2000;
+
+	/** The service of the store in the working directory.					*/
+	private static StatisticsService service;
+
+	/** The file of the store.												*/
+	private final File file;
+
+	/** Does the requests.													*/
+	private final ExecutorService writer;
+
+	/** The store, which is only used by the writer. It is <code>null</code>
+	 *  until it is opened.													*/
+	private StatisticsStore store;
+
+	/**
+	 * A request, which is done with the store.
+	 * @param <T> The type of the result.
+	 */
+	private interface Request<T> {
+		/** Does the request.												*/
+		T run(StatisticsStore store) throws IOException;
+	}
+
+	/**
+	 * Returns the service of the store of the file {@link
+	 * StatisticsStore#FILE_NAME} in the working directory.
+	 */
+	public static synchronized StatisticsService get(){
+		if(service == null){
+			service = new StatisticsService(new File(System.getProperty("user.dir"),
+					StatisticsStore.FILE_NAME));
+		}
+		return service;
+	}
+
+	/**
+	 * Instantiates a service of the store of the given file, which is opened
+	 * by the first request. When the virtual machine shuts down, the waiting
+	 * requests are given a short time to finish before the store is closed.
+	 */
+	public StatisticsService(File file){
+		this.file = file;
+		writer = Executors.newSingleThreadExecutor(new ThreadFactory(){
+			public Thread newThread(Runnable task){
+				Thread thread = new Thread(task, "Statistics writer");
+				thread.setDaemon(true); //So that it does not keep the game open.
+				return thread;
+			}
+		});
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable(){
+			public void run(){
+				shutdown();
+			}
+		}));
+	}
+
+	/**
+	 * Counts a game started of the given game.
+	 */
+	public CompletableFuture<Void> startGame(final String gameName){
+		return submit(new Request<Void>(){
+			public Void run(StatisticsStore store){
+				store.addGame(gameName);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Records a game that was won.
+	 */
+	public CompletableFuture<Void> winGame(final GameRecord game){
+		return submit(new Request<Void>(){
+			public Void run(StatisticsStore store) throws IOException {
+				store.addWin(game.getGameName(), game.getDuration());
+				store.addFinished(game);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Records a game that was left or lost before it was won.
+	 */
+	public CompletableFuture<Void> leaveGame(final GameRecord game){
+		return submit(new Request<Void>(){
+			public Void run(StatisticsStore store) throws IOException {
+				store.addFinished(game);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Records a score of the given game.
+	 * @return A future of whether or not the score is at least the previous
+	 * 			highest score, which it then replaces.
+	 */
+	public CompletableFuture<Boolean> recordScore(final String gameName,
+			final int score){
+		return submit(new Request<Boolean>(){
+			public Boolean run(StatisticsStore store){
+				return store.addScore(gameName, score);
+			}
+		});
+	}
+
+	/**
+	 * Reads the statistics of the given game.
+	 */
+	public CompletableFuture<GameStatistics> read(final String gameName){
+		return submit(new Request<GameStatistics>(){
+			public GameStatistics run(StatisticsStore store){
+				return store.getStatistics(gameName);
+			}
+		});
+	}
+
+	/**
+	 * Asks the writer to do a request.
+	 * @return A future that is completed with the result of the request, or
+	 * 			with the exception that it threw.
+	 */
+	private <T> CompletableFuture<T> submit(final Request<T> request){
+		final CompletableFuture<T> future = new CompletableFuture<T>();
+		try {
+			writer.execute(new Runnable(){
+				public void run(){
+					try {
+						if(store == null){
+							store = new StatisticsStore(file);
+						}
+						future.complete(request.run(store));
+					} catch (Exception e) {
+						future.completeExceptionally(e);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) { //Then it has been shut down.
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	/**
+	 * Stops taking requests, waits a short time for the waiting ones to
+	 * finish, and closes the store.
+	 */
+	public void shutdown(){
+		writer.shutdown();
+		try {
+			writer.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if(writer.isTerminated() && store != null){
+			store.close();
+		}
+	}
+}
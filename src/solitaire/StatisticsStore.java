@@ -0,0 +1,455 @@
+package solitaire;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Scanner;
+import java.util.function.Consumer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link Statistics} of each game in one binary file that is mapped
+ * into memory, so that recording a game is a few writes to memory instead of
+ * reading and rewriting a text file.
+ * <p>
+ * The file starts with a header of four ints: a magic number, the version of
+ * the layout, the number of records and the size of a record, then the length
+ * of the {@link GameJournal} that the summaries were built from as a long.
+ * Then there is one record per game, in the order of {@link #GAMES}, each of
+ * which holds:
+ * <pre>
+ * int  games		The number of games started.
+ * int  wins		The number of games won.
+ * long totalTime	The seconds taken by the games won.
+ * long bestTime	The fewest seconds taken by a game won, or 0.
+ * int  bestRecord	The highest score, or 0.
+ * int  (unused)
+ * byte[GameSummary.SIZE] summary	The game's {@link GameSummary}.
+ * byte[Leaderboard.SIZE] topScores	The {@link Leaderboard} of the highest
+ * 									scores of the game's wins.
+ * byte[Leaderboard.SIZE] fastestTimes	The leaderboard of its fastest wins.
+ * </pre>
+ * A game that has no record yet, such as when the file is created, starts with
+ * the numbers of its old text file, <code>&lt;game&gt;.txt</code>, if there is one.
+ * <p>
+ * Each finished game is added to the journal, {@link #JOURNAL_NAME}, and to
+ * the summary and leaderboards of its game. When the store is opened, the games
+ * that were added to the journal after the summaries were last saved are added
+ * to them, and if the journal is shorter than the summaries say, they are built
+ * again from the whole journal, as are the leaderboards.
+ * <p>
+ * Changes are written to the mapped memory, which the operating system saves
+ * to the file in time even if the program stops. To keep that time short, a
+ * daemon thread forces the changes to the disk at most {@link #FLUSH_INTERVAL}
+ * ms after they are made, so that a burst of changes is saved together. They
+ * are also forced when the virtual machine shuts down.
+ * <p>
+ * Only one store may be open for a file at a time, as each appends to the
+ * journal. The {@link StatisticsService} keeps the one of the working
+ * directory, and does its reading and writing on a thread of its own.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class StatisticsStore {
+	/** The names of the games, in the order of their records.				*/
+	public static final String[] GAMES = {"Klondike", "Argos", "Anno Domini",
+			"American Toad", "Aztec Pyramid"};
+
+	/** The name of the file in the working directory.						*/
+	public static final String FILE_NAME = "statistics.dat";
+
+	/** The name of the file of the journal, in the same directory.			*/
+	public static final String JOURNAL_NAME = "history.dat";
+
+	/** The ms between checks for changes to be forced to the disk.			*/
+	public static final int FLUSH_INTERVAL = 1000;
+
+	/** Starts the file, which is "SOLS" in ASCII.							*/
+	private static final int MAGIC = 0x534F4C53;
+
+	/** The version of the layout of the file.								*/
+	private static final int VERSION = 3;
+
+	/** The size in bytes of the header and of each record.					*/
+	private static final int HEADER_SIZE = 24,
+			RECORD_SIZE = 32 + GameSummary.SIZE + 2*Leaderboard.SIZE;
+
+	/** The size in bytes of the header and of each record in the first
+	 *  version, which had no journal or summaries.						*/
+	private static final int V1_HEADER_SIZE = 16, V1_RECORD_SIZE = 32;
+
+	/** The size in bytes of each record in the second version, which had
+	 *  no leaderboards.													*/
+	private static final int V2_RECORD_SIZE = 32 + GameSummary.SIZE;
+
+	/** The offset of the length of the journal in the header.				*/
+	private static final int JOURNAL_LENGTH = 16;
+
+	/** The offsets of the fields of a record.								*/
+	private static final int GAMES_PLAYED = 0, WINS = 4, TOTAL_TIME = 8,
+			BEST_TIME = 16, BEST_RECORD = 24, SUMMARY = 32,
+			TOP_SCORES = SUMMARY + GameSummary.SIZE,
+			FASTEST_TIMES = TOP_SCORES + Leaderboard.SIZE;
+
+	/** The file.															*/
+	private final File file;
+
+	/** The file's contents in memory.										*/
+	private final MappedByteBuffer buffer;
+
+	/** The finished games.													*/
+	private final GameJournal journal;
+
+	/** The summary of each game, which are views of {@link #buffer}.		*/
+	private final GameSummary[] summaries = new GameSummary[GAMES.length];
+
+	/** The leaderboards of the highest scores and the fastest times of each
+	 *  game, which are views of {@link #buffer}.							*/
+	private final Leaderboard[] topScores = new Leaderboard[GAMES.length],
+			fastestTimes = new Leaderboard[GAMES.length];
+
+	/** Whether or not there are changes that have not been forced to the
+	 *  disk.																*/
+	private volatile boolean dirty;
+
+	/** Forces changes to the disk.											*/
+	private final ScheduledExecutorService flusher;
+
+	/**
+	 * Opens the store of the given file, which is created if needed, with the
+	 * journal in the same directory, and starts its flushing thread.
+	 * @throws IOException if the files cannot be opened or mapped, or the
+	 * 			journal cannot be read.
+	 */
+	public StatisticsStore(File file) throws IOException {
+		this.file = file;
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+					HEADER_SIZE + RECORD_SIZE*GAMES.length);
+		} finally {
+			raf.close(); //The mapping stays valid after the file is closed.
+		}
+
+		//The records that the file has are kept, and the others are imported.
+		int records = 0;
+		long summarized = 0; //The length of the journal that was summarized.
+		if(buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION
+				&& buffer.getInt(12) == RECORD_SIZE){
+			records = Math.min(buffer.getInt(8), GAMES.length);
+			if(records == GAMES.length){
+				summarized = buffer.getLong(JOURNAL_LENGTH);
+			}
+		} else if(buffer.getInt(0) == MAGIC && buffer.getInt(4) == 1
+				&& buffer.getInt(12) == V1_RECORD_SIZE){
+			records = upgrade(V1_HEADER_SIZE, V1_RECORD_SIZE);
+		} else if(buffer.getInt(0) == MAGIC && buffer.getInt(4) == 2
+				&& buffer.getInt(12) == V2_RECORD_SIZE){
+			records = upgrade(HEADER_SIZE, V2_RECORD_SIZE);
+		}
+		for(int game = 0; game < GAMES.length; game++){
+			summaries[game] = new GameSummary(buffer, offsetOf(game) + SUMMARY);
+			topScores[game] = new Leaderboard(buffer, offsetOf(game) + TOP_SCORES, true);
+			fastestTimes[game] = new Leaderboard(buffer, offsetOf(game) + FASTEST_TIMES, false);
+			if(game >= records){
+				importText(game);
+			}
+		}
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, VERSION);
+		buffer.putInt(8, GAMES.length);
+		buffer.putInt(12, RECORD_SIZE);
+
+		//The summaries are brought up to date with the journal.
+		journal = new GameJournal(new File(file.getAbsoluteFile().getParentFile(),
+				JOURNAL_NAME));
+		if(summarized < 0 || summarized > journal.length()
+				|| summarized % GameJournal.RECORD_SIZE != 0){
+			summarized = 0; //The journal is not the one that was summarized.
+		}
+		summarize(summarized);
+		buffer.force();
+
+		flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory(){
+			public Thread newThread(Runnable task){
+				Thread thread = new Thread(task, "Statistics flusher");
+				thread.setDaemon(true); //So that it does not keep the game open.
+				return thread;
+			}
+		});
+		flusher.scheduleWithFixedDelay(new Runnable(){
+			public void run(){
+				flush();
+			}
+		}, FLUSH_INTERVAL, FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable(){
+			public void run(){
+				flush();
+			}
+		}));
+	}
+
+	/**
+	 * Moves the counts of the records of a file of an earlier version to their
+	 * places in the current version, whose header and records are no smaller.
+	 * The summaries and leaderboards are left to be built from the journal.
+	 * @param headerSize The size of the header of the earlier version.
+	 * @param recordSize The size of its records.
+	 * @return The number of records that were moved.
+	 */
+	private int upgrade(int headerSize, int recordSize){
+		int records = Math.min(buffer.getInt(8), GAMES.length);
+		for(int game = records - 1; game >= 0; game--){ //The last moves furthest.
+			int from = headerSize + recordSize*game, to = offsetOf(game);
+			for(int i = SUMMARY - 4; i >= 0; i -= 4){
+				buffer.putInt(to + i, buffer.getInt(from + i));
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Fills the record of a game with the numbers of its text file, or with
+	 * zeros if it has none or it cannot be read.
+	 */
+	private void importText(int game){
+		int at = offsetOf(game);
+		for(int i = 0; i < SUMMARY; i++){
+			buffer.put(at + i, (byte) 0);
+		}
+		File text = new File(file.getAbsoluteFile().getParentFile(), GAMES[game] + ".txt");
+		if(!text.isFile()){
+			return;
+		}
+		try {
+			Scanner infile = new Scanner(text);
+			try {
+				buffer.putInt(at + GAMES_PLAYED, infile.nextInt());
+				buffer.putInt(at + WINS, infile.nextInt());
+				buffer.putLong(at + TOTAL_TIME, infile.nextLong());
+				buffer.putLong(at + BEST_TIME, infile.nextLong());
+				buffer.putInt(at + BEST_RECORD, infile.nextInt());
+			} finally {
+				infile.close();
+			}
+		} catch (Exception e) {
+			System.out.println("Statistics file for " + GAMES[game]
+					+ " is unavailable or corrupted");
+		}
+	}
+
+	/**
+	 * Returns the position in the file of the record of the given game.
+	 */
+	private static int offsetOf(int game){
+		return HEADER_SIZE + RECORD_SIZE*game;
+	}
+
+	/**
+	 * Returns the position in the file of the record of the game with the
+	 * given name.
+	 * @throws IllegalArgumentException if the game is not in {@link #GAMES}.
+	 */
+	private static int offsetOf(String gameName){
+		return offsetOf(indexOf(gameName));
+	}
+
+	/**
+	 * Returns the index in {@link #GAMES} of the game with the given name.
+	 * @throws IllegalArgumentException if the game is not in {@link #GAMES}.
+	 */
+	static int indexOf(String gameName){
+		for(int game = 0; game < GAMES.length; game++){
+			if(GAMES[game].equals(gameName)){
+				return game;
+			}
+		}
+		throw new IllegalArgumentException("No statistics are kept for " + gameName);
+	}
+
+	/**
+	 * Returns the number of games started of the given game.
+	 */
+	public synchronized int getGames(String gameName){
+		return buffer.getInt(offsetOf(gameName) + GAMES_PLAYED);
+	}
+
+	/**
+	 * Returns the number of games won of the given game.
+	 */
+	public synchronized int getWins(String gameName){
+		return buffer.getInt(offsetOf(gameName) + WINS);
+	}
+
+	/**
+	 * Returns the seconds taken by the won games of the given game.
+	 */
+	public synchronized long getTotalTime(String gameName){
+		return buffer.getLong(offsetOf(gameName) + TOTAL_TIME);
+	}
+
+	/**
+	 * Returns the fewest seconds taken to win the given game, or 0 if it has
+	 * not been won in a timed game.
+	 */
+	public synchronized long getBestTime(String gameName){
+		return buffer.getLong(offsetOf(gameName) + BEST_TIME);
+	}
+
+	/**
+	 * Returns the highest score of the given game, or 0 if none was recorded.
+	 */
+	public synchronized int getBestRecord(String gameName){
+		return buffer.getInt(offsetOf(gameName) + BEST_RECORD);
+	}
+
+	/**
+	 * Counts a game started of the given game.
+	 */
+	public synchronized void addGame(String gameName){
+		int at = offsetOf(gameName) + GAMES_PLAYED;
+		buffer.putInt(at, buffer.getInt(at) + 1);
+		dirty = true;
+	}
+
+	/**
+	 * Counts a game won of the given game.
+	 * @param seconds The seconds taken to win it, or a negative number if it
+	 * 				  was not timed.
+	 */
+	public synchronized void addWin(String gameName, long seconds){
+		int at = offsetOf(gameName);
+		buffer.putInt(at + WINS, buffer.getInt(at + WINS) + 1);
+		if(seconds >= 0){
+			buffer.putLong(at + TOTAL_TIME, buffer.getLong(at + TOTAL_TIME) + seconds);
+			long bestTime = buffer.getLong(at + BEST_TIME);
+			if(seconds < bestTime || bestTime <= 0){
+				buffer.putLong(at + BEST_TIME, seconds);
+			}
+		}
+		dirty = true;
+	}
+
+	/**
+	 * Records a score of the given game.
+	 * @return <code>true</code> if the score is at least the previous highest
+	 * 			score, which it then replaces, else <code>false</code>.
+	 */
+	public synchronized boolean addScore(String gameName, int score){
+		int at = offsetOf(gameName) + BEST_RECORD;
+		if(score < buffer.getInt(at)){
+			return false;
+		}
+		buffer.putInt(at, score);
+		dirty = true;
+		return true;
+	}
+
+	/**
+	 * Returns the statistics of the given game as they are now.
+	 */
+	public synchronized GameStatistics getStatistics(String gameName){
+		int at = offsetOf(gameName);
+		return new GameStatistics(gameName, buffer.getInt(at + GAMES_PLAYED),
+				buffer.getInt(at + WINS), buffer.getLong(at + TOTAL_TIME),
+				buffer.getLong(at + BEST_TIME), buffer.getInt(at + BEST_RECORD),
+				getSummary(gameName), topScores[indexOf(gameName)].copy(),
+				fastestTimes[indexOf(gameName)].copy());
+	}
+
+	/**
+	 * Returns a copy of the summary of the finished games of the given game.
+	 */
+	public synchronized GameSummary getSummary(String gameName){
+		return summaries[indexOf(gameName)].copy();
+	}
+
+	/**
+	 * Adds a finished game to the journal and to the summary and leaderboards
+	 * of its game.
+	 * @throws IOException if it cannot be added to the journal, in which case
+	 * 			the summary is not changed.
+	 */
+	public synchronized void addFinished(GameRecord game) throws IOException {
+		indexOf(game.getGameName()); //Checks the game before it is written.
+		long length = journal.append(game);
+		summarize(game);
+		buffer.putLong(JOURNAL_LENGTH, length);
+		dirty = true;
+	}
+
+	/**
+	 * Adds a finished game to the summary of its game, and to its leaderboards
+	 * if it was won with a score or in a known time.
+	 */
+	private void summarize(GameRecord game){
+		int index = indexOf(game.getGameName());
+		summaries[index].add(game);
+		if(game.isWon() && game.getScore() > 0){
+			topScores[index].offer(game.getScore(), game.getDealNumber(),
+					game.getFinished());
+		}
+		if(game.isWon() && game.getDuration() >= 0){
+			fastestTimes[index].offer(game.getDuration(), game.getDealNumber(),
+					game.getFinished());
+		}
+	}
+
+	/**
+	 * Builds the summaries and leaderboards again by reading the whole journal.
+	 * @throws IOException if the journal cannot be read.
+	 */
+	public synchronized void rebuildSummaries() throws IOException {
+		summarize(0);
+		dirty = true;
+	}
+
+	/**
+	 * Adds the games of the journal from the given position to the summaries
+	 * and leaderboards, which are first cleared if it is the start of the
+	 * journal.
+	 */
+	private void summarize(long from) throws IOException {
+		if(from == 0){
+			for(int game = 0; game < GAMES.length; game++){
+				summaries[game].clear();
+				topScores[game].clear();
+				fastestTimes[game].clear();
+			}
+		}
+		buffer.putLong(JOURNAL_LENGTH, journal.replay(from, new Consumer<GameRecord>(){
+			public void accept(GameRecord game){
+				summarize(game);
+			}
+		}));
+	}
+
+	/**
+	 * Forces the changes to the disk if there are any.
+	 */
+	public void flush(){
+		if(dirty){
+			dirty = false; //Changes made while forcing will be forced next time.
+			buffer.force();
+		}
+	}
+
+	/**
+	 * Forces the changes to the disk and stops the flushing thread. The store
+	 * may not be changed afterwards.
+	 */
+	public void close(){
+		flusher.shutdown();
+		flush();
+		try {
+			journal.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
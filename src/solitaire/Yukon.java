@@ -8,6 +8,8 @@ import card.Foundation;
 import card.StackOfCards;
 import card.Tableau;
 import dataStructures.Stack;
+import solitaire.engine.GameState;
+import solitaire.engine.YukonState;
 
 /**
  * A form of Solitaire that is similar to {@link Klondike}. Unlike Klondike,
@@ -39,7 +41,7 @@ public class Yukon extends Klondike {
 	@Override
 	protected void init(){
 		//The initial deck.
-		StackOfCards deck = StackOfCards.randomDeck();
+		StackOfCards deck = StackOfCards.randomDeck(newDeal());
 
 		//Calls initTableaux with the random deck and an anonymous array that
 		//holds the initial tableau sizes.
@@ -110,30 +112,36 @@ public class Yukon extends Klondike {
 	 */
 	@Override
 	protected boolean tableauxReleasedAction(int x, int y) {
-		for(Tableau tableau : tableaux){ //Check each of the tableaux
-			if(tableau.contains(x, y) || tableau.shapeOfNextCard().contains(x, y)){
-				//Then we check if the inUse stack can be appended to the
-				//tableau per the rules of solitaire.
-
-				//Checks if bottom of this tableau is in sequence with the cards
-				//in use and the colors alternate. If not, then we return false.
-				Card bottom = inUse.reverseCopy().peek();
-				if(!tableau.isEmpty() &&
-						(bottom.compareTo(tableau.peek()) != -1
-						|| bottom.colorEquals(tableau.peek()))){
-					return false;
-				}
-
-				tableau.appendStack(inUse); //Else we append the cards in use.
-				inUse.clear();
-				container.repaint();
-				flipLastStack();
-				return true;
+		for(Tableau tableau : tableauIndex().targetsAt(x, y)){ //Each tableau dropped on
+			//Then we check if the inUse stack can be appended to the
+			//tableau per the rules of solitaire.
+
+			//Checks if bottom of this tableau is in sequence with the cards
+			//in use and the colors alternate. If not, then we return false.
+			Card bottom = inUse.reverseCopy().peek();
+			if(!tableau.isEmpty() &&
+					(bottom.compareTo(tableau.peek()) != -1
+					|| bottom.colorEquals(tableau.peek()))){
+				return false;
 			}
+
+			tableau.appendStack(inUse); //Else we append the cards in use.
+			inUse.clear();
+			container.repaint();
+			flipLastStack();
+			return true;
 		}
 		return false;//If we have reached this point, then no action was performed
 	}
 
+	@Override
+	public GameState toGameState(){
+		YukonState state = new YukonState();
+		load(state, 0, tableaux);
+		load(state, state.firstFoundation(), foundations);
+		return state;
+	}
+
 	/**
 	 * Determines if the user has won.
 	 * @return 	<code>true</code> if each foundation has at least one card and
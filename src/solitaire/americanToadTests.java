@@ -0,0 +1,166 @@
+package solitaire;
+
+import java.util.List;
+import java.util.Random;
+
+import javax.swing.JPanel;
+
+import card.Card;
+import card.Cards;
+import card.Foundation;
+import card.StackOfCards;
+import card.Tableau;
+import dataStructures.Stack;
+import solitaire.engine.AmericanToadState;
+import solitaire.engine.Move;
+import solitaire.engine.Pile;
+import solitaire.engine.Variant;
+
+/**
+ * Checks that the {@link AmericanToadState} that the solver, hints and
+ * simulator use follows the same rules as {@link AmericanToad}. Seeded deals
+ * are played with random moves, mostly to the foundations so that they wrap
+ * from King to Ace. In each position, every run of cards that could be taken
+ * from a pile and put on another is tried both ways: the engine must have the
+ * move if and only if the game would let the cards be picked up, by
+ * {@link AmericanToad#removableFromTableaux(Stack)}, and put down, by
+ * {@link Tableau#canAmericanAppend(Stack)} or
+ * {@link Foundation#canAmericanPush(Card, Card)}.
+ * <p>
+ * Usage: <code>java solitaire.americanToadTests [deals] [first seed]</code>
+ *
+ * @author Warren Godone-Maresca
+ */
+public class americanToadTests {
+	/** The most moves that are made in each deal.							*/
+	private static final int MOVES = 300;
+
+	/** The number of checks that failed.									*/
+	private static int failed;
+
+	/**
+	 * Plays the deals, then prints how many moves were compared and how many
+	 * differed. Exits with 1 if any did.
+	 */
+	public static void main(String[] args){
+		int deals = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+		long first = args.length > 1 ? Long.parseLong(args[1]) : 1;
+		JPanel panel = new JPanel();
+		panel.setSize(1200, 900);
+		AmericanToad game = new AmericanToad(panel);
+
+		long compared = 0;
+		for(long seed = first; seed < first + deals && failed < 10; seed++){
+			AmericanToadState state = (AmericanToadState) Variant.AMERICAN_TOAD.deal(seed);
+			Random random = new Random(seed);
+			for(int i = 0; i < MOVES && failed < 10; i++){
+				compared += compare(seed, state, game);
+				List<Move> moves = state.legalMoves();
+				if(moves.isEmpty()){
+					break;
+				}
+				state.apply(choose(state, moves, random));
+			}
+		}
+
+		System.out.println(compared + " moves compared; " + failed + " differed.");
+		if(failed > 0){
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Returns a random move, which is a move to a foundation if there is one
+	 * and a coin says so.
+	 */
+	private static Move choose(AmericanToadState state, List<Move> moves, Random random){
+		if(random.nextInt(4) != 0){
+			for(Move move : moves){
+				if(move.getType() == Move.Type.TRANSFER && state.isFoundation(move.getTo())){
+					return move;
+				}
+			}
+		}
+		return moves.get(random.nextInt(moves.size()));
+	}
+
+	/**
+	 * Compares the engine and the game for every run of cards of the state
+	 * and every pile that it could be put on.
+	 * @return The number of moves that were compared.
+	 */
+	private static int compare(long seed, AmericanToadState state, AmericanToad game){
+		List<Move> legal = state.legalMoves();
+		Card base = cardOf(state.pile(state.firstFoundation()).get(0), false);
+		int compared = 0;
+		for(int from = 0; from < state.pileCount(); from++){
+			Pile source = state.pile(from);
+			for(int i = 0; i < source.size(); i++){
+				int count = source.size() - i;
+				Stack<Card> cards = cardsOf(source, i);
+				boolean removable = state.isTableau(from) ? game.removableFromTableaux(cards)
+						: count == 1 && (from == state.getWaste() || from == state.getReserve());
+				for(int to = 0; to < state.pileCount(); to++){
+					if(to == from){
+						continue;
+					}
+					boolean accepted;
+					if(state.isTableau(to)){
+						Tableau tableau = new Tableau();
+						tableau.appendStack(cardsOf(state.pile(to), 0));
+						accepted = tableau.canAmericanAppend(cards).isAccepted();
+					} else if(state.isFoundation(to)){
+						Foundation foundation = new Foundation();
+						for(int j = 0; j < state.pile(to).size(); j++){
+							foundation.pushBase(cardOf(state.pile(to).get(j), false));
+						}
+						accepted = count == 1
+								&& foundation.canAmericanPush(cards.get(0), base).isAccepted();
+					} else {
+						accepted = false;
+					}
+					boolean engine = legal.contains(Move.transfer(from, to, count));
+					if(engine != (removable && accepted)){
+						failed++;
+						System.out.println("Deal " + seed + ": moving " + describe(source, i)
+								+ " from pile " + from + " to pile " + to + " " + describe(state.pile(to), 0)
+								+ " is legal in the " + (engine ? "engine but not in the game."
+										: "game but not in the engine."));
+					}
+					compared++;
+				}
+			}
+		}
+		return compared;
+	}
+
+	/**
+	 * Returns the cards of the given pile at and above the given position.
+	 */
+	private static Stack<Card> cardsOf(Pile pile, int from){
+		StackOfCards cards = new StackOfCards();
+		for(int i = from; i < pile.size(); i++){
+			cards.push(cardOf(pile.get(i), !pile.isFaceUp(i)));
+		}
+		return cards;
+	}
+
+	/**
+	 * Returns the cards of the given pile at and above the given position, as
+	 * text.
+	 */
+	private static String describe(Pile pile, int from){
+		StringBuilder text = new StringBuilder("[");
+		for(int i = from; i < pile.size(); i++){
+			text.append(i == from ? "" : " ").append(Cards.toString(pile.get(i)));
+		}
+		return text.append("]").toString();
+	}
+
+	/**
+	 * Returns a card of the given code.
+	 */
+	private static Card cardOf(int code, boolean hidden){
+		return new Card(Cards.getSuit(code), Cards.value(code), 0, 0, 60, hidden);
+	}
+}
@@ -0,0 +1,155 @@
+package solitaire.engine;
+
+import card.CardSet;
+import card.Cards;
+
+/**
+ * The state of a game of American Toad. It follows the rules of
+ * {@link solitaire.AmericanToad}: two decks are used, 20 cards are put in a
+ * reserve, the next card starts the first foundation and sets the base value of
+ * all foundations, and eight tableaux are dealt one card each. The rest are put
+ * in the stock, which is turned to the waste three cards at a time and may be
+ * turned over once.
+ * <p>
+ * Tableaux are built down in alternating colors, wrapping from Ace to King, and
+ * a tableau that becomes empty is filled from the reserve after each move.
+ * <p>
+ * The piles are numbered with the 8 tableaux first, then the 8 foundations,
+ * then the stock, the waste and the reserve.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class AmericanToadState extends KlondikeState {
+	/** The index of the reserve.												*/
+	protected int reserve;
+
+	/** The value of the card that starts every foundation.					*/
+	private int baseValue;
+
+	/**
+	 * Instantiates an empty game.
+	 * @param baseValue The value of the card that starts every foundation.
+	 */
+	public AmericanToadState(int baseValue){
+		super(8, 8, 3);
+		stock = 16;
+		waste = 17;
+		reserve = 18;
+		drawCount = 3;
+		recycleLimit = 1;
+		this.baseValue = baseValue;
+	}
+
+	/**
+	 * Instantiates a game dealt from the given deck.
+	 * @param deck The codes of 104 cards, 2 of each. The last is the top card.
+	 */
+	public AmericanToadState(byte[] deck){
+		this(Cards.value(deck[deck.length - 21])); //The card after the reserve.
+		int top = deck.length;
+		for(int i = 0; i < 20; i++){
+			piles[reserve].push(deck[--top]);
+		}
+		piles[firstFoundation()].push(deck[--top]);
+		top = deal(deck, top, new int[] {1, 1, 1, 1, 1, 1, 1, 1}, true);
+		piles[stock].setCards(deck, top, 0);
+	}
+
+	/**
+	 * Instantiates a game that is a copy of the given game.
+	 */
+	protected AmericanToadState(AmericanToadState state){
+		super(state);
+		reserve = state.reserve;
+		baseValue = state.baseValue;
+	}
+
+	/**
+	 * Returns the index of the reserve.
+	 */
+	public int getReserve(){
+		return reserve;
+	}
+
+	@Override
+	protected boolean isSource(int index){
+		return super.isSource(index) || index == reserve;
+	}
+
+	/**
+	 * As in {@link card.Tableau#americanSequence(dataStructures.Stack)}, a King
+	 * may also be put on an Ace of the other color.
+	 */
+	@Override
+	protected boolean links(int lower, int upper){
+		return super.links(lower, upper)
+				|| (Cards.value(lower) == 1 && Cards.value(upper) == 13
+				&& Cards.isRed(lower) != Cards.isRed(upper));
+	}
+
+	/**
+	 * As in {@link card.Foundation#canAmericanPush(card.Card, card.Card)}, an
+	 * empty foundation takes a card of the base value. Otherwise the card must
+	 * have the suit of the top card and a value one more, or be the Ace on the
+	 * King of its suit, until the foundation has 13 cards.
+	 */
+	@Override
+	protected boolean canFound(int foundation, int card){
+		Pile pile = piles[foundation];
+		if(pile.isEmpty()){
+			return Cards.value(card) == baseValue;
+		}
+		int top = pile.top();
+		return pile.size() < 13 && (CardSet.contains(Cards.foundationNext(top), card)
+				|| (Cards.value(card) == 1 && Cards.value(top) == 13
+				&& Cards.suit(card) == Cards.suit(top)));
+	}
+
+	/**
+	 * No move to a foundation is safe, since two decks are used and an Ace may
+	 * go on a King.
+	 */
+	@Override
+	public boolean isSafeToFound(int card){
+		return false;
+	}
+
+	/**
+	 * After each transfer, every empty tableau is filled with the top card of
+	 * the reserve. Bit <code>i + 1</code> of the returned value is set if
+	 * tableau <code>i</code> was filled.
+	 */
+	@Override
+	protected int doApply(Move move){
+		int info = super.doApply(move);
+		if(move.getType() == Move.Type.TRANSFER){
+			for(int i = 0; i < tableauCount && !piles[reserve].isEmpty(); i++){
+				if(piles[i].isEmpty()){
+					piles[i].push(piles[reserve].pop());
+					info |= 2 << i;
+				}
+			}
+		}
+		return info;
+	}
+
+	@Override
+	protected void doUndo(Move move, int info){
+		for(int i = tableauCount - 1; i >= 0; i--){
+			if((info & (2 << i)) != 0){
+				piles[reserve].push(piles[i].pop());
+			}
+		}
+		super.doUndo(move, info);
+	}
+
+	@Override
+	protected int cardCount(){
+		return 104;
+	}
+
+	@Override
+	public AmericanToadState copy(){
+		return new AmericanToadState(this);
+	}
+}
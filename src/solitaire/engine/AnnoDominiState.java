@@ -0,0 +1,100 @@
+package solitaire.engine;
+
+import card.CardSet;
+import card.Cards;
+
+/**
+ * The state of a game of Anno Domini. It follows the rules of
+ * {@link solitaire.AnnoDomini}: four tableaux are dealt one card each and the
+ * rest of the deck is put in the stock. The foundations are started with the
+ * cards whose values are one more than the digits of a year (a Jack for a 0),
+ * each with a different suit, and are built up by suit, wrapping from King to
+ * Ace. The waste may be turned over to become the stock only twice.
+ * <p>
+ * Foundation <code>i</code> uses digit <code>3 - i</code> of the year, so the
+ * last foundation uses the first digit.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class AnnoDominiState extends KlondikeState {
+	/** The digits of the year, from the first (thousands) to the last.		*/
+	private int[] digits;
+
+	/**
+	 * Instantiates an empty game.
+	 * @param year The year whose digits start the foundations. It must have
+	 * 			   four digits.
+	 * @throws IllegalArgumentException if the year does not have four digits.
+	 */
+	public AnnoDominiState(int year){
+		super(4, 4, 2);
+		stock = 8;
+		waste = 9;
+		recycleLimit = 2;
+		if(year < 1000 || year > 9999){
+			throw new IllegalArgumentException("The year must have four digits.");
+		}
+		digits = new int[] {year/1000, year/100 % 10, year/10 % 10, year % 10};
+	}
+
+	/**
+	 * Instantiates a game dealt from the given deck of 52 card codes whose last
+	 * card is the top card.
+	 * @param year The year whose digits start the foundations.
+	 */
+	public AnnoDominiState(byte[] deck, int year){
+		this(year);
+		int next = deal(deck, deck.length, new int[] {1, 1, 1, 1}, true);
+		piles[stock].setCards(deck, next, 0);
+	}
+
+	/**
+	 * Instantiates a game that is a copy of the given game.
+	 */
+	protected AnnoDominiState(AnnoDominiState state){
+		super(state);
+		digits = state.digits;
+	}
+
+	/**
+	 * An empty foundation takes the card whose value is one more than its digit
+	 * of the year (a Jack for a 0) and whose suit does not start another
+	 * foundation. Otherwise the card must have the suit of the top card and a
+	 * value one more, or be an Ace on a King.
+	 */
+	@Override
+	protected boolean canFound(int foundation, int card){
+		Pile pile = piles[foundation];
+		if(!pile.isEmpty()){
+			int top = pile.top();
+			return CardSet.contains(Cards.foundationNext(top), card)
+					|| (Cards.value(card) == 1 && Cards.value(top) == 13
+					&& Cards.suit(card) == Cards.suit(top));
+		}
+
+		int digit = digits[3 - (foundation - tableauCount)];
+		if(Cards.value(card) != digit + 1 && !(digit == 0 && Cards.value(card) == 11)){
+			return false;
+		}
+		for(int i = tableauCount; i < tableauCount + foundationCount; i++){
+			//The suit may not already be used by another foundation.
+			if(!piles[i].isEmpty() && Cards.suit(piles[i].get(0)) == Cards.suit(card)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * No move to a foundation is safe, as each one starts at a digit of the year.
+	 */
+	@Override
+	public boolean isSafeToFound(int card){
+		return false;
+	}
+
+	@Override
+	public AnnoDominiState copy(){
+		return new AnnoDominiState(this);
+	}
+}
@@ -0,0 +1,175 @@
+package solitaire.engine;
+
+import java.util.List;
+
+import card.CardSet;
+import card.Cards;
+
+/**
+ * The state of a game of Argos. It follows the rules of {@link solitaire.Argos}:
+ * 52 cards are laid out in four rows of 13 tableaux with the Kings in the last
+ * column and the other 52 cards are put in the stock. The top card of the
+ * stock is turned to the waste and may be put on a tableau that holds a single
+ * card whose value is half of the card's value (or half of 13 more). Turning a
+ * new card discards the card on the waste. The game is won when three rows hold
+ * two cards in every tableau.
+ * <p>
+ * The piles are numbered with the 52 tableaux first, row by row, then the
+ * stock, the waste and the discard pile. There are no foundations.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class ArgosState extends KlondikeState {
+	/** The index of the pile that holds the discarded cards.					*/
+	protected int discard;
+
+	/**
+	 * Instantiates an empty game.
+	 */
+	public ArgosState(){
+		super(52, 0, 3);
+		stock = 52;
+		waste = 53;
+		discard = 54;
+	}
+
+	/**
+	 * Instantiates a game dealt from the given cards. The first card of the
+	 * stock is turned to the waste.
+	 * @param playDeck	The codes of the 52 cards that are laid out. The four
+	 * 					Kings at the end go to the last column from the top row
+	 * 					down, then the rest go row by row.
+	 * @param stockDeck	The codes of the 52 cards of the stock, whose last card
+	 * 					is the top card.
+	 */
+	public ArgosState(byte[] playDeck, byte[] stockDeck){
+		this();
+		int top = playDeck.length;
+		for(int k = 0; k < 4; k++){ //The thirteenth column holds the Kings.
+			piles[12 + k*13].push(playDeck[--top]);
+		}
+		for(int j = 0; j < 4; j++){
+			for(int i = 0; i < 12; i++){
+				piles[i + j*13].push(playDeck[--top]);
+			}
+		}
+		piles[stock].setCards(stockDeck, stockDeck.length, 0);
+		piles[waste].push(piles[stock].pop()); //The first card is drawn.
+	}
+
+	/**
+	 * Instantiates a game that is a copy of the given game.
+	 */
+	protected ArgosState(ArgosState state){
+		super(state);
+		discard = state.discard;
+	}
+
+	@Override
+	public void legalMoves(List<Move> list){
+		if(!piles[stock].isEmpty()){
+			list.add(drawMove());
+		}
+		if(piles[waste].isEmpty()){
+			return;
+		}
+		int card = piles[waste].top();
+		for(int i = 0; i < tableauCount; i++){
+			if(canBuild(i, card)){
+				list.add(Move.transfer(waste, i, 1));
+			}
+		}
+	}
+
+	/**
+	 * The stock is never refilled from the waste, so only one card is drawn at
+	 * a time until the stock is empty.
+	 */
+	@Override
+	public Move drawMove(){
+		return piles[stock].isEmpty() ? null : new Move(Move.Type.DRAW, stock, waste, 1);
+	}
+
+	/**
+	 * A card may only be put on a tableau with a single card whose value is
+	 * half of the card's value, or half of 13 more than it.
+	 */
+	@Override
+	protected boolean canBuild(int tableau, int card){
+		Pile pile = piles[tableau];
+		if(pile.size() != 1){
+			return false;
+		}
+		return CardSet.contains(Cards.doubleOf(pile.top()), card);
+	}
+
+	/**
+	 * Drawing discards the card on the waste (bit 1 of the returned value). When
+	 * a transfer empties the waste, the next card is drawn automatically (bit
+	 * 2).
+	 */
+	@Override
+	protected int doApply(Move move){
+		switch(move.getType()){
+		case DRAW:
+			int info = 0;
+			if(!piles[waste].isEmpty()){
+				piles[discard].push(piles[waste].pop());
+				info = 2;
+			}
+			piles[waste].push(piles[stock].pop());
+			return info;
+		case TRANSFER:
+			transfer(move.getFrom(), move.getTo(), 1);
+			if(piles[waste].isEmpty() && !piles[stock].isEmpty()){
+				piles[waste].push(piles[stock].pop());
+				return 4;
+			}
+			return 0;
+		default:
+			throw new IllegalArgumentException("Unsupported move: " + move);
+		}
+	}
+
+	@Override
+	protected void doUndo(Move move, int info){
+		switch(move.getType()){
+		case DRAW:
+			piles[stock].push(piles[waste].pop());
+			if((info & 2) != 0){
+				piles[waste].push(piles[discard].pop());
+			}
+			break;
+		case TRANSFER:
+			if((info & 4) != 0){
+				piles[stock].push(piles[waste].pop());
+			}
+			transfer(move.getTo(), move.getFrom(), 1);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported move: " + move);
+		}
+	}
+
+	/**
+	 * Determines whether three rows hold two cards in every tableau.
+	 */
+	@Override
+	public boolean isWon(){
+		int rowsComplete = 0;
+		for(int i = 0; i < 4; i++){
+			boolean completeRow = true;
+			for(int j = 0; j < 13 && completeRow; j++){
+				completeRow = piles[j + i*13].size() == 2;
+			}
+			if(completeRow)
+				rowsComplete++;
+		}
+		return rowsComplete >= 3;
+	}
+
+	@Override
+	public ArgosState copy(){
+		return new ArgosState(this);
+	}
+}
@@ -0,0 +1,87 @@
+package solitaire.engine;
+
+/**
+ * The state of a game of FreeCell. It follows the rules of
+ * {@link solitaire.FreeCell}: all 52 cards are dealt face up into eight
+ * tableaux and there are four holding cells that may each hold one card. There
+ * is no stock or waste.
+ * <p>
+ * The piles are numbered with the 8 tableaux first, then the 4 foundations,
+ * then the 4 holding cells.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class FreeCellState extends KlondikeState {
+	/** The index of the first holding cell.									*/
+	protected int firstCell;
+
+	/**
+	 * Instantiates an empty game.
+	 */
+	public FreeCellState(){
+		super(8, 4, 4);
+		stock = (waste = -1); //There is no stock or waste.
+		firstCell = 12;
+	}
+
+	/**
+	 * Instantiates a game dealt from the given deck of 52 card codes whose last
+	 * card is the top card.
+	 */
+	public FreeCellState(byte[] deck){
+		this();
+		deal(deck, deck.length, new int[] {7, 7, 7, 7, 6, 6, 6, 6}, false);
+	}
+
+	/**
+	 * Instantiates a game that is a copy of the given game.
+	 */
+	protected FreeCellState(FreeCellState state){
+		super(state);
+		firstCell = state.firstCell;
+	}
+
+	/**
+	 * Determines whether the pile with the given index is a holding cell.
+	 */
+	public boolean isCell(int index){
+		return index >= firstCell;
+	}
+
+	@Override
+	protected boolean isSource(int index){
+		return isTableau(index) || isCell(index);
+	}
+
+	@Override
+	protected boolean canAccept(int index, int card, int count){
+		if(isCell(index)){ //Then it must be empty and take a single card.
+			return count == 1 && piles[index].isEmpty();
+		}
+		return super.canAccept(index, card, count);
+	}
+
+	/**
+	 * Returns (the number of empty cells + 1) * 2^(the number of empty tableaux
+	 * other than the given tableau), as that many cards could be moved one at a
+	 * time using the empty piles.
+	 */
+	@Override
+	protected int maxRun(int tableau){
+		int emptyCells = 0, emptyTableaux = 0;
+		for(int i = firstCell; i < piles.length; i++){
+			if(piles[i].isEmpty())
+				emptyCells++;
+		}
+		for(int i = 0; i < tableauCount; i++){
+			if(i != tableau && piles[i].isEmpty())
+				emptyTableaux++;
+		}
+		return (emptyCells + 1) << emptyTableaux;
+	}
+
+	@Override
+	public FreeCellState copy(){
+		return new FreeCellState(this);
+	}
+}
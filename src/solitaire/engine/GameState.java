@@ -0,0 +1,215 @@
+package solitaire.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import card.Cards;
+
+/**
+ * The state of a game of Solitaire without any user interface. A state is made
+ * of numbered {@link Pile}s of card codes and is changed by applying
+ * {@link Move}s to it. Every move that is applied is remembered so that it may
+ * be undone, which lets a solver or simulator explore a game without copying
+ * the state at each step.
+ * <p>
+ * Cards are held as the codes of {@link Cards}. Games that use two decks
+ * simply hold each code twice.
+ * <p>
+ * Subclasses define the piles and the rules of one game. They generate moves in
+ * {@link #legalMoves(List)} and perform them in {@link #doApply(Move)} and
+ * {@link #doUndo(Move, int)}.
+ *
+ * @author Warren Godone-Maresca
+ */
+public abstract class GameState {
+	/** The piles of the game. Each subclass documents which index is which.	*/
+	protected Pile[] piles;
+
+	/** Holds the number moves that have been applied and not undone.			*/
+	protected int moves;
+
+	/** The moves that have been applied in the order in which they were.		*/
+	private Move[] history = new Move[64];
+
+	/** The value returned by doApply for each move in {@link #history}.		*/
+	private int[] undoInfo = new int[64];
+
+	/** Do nothing constructor.													*/
+	protected GameState(){}
+
+	/**
+	 * Instantiates a state that is a deep copy of the given state, including the
+	 * moves that may be undone.
+	 */
+	protected GameState(GameState state){
+		piles = new Pile[state.piles.length];
+		for(int i = 0; i < piles.length; i++){
+			piles[i] = new Pile(state.piles[i]);
+		}
+		moves = state.moves;
+		history = state.history.clone();
+		undoInfo = state.undoInfo.clone();
+	}
+
+	/**
+	 * Instantiates the given number of empty piles.
+	 */
+	protected void initPiles(int numOfPiles){
+		piles = new Pile[numOfPiles];
+		for(int i = 0; i < numOfPiles; i++){
+			piles[i] = new Pile();
+		}
+	}
+
+	/**
+	 * Returns a new list of all moves that may be applied to this state.
+	 */
+	public List<Move> legalMoves(){
+		List<Move> list = new ArrayList<Move>();
+		legalMoves(list);
+		return list;
+	}
+
+	/**
+	 * Adds all moves that may be applied to this state to the given list. The
+	 * list is not cleared first, so that a caller may reuse one list.
+	 */
+	public abstract void legalMoves(List<Move> list);
+
+	/**
+	 * Determines whether or not the given move may be applied to this state.
+	 */
+	public boolean isLegal(Move move){
+		return legalMoves().contains(move);
+	}
+
+	/**
+	 * Applies the given move to this state. For speed, the move is not checked;
+	 * it must be one that was returned by {@link #legalMoves(List)} for this
+	 * state.
+	 */
+	public final void apply(Move move){
+		int info = doApply(move);
+		if(moves == history.length){ //Then there is no room to remember it.
+			Move[] temp = new Move[moves * 2];
+			int[] tempInfo = new int[moves * 2];
+			System.arraycopy(history, 0, temp, 0, moves);
+			System.arraycopy(undoInfo, 0, tempInfo, 0, moves);
+			history = temp;
+			undoInfo = tempInfo;
+		}
+		history[moves] = move;
+		undoInfo[moves] = info;
+		moves++;
+	}
+
+	/**
+	 * Undoes the last move that was applied.
+	 * @return <code>true</code> if a move was undone, <code>false</code> if no
+	 * 			move has been applied.
+	 */
+	public final boolean undo(){
+		if(moves == 0){
+			return false;
+		}
+		moves--;
+		doUndo(history[moves], undoInfo[moves]);
+		history[moves] = null;
+		return true;
+	}
+
+	/**
+	 * Performs the given move.
+	 * @return Whatever information {@link #doUndo(Move, int)} needs to undo it,
+	 * 			such as whether a card was turned face up.
+	 */
+	protected abstract int doApply(Move move);
+
+	/**
+	 * Reverses the given move, which was the last one applied.
+	 * @param info The value that {@link #doApply(Move)} returned for the move.
+	 */
+	protected abstract void doUndo(Move move, int info);
+
+	/**
+	 * Determines whether or not the game has been won.
+	 */
+	public abstract boolean isWon();
+
+	/**
+	 * Returns a deep copy of this state.
+	 */
+	public abstract GameState copy();
+
+	/**
+	 * Returns the score of the game. Only games that keep a score override this.
+	 */
+	public int getScore(){
+		return 0;
+	}
+
+	/**
+	 * Returns the number of moves that have been applied and not undone.
+	 */
+	public int getMoves(){
+		return moves;
+	}
+
+	/**
+	 * Returns the move that was applied last, or <code>null</code> if none was.
+	 */
+	public Move lastMove(){
+		return moves == 0 ? null : history[moves - 1];
+	}
+
+	/**
+	 * Returns the pile with the given index.
+	 */
+	public Pile pile(int index){
+		return piles[index];
+	}
+
+	/**
+	 * Returns the number of piles in the game.
+	 */
+	public int pileCount(){
+		return piles.length;
+	}
+
+	/**
+	 * Moves the top <code>count</code> cards of one pile to the top of another,
+	 * keeping their order.
+	 */
+	protected void transfer(int from, int to, int count){
+		Pile source = piles[from], destination = piles[to];
+		int bottom = source.size() - count;
+		for(int i = bottom; i < source.size(); i++){
+			destination.push(source.get(i));
+		}
+		for(int i = 0; i < count; i++){
+			source.pop();
+		}
+	}
+
+	/**
+	 * Turns the top card of the given pile face up if it is face down.
+	 * @return <code>true</code> if the card was turned.
+	 */
+	protected boolean flipTop(int index){
+		Pile pile = piles[index];
+		if(!pile.isEmpty() && pile.faceDown() == pile.size()){
+			pile.setFaceDown(pile.size() - 1);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public String toString(){
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < piles.length; i++){
+			builder.append(i).append(": ").append(piles[i]).append('\n');
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,419 @@
+package solitaire.engine;
+
+import java.util.List;
+
+import card.CardSet;
+import card.Cards;
+
+/**
+ * The state of a game of Klondike Solitaire. It follows the rules of
+ * {@link solitaire.Klondike}: seven tableaux are dealt with 1 to 7 cards, only
+ * the top card of each face up, and the rest of the deck is put in the stock.
+ * One card is turned from the stock to the waste at a time and the waste may be
+ * turned over to become the stock any number of times.
+ * <p>
+ * The piles are numbered with the tableaux first, then the foundations, then
+ * the stock and waste. Subclasses that have other piles put them after these,
+ * and a subclass without a stock or waste sets {@link #stock} or
+ * {@link #waste} to -1. Cards are only drawn when there is a waste.
+ * <p>
+ * Like {@link solitaire.Klondike}, this class is the base of the other games.
+ * They change the rules by overriding the protected methods, such as
+ * {@link #links(int, int)} for which cards may be moved together and
+ * {@link #canBuild(int, int)} for which cards a tableau accepts.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class KlondikeState extends GameState {
+	/** The number of tableaux, which are piles 0 to tableauCount - 1.		*/
+	protected int tableauCount;
+
+	/** The number of foundations, which follow the tableaux.				*/
+	protected int foundationCount;
+
+	/** The index of the stock, or -1 if the game has no stock.				*/
+	protected int stock = -1;
+
+	/** The index of the waste, or -1 if the game has no waste.				*/
+	protected int waste = -1;
+
+	/** The number of cards turned from the stock to the waste at a time.	*/
+	protected int drawCount = 1;
+
+	/** The number of times the waste has been turned over to the stock.		*/
+	protected int recycles;
+
+	/** The number of times the waste may be turned over to the stock.		*/
+	protected int recycleLimit = Integer.MAX_VALUE;
+
+	/**
+	 * Instantiates an empty game with seven tableaux, four foundations, a
+	 * stock and a waste. The piles may be filled with
+	 * {@link Pile#setCards(byte[], int, int)}.
+	 */
+	public KlondikeState(){
+		this(7, 4, 2);
+		stock = 11;
+		waste = 12;
+	}
+
+	/**
+	 * Instantiates an empty game with the given number of piles.
+	 * @param tableaux		The number of tableaux.
+	 * @param foundations	The number of foundations.
+	 * @param others		The number of piles after the foundations.
+	 */
+	protected KlondikeState(int tableaux, int foundations, int others){
+		tableauCount = tableaux;
+		foundationCount = foundations;
+		initPiles(tableaux + foundations + others);
+	}
+
+	/**
+	 * Instantiates a game dealt from the given deck. The last card of the deck
+	 * is its top card, which is dealt first.
+	 * @param deck The codes of 52 cards.
+	 */
+	public KlondikeState(byte[] deck){
+		this();
+		int next = deal(deck, deck.length, new int[] {1, 2, 3, 4, 5, 6, 7}, true);
+		piles[stock].setCards(deck, next, 0); //The rest of the deck is the stock.
+	}
+
+	/**
+	 * Instantiates a game that is a copy of the given game.
+	 */
+	protected KlondikeState(KlondikeState state){
+		super(state);
+		tableauCount = state.tableauCount;
+		foundationCount = state.foundationCount;
+		stock = state.stock;
+		waste = state.waste;
+		drawCount = state.drawCount;
+		recycles = state.recycles;
+		recycleLimit = state.recycleLimit;
+	}
+
+	/**
+	 * Deals the tableaux from the top of the given deck. Every card is face down
+	 * except the top card of each tableau when <code>initiallyHidden</code> is
+	 * <code>true</code>.
+	 * @param deck	The source of the cards. The top card is the one before
+	 * 				<code>top</code>.
+	 * @param top	The number of cards of the deck that have not been dealt.
+	 * @param initialTableauxSizes The number of cards dealt to each tableau.
+	 * @return The number of cards of the deck that were not dealt.
+	 */
+	protected int deal(byte[] deck, int top, int[] initialTableauxSizes,
+			boolean initiallyHidden){
+		for(int i = 0; i < initialTableauxSizes.length; i++){
+			for(int j = 0; j < initialTableauxSizes[i]; j++){
+				piles[i].push(deck[--top]);
+			}
+			if(initiallyHidden){
+				piles[i].setFaceDown(piles[i].size() - 1);
+			}
+		}
+		return top;
+	}
+
+	/**
+	 * Returns the index of the first foundation.
+	 */
+	public int firstFoundation(){
+		return tableauCount;
+	}
+
+	/**
+	 * Returns the number of tableaux.
+	 */
+	public int getTableauCount(){
+		return tableauCount;
+	}
+
+	/**
+	 * Returns the number of foundations.
+	 */
+	public int getFoundationCount(){
+		return foundationCount;
+	}
+
+	/**
+	 * Returns the index of the stock, or -1 if the game has no stock.
+	 */
+	public int getStock(){
+		return stock;
+	}
+
+	/**
+	 * Returns the index of the waste, or -1 if the game has no waste.
+	 */
+	public int getWaste(){
+		return waste;
+	}
+
+	/**
+	 * Returns the number of times the waste has been turned over to the stock.
+	 */
+	public int getRecycles(){
+		return recycles;
+	}
+
+	/**
+	 * Sets the number of times the waste has been turned over to the stock.
+	 */
+	public void setRecycles(int recycles){
+		this.recycles = recycles;
+	}
+
+	/**
+	 * Returns the number of times the waste may be turned over to the stock.
+	 */
+	public int getRecycleLimit(){
+		return recycleLimit;
+	}
+
+	/**
+	 * Sets the number of times the waste may be turned over to the stock.
+	 */
+	public void setRecycleLimit(int recycleLimit){
+		this.recycleLimit = recycleLimit;
+	}
+
+	/**
+	 * Determines whether the pile with the given index is a tableau.
+	 */
+	public boolean isTableau(int index){
+		return index < tableauCount;
+	}
+
+	/**
+	 * Determines whether the pile with the given index is a foundation.
+	 */
+	public boolean isFoundation(int index){
+		return index >= tableauCount && index < tableauCount + foundationCount;
+	}
+
+	@Override
+	public void legalMoves(List<Move> list){
+		Move draw = drawMove();
+		if(draw != null){
+			list.add(draw);
+		}
+		for(int from = 0; from < piles.length; from++){
+			legalMovesFrom(from, list);
+		}
+	}
+
+	/**
+	 * Returns the move that draws from the stock or, if the stock is empty,
+	 * turns the waste over. Returns <code>null</code> if neither can be done.
+	 */
+	public Move drawMove(){
+		if(waste >= 0 && !piles[stock].isEmpty()){
+			return new Move(Move.Type.DRAW, stock, waste,
+					Math.min(drawCount, piles[stock].size()));
+		} else if(waste >= 0 && !piles[waste].isEmpty() && recycles < recycleLimit){
+			return new Move(Move.Type.RECYCLE, waste, stock, piles[waste].size());
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the legal transfers of cards from the pile with the given index to
+	 * the given list.
+	 */
+	public void legalMovesFrom(int from, List<Move> list){
+		Pile pile = piles[from];
+		if(pile.isEmpty() || !isSource(from)){
+			return;
+		}
+		int top = pile.size() - 1;
+		//Every run from the top card down is tried until a card does not link
+		//with the card above it. Only tableaux have runs of more than 1 card.
+		for(int i = top; i >= pile.faceDown(); i--){
+			if(i < top && (!isTableau(from) || !links(pile.get(i), pile.get(i + 1)))){
+				break;
+			}
+			for(int to = 0; to < piles.length; to++){
+				if(to != from && canAccept(to, pile.get(i), pile.size() - i)){
+					list.add(Move.transfer(from, to, pile.size() - i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Determines whether cards may be taken from the pile with the given index.
+	 * In Klondike they can be taken from the tableaux and the waste.
+	 */
+	protected boolean isSource(int index){
+		return isTableau(index) || index == waste;
+	}
+
+	/**
+	 * Determines whether the card <code>upper</code> may be moved together with
+	 * the card <code>lower</code> that is directly below it in a tableau. In
+	 * Klondike their colors must differ and the upper card's value must be one
+	 * less.
+	 */
+	protected boolean links(int lower, int upper){
+		return CardSet.contains(Cards.alternatingBelow(lower), upper);
+	}
+
+	/**
+	 * Determines whether the pile with the given index accepts a run of
+	 * <code>count</code> cards whose bottom card is <code>card</code>.
+	 */
+	protected boolean canAccept(int index, int card, int count){
+		if(isTableau(index)){
+			return count <= maxRun(index) && canBuild(index, card);
+		} else if(isFoundation(index)){
+			return count == 1 && canFound(index, card);
+		}
+		return false;
+	}
+
+	/**
+	 * Determines whether the given card may be put on the given tableau. As in
+	 * {@link card.Tableau#appendSuitableCards(dataStructures.Stack)}, any card
+	 * may be put on an empty tableau, otherwise it must link with the top card.
+	 */
+	protected boolean canBuild(int tableau, int card){
+		return piles[tableau].isEmpty() || links(piles[tableau].top(), card);
+	}
+
+	/**
+	 * Returns the largest number of cards that may be moved onto the given
+	 * tableau at once. There is no limit in Klondike.
+	 */
+	protected int maxRun(int tableau){
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Determines whether the given card may be put on the given foundation. An
+	 * empty foundation takes an ace, otherwise the card must have the suit of
+	 * the top card and a value one more.
+	 */
+	protected boolean canFound(int foundation, int card){
+		Pile pile = piles[foundation];
+		if(pile.isEmpty()){
+			return Cards.value(card) == 1;
+		}
+		return CardSet.contains(Cards.foundationNext(pile.top()), card);
+	}
+
+	/**
+	 * Returns the index of the first foundation that the given card may be put
+	 * on, or -1 if there is none.
+	 */
+	public int foundationFor(int card){
+		for(int i = tableauCount; i < tableauCount + foundationCount; i++){
+			if(canAccept(i, card, 1)){
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Determines whether moving the given card to a foundation can never make
+	 * the game harder to win, so that a solver may make the move without trying
+	 * any other. Aces and 2s are safe, and so is any card whose two foundations
+	 * of the other color already hold the cards one less in value, as no card
+	 * that could be put on it in a tableau is left.
+	 */
+	public boolean isSafeToFound(int card){
+		int value = Cards.value(card);
+		if(value <= 2){
+			return true;
+		}
+		int ready = 0; //The foundations of the other color that are far enough.
+		for(int i = tableauCount; i < tableauCount + foundationCount; i++){
+			int top = piles[i].top();
+			if(top >= 0 && Cards.isRed(top) != Cards.isRed(card)
+					&& Cards.value(top) >= value - 1){
+				ready++;
+			}
+		}
+		return ready == 2;
+	}
+
+	/**
+	 * Performs the given move. The lowest bit of the returned value is set if
+	 * a card was turned face up; subclasses may use the higher bits.
+	 */
+	@Override
+	protected int doApply(Move move){
+		switch(move.getType()){
+		case TRANSFER:
+			transfer(move.getFrom(), move.getTo(), move.getCount());
+			return flipTop(move.getFrom()) ? 1 : 0;
+		case DRAW:
+			for(int i = 0; i < move.getCount(); i++){
+				piles[waste].push(piles[stock].pop());
+			}
+			return 0;
+		case RECYCLE:
+			//Turning the waste over reverses the order of its cards.
+			while(!piles[waste].isEmpty()){
+				piles[stock].push(piles[waste].pop());
+			}
+			recycles++;
+			return 0;
+		default:
+			throw new IllegalArgumentException("Unsupported move: " + move);
+		}
+	}
+
+	@Override
+	protected void doUndo(Move move, int info){
+		switch(move.getType()){
+		case TRANSFER:
+			if((info & 1) != 0){ //Then the card below the run is hidden again.
+				Pile pile = piles[move.getFrom()];
+				pile.setFaceDown(pile.size());
+			}
+			transfer(move.getTo(), move.getFrom(), move.getCount());
+			break;
+		case DRAW:
+			for(int i = 0; i < move.getCount(); i++){
+				piles[stock].push(piles[waste].pop());
+			}
+			break;
+		case RECYCLE:
+			for(int i = 0; i < move.getCount(); i++){
+				piles[waste].push(piles[stock].pop());
+			}
+			recycles--;
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported move: " + move);
+		}
+	}
+
+	/**
+	 * Returns the number of cards in the game.
+	 */
+	protected int cardCount(){
+		return 52;
+	}
+
+	/**
+	 * Determines whether all cards are in the foundations.
+	 */
+	@Override
+	public boolean isWon(){
+		int sizeOfFoundations = 0;
+		for(int i = 0; i < foundationCount; i++){
+			sizeOfFoundations += piles[tableauCount + i].size();
+		}
+		return sizeOfFoundations == cardCount();
+	}
+
+	@Override
+	public KlondikeState copy(){
+		return new KlondikeState(this);
+	}
+}
@@ -0,0 +1,114 @@
+package solitaire.engine;
+
+/**
+ * A single move in a {@link GameState}. Moves refer to piles by their index in
+ * the game state rather than by screen coordinates, so they can be generated,
+ * applied and undone without any user interface.
+ * <p>
+ * Moves are immutable and compare equal when their type, piles and count are
+ * equal.
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class Move {
+	/**
+	 * The kinds of moves that can be made in the supported games.
+	 */
+	public enum Type {
+		/** Moves the top <code>count</code> cards of one pile onto another.	*/
+		TRANSFER,
+		/** Turns <code>count</code> cards from the stock onto the waste.		*/
+		DRAW,
+		/** Turns the waste over to become the stock again.					*/
+		RECYCLE,
+		/** Deals one card from the stock onto each tableau.					*/
+		DEAL,
+		/** Removes the top cards of two piles together (they add up to 13).	*/
+		PAIR,
+		/** Removes the top card of a single pile (a king in Pyramid).			*/
+		REMOVE
+	}
+
+	/** The kind of move.														*/
+	private final Type type;
+
+	/** The index of the pile that cards are taken from.						*/
+	private final int from;
+
+	/** The index of the pile that receives the cards, or the second pile of a
+	 *  {@link Type#PAIR}. It is -1 if the move has no second pile.			*/
+	private final int to;
+
+	/** The number of cards that are moved.									*/
+	private final int count;
+
+	/**
+	 * Instantiates a move.
+	 * @param type	The kind of move.
+	 * @param from	The index of the pile that cards are taken from.
+	 * @param to	The index of the pile that receives the cards, or -1.
+	 * @param count	The number of cards that are moved.
+	 */
+	public Move(Type type, int from, int to, int count){
+		this.type = type;
+		this.from = from;
+		this.to = to;
+		this.count = count;
+	}
+
+	/**
+	 * Returns a move of the top <code>count</code> cards of one pile to another.
+	 */
+	public static Move transfer(int from, int to, int count){
+		return new Move(Type.TRANSFER, from, to, count);
+	}
+
+	/**
+	 * Returns the kind of move.
+	 */
+	public Type getType(){
+		return type;
+	}
+
+	/**
+	 * Returns the index of the pile that cards are taken from.
+	 */
+	public int getFrom(){
+		return from;
+	}
+
+	/**
+	 * Returns the index of the pile that receives the cards, or -1 if there is
+	 * no such pile.
+	 */
+	public int getTo(){
+		return to;
+	}
+
+	/**
+	 * Returns the number of cards that are moved.
+	 */
+	public int getCount(){
+		return count;
+	}
+
+	@Override
+	public boolean equals(Object other){
+		if(!(other instanceof Move)){
+			return false;
+		}
+		Move move = (Move) other;
+		return type == move.type && from == move.from && to == move.to
+				&& count == move.count;
+	}
+
+	@Override
+	public int hashCode(){
+		return ((type.ordinal()*131 + from)*131 + to)*131 + count;
+	}
+
+	@Override
+	public String toString(){
+		return type + "(" + from + " -> " + to + ", " + count + ")";
+	}
+}
@@ -0,0 +1,161 @@
+package solitaire.engine;
+
+import card.Cards;
+
+/**
+ * A pile of cards in a {@link GameState}. Cards are held as the codes of
+ * {@link Cards} in a byte array with the bottom card at index 0. Face-down
+ * cards are always at the bottom of a pile, so the pile only needs to remember
+ * how many of its cards are face down.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class Pile {
+	/** The card codes of the pile, bottom first.								*/
+	private byte[] cards;
+
+	/** The number of cards in the pile.										*/
+	private int size;
+
+	/** The number of cards at the bottom of the pile that are face down.		*/
+	private int faceDown;
+
+	/**
+	 * Instantiates an empty pile.
+	 */
+	public Pile(){
+		cards = new byte[16];
+	}
+
+	/**
+	 * Instantiates a pile that is a copy of the given pile.
+	 */
+	public Pile(Pile pile){
+		cards = pile.cards.clone();
+		size = pile.size;
+		faceDown = pile.faceDown;
+	}
+
+	/**
+	 * Adds a face up card to the top of the pile.
+	 * @param card The code of the card.
+	 */
+	public void push(int card){
+		if(size == cards.length){
+			byte[] temp = new byte[size * 2];
+			System.arraycopy(cards, 0, temp, 0, size);
+			cards = temp;
+		}
+		cards[size++] = (byte) card;
+	}
+
+	/**
+	 * Removes and returns the top card of the pile.
+	 * @return The code of that card.
+	 * @throws IllegalStateException if the pile is empty.
+	 */
+	public int pop(){
+		if(size == 0){
+			throw new IllegalStateException("The pile is empty.");
+		}
+		size--;
+		if(faceDown > size){
+			faceDown = size;
+		}
+		return cards[size];
+	}
+
+	/**
+	 * Returns the code of the top card, or -1 if the pile is empty.
+	 */
+	public int top(){
+		return size == 0 ? -1 : cards[size - 1];
+	}
+
+	/**
+	 * Returns the code of the card at the given position where 0 is the bottom.
+	 */
+	public int get(int index){
+		if(index < 0 || index >= size){
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return cards[index];
+	}
+
+	/**
+	 * Returns the number of cards in the pile.
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Determines whether or not the pile has no cards.
+	 */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of face down cards at the bottom of the pile.
+	 */
+	public int faceDown(){
+		return faceDown;
+	}
+
+	/**
+	 * Sets the number of face down cards at the bottom of the pile.
+	 * @throws IllegalArgumentException if it is negative or more than the size.
+	 */
+	public void setFaceDown(int faceDown){
+		if(faceDown < 0 || faceDown > size){
+			throw new IllegalArgumentException("Face down count out of range.");
+		}
+		this.faceDown = faceDown;
+	}
+
+	/**
+	 * Determines whether the card at the given position is face up.
+	 */
+	public boolean isFaceUp(int index){
+		return index >= faceDown;
+	}
+
+	/**
+	 * Removes all cards from the pile.
+	 */
+	public void clear(){
+		size = 0;
+		faceDown = 0;
+	}
+
+	/**
+	 * Replaces the cards of this pile.
+	 * @param codes		The card codes, bottom first.
+	 * @param count		The number of codes to use from the array.
+	 * @param faceDown	The number of those cards that are face down.
+	 */
+	public void setCards(byte[] codes, int count, int faceDown){
+		if(cards.length < count){
+			cards = new byte[count];
+		}
+		System.arraycopy(codes, 0, cards, 0, count);
+		size = count;
+		setFaceDown(faceDown);
+	}
+
+	@Override
+	public String toString(){
+		StringBuilder builder = new StringBuilder("[");
+		for(int i = 0; i < size; i++){
+			if(i > 0){
+				builder.append(' ');
+			}
+			if(i < faceDown){
+				builder.append('#'); //Face down cards are marked.
+			}
+			builder.append(Cards.toString(cards[i]));
+		}
+		return builder.append(']').toString();
+	}
+}
@@ -0,0 +1,199 @@
+package solitaire.engine;
+
+import java.util.List;
+
+import card.CardSet;
+import card.Cards;
+
+/**
+ * The state of a game of Aztec Pyramid. It follows the rules of
+ * {@link solitaire.Pyramid}: 28 cards are laid out in a pyramid of seven rows
+ * and the other 24 cards are dealt face up into six tableaux of four. A card is
+ * available if it is the top card of a tableau or of the free slot, or if no
+ * card of the pyramid covers it. Two available cards whose values add up to 13
+ * are removed together and an available King is removed alone, each for 500
+ * points. Any other available card may be put in the free slot if it is empty.
+ * The game is won when the pyramid is empty.
+ * <p>
+ * The piles are numbered with the 28 slots of the pyramid first, row by row
+ * from the top, then the 6 tableaux, then the free slot. Each slot holds at
+ * most one card. The cards covering slot <code>s</code> of row <code>r</code>
+ * (both counted from 0) are in slots <code>s + r + 1</code> and
+ * <code>s + r + 2</code>.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class PyramidState extends GameState {
+	/** The number of rows in the pyramid.									*/
+	public static final int ROWS = 7;
+
+	/** The number of slots in the pyramid, which are piles 0 to SLOTS - 1.	*/
+	public static final int SLOTS = ROWS*(ROWS + 1)/2;
+
+	/** The index of the first tableau.										*/
+	public static final int FIRST_TABLEAU = SLOTS;
+
+	/** The index of the free slot.											*/
+	public static final int FREE_SLOT = SLOTS + 6;
+
+	/** The number of points scored for each removal.							*/
+	public static final int POINTS = 500;
+
+	/** The row of each slot of the pyramid.									*/
+	private static final int[] ROW_OF = new int[SLOTS];
+	static {
+		for(int r = 0, s = 0; r < ROWS; r++){
+			for(int c = 0; c <= r; c++){
+				ROW_OF[s++] = r;
+			}
+		}
+	}
+
+	/** The points scored by the moves that have been applied.				*/
+	private int score;
+
+	/**
+	 * Instantiates an empty game.
+	 */
+	public PyramidState(){
+		initPiles(FREE_SLOT + 1);
+	}
+
+	/**
+	 * Instantiates a game dealt from the given deck of 52 card codes whose last
+	 * card is the top card. The tableaux are dealt first, then the pyramid.
+	 */
+	public PyramidState(byte[] deck){
+		this();
+		int top = deck.length;
+		for(int i = 0; i < 6; i++){
+			for(int j = 0; j < 4; j++){
+				piles[FIRST_TABLEAU + i].push(deck[--top]);
+			}
+		}
+		for(int s = 0; s < SLOTS; s++){
+			piles[s].push(deck[--top]);
+		}
+	}
+
+	/**
+	 * Instantiates a game that is a copy of the given game.
+	 */
+	protected PyramidState(PyramidState state){
+		super(state);
+		score = state.score;
+	}
+
+	/**
+	 * Determines whether the card in the given pile may be played.
+	 */
+	public boolean isAvailable(int index){
+		if(piles[index].isEmpty()){
+			return false;
+		} else if(index >= SLOTS || ROW_OF[index] == ROWS - 1){
+			return true; //The top card of a tableau or the free slot, or the
+		}				 //bottom row of the pyramid.
+		int child = index + ROW_OF[index] + 1;
+		return piles[child].isEmpty() && piles[child + 1].isEmpty();
+	}
+
+	@Override
+	public void legalMoves(List<Move> list){
+		for(int a = 0; a < piles.length; a++){
+			if(!isAvailable(a)){
+				continue;
+			}
+			int card = piles[a].top();
+			if(Cards.value(card) == 13){
+				if(a != FREE_SLOT){ //A King in the free slot cannot be removed.
+					list.add(new Move(Move.Type.REMOVE, a, -1, 1));
+				}
+				continue;
+			}
+			long pairs = Cards.pairsWith(card);
+			for(int b = a + 1; b < piles.length; b++){
+				if(isAvailable(b) && CardSet.contains(pairs, piles[b].top())){
+					list.add(new Move(Move.Type.PAIR, a, b, 1));
+				}
+			}
+			if(a != FREE_SLOT && piles[FREE_SLOT].isEmpty()){
+				list.add(Move.transfer(a, FREE_SLOT, 1));
+			}
+		}
+	}
+
+	/**
+	 * Performs the given move. The returned value is the code of the card that
+	 * was removed from the <code>from</code> pile, and for a pair, the code of
+	 * the other card times 64 is added.
+	 */
+	@Override
+	protected int doApply(Move move){
+		switch(move.getType()){
+		case TRANSFER:
+			transfer(move.getFrom(), move.getTo(), 1);
+			return 0;
+		case PAIR:
+			score += POINTS;
+			return piles[move.getFrom()].pop() + piles[move.getTo()].pop()*64;
+		case REMOVE:
+			score += POINTS;
+			return piles[move.getFrom()].pop();
+		default:
+			throw new IllegalArgumentException("Unsupported move: " + move);
+		}
+	}
+
+	@Override
+	protected void doUndo(Move move, int info){
+		switch(move.getType()){
+		case TRANSFER:
+			transfer(move.getTo(), move.getFrom(), 1);
+			break;
+		case PAIR:
+			piles[move.getTo()].push(info / 64);
+			piles[move.getFrom()].push(info % 64);
+			score -= POINTS;
+			break;
+		case REMOVE:
+			piles[move.getFrom()].push(info % 64);
+			score -= POINTS;
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported move: " + move);
+		}
+	}
+
+	/**
+	 * Determines whether the pyramid is empty.
+	 */
+	@Override
+	public boolean isWon(){
+		for(int s = 0; s < SLOTS; s++){
+			if(!piles[s].isEmpty()){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the points scored for removals, not counting a time bonus.
+	 */
+	@Override
+	public int getScore(){
+		return score;
+	}
+
+	/**
+	 * Returns the row of the pyramid of the given slot, counted from 0.
+	 */
+	public static int rowOf(int slot){
+		return ROW_OF[slot];
+	}
+
+	@Override
+	public PyramidState copy(){
+		return new PyramidState(this);
+	}
+}
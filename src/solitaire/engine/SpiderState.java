@@ -0,0 +1,134 @@
+package solitaire.engine;
+
+import java.util.List;
+
+import card.CardSet;
+import card.Cards;
+
+/**
+ * The state of a game of Spider Solitaire. It follows the rules of
+ * {@link solitaire.Spider}: two decks are dealt into ten tableaux with only the
+ * top card of each face up and the rest are put in the stock. Each deal from
+ * the stock puts one card on each tableau. A run from King to Ace is moved to
+ * an empty foundation as a whole.
+ * <p>
+ * In the easy game runs only need to be in sequence. Otherwise their colors
+ * must also alternate as in Klondike.
+ * <p>
+ * The piles are numbered with the 10 tableaux first, then the 8 foundations,
+ * then the stock. There is no waste.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class SpiderState extends KlondikeState {
+	/** Whether or not the colors of a run need not alternate.				*/
+	private boolean easy;
+
+	/**
+	 * Instantiates an empty game.
+	 * @param easy Whether or not the colors of a run need not alternate.
+	 */
+	public SpiderState(boolean easy){
+		super(10, 8, 1);
+		this.easy = easy;
+		stock = 18;
+		waste = -1;
+	}
+
+	/**
+	 * Instantiates a game dealt from the given deck.
+	 * @param deck	The codes of 104 cards, 2 of each. The last is the top card.
+	 * @param easy	Whether or not the colors of a run need not alternate.
+	 */
+	public SpiderState(byte[] deck, boolean easy){
+		this(easy);
+		int next = deal(deck, deck.length,
+				new int[] {6, 6, 6, 6, 5, 5, 5, 5, 5, 5}, true);
+		piles[stock].setCards(deck, next, 0);
+	}
+
+	/**
+	 * Instantiates a game that is a copy of the given game.
+	 */
+	protected SpiderState(SpiderState state){
+		super(state);
+		easy = state.easy;
+	}
+
+	/**
+	 * Returns whether or not the colors of a run need not alternate.
+	 */
+	public boolean isEasy(){
+		return easy;
+	}
+
+	@Override
+	public void legalMoves(List<Move> list){
+		if(!piles[stock].isEmpty()){
+			list.add(new Move(Move.Type.DEAL, stock, -1,
+					Math.min(tableauCount, piles[stock].size())));
+		}
+		super.legalMoves(list); //There is no waste, so only transfers are added.
+	}
+
+	@Override
+	protected boolean links(int lower, int upper){
+		if(easy){
+			return CardSet.contains(Cards.sequenceBelow(lower), upper);
+		}
+		return super.links(lower, upper);
+	}
+
+	/**
+	 * Determines whether the given card may be the bottom of a run of
+	 * <code>count</code> cards that goes to the given foundation. The run must
+	 * be all 13 cards from King to Ace and the foundation must be empty.
+	 */
+	@Override
+	protected boolean canAccept(int index, int card, int count){
+		if(isFoundation(index)){
+			return count == 13 && Cards.value(card) == 13 && piles[index].isEmpty();
+		}
+		return super.canAccept(index, card, count);
+	}
+
+	/**
+	 * No move to a foundation is safe, as they take whole runs.
+	 */
+	@Override
+	public boolean isSafeToFound(int card){
+		return false;
+	}
+
+	@Override
+	protected int doApply(Move move){
+		if(move.getType() == Move.Type.DEAL){
+			for(int i = 0; i < move.getCount(); i++){
+				piles[i].push(piles[stock].pop());
+			}
+			return 0;
+		}
+		return super.doApply(move);
+	}
+
+	@Override
+	protected void doUndo(Move move, int info){
+		if(move.getType() == Move.Type.DEAL){
+			for(int i = move.getCount() - 1; i >= 0; i--){
+				piles[stock].push(piles[i].pop());
+			}
+		} else {
+			super.doUndo(move, info);
+		}
+	}
+
+	@Override
+	protected int cardCount(){
+		return 104;
+	}
+
+	@Override
+	public SpiderState copy(){
+		return new SpiderState(this);
+	}
+}
@@ -0,0 +1,110 @@
+package solitaire.engine;
+
+import java.util.Calendar;
+import card.Cards;
+import card.Shuffler;
+
+/**
+ * The games that have a {@link GameState}. Each variant can deal a new game
+ * from a deal number, so the same number always gives the same deal of that
+ * game. The decks are shuffled by a {@link Shuffler} seeded with the number.
+ * Anno Domini is also dealt for a year, whose digits start its foundations, so
+ * a deal of it is only the same for the same year.
+ *
+ * @author Warren Godone-Maresca
+ */
+public enum Variant {
+	KLONDIKE, FREECELL, SPIDER_EASY, SPIDER_HARD, YUKON, ARGOS, AMERICAN_TOAD,
+	ANNO_DOMINI, PYRAMID;
+
+	/**
+	 * Returns a new game of this variant dealt from a deck shuffled with the
+	 * given deal number. Anno Domini is dealt for the current year.
+	 */
+	public GameState deal(long seed){
+		return deal(seed, currentYear());
+	}
+
+	/**
+	 * Returns a new game of this variant dealt from a deck shuffled with the
+	 * given deal number.
+	 * @param year The year of a game of Anno Domini, which must have four
+	 * 			   digits. Other variants ignore it.
+	 * @throws IllegalArgumentException if this is Anno Domini and the year
+	 * 			does not have four digits.
+	 */
+	public GameState deal(long seed, int year){
+		Shuffler shuffler = new Shuffler(seed);
+		switch(this){
+		case KLONDIKE:
+			return new KlondikeState(shuffledDeck(1, shuffler));
+		case FREECELL:
+			return new FreeCellState(shuffledDeck(1, shuffler));
+		case SPIDER_EASY:
+			return new SpiderState(shuffledDeck(2, shuffler), true);
+		case SPIDER_HARD:
+			return new SpiderState(shuffledDeck(2, shuffler), false);
+		case YUKON:
+			return new YukonState(shuffledDeck(1, shuffler));
+		case ARGOS:
+			return dealArgos(shuffler);
+		case AMERICAN_TOAD:
+			return new AmericanToadState(shuffledDeck(2, shuffler));
+		case ANNO_DOMINI:
+			return new AnnoDominiState(shuffledDeck(1, shuffler), year);
+		case PYRAMID:
+			return new PyramidState(shuffledDeck(1, shuffler));
+		default:
+			throw new IllegalStateException("Unknown variant: " + this);
+		}
+	}
+
+	/**
+	 * Returns the current year, for which Anno Domini is dealt by default.
+	 */
+	public static int currentYear(){
+		return Calendar.getInstance().get(Calendar.YEAR);
+	}
+
+	/**
+	 * Returns the codes of the given number of decks, each filled by suit, in
+	 * the order chosen by the given shuffler.
+	 */
+	public static byte[] shuffledDeck(int decks, Shuffler shuffler){
+		byte[] deck = new byte[52*decks];
+		for(int i = 0; i < deck.length; i++){
+			deck[i] = (byte) (i % 52);
+		}
+		shuffler.shuffle(deck, 0, deck.length);
+		return deck;
+	}
+
+	/**
+	 * Deals a game of Argos as {@link solitaire.Argos} does: two decks without
+	 * Kings are shuffled and split between the stock and the layout, then one
+	 * King of each suit is added to each, and the stock is shuffled again.
+	 */
+	private static GameState dealArgos(Shuffler shuffler){
+		byte[] deck = new byte[96];
+		int size = 0;
+		for(int suit = 0; suit < 4; suit++){
+			for(int value = 1; value < 13; value++){
+				deck[size++] = Cards.code(suit, value);
+				deck[size++] = Cards.code(suit, value);
+			}
+		}
+		shuffler.shuffle(deck, 0, size);
+
+		byte[] playDeck = new byte[52], stockDeck = new byte[52];
+		for(int i = 0; i < 48; i++){ //The cards are dealt to each in turn.
+			stockDeck[i] = deck[--size];
+			playDeck[i] = deck[--size];
+		}
+		for(int suit = 0; suit < 4; suit++){
+			stockDeck[48 + suit] = Cards.code(suit, 13);
+			playDeck[48 + suit] = Cards.code(suit, 13);
+		}
+		shuffler.shuffle(stockDeck, 0, 52);
+		return new ArgosState(playDeck, stockDeck);
+	}
+}
@@ -0,0 +1,56 @@
+package solitaire.engine;
+
+/**
+ * The state of a game of Yukon. It follows the rules of {@link solitaire.Yukon}:
+ * all 52 cards are dealt into seven tableaux of 1, 6, 7, 8, 9, 10 and 11 cards
+ * with the top five cards of each face up. Any group of face up cards may be
+ * moved, whether or not it is in sequence, as long as its bottom card may be
+ * put on the destination as in Klondike. There is no stock or waste.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class YukonState extends KlondikeState {
+	/**
+	 * Instantiates an empty game.
+	 */
+	public YukonState(){
+		super(7, 4, 0);
+	}
+
+	/**
+	 * Instantiates a game dealt from the given deck of 52 card codes whose last
+	 * card is the top card.
+	 */
+	public YukonState(byte[] deck){
+		this();
+		deal(deck, deck.length, new int[] {1, 6, 7, 8, 9, 10, 11}, false);
+		for(int i = 0; i < tableauCount; i++){ //We show the top 5 cards.
+			piles[i].setFaceDown(Math.max(0, piles[i].size() - 5));
+		}
+	}
+
+	/**
+	 * Instantiates a game that is a copy of the given game.
+	 */
+	protected YukonState(YukonState state){
+		super(state);
+	}
+
+	/**
+	 * Any face up cards may be moved together.
+	 */
+	@Override
+	protected boolean links(int lower, int upper){
+		return true;
+	}
+
+	@Override
+	protected boolean canBuild(int tableau, int card){
+		return piles[tableau].isEmpty() || super.links(piles[tableau].top(), card);
+	}
+
+	@Override
+	public YukonState copy(){
+		return new YukonState(this);
+	}
+}
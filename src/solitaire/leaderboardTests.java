@@ -0,0 +1,119 @@
+package solitaire;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks the heap of a {@link Leaderboard}: after each result is offered, the
+ * board must hold the best {@link Leaderboard#CAPACITY} results offered so far
+ * from the best to the worst, for boards of both the highest and the lowest
+ * results, without writing the bytes of the buffer around it.
+ * <p>
+ * Usage: <code>java solitaire.leaderboardTests [offers] [seed]</code>
+ *
+ * @author Warren Godone-Maresca
+ */
+public class leaderboardTests {
+	/** The number of checks that failed.									*/
+	private static int failed;
+
+	/**
+	 * Runs the checks, then prints how many failed. Exits with 1 if any did.
+	 */
+	public static void main(String[] args){
+		int offers = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+		testOffers(true, offers, new Random(seed));
+		testOffers(false, offers, new Random(seed));
+
+		System.out.println(failed == 0 ? "All checks passed." : failed + " checks failed.");
+		if(failed > 0){
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Offers random results, many of them equal, to a board in the middle of a
+	 * buffer, and checks the board and the buffer around it after each.
+	 * @param highestFirst Whether higher results are better.
+	 */
+	public static void testOffers(boolean highestFirst, int offers, Random random){
+		String board = highestFirst ? "highest first" : "lowest first";
+		int at = 64;
+		ByteBuffer buffer = ByteBuffer.allocate(at + Leaderboard.SIZE + 64);
+		for(int i = 0; i < buffer.capacity(); i++){
+			buffer.put(i, (byte) 0x5A);
+		}
+		Leaderboard leaderboard = new Leaderboard(buffer, at, highestFirst);
+		leaderboard.clear();
+
+		List<Long> best = new ArrayList<Long>();
+		for(int i = 0; i < offers && failed < 10; i++){
+			long value = random.nextInt(1000);
+			boolean expected = best.size() < Leaderboard.CAPACITY
+					|| (highestFirst ? value > best.get(best.size() - 1)
+									 : value < best.get(best.size() - 1));
+			if(leaderboard.offer(value, i, i) != expected){
+				fail(board + ": offer of " + value + " did not return " + expected + ".");
+			}
+			best.add(value);
+			best = best(best, highestFirst);
+			check(board, leaderboard, best);
+		}
+
+		for(int i = 0; i < buffer.capacity(); i++){
+			if((i < at || i >= at + Leaderboard.SIZE) && buffer.get(i) != 0x5A){
+				fail(board + ": byte " + i + " outside the board was written.");
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns the best results of the given ones, from the best to the worst,
+	 * as many as a board holds.
+	 */
+	private static List<Long> best(List<Long> offered, boolean highestFirst){
+		List<Long> sorted = new ArrayList<Long>(offered);
+		Collections.sort(sorted);
+		if(highestFirst){
+			Collections.reverse(sorted);
+		}
+		return new ArrayList<Long>(sorted.subList(0, Math.min(sorted.size(), Leaderboard.CAPACITY)));
+	}
+
+	/**
+	 * Checks that the board has the given results, from the best to the worst,
+	 * and that equal results are in the order they were offered.
+	 */
+	private static void check(String board, Leaderboard leaderboard, List<Long> expected){
+		List<Leaderboard.Entry> entries = leaderboard.getEntries();
+		boolean ok = leaderboard.size() == expected.size() && entries.size() == expected.size();
+		for(int i = 0; ok && i < entries.size(); i++){
+			Leaderboard.Entry entry = entries.get(i);
+			ok = entry.getValue() == expected.get(i) && entry.getDealNumber() == entry.getDate();
+			if(ok && i > 0 && entries.get(i - 1).getValue() == entry.getValue()){
+				ok = entries.get(i - 1).getDate() < entry.getDate();
+			}
+		}
+		if(!ok){
+			List<Long> actual = new ArrayList<Long>();
+			for(Leaderboard.Entry entry : entries){
+				actual.add(entry.getValue());
+			}
+			fail(board + ": the board is " + actual + ", not " + expected + ".");
+		}
+	}
+
+	/**
+	 * Prints that a check failed and counts it.
+	 */
+	private static void fail(String message){
+		failed++;
+		System.out.println("Failed: " + message);
+	}
+}
@@ -63,9 +63,9 @@ public class pyramidTests{
         }else diffCard++;
       }
     }
-    int randomPercent=(sameCard/(sameCard+diffCard))*100;
+    double randomPercent=sameCard*100.0/(sameCard+diffCard);
 
-    System.out.print(Integer.toString(randomPercent)+"%\n");
+    System.out.print(String.format("%.2f", randomPercent)+"%\n");
   }
 
   public static PyramidOfCards startTestGame(){
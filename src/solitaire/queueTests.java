@@ -0,0 +1,159 @@
+package solitaire;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import dataStructures.Queue;
+
+/**
+ * Checks the ring buffer of {@link Queue}: that its elements keep their order
+ * when they wrap around the end of the buffer and when the buffer grows, and
+ * that its iterator fails fast when the queue is changed.
+ * <p>
+ * Usage: <code>java solitaire.queueTests</code>
+ *
+ * @author Warren Godone-Maresca
+ */
+public class queueTests {
+	/** The number of checks that failed.									*/
+	private static int failed;
+
+	/**
+	 * Runs the checks, then prints how many failed. Exits with 1 if any did.
+	 */
+	public static void main(String[] args){
+		testWraparound();
+		testGrowth();
+		testIterator();
+
+		System.out.println(failed == 0 ? "All checks passed." : failed + " checks failed.");
+		if(failed > 0){
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Elements keep their order while the head goes around the buffer many
+	 * times without it growing.
+	 */
+	public static void testWraparound(){
+		Queue<Integer> queue = new Queue<Integer>();
+		int next = 0, expected = 0;
+		for(int i = 0; i < 5; i++){
+			queue.enqueue(next++);
+		}
+		for(int round = 0; round < 100; round++){ //Five in the buffer of eight.
+			queue.enqueue(next++);
+			check("dequeued while wrapping around", queue.dequeue(), expected++);
+		}
+		check("wrapped queue", queue, 100, 101, 102, 103, 104);
+		check("peek of the wrapped queue", queue.peek(), 100);
+
+		while(!queue.isEmpty()){
+			queue.dequeue();
+		}
+		check("dequeue of an empty queue", queue.dequeue(), null);
+		check("peek of an empty queue", queue.peek(), null);
+	}
+
+	/**
+	 * Elements keep their order when the buffer grows while its head is not
+	 * at the start of the buffer.
+	 */
+	public static void testGrowth(){
+		Queue<Integer> queue = new Queue<Integer>();
+		for(int i = 0; i < 6; i++){
+			queue.enqueue(i);
+		}
+		for(int i = 0; i < 4; i++){
+			queue.dequeue();
+		}
+		for(int i = 6; i < 40; i++){ //Wraps, then grows twice.
+			queue.enqueue(i);
+		}
+		int[] expected = new int[36];
+		for(int i = 0; i < expected.length; i++){
+			expected[i] = i + 4;
+		}
+		check("grown queue", queue, expected);
+		for(int i = 4; i < 40; i++){
+			check("dequeued from the grown queue", queue.dequeue(), i);
+		}
+		check("size of the emptied queue", queue.size(), 0);
+	}
+
+	/**
+	 * The iterator returns the elements in order and throws once the queue has
+	 * been changed, or when it has no more elements. It cannot remove them.
+	 */
+	public static void testIterator(){
+		Queue<Integer> queue = new Queue<Integer>();
+		for(int i = 0; i < 3; i++){
+			queue.enqueue(i);
+		}
+
+		Iterator<Integer> iterator = queue.iterator();
+		iterator.next();
+		queue.enqueue(3);
+		try {
+			iterator.next();
+			fail("the iterator did not fail after an enqueue.");
+		} catch (ConcurrentModificationException e) {}
+
+		iterator = queue.iterator();
+		iterator.next();
+		queue.dequeue();
+		try {
+			iterator.next();
+			fail("the iterator did not fail after a dequeue.");
+		} catch (ConcurrentModificationException e) {}
+
+		iterator = queue.iterator();
+		while(iterator.hasNext()){
+			iterator.next();
+		}
+		try {
+			iterator.next();
+			fail("the iterator did not fail after its last element.");
+		} catch (NoSuchElementException e) {}
+		try {
+			queue.iterator().remove();
+			fail("the iterator removed an element.");
+		} catch (UnsupportedOperationException e) {}
+	}
+
+	/**
+	 * Checks that the given queue has the given elements from the head, as
+	 * given by its iterator.
+	 */
+	private static void check(String what, Queue<Integer> queue, int... expected){
+		StringBuilder actual = new StringBuilder();
+		int count = 0;
+		boolean ok = queue.size() == expected.length;
+		for(Integer element : queue){
+			ok &= count < expected.length && element == expected[count];
+			actual.append(count++ == 0 ? "" : ", ").append(element);
+		}
+		if(!ok || count != expected.length){
+			fail(what + " is [" + actual + "].");
+		}
+	}
+
+	/**
+	 * Checks that the given value is the expected one.
+	 */
+	private static void check(String what, Integer actual, Integer expected){
+		if(actual == null ? expected != null : !actual.equals(expected)){
+			fail(what + " is " + actual + ", not " + expected + ".");
+		}
+	}
+
+	/**
+	 * Prints that a check failed and counts it.
+	 */
+	private static void fail(String message){
+		failed++;
+		System.out.println("Failed: " + message);
+	}
+}
@@ -0,0 +1,290 @@
+package solitaire;
+
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import card.Card;
+import card.Suit;
+
+/**
+ * Checks the games saved by the {@link GameSaver}: that a game whose outcome
+ * has been recorded is not resumed, and that the {@link SavedGame} of each
+ * game restores its state, including the state of its variant, and is not
+ * read if it was changed or cut short. The saves and statistics are kept in a
+ * new temporary directory, which is made the working directory.
+ * <p>
+ * Usage: <code>java solitaire.savedGameTests</code>
+ *
+ * @author Warren Godone-Maresca
+ */
+public class savedGameTests {
+	/** The ms for which a save or discard is waited for.					*/
+	private static final int TIMEOUT = 2000;
+
+	/** The number of checks that failed.									*/
+	private static int failed;
+
+	/**
+	 * Runs the checks, then prints how many failed. Exits with 1 if any did.
+	 */
+	public static void main(String[] args) throws Exception {
+		File directory = Files.createTempDirectory("savedGameTests").toFile();
+		System.setProperty("user.dir", directory.getPath()); //Before the saver is made.
+
+		testLostArgosIsNotResumed();
+		testSnapshots();
+
+		System.out.println(failed == 0 ? "All checks passed." : failed + " checks failed.");
+		System.exit(failed > 0 ? 1 : 0);
+	}
+
+	/**
+	 * A game of Argos is saved after a move, but once it is lost, its save is
+	 * discarded, and neither the move that lost it nor leaving it saves it
+	 * again.
+	 */
+	public static void testLostArgosIsNotResumed() throws Exception {
+		final JPanel panel = new JPanel();
+		panel.setSize(1200, 900);
+		final Argos[] game = new Argos[1];
+		SwingUtilities.invokeAndWait(new Runnable(){
+			public void run(){
+				game[0] = new Argos(panel);
+				Statistics.startGame("Argos");
+				game[0].moves++;
+				GameSaver.get().save(game[0]);
+			}
+		});
+		if(!waitForSave(true)){
+			fail("the game of Argos was not saved after a move.");
+			return;
+		}
+
+		SwingUtilities.invokeAndWait(new Runnable(){
+			public void run(){
+				//Two rows are complete and the last card of the stock has no
+				//place, so dealing it loses the game.
+				for(int i = 0; i < game[0].tableaux.length; i++){
+					Card[] cards = new Card[i < 26 ? 2 : 0];
+					for(int j = 0; j < cards.length; j++){
+						cards[j] = new Card(Suit.SPADES, 1 + j, 0, 0, 60, false);
+					}
+					game[0].tableaux[i].setCards(cards);
+				}
+				game[0].stock.setCards(new Card[]{new Card(Suit.HEARTS, 5, 0, 0, 60, true)});
+				game[0].waste.setCards(new Card[0]);
+				game[0].moves++;
+				press(panel, game[0].stock.getX(), game[0].stock.getY());
+			}
+		});
+		if(!waitForSave(false)){
+			fail("the save of the lost game of Argos was not discarded.");
+		}
+
+		SwingUtilities.invokeAndWait(new Runnable(){
+			public void run(){
+				game[0].leave(); //As the main menu does after the loss.
+			}
+		});
+		Thread.sleep(TIMEOUT/2); //For any save that was waiting for the game to be idle.
+		if(GameSaver.get().load() != null){
+			fail("the lost game of Argos was saved again, so it would be resumed.");
+		}
+	}
+
+	/**
+	 * Saves a game of each kind with some of its state changed from how it was
+	 * dealt, and checks the round trip of its save through its binary form and
+	 * into a new game of the same kind. A restored game of Aztec Pyramid must
+	 * record its par score in {@link Statistics}.
+	 */
+	public static void testSnapshots() throws Exception {
+		final JPanel panel = new JPanel();
+		panel.setSize(1200, 900);
+		SwingUtilities.invokeAndWait(new Runnable(){
+			public void run(){
+				Klondike klondike = new Klondike(panel);
+				klondike.moves += 7;
+				testSnapshot(klondike, new Klondike(panel));
+
+				Argos argos = new Argos(panel);
+				argos.moves += 3;
+				testSnapshot(argos, new Argos(panel));
+
+				AmericanToad toad = new AmericanToad(panel);
+				toad.reshuffleCount = 1;
+				testSnapshot(toad, new AmericanToad(panel));
+
+				AnnoDomini anno = new AnnoDomini(panel, 1987); //Not this year.
+				anno.reshuffleCount = 2;
+				testSnapshot(anno, new AnnoDomini(panel));
+
+				Pyramid pyramid = new Pyramid(panel);
+				pyramid.moveScore = 120;
+				pyramid.timeBonus = 4350;
+				pyramid.parScore = 99999; //Not the par of any deal.
+				testSnapshot(pyramid, new Pyramid(panel));
+				Integer par = Statistics.getParScore("Aztec Pyramid");
+				if(par == null || par != 99999){
+					fail("the restored game of Aztec Pyramid recorded a par score of "
+							+ par + ", not 99999.");
+				}
+
+				testSnapshot(klondike, new Argos(panel));
+				for(Klondike game : new Klondike[]{klondike, argos, toad, anno, pyramid}){
+					game.leave();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Saves the given game and restores its save to the given game. If the
+	 * other game is of the same kind, its save must then be the same as that
+	 * of the saved game, and the save must not be read if it is changed or cut
+	 * short. Otherwise the save must not be restored to it.
+	 */
+	private static void testSnapshot(Klondike game, Klondike other){
+		String name = game.getName();
+		byte[] bytes = SavedGame.of(game, 12345).toBytes();
+		SavedGame saved;
+		try {
+			saved = SavedGame.fromBytes(bytes);
+		} catch (IOException e) {
+			fail("the save of " + name + " could not be read: " + e.getMessage());
+			return;
+		}
+		if(!saved.getGameName().equals(name) || saved.getStarted() != 12345){
+			fail("the save of " + name + " was read as " + saved.getGameName()
+					+ " started at " + saved.getStarted() + ".");
+		}
+
+		if(!other.getName().equals(name)){
+			try {
+				saved.restore(other);
+				fail("a save of " + name + " was restored to " + other.getName() + ".");
+			} catch (IllegalArgumentException e) {
+				//As expected.
+			}
+			return;
+		}
+
+		if(Arrays.equals(SavedGame.of(other, 12345).toBytes(), bytes)){
+			fail("two games of " + name + " had the same save before one was restored.");
+		}
+		saved.restore(other);
+		if(!Arrays.equals(SavedGame.of(other, 12345).toBytes(), bytes)){
+			fail("the restored game of " + name + " is not the same as the saved game.");
+		}
+
+		for(int i = 0; i < bytes.length; i++){
+			byte[] changed = bytes.clone();
+			changed[i] ^= 1;
+			if(canRead(changed)){
+				fail("the save of " + name + " was read with byte " + i + " changed.");
+			}
+		}
+		for(int length = 0; length < bytes.length; length++){
+			if(canRead(Arrays.copyOf(bytes, length))){
+				fail("the save of " + name + " was read when cut to " + length + " bytes.");
+			}
+		}
+		if(canRead(Arrays.copyOf(bytes, bytes.length + 1))){
+			fail("the save of " + name + " was read with a byte after it.");
+		}
+
+		for(int change : new int[]{-1, 1}){
+			try {
+				SavedGame.fromBytes(withStateLength(bytes, change)).restore(other);
+				fail("the save of " + name + " was restored with " + change
+						+ " byte(s) of state more.");
+			} catch (IOException e) {
+				fail("the save of " + name + " with its state resized could not be read.");
+			} catch (IllegalArgumentException e) {
+				//As expected.
+			}
+		}
+	}
+
+	/**
+	 * Determines whether the given bytes are read as a saved game.
+	 */
+	private static boolean canRead(byte[] bytes){
+		try {
+			SavedGame.fromBytes(bytes);
+			return true;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the given save with the given number of bytes added to the end
+	 * of its game's state, or removed if negative, and a new checksum, so that
+	 * only the game can tell that the state is the wrong length.
+	 */
+	private static byte[] withStateLength(byte[] bytes, int change){
+		ByteBuffer in = ByteBuffer.wrap(bytes);
+		in.position(6);
+		in.position(in.getShort() + 16); //After the name and the time started.
+		int at = in.position() + 2, length = in.getShort();
+		ByteBuffer out = ByteBuffer.allocate(bytes.length + change);
+		out.put(bytes, 0, at - 2);
+		out.putShort((short) (length + change));
+		out.put(bytes, at, Math.min(length, length + change));
+		out.position(at + length + change); //Any added byte is 0.
+		CRC32 checksum = new CRC32();
+		checksum.update(out.array(), 0, out.position());
+		out.putInt((int) checksum.getValue());
+		return out.array();
+	}
+
+	/**
+	 * Presses and releases the mouse at the given point, as every listener of
+	 * the given panel sees it.
+	 */
+	private static void press(JPanel panel, int x, int y){
+		for(int id : new int[]{MouseEvent.MOUSE_PRESSED, MouseEvent.MOUSE_RELEASED}){
+			MouseEvent event = new MouseEvent(panel, id, System.currentTimeMillis(),
+					MouseEvent.BUTTON1_DOWN_MASK, x, y, 1, false, MouseEvent.BUTTON1);
+			for(MouseListener listener : panel.getMouseListeners()){
+				if(id == MouseEvent.MOUSE_PRESSED){
+					listener.mousePressed(event);
+				} else {
+					listener.mouseReleased(event);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Waits until there is a save, or until there is none.
+	 * @return <code>true</code> if that happened before the timeout.
+	 */
+	private static boolean waitForSave(boolean saved) throws InterruptedException {
+		for(int waited = 0; waited < TIMEOUT; waited += 50){
+			if((GameSaver.get().load() != null) == saved){
+				return true;
+			}
+			Thread.sleep(50);
+		}
+		return false;
+	}
+
+	/**
+	 * Prints that a check failed and counts it.
+	 */
+	private static void fail(String message){
+		failed++;
+		System.out.println("Failed: " + message);
+	}
+}
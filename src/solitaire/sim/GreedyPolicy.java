@@ -0,0 +1,78 @@
+package solitaire.sim;
+
+import java.util.List;
+
+import solitaire.engine.GameState;
+import solitaire.engine.KlondikeState;
+import solitaire.engine.Move;
+import solitaire.engine.Pile;
+
+/**
+ * Plays the move that leads to the position with the best {@link #value} and
+ * chooses at random between the moves that are equally good. It only looks
+ * one move ahead, so it is fast but easily led astray. To keep it from moving
+ * the same cards back and forth, it never takes back the last transfer while
+ * it has any other move.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class GreedyPolicy extends RandomPolicy {
+	@Override
+	public Move choose(GameState state, List<Move> moves){
+		GameState copy = state.copy(); //So that the given state is not changed.
+		Move best = null, last = state.lastMove();
+		int bestValue = Integer.MIN_VALUE, ties = 0;
+		for(Move move : moves){
+			if(moves.size() > 1 && reverses(move, last)){
+				continue;
+			}
+			copy.apply(move);
+			int value = value(copy);
+			copy.undo();
+
+			if(value > bestValue){
+				best = move;
+				bestValue = value;
+				ties = 1;
+			} else if(value == bestValue && random.nextInt(++ties) == 0){
+				best = move; //Each of the tied moves is as likely to be chosen.
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Determines whether the given move puts back the cards that the given last
+	 * move transferred.
+	 */
+	private static boolean reverses(Move move, Move last){
+		return last != null && move.getType() == Move.Type.TRANSFER
+				&& last.getType() == Move.Type.TRANSFER
+				&& move.getFrom() == last.getTo() && move.getTo() == last.getFrom()
+				&& move.getCount() == last.getCount();
+	}
+
+	/**
+	 * Returns how good the given position looks. For games with foundations
+	 * each card on a foundation counts for 10, each face down card for -5, and
+	 * each empty tableau for 1. Other games are valued by their score.
+	 */
+	protected int value(GameState state){
+		if(state.isWon()){
+			return Integer.MAX_VALUE;
+		} else if(!(state instanceof KlondikeState)){
+			return state.getScore();
+		}
+		KlondikeState game = (KlondikeState) state;
+		int value = 0;
+		for(int i = 0; i < game.pileCount(); i++){
+			Pile pile = game.pile(i);
+			if(game.isFoundation(i)){
+				value += 10 * pile.size();
+			} else if(game.isTableau(i)){
+				value += pile.isEmpty() ? 1 : -5 * pile.faceDown();
+			}
+		}
+		return value;
+	}
+}
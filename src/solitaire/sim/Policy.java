@@ -0,0 +1,31 @@
+package solitaire.sim;
+
+import java.util.List;
+
+import solitaire.engine.GameState;
+import solitaire.engine.Move;
+
+/**
+ * A way of choosing moves when a {@link Simulator} plays games. A policy is
+ * only used by one thread at a time and for one game at a time, so it may
+ * remember what it needs about the game that it is playing.
+ *
+ * @author Warren Godone-Maresca
+ */
+public interface Policy {
+	/**
+	 * Prepares to play a new game.
+	 * @param state	The game as it was dealt.
+	 * @param seed	The seed from which the game was dealt, which the policy
+	 * 				may use for its own random choices.
+	 */
+	void start(GameState state, long seed);
+
+	/**
+	 * Chooses the next move of a game.
+	 * @param state	The game, which must not be changed.
+	 * @param moves	The legal moves of the game, of which there is at least one.
+	 * @return One of the given moves, or <code>null</code> to stop playing.
+	 */
+	Move choose(GameState state, List<Move> moves);
+}
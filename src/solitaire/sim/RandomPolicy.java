@@ -0,0 +1,28 @@
+package solitaire.sim;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import solitaire.engine.GameState;
+import solitaire.engine.Move;
+
+/**
+ * Plays any legal move, each as likely as the others. Its results are the
+ * baseline that other policies are compared to.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class RandomPolicy implements Policy {
+	/** Chooses the moves. It is seeded by each game's seed.					*/
+	protected SplittableRandom random;
+
+	@Override
+	public void start(GameState state, long seed){
+		random = new SplittableRandom(seed);
+	}
+
+	@Override
+	public Move choose(GameState state, List<Move> moves){
+		return moves.get(random.nextInt(moves.size()));
+	}
+}
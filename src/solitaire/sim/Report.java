@@ -0,0 +1,109 @@
+package solitaire.sim;
+
+import java.util.Arrays;
+
+/**
+ * The results of a batch of games played by a {@link Simulator}.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class Report {
+	/** The number of games that were played.									*/
+	private final int games;
+
+	/** The number of games that were won.									*/
+	private final int wins;
+
+	/** The number of moves made in each game, in ascending order.			*/
+	private final int[] moves;
+
+	/** The number of nanoseconds that the batch took.						*/
+	private final long elapsed;
+
+	/**
+	 * Instantiates a report.
+	 * @param won		Whether or not each game was won.
+	 * @param moves		The number of moves made in each game.
+	 * @param elapsed	The number of nanoseconds that the batch took.
+	 */
+	public Report(boolean[] won, int[] moves, long elapsed){
+		if(won.length != moves.length){
+			throw new IllegalArgumentException("There must be a move count for each game.");
+		}
+		games = won.length;
+		int wins = 0;
+		for(boolean w : won){
+			if(w){
+				wins++;
+			}
+		}
+		this.wins = wins;
+		this.moves = moves.clone();
+		Arrays.sort(this.moves);
+		this.elapsed = elapsed;
+	}
+
+	/**
+	 * Returns the number of games that were played.
+	 */
+	public int getGames(){
+		return games;
+	}
+
+	/**
+	 * Returns the number of games that were won.
+	 */
+	public int getWins(){
+		return wins;
+	}
+
+	/**
+	 * Returns the percentage of the games that were won.
+	 */
+	public double getWinRate(){
+		return games == 0 ? 0 : wins * 100.0 / games;
+	}
+
+	/**
+	 * Returns the mean number of moves made in a game.
+	 */
+	public double getMeanMoves(){
+		long total = 0;
+		for(int m : moves){
+			total += m;
+		}
+		return games == 0 ? 0 : (double) total / games;
+	}
+
+	/**
+	 * Returns the number of moves that the given percentage of the games did
+	 * not exceed, by the nearest rank.
+	 * @param percent A number from 0 to 100.
+	 */
+	public int getMovesPercentile(double percent){
+		if(percent < 0 || percent > 100){
+			throw new IllegalArgumentException("Invalid percentile: " + percent);
+		} else if(games == 0){
+			return 0;
+		}
+		int rank = (int) Math.ceil(percent / 100 * games);
+		return moves[Math.max(0, rank - 1)];
+	}
+
+	/**
+	 * Returns the number of games that were played per second.
+	 */
+	public double getThroughput(){
+		return elapsed == 0 ? 0 : games * 1e9 / elapsed;
+	}
+
+	@Override
+	public String toString(){
+		return String.format("Games: %d%nWins: %d (%.2f%%)%n"
+				+ "Moves: mean %.1f, p50 %d, p90 %d, p99 %d%n"
+				+ "Throughput: %.1f deals/sec",
+				games, wins, getWinRate(), getMeanMoves(),
+				getMovesPercentile(50), getMovesPercentile(90),
+				getMovesPercentile(99), getThroughput());
+	}
+}
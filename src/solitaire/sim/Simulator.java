@@ -0,0 +1,237 @@
+package solitaire.sim;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+import solitaire.engine.GameState;
+import solitaire.engine.KlondikeState;
+import solitaire.engine.Move;
+import solitaire.engine.Variant;
+
+/**
+ * Plays batches of games of one {@link Variant} to measure how often a
+ * {@link Policy} wins them. The game with seed <code>s</code> is always dealt
+ * the same way, so batches with the same seeds can be compared across
+ * policies and rules. The games are split between the threads of a
+ * {@link ForkJoinPool}, each range of seeds with its own policy.
+ * <p>
+ * It may be run from the command line:
+ * <pre>
+ * java solitaire.sim.Simulator variant games [random|greedy|solver]
+ * 		[seed] [threads] [maxMoves] [recycles] [year]
+ * </pre>
+ * The year is that of the games of Anno Domini, which is the current year if
+ * it is not given.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class Simulator {
+	/** The largest number of games that are played by one task.				*/
+	private static final int THRESHOLD = 64;
+
+	/** The variant that is played.											*/
+	private final Variant variant;
+
+	/** Makes a policy for each task.											*/
+	private final Supplier<? extends Policy> policies;
+
+	/** The number of moves after which a game is given up.					*/
+	private final int maxMoves;
+
+	/** The number of times the waste may be turned over, or -1 to keep the
+	 *  limit of the variant.													*/
+	private final int recycleLimit;
+
+	/** The year for which games of Anno Domini are dealt.					*/
+	private final int year;
+
+	/**
+	 * Instantiates a simulator that deals Anno Domini for the current year.
+	 * @param variant		The variant that is played.
+	 * @param policies		Makes a policy for each range of games.
+	 * @param maxMoves		The number of moves after which a game is given up.
+	 * @param recycleLimit	The number of times the waste may be turned over to
+	 * 						the stock, or -1 to keep the limit of the variant.
+	 */
+	public Simulator(Variant variant, Supplier<? extends Policy> policies,
+			int maxMoves, int recycleLimit){
+		this(variant, policies, maxMoves, recycleLimit, Variant.currentYear());
+	}
+
+	/**
+	 * Instantiates a simulator.
+	 * @param variant		The variant that is played.
+	 * @param policies		Makes a policy for each range of games.
+	 * @param maxMoves		The number of moves after which a game is given up.
+	 * @param recycleLimit	The number of times the waste may be turned over to
+	 * 						the stock, or -1 to keep the limit of the variant.
+	 * @param year			The year for which games of Anno Domini are dealt.
+	 */
+	public Simulator(Variant variant, Supplier<? extends Policy> policies,
+			int maxMoves, int recycleLimit, int year){
+		if(maxMoves <= 0){
+			throw new IllegalArgumentException("maxMoves must be positive: " + maxMoves);
+		}
+		if(year < 1000 || year > 9999){
+			throw new IllegalArgumentException("The year must have four digits: " + year);
+		}
+		this.variant = variant;
+		this.policies = policies;
+		this.maxMoves = maxMoves;
+		this.recycleLimit = recycleLimit;
+		this.year = year;
+	}
+
+	/**
+	 * Plays the games with the seeds from <code>firstSeed</code> to
+	 * <code>firstSeed + games - 1</code>.
+	 * @param parallelism The number of threads to use.
+	 */
+	public Report run(final long firstSeed, int games, int parallelism){
+		final boolean[] won = new boolean[games];
+		final int[] moves = new int[games];
+
+		long start = System.nanoTime();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new Batch(firstSeed, won, moves, 0, games));
+		} finally {
+			pool.shutdown();
+		}
+		return new Report(won, moves, System.nanoTime() - start);
+	}
+
+	/**
+	 * Plays the games of a range of seeds, splitting the range in two while it
+	 * is larger than THRESHOLD.
+	 */
+	private class Batch extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final long firstSeed;
+		private final boolean[] won;
+		private final int[] moves;
+		/** The range of games to play, from <code>from</code> to
+		 *  <code>to - 1</code>.													*/
+		private final int from, to;
+
+		Batch(long firstSeed, boolean[] won, int[] moves, int from, int to){
+			this.firstSeed = firstSeed;
+			this.won = won;
+			this.moves = moves;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute(){
+			if(to - from > THRESHOLD){
+				int middle = (from + to) >>> 1;
+				invokeAll(new Batch(firstSeed, won, moves, from, middle),
+						new Batch(firstSeed, won, moves, middle, to));
+				return;
+			}
+			Policy policy = policies.get();
+			for(int i = from; i < to; i++){
+				GameState state = play(policy, firstSeed + i);
+				won[i] = state.isWon();
+				moves[i] = state.getMoves();
+			}
+		}
+	}
+
+	/**
+	 * Plays the game with the given seed until it is won, the policy gives up,
+	 * there are no legal moves, or maxMoves have been made.
+	 * @return The game as it was left.
+	 */
+	public GameState play(Policy policy, long seed){
+		GameState state = variant.deal(seed, year);
+		if(recycleLimit >= 0 && state instanceof KlondikeState){
+			((KlondikeState) state).setRecycleLimit(recycleLimit);
+		}
+		policy.start(state, seed);
+
+		while(!state.isWon() && state.getMoves() < maxMoves){
+			List<Move> legal = state.legalMoves();
+			Move move = legal.isEmpty() ? null : policy.choose(state, legal);
+			if(move == null){
+				break;
+			}
+			state.apply(move);
+		}
+		return state;
+	}
+
+	/**
+	 * Returns a maker of the policy with the given name: random, greedy or
+	 * solver.
+	 */
+	public static Supplier<Policy> policy(String name){
+		switch(name.toLowerCase(Locale.ROOT)){
+		case "random":
+			return new Supplier<Policy>(){
+				public Policy get(){
+					return new RandomPolicy();
+				}
+			};
+		case "greedy":
+			return new Supplier<Policy>(){
+				public Policy get(){
+					return new GreedyPolicy();
+				}
+			};
+		case "solver":
+			return new Supplier<Policy>(){
+				public Policy get(){
+					return new SolverPolicy();
+				}
+			};
+		default:
+			throw new IllegalArgumentException("Unknown policy: " + name);
+		}
+	}
+
+	/**
+	 * Runs a batch of games from the command line and prints its report.
+	 */
+	public static void main(String[] args){
+		try {
+			if(args.length < 2 || args.length > 8){
+				throw new IllegalArgumentException("Wrong number of arguments.");
+			}
+			Variant variant = Variant.valueOf(args[0].toUpperCase(Locale.ROOT));
+			int games = Integer.parseInt(args[1]);
+			Supplier<Policy> policies = policy(args.length > 2 ? args[2] : "random");
+			long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+			int threads = args.length > 4 ? Integer.parseInt(args[4])
+					: Runtime.getRuntime().availableProcessors();
+			int maxMoves = args.length > 5 ? Integer.parseInt(args[5]) : 1000;
+			int recycles = args.length > 6 ? Integer.parseInt(args[6]) : -1;
+			int year = args.length > 7 ? Integer.parseInt(args[7]) : Variant.currentYear();
+			if(games <= 0 || threads <= 0){
+				throw new IllegalArgumentException("games and threads must be positive.");
+			}
+
+			Report report = new Simulator(variant, policies, maxMoves, recycles, year)
+					.run(seed, games, threads);
+			System.out.println(variant + (variant == Variant.ANNO_DOMINI ? " " + year : "")
+					+ ", " + args[1] + " games, "
+					+ (args.length > 2 ? args[2] : "random") + " policy");
+			System.out.println(report);
+		} catch(IllegalArgumentException e){ //Includes NumberFormatException.
+			System.err.println(e.getMessage());
+			System.err.println("Usage: java solitaire.sim.Simulator variant games"
+					+ " [random|greedy|solver] [seed] [threads] [maxMoves] [recycles] [year]");
+			System.err.print("Variants:");
+			for(Variant v : Variant.values()){
+				System.err.print(" " + v);
+			}
+			System.err.println();
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package solitaire.sim;
+
+import java.util.List;
+
+import solitaire.engine.FreeCellState;
+import solitaire.engine.GameState;
+import solitaire.engine.KlondikeState;
+import solitaire.engine.Move;
+import solitaire.engine.PyramidState;
+import solitaire.engine.SpiderState;
+import solitaire.solver.FreeCellSolver;
+import solitaire.solver.KlondikeSolver;
+import solitaire.solver.PyramidSolver;
+import solitaire.solver.Result;
+import solitaire.solver.SpiderSolver;
+
+/**
+ * Plays the moves that the game's solver finds when the game is dealt. If the
+ * solver finds no plan, or the plan runs out before the game is won, the moves
+ * are chosen as by a {@link GreedyPolicy}.
+ * <p>
+ * FreeCell, Spider and Pyramid use their own solvers. Every other game with
+ * foundations uses the {@link KlondikeSolver}, which is only tuned for Klondike.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class SolverPolicy extends GreedyPolicy {
+	/** The solvers of this policy, which are made when they are first needed.	*/
+	private KlondikeSolver klondikeSolver;
+	private FreeCellSolver freeCellSolver;
+	private SpiderSolver spiderSolver;
+
+	/** The moves that the solver found.										*/
+	private List<Move> plan;
+
+	/** The number of moves of the plan that have been played.				*/
+	private int next;
+
+	@Override
+	public void start(GameState state, long seed){
+		super.start(state, seed);
+		plan = solve(state).getMoves();
+		next = 0;
+	}
+
+	@Override
+	public Move choose(GameState state, List<Move> moves){
+		if(next < plan.size() && moves.contains(plan.get(next))){
+			return plan.get(next++);
+		}
+		next = plan.size(); //The plan no longer fits the game.
+		return super.choose(state, moves);
+	}
+
+	/**
+	 * Returns the result of the solver for the given game. Subclasses of
+	 * KlondikeState are checked first, since they have their own solvers.
+	 */
+	private Result solve(GameState state){
+		if(state instanceof FreeCellState){
+			if(freeCellSolver == null){
+				freeCellSolver = new FreeCellSolver(200000, 1000);
+			}
+			return freeCellSolver.solve((FreeCellState) state);
+		} else if(state instanceof SpiderState){
+			if(spiderSolver == null){
+				spiderSolver = new SpiderSolver(100, 50000, 64L << 20);
+			}
+			return spiderSolver.solve((SpiderState) state);
+		} else if(state instanceof PyramidState){
+			//A Pyramid solver may only be used for one deal.
+			return new PyramidSolver().solve((PyramidState) state);
+		} else if(state instanceof KlondikeState){
+			if(klondikeSolver == null){
+				klondikeSolver = new KlondikeSolver(100000, 1000);
+			}
+			return klondikeSolver.solve((KlondikeState) state);
+		}
+		throw new IllegalArgumentException("No solver for " + state.getClass().getName());
+	}
+}
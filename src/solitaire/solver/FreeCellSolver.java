@@ -0,0 +1,282 @@
+package solitaire.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import card.CardSet;
+import card.Cards;
+import solitaire.engine.FreeCellState;
+import solitaire.engine.Move;
+import solitaire.engine.Pile;
+
+/**
+ * Solves games of FreeCell with a weighted A* search. The positions waiting to
+ * be searched are ordered by the number of moves made to reach them plus
+ * {@link #WEIGHT} times an estimate of the number of moves left, so positions
+ * that look closer to a win are searched first.
+ * <p>
+ * Runs of cards are moved as single moves, with as many cards as the empty
+ * cells and tableaux allow, as in {@link solitaire.FreeCell}. Positions
+ * are recognized by {@link Zobrist#hash(FreeCellState)}, for which the order of
+ * the tableaux and of the cells does not matter. Safe moves to the foundations
+ * are made right after every move.
+ * <p>
+ * The estimate counts the cards that are not on a foundation, plus each card
+ * that lies above a lower card of its suit, since it must be moved once to
+ * uncover that card and once more to its own foundation. Whether a card blocks
+ * another is looked up in a table of every pair of cards that is computed once.
+ * <p>
+ * Each position waiting to be searched keeps its cards in a small array, so
+ * the memory that a search uses is bounded by its node limit. A solver is not
+ * thread safe; each thread should use its own.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class FreeCellSolver {
+	/** How much more the estimate of the moves left counts than the moves
+	 *  made. Larger weights find solutions faster but longer.				*/
+	private static final int WEIGHT = 5;
+
+	/** For each card, the set of cards that it blocks if it lies above them
+	 *  in a tableau: the lower cards of its suit.							*/
+	private static final long[] BLOCKS = new long[Cards.DECK_SIZE];
+
+	static {
+		for(int card = 0; card < Cards.DECK_SIZE; card++){
+			for(int value = 1; value < Cards.value(card); value++){
+				BLOCKS[card] = CardSet.add(BLOCKS[card],
+						Cards.code(Cards.suit(card), value));
+			}
+		}
+	}
+
+	/**
+	 * A position that is waiting to be searched or has been searched.
+	 */
+	private static class Node {
+		/** The sizes and cards of the position's piles.						*/
+		final byte[] layout;
+		/** The position from which this one was reached.					*/
+		final Node parent;
+		/** The moves from the parent to this position.						*/
+		final Move[] moves;
+		/** The number of moves chosen to reach this position.				*/
+		final int cost;
+		/** The cost plus the weighted estimate of the moves left.			*/
+		final int priority;
+
+		Node(byte[] layout, Node parent, Move[] moves, int cost, int priority){
+			this.layout = layout;
+			this.parent = parent;
+			this.moves = moves;
+			this.cost = cost;
+			this.priority = priority;
+		}
+	}
+
+	/** The number of positions that may be kept.								*/
+	private final int nodeLimit;
+
+	/** The number of milliseconds that the search may run.					*/
+	private final long timeBudget;
+
+	/** The positions that have been reached.									*/
+	private final TranspositionTable table;
+
+	/** The state in which positions are expanded.							*/
+	private FreeCellState state;
+
+	/** The cards of a pile while a position is restored.						*/
+	private final byte[] buffer = new byte[Cards.DECK_SIZE];
+
+	/**
+	 * Instantiates a solver.
+	 * @param nodeLimit	 The number of positions that may be kept.
+	 * @param timeBudget The number of milliseconds that a search may run.
+	 */
+	public FreeCellSolver(int nodeLimit, long timeBudget){
+		this.nodeLimit = nodeLimit;
+		this.timeBudget = timeBudget;
+		table = new TranspositionTable(Math.max(1024, nodeLimit * 2));
+	}
+
+	/**
+	 * Searches the given game. The given state is not changed.
+	 * @return The verdict and, if the game can be won, the moves that win it.
+	 */
+	public Result solve(FreeCellState start){
+		state = start.copy();
+		table.clear();
+		long deadline = System.nanoTime() + timeBudget * 1000000;
+		PriorityQueue<Node> open = new PriorityQueue<Node>(1024, new Comparator<Node>(){
+			public int compare(Node a, Node b){
+				return a.priority != b.priority ? a.priority - b.priority
+						: b.cost - a.cost; //Deeper positions first.
+			}
+		});
+
+		List<Move> safe = new ArrayList<Move>();
+		makeSafeMoves(safe);
+		Node root = new Node(layout(), null, safe.toArray(new Move[safe.size()]),
+				0, 0);
+		if(state.isWon()){
+			return win(root, 1);
+		}
+		table.add(Zobrist.hash(state));
+		open.add(root);
+
+		int kept = 1, nodes = 0; //The positions that were kept and expanded.
+		List<Move> moves = new ArrayList<Move>();
+		while(!open.isEmpty()){
+			if(kept >= nodeLimit || System.nanoTime() > deadline){
+				return new Result(Result.Verdict.UNKNOWN, new ArrayList<Move>(), nodes);
+			}
+			Node node = open.poll();
+			restore(node.layout);
+			nodes++;
+
+			moves.clear();
+			state.legalMoves(moves);
+			for(Move move : moves){
+				if(!isWorthSearching(move)){
+					continue;
+				}
+				safe.clear();
+				safe.add(move);
+				state.apply(move);
+				makeSafeMoves(safe);
+
+				if(state.isWon()){
+					return win(new Node(null, node,
+							safe.toArray(new Move[safe.size()]), 0, 0), nodes);
+				} else if(table.add(Zobrist.hash(state))){
+					int cost = node.cost + 1;
+					open.add(new Node(layout(), node,
+							safe.toArray(new Move[safe.size()]), cost,
+							cost + WEIGHT * estimate()));
+					kept++;
+				}
+				for(int i = 0; i < safe.size(); i++){
+					state.undo();
+				}
+			}
+		}
+		return new Result(Result.Verdict.LOSS, new ArrayList<Move>(), nodes);
+	}
+
+	/**
+	 * Returns a move that leads to a win from the given game, or
+	 * <code>null</code> if no such move was found.
+	 */
+	public Move hint(FreeCellState start){
+		List<Move> moves = solve(start).getMoves();
+		return moves.isEmpty() ? null : moves.get(0);
+	}
+
+	/**
+	 * Returns the result of a win that ends with the given node.
+	 */
+	private Result win(Node last, long nodes){
+		List<Move[]> steps = new ArrayList<Move[]>();
+		for(Node node = last; node != null; node = node.parent){
+			steps.add(node.moves);
+		}
+		Collections.reverse(steps);
+
+		List<Move> moves = new ArrayList<Move>();
+		for(Move[] step : steps){
+			Collections.addAll(moves, step);
+		}
+		return new Result(Result.Verdict.WIN, moves, nodes);
+	}
+
+	/**
+	 * Makes the safe moves to the foundations of the current state until
+	 * there are none, and adds them to the given list.
+	 */
+	private void makeSafeMoves(List<Move> made){
+		for(int i = 0; i < state.pileCount(); i++){
+			int card = state.pile(i).top();
+			int foundation = card < 0 || state.isFoundation(i) ? -1
+					: state.foundationFor(card);
+			if(foundation >= 0 && state.isSafeToFound(card)){
+				Move move = Move.transfer(i, foundation, 1);
+				state.apply(move);
+				made.add(move);
+				i = -1; //Other cards may have become safe.
+			}
+		}
+	}
+
+	/**
+	 * Determines whether the given move could lead to a position that differs
+	 * from the current one in more than the order of its piles. Moving a card
+	 * between cells or a whole tableau to an empty one does not.
+	 */
+	private boolean isWorthSearching(Move move){
+		int from = move.getFrom(), to = move.getTo();
+		if(state.isCell(from) && state.isCell(to)){
+			return false;
+		}
+		return !(state.isTableau(from) && state.isTableau(to)
+				&& state.pile(to).isEmpty()
+				&& state.pile(from).size() == move.getCount());
+	}
+
+	/**
+	 * Returns an estimate of the number of moves needed to win from the current
+	 * state.
+	 */
+	private int estimate(){
+		int estimate = 0;
+		for(int i = 0; i < state.pileCount(); i++){
+			if(!state.isFoundation(i)){
+				estimate += state.pile(i).size();
+			}
+		}
+		for(int i = 0; i < state.getTableauCount(); i++){
+			Pile pile = state.pile(i);
+			long below = CardSet.EMPTY; //The cards below the current one.
+			for(int j = 0; j < pile.size(); j++){
+				int card = pile.get(j);
+				if((BLOCKS[card] & below) != 0){
+					estimate++; //The card must be moved out of the way.
+				}
+				below = CardSet.add(below, card);
+			}
+		}
+		return estimate;
+	}
+
+	/**
+	 * Returns the sizes and cards of the piles of the current state.
+	 */
+	private byte[] layout(){
+		byte[] layout = new byte[state.pileCount() + Cards.DECK_SIZE];
+		int n = 0;
+		for(int i = 0; i < state.pileCount(); i++){
+			Pile pile = state.pile(i);
+			layout[n++] = (byte) pile.size();
+			for(int j = 0; j < pile.size(); j++){
+				layout[n++] = (byte) pile.get(j);
+			}
+		}
+		return layout;
+	}
+
+	/**
+	 * Sets the piles of the current state to the given layout.
+	 */
+	private void restore(byte[] layout){
+		int n = 0;
+		for(int i = 0; i < state.pileCount(); i++){
+			int size = layout[n++];
+			System.arraycopy(layout, n, buffer, 0, size);
+			n += size;
+			state.pile(i).setCards(buffer, size, 0);
+		}
+	}
+}
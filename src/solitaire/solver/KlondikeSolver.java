@@ -0,0 +1,281 @@
+package solitaire.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import solitaire.engine.KlondikeState;
+import solitaire.engine.Move;
+import solitaire.engine.Pile;
+
+/**
+ * Determines whether a game of Klondike can be won with a depth first search of
+ * its moves. Positions that were already reached are recognized by their
+ * {@link Zobrist} hash in a {@link TranspositionTable}, so each is searched once
+ * no matter how many orders of moves lead to it.
+ * <p>
+ * To keep the search small:
+ * <ul>
+ * <li>Moves to a foundation that are safe (see
+ * 		{@link KlondikeState#isSafeToFound(int)}) are made at once without trying
+ * 		any other move.
+ * <li>Drawing from the stock is never searched by itself. Instead, each card
+ * 		that some number of draws would put on top of the waste may be moved,
+ * 		along with those draws. Draws do not change the rest of the layout, so
+ * 		this finds the same wins without the positions in between.
+ * <li>Moves to a foundation are tried first, then moves that turn a face down
+ * 		card, then moves from the waste with the fewest draws, and the other
+ * 		moves last.
+ * <li>Of the moves that put the same cards on an empty pile, only the one to
+ * 		the first empty pile is tried, and a whole tableau is never moved to an
+ * 		empty tableau.
+ * </ul>
+ * The search stops when it has visited a given number of positions or run for
+ * a given time, in which case the verdict is {@link Result.Verdict#UNKNOWN}.
+ * <p>
+ * The solver works on any {@link KlondikeState}, which includes Yukon and Anno
+ * Domini, but its ordering of moves is tuned for Klondike. A solver is not
+ * thread safe; each thread should use its own.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class KlondikeSolver {
+	/** The longest sequence of moves that is searched.						*/
+	private static final int MAX_DEPTH = 1000;
+
+	/** The number of positions that may be searched.							*/
+	private final long nodeBudget;
+
+	/** The number of milliseconds that the search may run.					*/
+	private final long timeBudget;
+
+	/** The positions that have been reached.									*/
+	private final TranspositionTable table;
+
+	/** The state being searched, which is a copy of the given state.			*/
+	private KlondikeState state;
+
+	/** The moves from the given state to the current one.					*/
+	private List<Move> path;
+
+	/** The number of positions that have been searched.						*/
+	private long nodes;
+
+	/** The value of System.nanoTime() at which the search must stop.			*/
+	private long deadline;
+
+	/** Whether or not some positions were not searched, so that a failed
+	 *  search does not prove that the game is lost.							*/
+	private boolean incomplete;
+
+	/**
+	 * Instantiates a solver.
+	 * @param nodeBudget The number of positions that may be searched.
+	 * @param timeBudget The number of milliseconds that a search may run.
+	 */
+	public KlondikeSolver(long nodeBudget, long timeBudget){
+		this.nodeBudget = nodeBudget;
+		this.timeBudget = timeBudget;
+		table = new TranspositionTable((int) Math.min(1 << 22, Math.max(1024, nodeBudget * 2)));
+	}
+
+	/**
+	 * Searches the given game. The given state is not changed.
+	 * @return The verdict and, if the game can be won, the moves that win it.
+	 */
+	public Result solve(KlondikeState start){
+		state = start.copy();
+		path = new ArrayList<Move>();
+		nodes = 0;
+		incomplete = false;
+		deadline = System.nanoTime() + timeBudget * 1000000;
+		table.clear();
+
+		if(search(0)){
+			return new Result(Result.Verdict.WIN, new ArrayList<Move>(path), nodes);
+		} else if(incomplete){
+			return new Result(Result.Verdict.UNKNOWN, new ArrayList<Move>(), nodes);
+		}
+		return new Result(Result.Verdict.LOSS, new ArrayList<Move>(), nodes);
+	}
+
+	/**
+	 * Returns a move that leads to a win from the given game, or
+	 * <code>null</code> if no such move was found.
+	 */
+	public Move hint(KlondikeState start){
+		List<Move> moves = solve(start).getMoves();
+		return moves.isEmpty() ? null : moves.get(0);
+	}
+
+	/**
+	 * Searches the current state. If it leads to a win, the moves that win it
+	 * are left on the path and in the state. Otherwise both are as they were.
+	 * @param depth The number of moves on the path.
+	 * @return <code>true</code> if the state leads to a win.
+	 */
+	private boolean search(int depth){
+		if(state.isWon()){
+			return true;
+		} else if(depth >= MAX_DEPTH || outOfBudget()){
+			incomplete = true;
+			return false;
+		} else if(!table.add(Zobrist.hash(state))){
+			return false; //The state has already been searched.
+		}
+		nodes++;
+
+		int forced = 0; //The number of safe moves that were made.
+		for(Move safe = safeMove(); safe != null; safe = safeMove()){
+			state.apply(safe);
+			path.add(safe);
+			forced++;
+		}
+		if(forced > 0 && state.isWon()){
+			return true;
+		}
+
+		for(Move[] moves : candidates()){
+			for(Move move : moves){
+				state.apply(move);
+				path.add(move);
+			}
+			if(search(depth + forced + moves.length)){
+				return true;
+			}
+			undo(moves.length);
+			if(incomplete && outOfBudget()){
+				break; //No other move can be searched.
+			}
+		}
+
+		undo(forced);
+		return false;
+	}
+
+	/**
+	 * Undoes the given number of moves and removes them from the path.
+	 */
+	private void undo(int count){
+		for(int i = 0; i < count; i++){
+			state.undo();
+			path.remove(path.size() - 1);
+		}
+	}
+
+	/**
+	 * Determines whether the node or time budget is spent. The clock is only
+	 * read every 1024 nodes.
+	 */
+	private boolean outOfBudget(){
+		return nodes >= nodeBudget
+				|| ((nodes & 1023) == 0 && System.nanoTime() > deadline);
+	}
+
+	/**
+	 * Returns a safe move of a single card to a foundation, or
+	 * <code>null</code> if there is none.
+	 */
+	private Move safeMove(){
+		for(Move move : state.legalMoves()){
+			if(move.getType() == Move.Type.TRANSFER && move.getCount() == 1
+					&& state.isFoundation(move.getTo())
+					&& state.isSafeToFound(state.pile(move.getFrom()).top())){
+				return move;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the sequences of moves from the current state that are worth
+	 * searching, in the order in which they are to be tried. Each sequence ends
+	 * with a transfer, which for a card of the waste follows the draws (and
+	 * turns of the waste) that bring it to the top. The stock and waste are
+	 * gone through at most once, after which they are as they were.
+	 */
+	private List<Move[]> candidates(){
+		List<Move[]> ordered = new ArrayList<Move[]>();
+		List<Integer> scores = new ArrayList<Integer>();
+		boolean[] emptyUsed = new boolean[64 * 3];
+		List<Move> draws = new ArrayList<Move>(); //The draws made so far.
+		int stock = state.getStock(), waste = state.getWaste();
+		int stockSize = stock < 0 ? 0 : state.pile(stock).size();
+		int wasteSize = waste < 0 ? 0 : state.pile(waste).size();
+
+		List<Move> moves = state.legalMoves();
+		while(true){
+			for(Move move : moves){
+				if(move.getType() != Move.Type.TRANSFER){
+					continue; //Draws are only made before a transfer.
+				}
+				int score = score(move, emptyUsed);
+				if(score < 0){
+					continue; //The move is not worth searching.
+				}
+				Move[] sequence = draws.toArray(new Move[draws.size() + 1]);
+				sequence[draws.size()] = move;
+
+				//Insertion by descending score, keeping the order of equals.
+				int i = ordered.size();
+				while(i > 0 && scores.get(i - 1) < score){
+					i--;
+				}
+				ordered.add(i, sequence);
+				scores.add(i, score);
+			}
+
+			Move draw = state.drawMove();
+			if(draw == null){
+				break;
+			}
+			state.apply(draw);
+			draws.add(draw);
+			if(state.pile(stock).size() == stockSize
+					&& state.pile(waste).size() == wasteSize){
+				break; //Every card of the stock and waste has been on top.
+			}
+			moves.clear();
+			state.legalMovesFrom(waste, moves);
+		}
+
+		for(int i = 0; i < draws.size(); i++){
+			state.undo();
+		}
+		return ordered;
+	}
+
+	/**
+	 * Returns how early the given transfer should be tried, or -1 if it need
+	 * not be.
+	 * @param emptyUsed Marks the (bottom card, kind of destination) that have
+	 * 					already been moved to an empty pile.
+	 */
+	private int score(Move move, boolean[] emptyUsed){
+		Pile from = state.pile(move.getFrom()), to = state.pile(move.getTo());
+		int bottom = from.size() - move.getCount(); //The position of the bottom
+													//card that is moved.
+		if(to.isEmpty()){
+			if(state.isTableau(move.getFrom()) && state.isTableau(move.getTo())
+					&& bottom == 0){
+				return -1; //Moving a whole tableau to an empty one changes nothing.
+			}
+			int kind = state.isTableau(move.getTo()) ? 0
+					: state.isFoundation(move.getTo()) ? 1 : 2;
+			int key = (from.get(bottom) & 63) * 3 + kind;
+			if(emptyUsed[key]){
+				return -1; //The same cards were already moved to an empty pile.
+			}
+			emptyUsed[key] = true;
+		}
+
+		if(state.isFoundation(move.getTo())){
+			return 4;
+		} else if(state.isTableau(move.getFrom()) && bottom > 0
+				&& bottom == from.faceDown()){
+			return 3; //Turns a face down card.
+		} else if(!state.isTableau(move.getFrom())){
+			return 2;
+		}
+		return 1;
+	}
+}
@@ -0,0 +1,217 @@
+package solitaire.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import solitaire.engine.Move;
+import solitaire.engine.PyramidState;
+
+/**
+ * Solves games of Aztec Pyramid exactly. Every position of a deal is described
+ * by which slots of the pyramid are empty, how many cards are left in each
+ * tableau, and which card is in the free slot, so a position fits in a
+ * <code>long</code>. For each position that is reached, the solver remembers
+ * the most removals that can still be made and the most that can be made
+ * while clearing the pyramid, so each position is only searched once.
+ * <p>
+ * Cards never go back from the free slot, so no position can be reached from
+ * itself and the search always ends. Once the pyramid is clear the game is
+ * over and nothing more is scored.
+ * <p>
+ * The positions that were searched are kept between calls, so that a hint
+ * after the par score of a deal has been found takes no time. Since a position
+ * is only described by which cards are gone from where they were dealt, a
+ * solver must only be used for the positions of one deal. A solver is not
+ * thread safe; each thread should use its own.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class PyramidSolver {
+	/** The value of a position from which the pyramid can not be cleared.	*/
+	private static final int NOT_CLEARABLE = 0xFF;
+
+	/** The keys of the positions that were searched, plus 1 so that 0 marks
+	 *  an empty slot.														*/
+	private long[] keys = new long[1 << 12];
+
+	/** The values of the positions that were searched. The low byte is the
+	 *  most removals that can be made and the next is the most removals
+	 *  that clear the pyramid, or NOT_CLEARABLE.							*/
+	private int[] values = new int[keys.length];
+
+	/** The number of positions that have been searched.					*/
+	private int size;
+
+	/** The state being searched, which is a copy of the given state.			*/
+	private PyramidState state;
+
+	/**
+	 * Searches the given game. The given state is not changed.
+	 * @return {@link Result.Verdict#WIN} and the moves that clear the pyramid
+	 * 		   with the most points, or {@link Result.Verdict#LOSS} and the moves
+	 * 		   that score the most points if it can not be cleared. The score
+	 * 		   of the result is the points of those moves, not counting the
+	 * 		   points that the given state already has.
+	 */
+	public Result solve(PyramidState start){
+		state = start.copy();
+
+		int value = search();
+		boolean clearable = clears(value) != NOT_CLEARABLE;
+		List<Move> moves = new ArrayList<Move>();
+		int removals = clearable ? clears(value) : removals(value);
+
+		//Follows the moves whose values add up to the best one.
+		for(int left = removals; left > 0 && !state.isWon(); ){
+			Move next = null;
+			for(Move move : state.legalMoves()){
+				int gain = gain(move);
+				state.apply(move);
+				int child = search();
+				int rest = clearable ? clears(child) : removals(child);
+				if(rest != NOT_CLEARABLE && gain + rest == left){
+					next = move;
+					left = rest;
+					break;
+				}
+				state.undo();
+			}
+			if(next == null){
+				break; //No more points can be scored.
+			}
+			moves.add(next);
+		}
+		return new Result(clearable ? Result.Verdict.WIN : Result.Verdict.LOSS,
+				moves, size, removals * PyramidState.POINTS);
+	}
+
+	/**
+	 * Returns the move that leads to the result of
+	 * {@link #solve(PyramidState)}, or <code>null</code> if there is none.
+	 */
+	public Move hint(PyramidState start){
+		List<Move> moves = solve(start).getMoves();
+		return moves.isEmpty() ? null : moves.get(0);
+	}
+
+	/**
+	 * Returns the most points that can be scored from the given game, whether
+	 * or not the pyramid is cleared.
+	 */
+	public int parScore(PyramidState start){
+		state = start.copy();
+		return removals(search()) * PyramidState.POINTS;
+	}
+
+	/**
+	 * Returns the value of the current state, searching it if it has not been
+	 * searched.
+	 */
+	private int search(){
+		long key = key();
+		int slot = find(key);
+		if(keys[slot] != 0){
+			return values[slot];
+		}
+
+		int removals = 0, clears = state.isWon() ? 0 : NOT_CLEARABLE;
+		if(!state.isWon()){
+			for(Move move : state.legalMoves()){
+				int gain = gain(move);
+				state.apply(move);
+				int child = search();
+				state.undo();
+
+				removals = Math.max(removals, gain + removals(child));
+				if(clears(child) != NOT_CLEARABLE && (clears == NOT_CLEARABLE
+						|| gain + clears(child) > clears)){
+					clears = gain + clears(child);
+				}
+			}
+		}
+		int value = removals | clears << 8;
+		put(key, value);
+		return value;
+	}
+
+	/**
+	 * Returns the number of removals made by the given move.
+	 */
+	private static int gain(Move move){
+		return move.getType() == Move.Type.TRANSFER ? 0 : 1;
+	}
+
+	/**
+	 * Returns the most removals that can be made from a position of the given
+	 * value.
+	 */
+	private static int removals(int value){
+		return value & 0xFF;
+	}
+
+	/**
+	 * Returns the most removals that clear the pyramid from a position of the
+	 * given value, or NOT_CLEARABLE.
+	 */
+	private static int clears(int value){
+		return value >>> 8;
+	}
+
+	/**
+	 * Returns the key of the current state: a bit for each empty slot of the
+	 * pyramid, then 3 bits for the size of each tableau, then 6 bits for the
+	 * card in the free slot plus 1, or 0 if it is empty.
+	 */
+	private long key(){
+		long key = 0;
+		for(int s = 0; s < PyramidState.SLOTS; s++){
+			if(state.pile(s).isEmpty()){
+				key |= 1L << s;
+			}
+		}
+		int shift = PyramidState.SLOTS;
+		for(int i = PyramidState.FIRST_TABLEAU; i < PyramidState.FREE_SLOT; i++){
+			key |= (long) state.pile(i).size() << shift;
+			shift += 3;
+		}
+		return key | (long) (state.pile(PyramidState.FREE_SLOT).top() + 1) << shift;
+	}
+
+	/**
+	 * Returns the slot that holds the given key, or the empty slot where it
+	 * would go.
+	 */
+	private int find(long key){
+		long stored = key + 1;
+		int mask = keys.length - 1;
+		int slot = (int) Zobrist.mix(key) & mask;
+		while(keys[slot] != 0 && keys[slot] != stored){
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Remembers the value of the position with the given key, growing the
+	 * table when it is half full.
+	 */
+	private void put(long key, int value){
+		if(2 * (size + 1) > keys.length){
+			long[] oldKeys = keys;
+			int[] oldValues = values;
+			keys = new long[oldKeys.length * 2];
+			values = new int[keys.length];
+			for(int i = 0; i < oldKeys.length; i++){
+				if(oldKeys[i] != 0){
+					int slot = find(oldKeys[i] - 1);
+					keys[slot] = oldKeys[i];
+					values[slot] = oldValues[i];
+				}
+			}
+		}
+		int slot = find(key);
+		keys[slot] = key + 1;
+		values[slot] = value;
+		size++;
+	}
+}
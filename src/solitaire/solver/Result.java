@@ -0,0 +1,98 @@
+package solitaire.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import solitaire.engine.Move;
+
+/**
+ * The result of solving a game: whether the game can be won and, if it can, the
+ * moves that win it.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class Result {
+	/**
+	 * Whether or not a game can be won.
+	 */
+	public enum Verdict {
+		/** The game can be won with the moves of the result.					*/
+		WIN,
+		/** Every reachable position was searched and none is won.			*/
+		LOSS,
+		/** The search ran out of nodes or time before it could tell.			*/
+		UNKNOWN
+	}
+
+	/** Whether or not the game can be won.									*/
+	private final Verdict verdict;
+
+	/** The moves that win the game or, failing that, score the most.		*/
+	private final List<Move> moves;
+
+	/** The number of positions that were searched.							*/
+	private final long nodes;
+
+	/** The points scored by the moves.										*/
+	private final int score;
+
+	/**
+	 * Instantiates a result.
+	 * @param verdict	Whether or not the game can be won.
+	 * @param moves		The moves that win the game, which are copied.
+	 * @param nodes		The number of positions that were searched.
+	 */
+	public Result(Verdict verdict, List<Move> moves, long nodes){
+		this(verdict, moves, nodes, 0);
+	}
+
+	/**
+	 * Instantiates a result of a game that is scored.
+	 * @param verdict	Whether or not the game can be won.
+	 * @param moves		The moves that were found, which are copied.
+	 * @param nodes		The number of positions that were searched.
+	 * @param score		The points scored by the moves.
+	 */
+	public Result(Verdict verdict, List<Move> moves, long nodes, int score){
+		this.verdict = verdict;
+		this.moves = Collections.unmodifiableList(new ArrayList<Move>(moves));
+		this.nodes = nodes;
+		this.score = score;
+	}
+
+	/**
+	 * Returns whether or not the game can be won.
+	 */
+	public Verdict getVerdict(){
+		return verdict;
+	}
+
+	/**
+	 * Returns the moves that win the game in the order they are to be applied.
+	 * If the verdict is not {@link Verdict#WIN}, the list is empty unless the
+	 * game is scored, in which case it holds the moves that score the most.
+	 */
+	public List<Move> getMoves(){
+		return moves;
+	}
+
+	/**
+	 * Returns the number of positions that were searched.
+	 */
+	public long getNodes(){
+		return nodes;
+	}
+
+	/**
+	 * Returns the points scored by the moves, or 0 if the game is not scored.
+	 */
+	public int getScore(){
+		return score;
+	}
+
+	@Override
+	public String toString(){
+		return verdict + " in " + moves.size() + " moves (" + nodes + " nodes)";
+	}
+}
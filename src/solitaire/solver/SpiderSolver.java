@@ -0,0 +1,394 @@
+package solitaire.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import card.CardSet;
+import card.Cards;
+import solitaire.engine.Move;
+import solitaire.engine.Pile;
+import solitaire.engine.SpiderState;
+import solitaire.engine.Variant;
+
+/**
+ * Determines whether games of Spider can be won with a beam search. The search
+ * goes one move deeper at a time, and at each depth only the positions that
+ * score best are kept, up to the width of the beam. This works for both the
+ * easy game, in which the colors of a run need not alternate, and the normal
+ * one.
+ * <p>
+ * Positions are recognized by {@link Zobrist#hash(SpiderState)}, which only
+ * counts the face down cards of each tableau, and each is kept at most once. A
+ * full run from King to Ace is always moved to a foundation at once.
+ * <p>
+ * Moves that only split a run are not searched. A position scores higher for
+ * each filled foundation and each empty tableau, and lower for each face down
+ * card, each card of the stock, and each face up card that can not be moved
+ * together with the card below it.
+ * <p>
+ * If no move or position was ever left out and no position is left, then the
+ * game is lost. Otherwise a failed search can not tell, so the verdict is
+ * {@link Result.Verdict#UNKNOWN}. The search also stops once it has searched a
+ * given number of positions or its kept positions would take more than a given
+ * amount of memory. A solver is not thread safe, but {@link #rateDeals} rates
+ * many deals at once on a pool of threads, each with its own solver.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class SpiderSolver {
+	/** About how many bytes a kept position takes, with its cards and moves.*/
+	private static final int NODE_BYTES = 256;
+
+	/**
+	 * A position that is kept in the beam.
+	 */
+	private static class Node {
+		/** The sizes, face down counts and cards of the position's piles.	*/
+		final byte[] layout;
+		/** The position from which this one was reached.					*/
+		final Node parent;
+		/** The moves from the parent to this position.						*/
+		final Move[] moves;
+		/** How good the position looks.										*/
+		final int score;
+
+		Node(byte[] layout, Node parent, Move[] moves, int score){
+			this.layout = layout;
+			this.parent = parent;
+			this.moves = moves;
+			this.score = score;
+		}
+	}
+
+	/** Orders nodes from the lowest score to the highest.					*/
+	private static final Comparator<Node> BY_SCORE = new Comparator<Node>(){
+		public int compare(Node a, Node b){
+			return Integer.compare(a.score, b.score);
+		}
+	};
+
+	/** The number of positions kept at each depth.							*/
+	private final int beamWidth;
+
+	/** The number of positions that may be searched.							*/
+	private final long nodeBudget;
+
+	/** The number of positions that may be kept in all, as allowed by the
+	 *  memory ceiling.														*/
+	private final long keptLimit;
+
+	/** The positions that have been reached.									*/
+	private final TranspositionTable table;
+
+	/** The state in which positions are expanded.							*/
+	private SpiderState state;
+
+	/** The cards of a pile while a position is restored.						*/
+	private final byte[] buffer = new byte[2 * Cards.DECK_SIZE];
+
+	/**
+	 * Instantiates a solver.
+	 * @param beamWidth		The number of positions kept at each depth.
+	 * @param nodeBudget	The number of positions that may be searched.
+	 * @param memoryCeiling	About how many bytes the solver may use. A quarter
+	 * 						of it is used to recognize positions and the rest
+	 * 						to keep them.
+	 * @throws IllegalArgumentException if the beam width is less than 1 or the
+	 * 						memory ceiling does not leave room for a beam.
+	 */
+	public SpiderSolver(int beamWidth, long nodeBudget, long memoryCeiling){
+		if(beamWidth < 1){
+			throw new IllegalArgumentException("The beam width must be positive.");
+		}
+		keptLimit = memoryCeiling * 3/4 / NODE_BYTES;
+		if(keptLimit < beamWidth){
+			throw new IllegalArgumentException("The memory ceiling is too low.");
+		}
+		this.beamWidth = beamWidth;
+		this.nodeBudget = nodeBudget;
+		table = new TranspositionTable((int) Math.min(1 << 26,
+				Math.max(1024, memoryCeiling / 4 / 8)));
+	}
+
+	/**
+	 * Searches the given game. The given state is not changed.
+	 * @return The verdict and, if the game can be won, the moves that win it.
+	 */
+	public Result solve(SpiderState start){
+		state = start.copy();
+		table.clear();
+
+		List<Move> made = new ArrayList<Move>();
+		makeFoundationMoves(made);
+		Node root = new Node(layout(), null, made.toArray(new Move[made.size()]), 0);
+		if(state.isWon()){
+			return win(root, 0);
+		}
+		table.add(Zobrist.hash(state));
+
+		List<Node> beam = Collections.singletonList(root);
+		boolean pruned = false; //Whether any move or position was left out.
+		long nodes = 0, kept = 1;
+		List<Move> moves = new ArrayList<Move>();
+
+		while(!beam.isEmpty()){
+			//The best children, with the worst of them at the head.
+			PriorityQueue<Node> next = new PriorityQueue<Node>(beamWidth + 1, BY_SCORE);
+
+			for(Node node : beam){
+				if(nodes >= nodeBudget){
+					return new Result(Result.Verdict.UNKNOWN, new ArrayList<Move>(), nodes);
+				}
+				restore(node.layout);
+				nodes++;
+
+				moves.clear();
+				state.legalMoves(moves);
+				for(Move move : moves){
+					if(!isWorthSearching(move)){
+						pruned = true;
+						continue;
+					}
+					made.clear();
+					made.add(move);
+					state.apply(move);
+					makeFoundationMoves(made);
+
+					if(state.isWon()){
+						return win(new Node(null, node,
+								made.toArray(new Move[made.size()]), 0), nodes);
+					} else if(table.add(Zobrist.hash(state))){
+						int score = score();
+						if(next.size() < beamWidth){
+							next.add(new Node(layout(), node,
+									made.toArray(new Move[made.size()]), score));
+						} else {
+							pruned = true;
+							if(score > next.peek().score){ //It replaces the worst.
+								next.poll();
+								next.add(new Node(layout(), node,
+										made.toArray(new Move[made.size()]), score));
+							}
+						}
+					}
+					for(int i = 0; i < made.size(); i++){
+						state.undo();
+					}
+				}
+			}
+
+			kept += next.size();
+			if(kept > keptLimit){
+				return new Result(Result.Verdict.UNKNOWN, new ArrayList<Move>(), nodes);
+			}
+			beam = new ArrayList<Node>(next);
+		}
+		return new Result(pruned ? Result.Verdict.UNKNOWN : Result.Verdict.LOSS,
+				new ArrayList<Move>(), nodes);
+	}
+
+	/**
+	 * Returns the result of a win that ends with the given node.
+	 */
+	private Result win(Node last, long nodes){
+		List<Move[]> steps = new ArrayList<Move[]>();
+		for(Node node = last; node != null; node = node.parent){
+			steps.add(node.moves);
+		}
+		Collections.reverse(steps);
+
+		List<Move> moves = new ArrayList<Move>();
+		for(Move[] step : steps){
+			Collections.addAll(moves, step);
+		}
+		return new Result(Result.Verdict.WIN, moves, nodes);
+	}
+
+	/**
+	 * Moves every full run of the current state to a foundation and adds the
+	 * moves to the given list.
+	 */
+	private void makeFoundationMoves(List<Move> made){
+		for(int i = 0; i < state.getTableauCount(); i++){
+			Pile pile = state.pile(i);
+			int bottom = pile.size() - 13; //The position of the run's King.
+			if(bottom < pile.faceDown() || Cards.value(pile.get(bottom)) != 13
+					|| runLength(pile) < 13){
+				continue;
+			}
+			for(int f = state.firstFoundation(); state.isFoundation(f); f++){
+				if(state.pile(f).isEmpty()){
+					Move move = Move.transfer(i, f, 13);
+					state.apply(move);
+					made.add(move);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of cards at the top of the given tableau that may be
+	 * moved together.
+	 */
+	private int runLength(Pile pile){
+		if(pile.isEmpty()){
+			return 0;
+		}
+		int length = 1;
+		for(int i = pile.size() - 1; i > pile.faceDown() && links(pile.get(i - 1),
+				pile.get(i)); i--){
+			length++;
+		}
+		return length;
+	}
+
+	/**
+	 * Determines whether the card <code>upper</code> may be moved together with
+	 * the card <code>lower</code> that is directly below it.
+	 */
+	private boolean links(int lower, int upper){
+		long below = state.isEasy() ? Cards.sequenceBelow(lower)
+				: Cards.alternatingBelow(lower);
+		return CardSet.contains(below, upper);
+	}
+
+	/**
+	 * Determines whether the given move is searched. A whole tableau is not
+	 * moved to an empty one, as that only changes the order of the tableaux.
+	 * Nor is a run split by moving only its top cards: the card that is
+	 * uncovered only takes cards like the ones that were moved, so this seldom
+	 * helps, but leaving it out makes the search much narrower.
+	 */
+	private boolean isWorthSearching(Move move){
+		if(move.getType() != Move.Type.TRANSFER){
+			return true;
+		}
+		Pile from = state.pile(move.getFrom());
+		int bottom = from.size() - move.getCount(); //The position of the bottom
+													//card that is moved.
+		if(state.isTableau(move.getTo()) && state.pile(move.getTo()).isEmpty()
+				&& bottom == 0){
+			return false;
+		}
+		return bottom == 0 || !from.isFaceUp(bottom - 1)
+				|| !links(from.get(bottom - 1), from.get(bottom));
+	}
+
+	/**
+	 * Returns how good the current state looks. Higher is better.
+	 */
+	private int score(){
+		int score = 0;
+		for(int i = 0; i < state.pileCount(); i++){
+			Pile pile = state.pile(i);
+			if(state.isFoundation(i) && !pile.isEmpty()){
+				score += 1000;
+			} else if(i == state.getStock()){
+				score -= 4 * pile.size();
+			} else if(state.isTableau(i) && pile.isEmpty()){
+				score += 30;
+			} else if(state.isTableau(i)){
+				score -= 10 * pile.faceDown();
+				for(int j = pile.faceDown() + 1; j < pile.size(); j++){
+					if(!links(pile.get(j - 1), pile.get(j))){
+						score -= 5;
+					}
+				}
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Returns the sizes, face down counts and cards of the piles of the current
+	 * state.
+	 */
+	private byte[] layout(){
+		int length = 2 * state.pileCount();
+		for(int i = 0; i < state.pileCount(); i++){
+			length += state.pile(i).size();
+		}
+		byte[] layout = new byte[length];
+		int n = 0;
+		for(int i = 0; i < state.pileCount(); i++){
+			Pile pile = state.pile(i);
+			layout[n++] = (byte) pile.size();
+			layout[n++] = (byte) pile.faceDown();
+			for(int j = 0; j < pile.size(); j++){
+				layout[n++] = (byte) pile.get(j);
+			}
+		}
+		return layout;
+	}
+
+	/**
+	 * Sets the piles of the current state to the given layout.
+	 */
+	private void restore(byte[] layout){
+		int n = 0;
+		for(int i = 0; i < state.pileCount(); i++){
+			int size = layout[n++], faceDown = layout[n++];
+			System.arraycopy(layout, n, buffer, 0, size);
+			n += size;
+			state.pile(i).setCards(buffer, size, faceDown);
+		}
+	}
+
+	/**
+	 * Solves the Spider deals of the given seeds (see {@link Variant#deal(long)})
+	 * on a pool of threads, each with its own solver.
+	 * @param easy		Whether the easy game is dealt.
+	 * @param firstSeed	The seed of the first deal.
+	 * @param count		The number of deals, whose seeds follow the first.
+	 * @param threads	The number of threads in the pool.
+	 * @param beamWidth	The beam width of each solver.
+	 * @param nodeBudget The number of positions each deal may search.
+	 * @param memoryCeiling The memory that each solver may use, in bytes.
+	 * @return The result of each deal in the order of their seeds.
+	 * @throws InterruptedException if the thread is interrupted while waiting.
+	 */
+	public static List<Result> rateDeals(final boolean easy, long firstSeed,
+			int count, int threads, final int beamWidth, final long nodeBudget,
+			final long memoryCeiling) throws InterruptedException {
+		final ThreadLocal<SpiderSolver> solvers = new ThreadLocal<SpiderSolver>(){
+			protected SpiderSolver initialValue(){
+				return new SpiderSolver(beamWidth, nodeBudget, memoryCeiling);
+			}
+		};
+		final Variant variant = easy ? Variant.SPIDER_EASY : Variant.SPIDER_HARD;
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Result>> futures = new ArrayList<Future<Result>>(count);
+			for(int i = 0; i < count; i++){
+				final long seed = firstSeed + i;
+				futures.add(pool.submit(new Callable<Result>(){
+					public Result call(){
+						return solvers.get().solve((SpiderState) variant.deal(seed));
+					}
+				}));
+			}
+
+			List<Result> results = new ArrayList<Result>(count);
+			for(Future<Result> future : futures){
+				try {
+					results.add(future.get());
+				} catch(ExecutionException e){
+					throw new IllegalStateException("A deal could not be rated.", e.getCause());
+				}
+			}
+			return results;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}
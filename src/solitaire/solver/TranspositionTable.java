@@ -0,0 +1,109 @@
+package solitaire.solver;
+
+import java.util.Arrays;
+
+/**
+ * A set of position hashes with a fixed size, used by a search to recognize
+ * positions it has already reached. Hashes are held in an open addressing
+ * table of <code>long</code>s so that no objects are created per position.
+ * <p>
+ * When the few slots that a hash may use are all taken, the hash replaces the
+ * one in its first slot. A forgotten position is only searched again, so apart
+ * from a collision of two 64 bit hashes, the table never makes a search skip a
+ * position it has not searched.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class TranspositionTable {
+	/** The number of slots that are tried for each hash.						*/
+	private static final int PROBES = 8;
+
+	/** The hashes that are held. 0 marks an empty slot.						*/
+	private final long[] slots;
+
+	/** The number of slots that hold a hash.									*/
+	private int size;
+
+	/**
+	 * Instantiates an empty table.
+	 * @param capacity The number of hashes that can be held. It is rounded up
+	 * 				   to a power of two.
+	 * @throws IllegalArgumentException if the capacity is less than 1.
+	 */
+	public TranspositionTable(int capacity){
+		if(capacity < 1){
+			throw new IllegalArgumentException("The capacity must be positive.");
+		}
+		int length = 1;
+		while(length < capacity){
+			length *= 2;
+		}
+		slots = new long[length];
+	}
+
+	/**
+	 * Adds the given hash to the table.
+	 * @return <code>true</code> if the hash was not already in the table.
+	 */
+	public boolean add(long hash){
+		if(hash == 0){
+			hash = 1; //0 marks an empty slot.
+		}
+		int mask = slots.length - 1;
+		int index = (int) (hash ^ (hash >>> 32)) & mask;
+		for(int i = 0; i < PROBES; i++){
+			int slot = (index + i) & mask;
+			if(slots[slot] == hash){
+				return false;
+			} else if(slots[slot] == 0){
+				slots[slot] = hash;
+				size++;
+				return true;
+			}
+		}
+		slots[index] = hash; //Every slot was taken, so one is replaced.
+		return true;
+	}
+
+	/**
+	 * Determines whether the given hash is in the table.
+	 */
+	public boolean contains(long hash){
+		if(hash == 0){
+			hash = 1;
+		}
+		int mask = slots.length - 1;
+		int index = (int) (hash ^ (hash >>> 32)) & mask;
+		for(int i = 0; i < PROBES; i++){
+			long slot = slots[(index + i) & mask];
+			if(slot == hash){
+				return true;
+			} else if(slot == 0){
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the number of slots that hold a hash.
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Returns the number of hashes that can be held.
+	 */
+	public int capacity(){
+		return slots.length;
+	}
+
+	/**
+	 * Removes all hashes from the table.
+	 */
+	public void clear(){
+		Arrays.fill(slots, 0);
+		size = 0;
+	}
+}
@@ -0,0 +1,142 @@
+package solitaire.solver;
+
+import solitaire.engine.FreeCellState;
+import solitaire.engine.KlondikeState;
+import solitaire.engine.SpiderState;
+import solitaire.engine.Pile;
+
+/**
+ * Zobrist hashing of game states. Each (kind of pile, position in the pile,
+ * card) has a pseudo-random 64 bit key and a state's hash combines the keys of
+ * all of its cards. The keys are computed when needed with the SplitMix64
+ * finalizer instead of being held in a table.
+ * <p>
+ * The hashes of the tableaux are added rather than combined by their index, so
+ * two states whose tableaux are the same but in a different order have the same
+ * hash. Such states are equivalent, so a search only needs to visit one.
+ *
+ * @author Warren Godone-Maresca
+ */
+public final class Zobrist {
+	/** The kind of a face up card of a tableau.								*/
+	public static final int TABLEAU = 0;
+
+	/** The kind of a face down card of a tableau.							*/
+	public static final int FACE_DOWN = 1;
+
+	/** The kind of a card in a holding cell of FreeCell, whichever cell it is
+	 *  in.																	*/
+	public static final int CELL = 2;
+
+	/** The kind of the top card of a foundation of FreeCell, whichever
+	 *  foundation it is on.												*/
+	public static final int FOUNDATION = 3;
+
+	/** The kind of the first pile that is not a tableau. Pile i is of kind
+	 *  OTHER + i.															*/
+	public static final int OTHER = 4;
+
+	/** Hashing only uses static methods, so no instance is needed.			*/
+	private Zobrist(){}
+
+	/**
+	 * Returns the key of a card in a pile.
+	 * @param kind		The kind of pile.
+	 * @param position	The card's position in the pile where 0 is the bottom.
+	 * @param code		The card's code.
+	 */
+	public static long key(int kind, int position, int code){
+		return mix(((long) kind << 16) | (position << 6) | code);
+	}
+
+	/**
+	 * Returns a pseudo-random number for the given number with the SplitMix64
+	 * finalizer.
+	 */
+	public static long mix(long z){
+		z = (z + 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Returns the hash of a pile. Its face down cards use the key of the kind
+	 * {@link #FACE_DOWN} if the given kind is {@link #TABLEAU}.
+	 */
+	public static long hash(Pile pile, int kind){
+		long hash = 0;
+		for(int i = 0; i < pile.size(); i++){
+			int cardKind = kind == TABLEAU && !pile.isFaceUp(i) ? FACE_DOWN : kind;
+			hash ^= key(cardKind, i, pile.get(i));
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the hash of the given state. The order of its tableaux does not
+	 * change the hash, but the order of its other piles does. The number of
+	 * times the waste was turned over only changes it if that number is limited.
+	 */
+	public static long hash(KlondikeState state){
+		long hash = 0;
+		for(int i = 0; i < state.getTableauCount(); i++){
+			hash += mix(hash(state.pile(i), TABLEAU));
+		}
+		for(int i = state.getTableauCount(); i < state.pileCount(); i++){
+			hash ^= hash(state.pile(i), OTHER + i);
+		}
+		if(state.getRecycleLimit() != Integer.MAX_VALUE){
+			hash ^= mix(-1 - state.getRecycles());
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the hash of the given FreeCell game, in which neither the order of
+	 * the tableaux nor the order of the holding cells changes the hash. Since
+	 * the foundations are only built up by suit, only their top cards are
+	 * hashed.
+	 */
+	public static long hash(FreeCellState state){
+		long hash = 0;
+		for(int i = 0; i < state.pileCount(); i++){
+			Pile pile = state.pile(i);
+			if(state.isTableau(i)){
+				hash += mix(hash(pile, TABLEAU));
+			} else if(pile.isEmpty()){
+				continue;
+			} else if(state.isCell(i)){
+				hash ^= key(CELL, 0, pile.top());
+			} else {
+				hash ^= key(FOUNDATION, 0, pile.top());
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the hash of the given Spider game. Only the number of face down
+	 * cards of each tableau is hashed, not the cards themselves: cards are only
+	 * turned up from the top of a tableau, so two positions of the same deal
+	 * with as many face down cards in each tableau have the same ones. For the
+	 * same reason the stock is hashed by its size and the foundations by how
+	 * many are filled.
+	 */
+	public static long hash(SpiderState state){
+		long hash = 0;
+		int filled = 0; //The number of filled foundations.
+		for(int i = 0; i < state.pileCount(); i++){
+			Pile pile = state.pile(i);
+			if(state.isTableau(i)){
+				hash ^= key(FACE_DOWN, i, pile.faceDown());
+				for(int j = pile.faceDown(); j < pile.size(); j++){
+					hash ^= key(OTHER + i, j, pile.get(j));
+				}
+			} else if(state.isFoundation(i) && !pile.isEmpty()){
+				filled++;
+			}
+		}
+		hash ^= key(FOUNDATION, 0, filled);
+		return hash ^ key(OTHER + state.getStock(), 0, state.pile(state.getStock()).size());
+	}
+}
@@ -0,0 +1,204 @@
+package solitaire;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import solitaire.engine.FreeCellState;
+import solitaire.engine.GameState;
+import solitaire.engine.KlondikeState;
+import solitaire.engine.Move;
+import solitaire.engine.PyramidState;
+import solitaire.engine.SpiderState;
+import solitaire.engine.Variant;
+import solitaire.solver.FreeCellSolver;
+import solitaire.solver.KlondikeSolver;
+import solitaire.solver.PyramidSolver;
+import solitaire.solver.Result;
+import solitaire.solver.SpiderSolver;
+
+/**
+ * Solves seeded deals with the solver of each variant, with the budget that
+ * its game or {@link solitaire.sim.SolverPolicy} uses, then replays every line
+ * that is returned to check that each move is legal and that the line wins if
+ * and only if the deal was reported as won. The lines of Aztec Pyramid must
+ * also score the points that were reported, and a line that does not clear
+ * the pyramid must score the par score, which no line may beat. The Spider
+ * deals are also rated with {@link SpiderSolver#rateDeals} on several threads,
+ * which must give the same results.
+ * <p>
+ * Usage: <code>java solitaire.solverTests [variant] [deals] [first seed]</code>
+ * <br>
+ * The variant is the name of a {@link Variant}. Every variant with a solver is
+ * tested if it is not given.
+ *
+ * @author Warren Godone-Maresca
+ */
+public class solverTests {
+	/** The variants that have a solver.									*/
+	private static final Variant[] SOLVED = {
+		Variant.KLONDIKE, Variant.FREECELL, Variant.SPIDER_EASY,
+		Variant.SPIDER_HARD, Variant.PYRAMID
+	};
+
+	/** The number of threads on which Spider deals are rated.				*/
+	private static final int THREADS = 4;
+
+	/** The number of checks that failed.									*/
+	private static int failed;
+
+	/**
+	 * Solves and replays the deals of each variant, then prints how many were
+	 * won, lost and unknown. Exits with 1 if a check failed.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		Variant[] variants = args.length > 0 ? new Variant[] {Variant.valueOf(args[0])}
+				: SOLVED;
+		int deals = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		long first = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+		for(Variant variant : variants){
+			test(variant, deals, first);
+		}
+
+		if(failed == 0){
+			System.out.println("All checks passed.");
+		} else {
+			System.out.println(failed + " checks failed.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Solves and replays the given number of deals of the given variant.
+	 */
+	private static void test(Variant variant, int deals, long first)
+			throws InterruptedException {
+		List<Result> results = new ArrayList<Result>(deals);
+		int won = 0, lost = 0, unknown = 0;
+		for(long seed = first; seed < first + deals; seed++){
+			GameState state = variant.deal(seed);
+			String error;
+			Result result;
+			if(state instanceof PyramidState){
+				PyramidSolver solver = new PyramidSolver(); //As the game makes one per deal.
+				result = solver.solve((PyramidState) state);
+				error = replay(state, result);
+				if(error == null){
+					error = checkScore((PyramidState) state, result,
+							solver.parScore((PyramidState) state));
+				}
+			} else {
+				result = solve(state);
+				error = replay(state, result);
+			}
+			results.add(result);
+
+			switch(result.getVerdict()){
+			case WIN:
+				won++;
+				break;
+			case LOSS:
+				lost++;
+				break;
+			default:
+				unknown++;
+			}
+			if(error != null){
+				fail(variant + " deal " + seed + ": " + error);
+			}
+		}
+		System.out.println(variant + ": " + deals + " deals, " + won + " won, "
+				+ lost + " lost, " + unknown + " unknown.");
+
+		if(variant == Variant.SPIDER_EASY || variant == Variant.SPIDER_HARD){
+			checkRatedDeals(variant, first, results);
+		}
+	}
+
+	/**
+	 * Rates the deals of the given Spider variant on {@link #THREADS} threads
+	 * and checks that each result is the one that was found by solving the deal
+	 * on its own.
+	 * @param results The results of the deals in the order of their seeds.
+	 */
+	private static void checkRatedDeals(Variant variant, long first,
+			List<Result> results) throws InterruptedException {
+		List<Result> rated = SpiderSolver.rateDeals(variant == Variant.SPIDER_EASY,
+				first, results.size(), THREADS, 100, 50000, 64L << 20);
+		for(int i = 0; i < results.size(); i++){
+			Result expected = results.get(i), actual = rated.get(i);
+			if(actual.getVerdict() != expected.getVerdict()
+					|| !actual.getMoves().equals(expected.getMoves())){
+				fail(variant + " deal " + (first + i) + " was rated " + actual.getVerdict()
+						+ " in " + actual.getMoves().size() + " moves, but solved "
+						+ expected.getVerdict() + " in " + expected.getMoves().size() + " moves.");
+			}
+		}
+	}
+
+	/**
+	 * Solves the given deal with a new solver that has the budget of its game,
+	 * or of the simulator for Spider.
+	 */
+	static Result solve(GameState state){
+		if(state instanceof SpiderState){
+			return new SpiderSolver(100, 50000, 64L << 20).solve((SpiderState) state);
+		} else if(state instanceof FreeCellState){
+			return new FreeCellSolver(200000, 1000).solve((FreeCellState) state);
+		} else if(state instanceof KlondikeState){
+			return new KlondikeSolver(100000, 200).solve((KlondikeState) state);
+		}
+		throw new IllegalArgumentException("No solver for " + state.getClass().getName());
+	}
+
+	/**
+	 * Plays the moves of the given result from the given state, which is not
+	 * changed.
+	 * @return Why the line failed, or <code>null</code> if it is as reported.
+	 */
+	static String replay(GameState start, Result result){
+		GameState state = start.copy();
+		int played = 0;
+		for(Move move : result.getMoves()){
+			if(!state.isLegal(move)){
+				return "move " + played + " (" + move + ") is illegal.";
+			}
+			state.apply(move);
+			played++;
+		}
+		boolean won = result.getVerdict() == Result.Verdict.WIN;
+		if(state.isWon() != won){
+			return "the line of " + played + " moves " + (won ? "does not win" : "wins")
+					+ ", but the deal was reported as " + result.getVerdict() + ".";
+		}
+		return null;
+	}
+
+	/**
+	 * Checks the score of a line of Aztec Pyramid that was replayed.
+	 * @param par The par score of the state.
+	 * @return Why the score is wrong, or <code>null</code> if it is right.
+	 */
+	static String checkScore(PyramidState start, Result result, int par){
+		PyramidState state = start.copy();
+		for(Move move : result.getMoves()){
+			state.apply(move);
+		}
+		boolean won = result.getVerdict() == Result.Verdict.WIN;
+		if(state.getScore() - start.getScore() != result.getScore()){
+			return "the line scores " + (state.getScore() - start.getScore())
+					+ " points, not the " + result.getScore() + " reported.";
+		} else if(result.getScore() > par || (!won && result.getScore() != par)){
+			return "the line scores " + result.getScore() + " points, but par is " + par + ".";
+		}
+		return null;
+	}
+
+	/**
+	 * Prints the given failure and counts it.
+	 */
+	private static void fail(String message){
+		failed++;
+		System.out.println("Failed: " + message);
+	}
+}
@@ -0,0 +1,177 @@
+package solitaire;
+
+import dataStructures.Stack;
+
+/**
+ * Checks the copy-on-write {@link Stack}: that a slice, or the elements taken
+ * by popFrom, and the stack that they came from do not see each other's pushes
+ * and pops, including after the stack is reversed so that it is read with a
+ * negative step.
+ * <p>
+ * Usage: <code>java solitaire.stackTests</code>
+ *
+ * @author Warren Godone-Maresca
+ */
+public class stackTests {
+	/** The number of checks that failed.									*/
+	private static int failed;
+
+	/**
+	 * Runs the checks, then prints how many failed. Exits with 1 if any did.
+	 */
+	public static void main(String[] args){
+		testSliceThenPush();
+		testPopFromThenPush();
+		testReverse();
+		testReverseThenPopFrom();
+
+		System.out.println(failed == 0 ? "All checks passed." : failed + " checks failed.");
+		if(failed > 0){
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * A slice and the stack it came from each keep their elements when the
+	 * other is pushed to or popped.
+	 */
+	public static void testSliceThenPush(){
+		Stack<Integer> stack = stackOf(0, 10);
+		Stack<Integer> slice = stack.slice(6);
+		check("slice", slice, 6, 7, 8, 9);
+
+		slice.push(100);
+		check("stack after the slice is pushed to", stack, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+		stack.push(200);
+		stack.pop();
+		stack.pop();
+		check("slice after the stack is pushed to", slice, 6, 7, 8, 9, 100);
+		check("stack after its pushes and pops", stack, 0, 1, 2, 3, 4, 5, 6, 7, 8);
+
+		Stack<Integer> copy = stack.copy();
+		copy.clear();
+		check("stack after its copy is cleared", stack, 0, 1, 2, 3, 4, 5, 6, 7, 8);
+	}
+
+	/**
+	 * The elements taken by popFrom are not overwritten when the stack is
+	 * pushed to over them, and the stack does not see pushes to them.
+	 */
+	public static void testPopFromThenPush(){
+		Stack<Integer> stack = stackOf(0, 10);
+		Stack<Integer> top = stack.popFrom(7);
+		check("popped elements", top, 7, 8, 9);
+		check("stack after popFrom", stack, 0, 1, 2, 3, 4, 5, 6);
+
+		stack.push(100);
+		stack.push(101);
+		check("popped elements after the stack is pushed to", top, 7, 8, 9);
+		top.push(200);
+		check("stack after the popped elements are pushed to", stack, 0, 1, 2, 3, 4, 5, 6, 100, 101);
+		check("popped elements after they are pushed to", top, 7, 8, 9, 200);
+
+		Stack<Integer> all = stack.popFrom(0);
+		check("stack after all is popped", stack);
+		stack.push(300);
+		check("all popped elements", all, 0, 1, 2, 3, 4, 5, 6, 100, 101);
+		check("stack pushed to after all is popped", stack, 300);
+	}
+
+	/**
+	 * A reversed stack, which is read with a negative step, is read, sliced,
+	 * pushed to and popped in its new order, and its copies are unaffected.
+	 */
+	public static void testReverse(){
+		Stack<Integer> stack = stackOf(0, 5);
+		Stack<Integer> copy = stack.copy();
+		stack.reverse();
+		check("reversed stack", stack, 4, 3, 2, 1, 0);
+		check("copy of the stack before it was reversed", copy, 0, 1, 2, 3, 4);
+		check("slice of the reversed stack", stack.slice(2), 2, 1, 0);
+
+		stack.push(5);
+		check("reversed stack after a push", stack, 4, 3, 2, 1, 0, 5);
+		check("popped from the reversed stack", stack.pop(), 5);
+		check("popped from the reversed stack", stack.pop(), 0);
+
+		check("reverse copy", stack.reverseCopy(), 1, 2, 3, 4);
+		check("stack after its reverse copy", stack, 4, 3, 2, 1);
+		stack.reverse();
+		check("stack reversed twice", stack, 1, 2, 3, 4);
+
+		Stack<Integer> empty = new Stack<Integer>();
+		empty.reverse();
+		empty.push(1);
+		empty.push(2);
+		check("empty stack reversed then pushed to", empty, 1, 2);
+	}
+
+	/**
+	 * The elements taken by popFrom from a reversed stack are in its order,
+	 * and are not overwritten when the stack is pushed to.
+	 */
+	public static void testReverseThenPopFrom(){
+		Stack<Integer> stack = stackOf(0, 8);
+		stack.reverse();
+		Stack<Integer> top = stack.popFrom(5);
+		check("popped from the reversed stack", top, 2, 1, 0);
+		stack.push(100);
+		stack.push(101);
+		check("reversed stack pushed to after popFrom", stack, 7, 6, 5, 4, 3, 100, 101);
+		check("popped elements after the reversed stack is pushed to", top, 2, 1, 0);
+
+		top.reverse();
+		top.push(3);
+		check("popped elements reversed and pushed to", top, 0, 1, 2, 3);
+		check("reversed stack after its popped elements change", stack, 7, 6, 5, 4, 3, 100, 101);
+	}
+
+	/**
+	 * Returns a stack of the integers from <code>from</code> up to but not
+	 * including <code>to</code>, with the last on top.
+	 */
+	private static Stack<Integer> stackOf(int from, int to){
+		Stack<Integer> stack = new Stack<Integer>();
+		for(int i = from; i < to; i++){
+			stack.push(i);
+		}
+		return stack;
+	}
+
+	/**
+	 * Checks that the given stack has the given elements from the bottom up.
+	 */
+	private static void check(String what, Stack<Integer> stack, int... expected){
+		boolean ok = stack.size() == expected.length;
+		for(int i = 0; ok && i < expected.length; i++){
+			ok = stack.get(i) == expected[i];
+		}
+		if(ok && expected.length > 0){
+			ok = stack.peek() == expected[expected.length - 1];
+		}
+		if(!ok){
+			StringBuilder actual = new StringBuilder();
+			for(int i = 0; i < stack.size(); i++){
+				actual.append(i == 0 ? "" : ", ").append(stack.get(i));
+			}
+			fail(what + " is [" + actual + "].");
+		}
+	}
+
+	/**
+	 * Checks that the given value is the expected one.
+	 */
+	private static void check(String what, int actual, int expected){
+		if(actual != expected){
+			fail(what + " is " + actual + ", not " + expected + ".");
+		}
+	}
+
+	/**
+	 * Prints that a check failed and counts it.
+	 */
+	private static void fail(String message){
+		failed++;
+		System.out.println("Failed: " + message);
+	}
+}
@@ -0,0 +1,305 @@
+package solitaire;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Checks the {@link GameJournal} and how the {@link StatisticsStore} keeps its
+ * summaries up to date with it: that a partly written record is cut off, that
+ * only the games after the saved length of the journal are added, that the
+ * summaries are built again when the journal is shorter than they say, and
+ * that files of the first and second versions are upgraded in place. Each
+ * check uses a new temporary directory.
+ * <p>
+ * Usage: <code>java solitaire.statisticsStoreTests</code>
+ *
+ * @author Warren Godone-Maresca
+ */
+public class statisticsStoreTests {
+	/** Starts the file of a store, which is "SOLS" in ASCII.				*/
+	private static final int MAGIC = 0x534F4C53;
+
+	/** The offset of the length of the journal in the header of a store.	*/
+	private static final int JOURNAL_LENGTH = 16;
+
+	/** The number of checks that failed.									*/
+	private static int failed;
+
+	/**
+	 * Runs the checks, then prints how many failed. Exits with 1 if any did.
+	 */
+	public static void main(String[] args) throws IOException {
+		testPartialRecordIsCutOff();
+		testReplayFromSavedLength();
+		testRebuildWhenJournalIsShorter();
+		testUpgrade(1);
+		testUpgrade(2);
+
+		System.out.println(failed == 0 ? "All checks passed." : failed + " checks failed.");
+		System.exit(failed > 0 ? 1 : 0);
+	}
+
+	/**
+	 * A journal whose last record was only partly written is cut to its whole
+	 * records when opened, and the next record is appended after them.
+	 */
+	public static void testPartialRecordIsCutOff() throws IOException {
+		File file = new File(newDirectory(), StatisticsStore.JOURNAL_NAME);
+		GameJournal journal = new GameJournal(file);
+		for(int i = 0; i < 3; i++){
+			journal.append(record(i));
+		}
+		journal.close();
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.seek(raf.length());
+		raf.write(new byte[GameJournal.RECORD_SIZE/2]); //Half of a record.
+		raf.close();
+
+		journal = new GameJournal(file);
+		check(journal.size() == 3, "The journal has " + journal.size()
+				+ " records after a partial one was cut off, not 3.");
+		check(file.length() == 3*GameJournal.RECORD_SIZE, "The journal file has "
+				+ file.length() + " bytes after a partial record was cut off.");
+		journal.append(record(3));
+		List<GameRecord> records = replay(journal, 0);
+		journal.close();
+		check(records.size() == 4, "The journal replays " + records.size()
+				+ " records, not 4.");
+		for(int i = 0; i < records.size(); i++){
+			check(same(records.get(i), record(i)), "Record " + i + " is "
+					+ records.get(i) + ", not " + record(i));
+		}
+	}
+
+	/**
+	 * The games that were added to the journal after the store last saved its
+	 * length are added to the summaries when it is opened, and the others are
+	 * not added again.
+	 */
+	public static void testReplayFromSavedLength() throws IOException {
+		File directory = newDirectory();
+		File file = new File(directory, StatisticsStore.FILE_NAME);
+		StatisticsStore store = new StatisticsStore(file);
+		for(int i = 0; i < 3; i++){
+			store.addFinished(record(i));
+		}
+		store.close();
+		checkFinished(file, 3, "after 3 games were added");
+
+		//The first game is marked lost in the journal, which only shows if the
+		//games that were already summarized are read again.
+		File journalFile = new File(directory, StatisticsStore.JOURNAL_NAME);
+		RandomAccessFile raf = new RandomAccessFile(journalFile, "rw");
+		raf.seek(1);
+		raf.write(0);
+		raf.close();
+
+		//Games appended while the store was closed, as if it stopped first.
+		GameJournal journal = new GameJournal(journalFile);
+		journal.append(record(3));
+		journal.append(record(4));
+		journal.close();
+		checkFinished(file, 5, "after 2 games were added to the journal");
+		store = new StatisticsStore(file);
+		int streak = store.getSummary("Klondike").getWinStreak();
+		store.close();
+		check(streak == 5, "The win streak is " + streak + ", not 5, so the games"
+				+ " before the saved length of the journal were read again.");
+		check(journalLength(file) == 5*GameJournal.RECORD_SIZE, "The store saved "
+				+ journalLength(file) + " as the length of the journal, not "
+				+ 5*GameJournal.RECORD_SIZE + ".");
+		checkFinished(file, 5, "after it was opened again");
+	}
+
+	/**
+	 * The summaries and leaderboards are built again from the journal when it
+	 * is shorter than the length that the store saved.
+	 */
+	public static void testRebuildWhenJournalIsShorter() throws IOException {
+		File directory = newDirectory();
+		File file = new File(directory, StatisticsStore.FILE_NAME);
+		StatisticsStore store = new StatisticsStore(file);
+		for(int i = 0; i < 3; i++){
+			store.addFinished(record(i));
+		}
+		store.close();
+
+		RandomAccessFile raf = new RandomAccessFile(new File(directory,
+				StatisticsStore.JOURNAL_NAME), "rw");
+		raf.setLength(GameJournal.RECORD_SIZE); //Only the first game is left.
+		raf.close();
+
+		store = new StatisticsStore(file);
+		GameStatistics statistics = store.getStatistics("Klondike");
+		store.close();
+		check(statistics.getSummary().getFinished() == 1, "The summary has "
+				+ statistics.getSummary().getFinished()
+				+ " games after the journal was cut to 1.");
+		List<Leaderboard.Entry> scores = statistics.getTopScores().getEntries();
+		check(scores.size() == 1 && scores.get(0).getValue() == record(0).getScore(),
+				"The top scores are " + values(scores) + " after the journal was cut"
+				+ " to 1 game, not [" + record(0).getScore() + "].");
+		check(journalLength(file) == GameJournal.RECORD_SIZE, "The store saved "
+				+ journalLength(file) + " as the length of the cut journal.");
+	}
+
+	/**
+	 * A file of the given earlier version keeps the counts of its games when
+	 * it is upgraded in place, and the summaries are built from the journal.
+	 */
+	public static void testUpgrade(int version) throws IOException {
+		File directory = newDirectory();
+		File file = new File(directory, StatisticsStore.FILE_NAME);
+		GameJournal journal = new GameJournal(new File(directory,
+				StatisticsStore.JOURNAL_NAME));
+		journal.append(record(0));
+		journal.append(record(1));
+		journal.close();
+
+		int headerSize = version == 1 ? 16 : 24;
+		int recordSize = version == 1 ? 32 : 32 + GameSummary.SIZE;
+		int games = StatisticsStore.GAMES.length;
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.writeInt(MAGIC);
+		raf.writeInt(version);
+		raf.writeInt(games);
+		raf.writeInt(recordSize);
+		if(version == 2){
+			raf.writeLong(999); //Not a length of the journal.
+		}
+		for(int game = 0; game < games; game++){
+			raf.seek(headerSize + recordSize*game);
+			raf.writeInt(10 + game);		//Games started,
+			raf.writeInt(5 + game);			//won,
+			raf.writeLong(1000 + game);		//their total time,
+			raf.writeLong(20 + game);		//the best time
+			raf.writeInt(300 + game);		//and the best score.
+			raf.writeInt(0);
+			if(version == 2){
+				raf.write(new byte[GameSummary.SIZE]);
+			}
+		}
+		raf.close();
+
+		StatisticsStore store = new StatisticsStore(file);
+		for(int game = 0; game < games; game++){
+			String name = StatisticsStore.GAMES[game];
+			check(store.getGames(name) == 10 + game && store.getWins(name) == 5 + game
+					&& store.getTotalTime(name) == 1000 + game
+					&& store.getBestTime(name) == 20 + game
+					&& store.getBestRecord(name) == 300 + game,
+					"The counts of " + name + " changed when version " + version
+					+ " was upgraded.");
+		}
+		int finished = store.getSummary("Klondike").getFinished();
+		store.close();
+		check(finished == 2, "The summary has " + finished + " games after version "
+				+ version + " was upgraded, not the 2 of the journal.");
+
+		raf = new RandomAccessFile(file, "r");
+		int savedVersion = raf.readInt() == MAGIC ? raf.readInt() : -1;
+		raf.close();
+		check(savedVersion == 3, "Version " + version + " was saved as version "
+				+ savedVersion + ", not 3.");
+		checkFinished(file, 2, "after version " + version + " was upgraded");
+	}
+
+	/**
+	 * Opens the store of the given file and checks the number of finished
+	 * games of Klondike.
+	 */
+	private static void checkFinished(File file, int expected, String when)
+			throws IOException {
+		StatisticsStore store = new StatisticsStore(file);
+		int finished = store.getSummary("Klondike").getFinished();
+		store.close();
+		check(finished == expected, "The summary has " + finished + " games "
+				+ when + ", not " + expected + ".");
+	}
+
+	/**
+	 * Returns the length of the journal that is saved in the store's header.
+	 */
+	private static long journalLength(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			raf.seek(JOURNAL_LENGTH);
+			return raf.readLong();
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Returns a won game of Klondike that differs for each <code>i</code>.
+	 */
+	private static GameRecord record(int i){
+		return new GameRecord("Klondike", true, 100 + i, 1000000L*i,
+				1000000L*i + 60000 + 1000*i, 50 + i, 500 + 10*i);
+	}
+
+	/**
+	 * Determines whether the given records have the same fields.
+	 */
+	private static boolean same(GameRecord a, GameRecord b){
+		return a.getGameName().equals(b.getGameName()) && a.isWon() == b.isWon()
+				&& a.getDealNumber() == b.getDealNumber()
+				&& a.getStarted() == b.getStarted() && a.getFinished() == b.getFinished()
+				&& a.getMoves() == b.getMoves() && a.getScore() == b.getScore();
+	}
+
+	/**
+	 * Returns the records of the given journal from the given position.
+	 */
+	private static List<GameRecord> replay(GameJournal journal, long from)
+			throws IOException {
+		final List<GameRecord> records = new ArrayList<GameRecord>();
+		journal.replay(from, new Consumer<GameRecord>(){
+			public void accept(GameRecord game){
+				records.add(game);
+			}
+		});
+		return records;
+	}
+
+	/**
+	 * Returns the values of the given leaderboard entries.
+	 */
+	private static List<Long> values(List<Leaderboard.Entry> entries){
+		List<Long> values = new ArrayList<Long>();
+		for(Leaderboard.Entry entry : entries){
+			values.add(entry.getValue());
+		}
+		return values;
+	}
+
+	/**
+	 * Returns a new temporary directory.
+	 */
+	private static File newDirectory() throws IOException {
+		return Files.createTempDirectory("statisticsStoreTests").toFile();
+	}
+
+	/**
+	 * Counts a failure with the given message if the condition is false.
+	 */
+	private static void check(boolean condition, String message){
+		if(!condition){
+			fail(message);
+		}
+	}
+
+	/**
+	 * Prints the given failure and counts it.
+	 */
+	private static void fail(String message){
+		failed++;
+		System.out.println("Failed: " + message);
+	}
+}
@@ -0,0 +1,116 @@
+package solitaire;
+
+import java.util.Random;
+
+import card.Card;
+import card.Shuffler;
+import card.Suit;
+import card.Tableau;
+import dataStructures.Stack;
+
+/**
+ * Checks the runs that a {@link Tableau} keeps of its cards: after each push,
+ * pop, popFrom, reverse, shuffle and setCards, the runs at its top must be
+ * those found by counting its cards again from the top.
+ * <p>
+ * Usage: <code>java solitaire.tableauTests [operations] [seed]</code>
+ *
+ * @author Warren Godone-Maresca
+ */
+public class tableauTests {
+	/** The number of checks that failed.									*/
+	private static int failed;
+
+	/**
+	 * Applies random operations to a tableau, checking its runs after each,
+	 * then prints how many checks failed. Exits with 1 if any did.
+	 */
+	public static void main(String[] args){
+		int operations = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+		Random random = new Random(seed);
+		Tableau tableau = new Tableau(100, 100, 60, 20);
+
+		for(int i = 0; i < operations && failed < 10; i++){
+			String operation;
+			int choice = random.nextInt(20);
+			if(choice < 10 || tableau.isEmpty()){
+				operation = "push";
+				tableau.push(nextCard(tableau, random));
+			} else if(choice < 14){
+				operation = "pop";
+				tableau.pop();
+			} else if(choice < 16){
+				int from = random.nextInt(tableau.size() + 1);
+				operation = "popFrom(" + from + ")";
+				Stack<Card> cards = tableau.popFrom(from);
+				if(random.nextBoolean()){ //Puts them back, as a failed move does.
+					operation += " and append";
+					tableau.appendStack(cards);
+				}
+			} else if(choice < 17){
+				operation = "reverse";
+				tableau.reverse();
+			} else if(choice < 18){
+				operation = "shuffle";
+				tableau.shuffle(new Shuffler(random.nextLong()));
+			} else {
+				Card[] cards = new Card[random.nextInt(14)];
+				Tableau source = new Tableau();
+				for(int j = 0; j < cards.length; j++){
+					source.push(cards[j] = nextCard(source, random));
+				}
+				operation = "setCards(" + cards.length + ")";
+				tableau.setCards(cards);
+			}
+			check(operation, tableau);
+		}
+
+		System.out.println(failed == 0 ? "All checks passed." : failed + " checks failed.");
+		if(failed > 0){
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Returns a random card that often follows the top card of the given
+	 * tableau, so that it has long runs.
+	 */
+	private static Card nextCard(Tableau tableau, Random random){
+		Suit suit = Suit.values()[random.nextInt(4)];
+		int value = 1 + random.nextInt(13);
+		if(!tableau.isEmpty() && tableau.peek().getValue() > 1 && random.nextInt(4) != 0){
+			value = tableau.peek().getValue() - 1;
+		}
+		return new Card(suit, value, 0, 0, 60, false);
+	}
+
+	/**
+	 * Checks that the runs of the given tableau are those counted from its
+	 * cards.
+	 */
+	private static void check(String operation, Tableau tableau){
+		int alternating = 0, sequence = 0, sameSuit = 0;
+		boolean alternates = true, descends = true, suited = true;
+		for(int i = tableau.size() - 1; i >= 0; i--){
+			if(i < tableau.size() - 1){
+				Card card = tableau.get(i), above = tableau.get(i + 1);
+				descends &= card.getValue() == above.getValue() + 1;
+				alternates &= descends
+						&& card.getSuit().getColor() != above.getSuit().getColor();
+				suited &= descends && card.getSuit() == above.getSuit();
+			}
+			alternating += alternates ? 1 : 0;
+			sequence += descends ? 1 : 0;
+			sameSuit += suited ? 1 : 0;
+		}
+		if(tableau.alternatingRun() != alternating || tableau.sequenceRun() != sequence
+				|| tableau.sameSuitRun() != sameSuit){
+			failed++;
+			System.out.println("Failed after " + operation + " with " + tableau.size()
+					+ " cards: runs are " + tableau.alternatingRun() + ", "
+					+ tableau.sequenceRun() + ", " + tableau.sameSuitRun()
+					+ ", not " + alternating + ", " + sequence + ", " + sameSuit + ".");
+		}
+	}
+}